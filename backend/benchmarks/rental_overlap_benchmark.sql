@@ -0,0 +1,99 @@
+-- Benchmark da consulta de conflito de reservas (findOverlappingRentals)
+--
+-- Uso, em um banco MySQL 8 descartável (nunca no banco da aplicação):
+--   mysql -u root -p -e "CREATE DATABASE carrent_bench"
+--   mysql -u root -p carrent_bench < benchmarks/rental_overlap_benchmark.sql
+--
+-- Gera 5 milhões de locações (2.000 veículos x 2.500 locações de 3 dias,
+-- separadas por 4 dias) e compara, para o mesmo veículo e período:
+--   1. o predicado antigo (OR de BETWEENs) com os índices da V3;
+--   2. o predicado semiaberto com o índice (vehicle_id, status, start_date, end_date) da V12.
+-- Para cada caso são exibidos o EXPLAIN ANALYZE (linhas examinadas por etapa)
+-- e os contadores Handler_read_* da sessão.
+
+SET SESSION cte_max_recursion_depth = 10000;
+
+DROP TABLE IF EXISTS bench_rentals;
+CREATE TABLE bench_rentals (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    start_date DATETIME(6) NOT NULL,
+    end_date DATETIME(6) NOT NULL,
+    total_amount DECIMAL(38,2) NOT NULL,
+    status VARCHAR(20) NOT NULL
+);
+
+DROP TABLE IF EXISTS bench_seq;
+CREATE TABLE bench_seq (n INT PRIMARY KEY);
+INSERT INTO bench_seq (n)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 2499)
+SELECT n FROM seq;
+
+-- Uma rodada por veículo mantém cada INSERT em 2.500 linhas por veículo
+DROP PROCEDURE IF EXISTS bench_fill;
+DELIMITER //
+CREATE PROCEDURE bench_fill()
+BEGIN
+    DECLARE v INT DEFAULT 1;
+    WHILE v <= 2000 DO
+        INSERT INTO bench_rentals (id, customer_id, vehicle_id, start_date, end_date, total_amount, status)
+        SELECT (v - 1) * 2500 + s.n + 1,
+               ((v - 1) * 2500 + s.n) % 200000 + 1,
+               v,
+               TIMESTAMP('2000-01-01') + INTERVAL (s.n * 4) DAY,
+               TIMESTAMP('2000-01-01') + INTERVAL (s.n * 4 + 3) DAY,
+               300.00,
+               CASE
+                   WHEN s.n >= 2495 THEN 'PENDING'
+                   WHEN s.n = 2494 THEN 'IN_PROGRESS'
+                   WHEN s.n % 10 = 0 THEN 'CANCELLED'
+                   ELSE 'COMPLETED'
+               END
+        FROM bench_seq s;
+        SET v = v + 1;
+    END WHILE;
+END //
+DELIMITER ;
+
+CALL bench_fill();
+DROP PROCEDURE bench_fill;
+DROP TABLE bench_seq;
+
+-- Período consultado: logo após as locações em andamento do veículo 1000
+SET @vehicle = 1000;
+SET @start = TIMESTAMP('2000-01-01') + INTERVAL (2494 * 4 + 1) DAY;
+SET @end = @start + INTERVAL 5 DAY;
+
+-- 1. Antes: índices da V3 e predicado com BETWEENs
+CREATE INDEX idx_bench_customer ON bench_rentals(customer_id);
+CREATE INDEX idx_bench_vehicle ON bench_rentals(vehicle_id);
+CREATE INDEX idx_bench_status ON bench_rentals(status);
+CREATE INDEX idx_bench_dates ON bench_rentals(start_date, end_date);
+ANALYZE TABLE bench_rentals;
+
+FLUSH STATUS;
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM bench_rentals r
+WHERE r.vehicle_id = @vehicle
+  AND r.status IN ('PENDING', 'IN_PROGRESS')
+  AND ((r.start_date BETWEEN @start AND @end)
+    OR (r.end_date BETWEEN @start AND @end)
+    OR (r.start_date <= @start AND r.end_date >= @end));
+SHOW SESSION STATUS LIKE 'Handler_read%';
+
+-- 2. Depois: índice composto da V12 e predicado semiaberto
+CREATE INDEX idx_bench_vehicle_status_period ON bench_rentals(vehicle_id, status, start_date, end_date);
+DROP INDEX idx_bench_vehicle ON bench_rentals;
+ANALYZE TABLE bench_rentals;
+
+FLUSH STATUS;
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM bench_rentals r
+WHERE r.vehicle_id = @vehicle
+  AND r.status IN ('PENDING', 'IN_PROGRESS')
+  AND r.start_date < @end
+  AND r.end_date > @start;
+SHOW SESSION STATUS LIKE 'Handler_read%';
+
+DROP TABLE bench_rentals;
@@ -0,0 +1,30 @@
+package com.carrent.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página do feed de alterações de uma coleção
+ *
+ * @param <T> Tipo dos itens da coleção
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedResponse<T> {
+    /** Itens criados ou alterados desde o token, a aplicar sobre a cópia local */
+    private List<T> changed;
+    /** Ids removidos desde o token */
+    private List<Long> deleted;
+    /** Token para a próxima chamada */
+    private String token;
+    /** Há mais alterações; chamar de novo com o token devolvido */
+    private boolean hasMore;
+    /** A cópia local deve ser descartada antes de aplicar esta página */
+    private boolean reset;
+}
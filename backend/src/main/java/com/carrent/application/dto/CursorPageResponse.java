@@ -0,0 +1,25 @@
+package com.carrent.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página navegada por cursor: não calcula totais nem pula linhas, então o
+ * custo de cada página independe da posição
+ *
+ * @param <T> Tipo do conteúdo da página
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    /** Cursor para a próxima página; nulo na última */
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,43 @@
+package com.carrent.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupBookingRequest {
+
+    @NotNull(message = "O ID do cliente é obrigatório")
+    @Positive(message = "O ID do cliente deve ser positivo")
+    private Long customerId;
+
+    @NotEmpty(message = "Informe ao menos um veículo")
+    @Size(max = 20, message = "A reserva em grupo aceita no máximo 20 veículos")
+    private List<@NotNull @Positive Long> vehicleIds;
+
+    @NotNull(message = "A data de início é obrigatória")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startDate;
+
+    @NotNull(message = "A data de término é obrigatória")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime endDate;
+
+    /** Troca um veículo ocupado por outro livre da mesma categoria */
+    @Builder.Default
+    private boolean allowSubstitutes = true;
+
+    private String notes;
+}
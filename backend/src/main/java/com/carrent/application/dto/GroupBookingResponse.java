@@ -0,0 +1,31 @@
+package com.carrent.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingResponse {
+
+    private List<RentalDTO> rentals;
+
+    /** Veículos pedidos que estavam ocupados e o substituto de cada um */
+    private List<Substitution> substitutions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Substitution {
+        private Long requestedVehicleId;
+        private String requestedVehiclePlate;
+        private Long assignedVehicleId;
+        private String assignedVehiclePlate;
+    }
+}
@@ -0,0 +1,39 @@
+package com.carrent.application.dto;
+
+import com.carrent.infrastructure.hold.VehicleHold;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldDTO {
+    private UUID id;
+    private String vehiclePlate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime endDate;
+
+    private Instant expiresAt;
+
+    public static HoldDTO fromHold(VehicleHold hold) {
+        return HoldDTO.builder()
+                .id(hold.getId())
+                .vehiclePlate(hold.getVehiclePlate())
+                .startDate(hold.getStartDate())
+                .endDate(hold.getEndDate())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.carrent.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldRequest {
+
+    @NotBlank(message = "Placa do veículo é obrigatória")
+    private String vehiclePlate;
+
+    @NotNull(message = "Data de início é obrigatória")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startDate;
+
+    @NotNull(message = "Data de término é obrigatória")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime endDate;
+
+    /** Duração da reserva; ausente usa o padrão configurado */
+    @Min(value = 1, message = "A reserva deve durar pelo menos 1 minuto")
+    private Integer minutes;
+}
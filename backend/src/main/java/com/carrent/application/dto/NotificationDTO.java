@@ -1,5 +1,6 @@
 package com.carrent.application.dto;
 
+import com.carrent.domain.entity.BroadcastNotification;
 import com.carrent.domain.entity.Notification;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
@@ -18,6 +19,8 @@ public class NotificationDTO {
     private String title;
     private String content;
     private Boolean isRead;
+    /** Enviada a todos (ou a um perfil); marcada como lida em /broadcasts/{id}/read */
+    private Boolean broadcast;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
@@ -29,6 +32,18 @@ public class NotificationDTO {
                 .content(notification.getContent())
                 .isRead(notification.isRead())
                 .createdAt(notification.getCreatedAt())
+                .broadcast(false)
+                .build();
+    }
+
+    public static NotificationDTO fromBroadcast(BroadcastNotification broadcast, boolean read) {
+        return NotificationDTO.builder()
+                .id(broadcast.getId())
+                .title(broadcast.getTitle())
+                .content(broadcast.getContent())
+                .isRead(read)
+                .createdAt(broadcast.getCreatedAt())
+                .broadcast(true)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.carrent.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token para abrir o stream de notificações pela URL, já que o EventSource
+ * do navegador não envia o cabeçalho Authorization
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StreamTokenResponse {
+    private String token;
+    /** Validade em milissegundos; só é conferida ao abrir a conexão */
+    private long expiresIn;
+}
@@ -0,0 +1,49 @@
+package com.carrent.application.dto;
+
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.WaitlistEntry;
+import com.carrent.domain.entity.WaitlistStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDTO {
+    private Long id;
+    private Long customerId;
+    private VehicleCategory category;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime endDate;
+
+    private int priority;
+    private WaitlistStatus status;
+    private Long rentalId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    public static WaitlistEntryDTO fromEntity(WaitlistEntry entry) {
+        return WaitlistEntryDTO.builder()
+                .id(entry.getId())
+                .customerId(entry.getCustomerId())
+                .category(entry.getCategory())
+                .startDate(entry.getStartDate())
+                .endDate(entry.getEndDate())
+                .priority(entry.getPriority())
+                .status(entry.getStatus())
+                .rentalId(entry.getRentalId())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
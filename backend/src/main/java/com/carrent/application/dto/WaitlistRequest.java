@@ -0,0 +1,40 @@
+package com.carrent.application.dto;
+
+import com.carrent.domain.entity.VehicleCategory;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistRequest {
+
+    @NotNull(message = "ID do cliente é obrigatório")
+    private Long customerId;
+
+    @NotNull(message = "Categoria é obrigatória")
+    private VehicleCategory category;
+
+    @NotNull(message = "Data de início é obrigatória")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startDate;
+
+    @NotNull(message = "Data de término é obrigatória")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime endDate;
+
+    /** Maior prioridade é atendida primeiro; empate pela ordem de inscrição */
+    @Min(value = 0, message = "Prioridade mínima é 0")
+    @Max(value = 100, message = "Prioridade máxima é 100")
+    @Builder.Default
+    private int priority = 0;
+}
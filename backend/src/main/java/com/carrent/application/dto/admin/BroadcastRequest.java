@@ -0,0 +1,28 @@
+package com.carrent.application.dto.admin;
+
+import com.carrent.domain.entity.Role;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BroadcastRequest {
+
+    @NotBlank(message = "Título é obrigatório")
+    @Size(max = 255, message = "Título deve ter no máximo 255 caracteres")
+    private String title;
+
+    @NotBlank(message = "Conteúdo é obrigatório")
+    private String content;
+
+    /**
+     * Perfil destinatário; ausente para todos os usuários
+     */
+    private Role targetRole;
+}
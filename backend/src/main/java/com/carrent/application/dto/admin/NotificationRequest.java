@@ -22,7 +22,23 @@ public class NotificationRequest {
     @NotNull(message = "Tipo de notificação é obrigatório")
     private NotificationType type;
 
+    /**
+     * Tipo da notificação e o canal de entrega correspondente; SYSTEM não
+     * tem canal, é gravada na interface na própria requisição
+     */
     public enum NotificationType {
-        SYSTEM
+        SYSTEM(null),
+        EMAIL("email"),
+        WEBHOOK("webhook");
+
+        private final String channel;
+
+        NotificationType(String channel) {
+            this.channel = channel;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
     }
-}
\ No newline at end of file
+}
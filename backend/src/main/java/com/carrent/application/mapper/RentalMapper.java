@@ -2,6 +2,7 @@ package com.carrent.application.mapper;
 
 import com.carrent.application.dto.RentalDTO;
 import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalSnapshot;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -29,6 +30,10 @@ public interface RentalMapper {
 
     List<RentalDTO> toDTOList(List<Rental> entities);
 
+    RentalDTO toDTO(RentalSnapshot view);
+
+    List<RentalDTO> viewsToDTOList(List<? extends RentalSnapshot> views);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "vehicle", ignore = true)
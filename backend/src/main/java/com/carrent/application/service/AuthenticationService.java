@@ -21,6 +21,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -31,7 +32,9 @@ public class AuthenticationService {
         private final JwtService jwtService;
         private final AuthenticationManager authenticationManager;
         private final CustomMetricsService metricsService;
+        private final NotificationService notificationService;
 
+        @Transactional
         public AuthenticationResponse register(RegisterRequest request) {
                 if (userRepository.existsByEmail(request.getEmail())) {
                         throw new DuplicateResourceException("Email já está em uso");
@@ -45,6 +48,7 @@ public class AuthenticationService {
                                 .build();
 
                 userRepository.save(user);
+                notificationService.createCounter(user.getId());
 
                 var jwtToken = jwtService.generateToken(user);
                 var refreshToken = jwtService.generateRefreshToken(user);
@@ -84,6 +88,10 @@ public class AuthenticationService {
         public AuthenticationResponse refreshToken(String refreshToken) {
                 try {
                         Claims claims = jwtService.getAllClaimsFromToken(refreshToken);
+                        // Só o refresh token renova a sessão: tokens de acesso e de stream são recusados
+                        if (!jwtService.isRefreshToken(refreshToken)) {
+                                throw new JwtException("Token não é um refresh token");
+                        }
                         String email = claims.getSubject();
 
                         var user = userRepository.findByEmail(email)
@@ -0,0 +1,217 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.GroupBookingRequest;
+import com.carrent.application.dto.GroupBookingResponse;
+import com.carrent.application.mapper.RentalMapper;
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.VehicleStatus;
+import com.carrent.domain.exception.CustomerNotFoundException;
+import com.carrent.domain.exception.VehicleNotAvailableException;
+import com.carrent.domain.exception.VehicleNotFoundException;
+import com.carrent.domain.repository.CustomerRepository;
+import com.carrent.domain.repository.RentalRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.hold.VehicleHoldRegistry;
+import com.carrent.infrastructure.security.AuthenticationFacade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reserva em grupo: vários veículos para o mesmo cliente e período, tudo ou
+ * nada, numa única transação.
+ * <p>
+ * Os conflitos de todos os candidatos (os veículos pedidos e, se a troca for
+ * permitida, os disponíveis das mesmas categorias) são lidos numa única
+ * consulta. Um veículo pedido que esteja ocupado é trocado pelo candidato
+ * livre da mesma categoria com diária mais próxima. Os veículos escolhidos
+ * são então bloqueados em ordem de id e conferidos de novo antes de as
+ * locações serem gravadas.
+ * <p>
+ * A transação roda em READ COMMITTED: no REPEATABLE READ padrão do MySQL, a
+ * segunda conferência leria o mesmo snapshot da primeira e não veria as
+ * locações gravadas por quem tinha o bloqueio antes. RentalService.create e
+ * RentalService.update bloqueiam o veículo da mesma forma, então essas
+ * operações se excluem.
+ * <p>
+ * Ao contrário de RentalService.create, o cliente pode ter várias locações
+ * abertas: é o caso de uso da reserva em grupo.
+ */
+@Service
+@RequiredArgsConstructor
+public class GroupBookingService {
+
+    private static final List<RentalStatus> ACTIVE_STATUSES = List.of(RentalStatus.PENDING,
+            RentalStatus.IN_PROGRESS);
+
+    private final RentalRepository rentalRepository;
+    private final VehicleRepository vehicleRepository;
+    private final CustomerRepository customerRepository;
+    private final RentalMapper rentalMapper;
+    private final VehicleHoldRegistry vehicleHoldRegistry;
+    private final AuthenticationFacade authenticationFacade;
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public GroupBookingResponse book(GroupBookingRequest request) {
+        LocalDateTime startDate = request.getStartDate();
+        LocalDateTime endDate = request.getEndDate();
+        RentalService.validateRentalDates(startDate, endDate);
+
+        List<Long> requestedIds = request.getVehicleIds();
+        if (new HashSet<>(requestedIds).size() != requestedIds.size()) {
+            throw new IllegalArgumentException("Um mesmo veículo foi pedido mais de uma vez");
+        }
+        Customer customer = customerRepository.findById(request.getCustomerId())
+                .orElseThrow(() -> new CustomerNotFoundException(request.getCustomerId()));
+        Long holderId = authenticationFacade.findCurrentUserId().orElse(null);
+
+        Map<Long, Vehicle> requested = vehicleRepository.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(Vehicle::getId, vehicle -> vehicle));
+        for (Long id : requestedIds) {
+            if (!requested.containsKey(id)) {
+                throw new VehicleNotFoundException(id);
+            }
+        }
+
+        Map<Long, Vehicle> candidates = new LinkedHashMap<>(requested);
+        if (request.isAllowSubstitutes()) {
+            Set<VehicleCategory> categories = requested.values().stream()
+                    .map(Vehicle::getCategory)
+                    .collect(Collectors.toSet());
+            vehicleRepository.findByCategoryInAndAvailableTrue(categories)
+                    .forEach(vehicle -> candidates.putIfAbsent(vehicle.getId(), vehicle));
+        }
+        Set<Long> busy = findBusy(candidates.values(), startDate, endDate, holderId);
+
+        List<Vehicle> assigned = new ArrayList<>(requestedIds.size());
+        List<GroupBookingResponse.Substitution> substitutions = new ArrayList<>();
+        Set<Long> taken = new HashSet<>();
+        for (Long id : requestedIds) {
+            Vehicle vehicle = requested.get(id);
+            if (!busy.contains(id)) {
+                assigned.add(vehicle);
+                continue;
+            }
+            if (!request.isAllowSubstitutes()) {
+                throw new VehicleNotAvailableException(
+                        "O veículo " + vehicle.getPlate() + " não está disponível para o período solicitado");
+            }
+            Vehicle substitute = findSubstitute(vehicle, candidates.values(), requested.keySet(), busy, taken);
+            taken.add(substitute.getId());
+            assigned.add(substitute);
+            substitutions.add(GroupBookingResponse.Substitution.builder()
+                    .requestedVehicleId(vehicle.getId())
+                    .requestedVehiclePlate(vehicle.getPlate())
+                    .assignedVehicleId(substitute.getId())
+                    .assignedVehiclePlate(substitute.getPlate())
+                    .build());
+        }
+
+        lockAndRecheck(assigned, startDate, endDate, holderId);
+
+        List<Rental> rentals = new ArrayList<>(assigned.size());
+        for (Vehicle vehicle : assigned) {
+            // Mesma transição de RentalService.create: reservado, mas ainda
+            // disponível para iniciar a locação
+            vehicle.setStatus(VehicleStatus.RESERVED);
+            vehicle.setAvailable(true);
+            rentals.add(Rental.builder()
+                    .vehicle(vehicle)
+                    .customer(customer)
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .status(RentalStatus.PENDING)
+                    .totalAmount(RentalService.calculateTotalAmount(vehicle.getDailyRate(), startDate, endDate))
+                    .endedEarly(false)
+                    .notes(request.getNotes())
+                    .build());
+        }
+        List<Rental> saved = rentalRepository.saveAll(rentals);
+
+        if (holderId != null) {
+            assigned.forEach(vehicle -> vehicleHoldRegistry.releaseConverted(vehicle.getId(), holderId,
+                    startDate, endDate));
+        }
+        return GroupBookingResponse.builder()
+                .rentals(rentalMapper.toDTOList(saved))
+                .substitutions(substitutions)
+                .build();
+    }
+
+    /**
+     * Veículos indisponíveis, com locação conflitante ou com reserva
+     * provisória de outro usuário; uma consulta para todos em cada caso
+     */
+    private Set<Long> findBusy(Collection<Vehicle> vehicles, LocalDateTime startDate, LocalDateTime endDate,
+            Long holderId) {
+        List<Long> ids = vehicles.stream().map(Vehicle::getId).toList();
+        Set<Long> busy = new HashSet<>(rentalRepository.findConflictingVehicleIds(ids, startDate, endDate,
+                ACTIVE_STATUSES));
+        busy.addAll(vehicleHoldRegistry.findHeldByOthers(ids, startDate, endDate, holderId));
+        for (Vehicle vehicle : vehicles) {
+            if (!Boolean.TRUE.equals(vehicle.getAvailable())) {
+                busy.add(vehicle.getId());
+            }
+        }
+        return busy;
+    }
+
+    private Vehicle findSubstitute(Vehicle vehicle, Collection<Vehicle> candidates, Set<Long> requestedIds,
+            Set<Long> busy, Set<Long> taken) {
+        return candidates.stream()
+                .filter(candidate -> candidate.getCategory() == vehicle.getCategory())
+                .filter(candidate -> !requestedIds.contains(candidate.getId()))
+                .filter(candidate -> !busy.contains(candidate.getId()) && !taken.contains(candidate.getId()))
+                .min(Comparator.comparing((Vehicle candidate) ->
+                                candidate.getDailyRate().subtract(vehicle.getDailyRate()).abs())
+                        .thenComparing(Vehicle::getId))
+                .orElseThrow(() -> new VehicleNotAvailableException("O veículo " + vehicle.getPlate()
+                        + " não está disponível e não há outro da categoria " + vehicle.getCategory()
+                        + " livre para o período solicitado"));
+    }
+
+    /**
+     * Bloqueia os veículos escolhidos em ordem de id e confere de novo os
+     * conflitos: outra reserva pode ter sido gravada entre a primeira leitura
+     * e o bloqueio. Nesse caso a reserva em grupo inteira é recusada, em vez
+     * de buscar substitutos que exigiriam bloqueios fora de ordem. Os
+     * veículos já estavam na sessão, então são relidos depois do bloqueio.
+     */
+    private void lockAndRecheck(List<Vehicle> assigned, LocalDateTime startDate, LocalDateTime endDate,
+            Long holderId) {
+        List<Long> ids = assigned.stream().map(Vehicle::getId).sorted().toList();
+        Map<Long, Vehicle> locked = new HashMap<>();
+        vehicleRepository.findAllByIdForUpdate(ids).forEach(vehicle -> {
+            vehicleRepository.refresh(vehicle);
+            locked.put(vehicle.getId(), vehicle);
+        });
+
+        Set<Long> conflicts = findBusy(locked.values(), startDate, endDate, holderId);
+        if (!conflicts.isEmpty()) {
+            String plates = assigned.stream()
+                    .filter(vehicle -> conflicts.contains(vehicle.getId()))
+                    .map(Vehicle::getPlate)
+                    .collect(Collectors.joining(", "));
+            throw new VehicleNotAvailableException(
+                    "Veículos reservados por outra operação durante a reserva em grupo: " + plates
+                            + ". Tente novamente");
+        }
+    }
+}
@@ -1,30 +1,65 @@
 package com.carrent.application.service;
 
+import com.carrent.application.dto.CursorPageResponse;
 import com.carrent.application.dto.NotificationDTO;
 import com.carrent.application.dto.PageResponse;
+import com.carrent.application.dto.StreamTokenResponse;
+import com.carrent.domain.entity.BroadcastNotification;
+import com.carrent.domain.entity.BroadcastRead;
+import com.carrent.domain.entity.BroadcastRoleCounter;
 import com.carrent.domain.entity.Notification;
+import com.carrent.domain.entity.NotificationCounter;
+import com.carrent.domain.entity.Role;
 import com.carrent.domain.entity.User;
 import com.carrent.domain.exception.ResourceNotFoundException;
+import com.carrent.domain.repository.BroadcastNotificationRepository;
+import com.carrent.domain.repository.BroadcastReadRepository;
+import com.carrent.domain.repository.BroadcastRoleCounterRepository;
+import com.carrent.domain.repository.NotificationCounterRepository;
 import com.carrent.domain.repository.NotificationRepository;
+import com.carrent.infrastructure.notification.NotificationStreamRegistry;
 import com.carrent.infrastructure.security.AuthenticationFacade;
+import com.carrent.infrastructure.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
+    /**
+     * Ordem da caixa de entrada: mais recentes primeiro; no mesmo instante,
+     * diretas antes de broadcasts e ids maiores primeiro
+     */
+    private static final Comparator<NotificationDTO> INBOX_ORDER = Comparator
+            .comparing(NotificationDTO::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(NotificationDTO::getBroadcast)
+            .thenComparing(NotificationDTO::getId, Comparator.reverseOrder());
+
     private final NotificationRepository notificationRepository;
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final BroadcastReadRepository broadcastReadRepository;
+    private final BroadcastRoleCounterRepository broadcastRoleCounterRepository;
     private final AuthenticationFacade authenticationFacade;
+    private final NotificationStreamRegistry streamRegistry;
+    private final JwtService jwtService;
 
     /**
      * Cria uma nova notificação para um usuário
@@ -44,11 +79,94 @@ public class NotificationService {
                 .build();
 
         Notification savedNotification = notificationRepository.save(notification);
+        notificationCounterRepository.incrementUnread(user.getId());
+        streamRegistry.publishAfterCommit(user.getId(), NotificationDTO.fromEntity(savedNotification));
         return savedNotification;
     }
 
     /**
-     * Obtém as notificações do usuário autenticado
+     * Cria uma notificação para todos os usuários de um perfil, ou para todos,
+     * gravando uma única linha
+     * 
+     * @param title      Título da notificação
+     * @param content    Conteúdo da notificação
+     * @param targetRole Perfil destinatário, ou nulo para todos os usuários
+     * @return O broadcast criado
+     */
+    @Transactional
+    public BroadcastNotification createBroadcast(String title, String content, Role targetRole) {
+        List<BroadcastRoleCounter> recipients = broadcastRoleCounterRepository.findForUpdateVisibleTo(targetRole);
+        BroadcastNotification broadcast = broadcastNotificationRepository.save(BroadcastNotification.builder()
+                .title(title)
+                .content(content)
+                .targetRole(targetRole)
+                .build());
+        recipients.forEach(recipient -> recipient.recordSent(broadcast.getId()));
+        streamRegistry.publishBroadcastAfterCommit(targetRole, NotificationDTO.fromBroadcast(broadcast, false));
+        return broadcast;
+    }
+
+    /**
+     * Cria o contador de notificações de um usuário recém-cadastrado; os
+     * broadcasts enviados antes do cadastro contam como lidos
+     * 
+     * @param userId ID do usuário
+     */
+    @Transactional
+    public void createCounter(Long userId) {
+        notificationCounterRepository.createIfAbsent(userId);
+    }
+
+    /**
+     * Ajusta o estado dos broadcasts de um usuário que mudou de perfil: os já
+     * enviados ao novo perfil contam como lidos, como para um usuário novo
+     * 
+     * @param userId ID do usuário
+     * @param role   Novo perfil
+     */
+    @Transactional
+    public void changeRole(Long userId, Role role) {
+        markBroadcastsRead(lockCounter(userId), role);
+    }
+
+    /**
+     * Abre o stream SSE de notificações do usuário autenticado
+     * 
+     * @param lastEventId ID da última notificação recebida, enviado pelo cliente
+     *                    ao reconectar; as posteriores são reenviadas
+     * @return Conexão SSE registrada
+     */
+    // Sem readOnly: o reenvio lê do primário, pois uma réplica atrasada perderia
+    // notificações cujo evento ao vivo saiu antes da reconexão
+    @Transactional
+    public SseEmitter subscribe(Long lastEventId) {
+        User currentUser = authenticationFacade.getCurrentUser();
+        Long userId = currentUser.getId();
+        return streamRegistry.connect(userId, currentUser.getRole(), lastEventId, (afterId, limit) -> notificationRepository
+                .findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, PageRequest.of(0, limit))
+                .stream()
+                .map(NotificationDTO::fromEntity)
+                .toList());
+    }
+
+    /**
+     * Emite o token de stream do usuário autenticado, para o EventSource
+     * passar na URL de /stream
+     */
+    public StreamTokenResponse issueStreamToken() {
+        return StreamTokenResponse.builder()
+                .token(jwtService.generateStreamToken(authenticationFacade.getCurrentUser()))
+                .expiresIn(jwtService.getStreamExpiration())
+                .build();
+    }
+
+    /**
+     * Obtém as notificações do usuário autenticado, diretas e broadcasts.
+     * As duas fontes são lidas desde o início a cada página, por isso o
+     * controlador limita página e tamanho; a navegação profunda fica com
+     * {@link #getUserNotificationsAfter(String, int)}. Não há contagem: o
+     * total informado vai até a página seguinte, quando ela existe, e cresce
+     * conforme o usuário avança.
      * 
      * @param page Número da página
      * @param size Tamanho da página
@@ -56,22 +174,85 @@ public class NotificationService {
      */
     public PageResponse<NotificationDTO> getUserNotifications(int page, int size) {
         User currentUser = authenticationFacade.getCurrentUser();
-        Page<Notification> notificationsPage = notificationRepository.findByUserId(
-                currentUser.getId(),
-                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+        // As duas fontes são intercaladas: cada uma precisa fornecer tudo até o fim da página, e
+        // um item a mais indica se há próxima
+        PageRequest upToPage = PageRequest.of(0, (page + 1) * size + 1);
+        List<Notification> notifications = notificationRepository.findInboxFirstPage(currentUser.getId(), upToPage);
+        List<BroadcastNotification> broadcasts = broadcastNotificationRepository.findVisibleTo(
+                currentUser.getRole(), upToPage);
+
+        List<NotificationDTO> merged = merge(currentUser, notifications, broadcasts);
+        int from = Math.min(page * size, merged.size());
+        int to = Math.min(from + size, merged.size());
+        boolean hasMore = merged.size() > to;
+        long totalElements = hasMore ? (long) to + 1 : to;
+        int totalPages = hasMore ? page + 2 : Math.max(page + 1, (to + size - 1) / size);
+        return PageResponse.<NotificationDTO>builder()
+                .content(merged.subList(from, to))
+                .pageNumber(page)
+                .pageSize(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(page == 0)
+                .last(!hasMore)
+                .build();
+    }
+
+    /**
+     * Obtém uma página das notificações do usuário autenticado a partir de um
+     * cursor, mais recentes primeiro, intercalando diretas e broadcasts.
+     * Diferente da paginação por offset, não conta o total nem percorre as
+     * páginas anteriores.
+     * 
+     * @param cursor Cursor devolvido pela página anterior, ou nulo para a
+     *               primeira página
+     * @param size   Tamanho da página
+     * @return Página de notificações e cursor da próxima
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public CursorPageResponse<NotificationDTO> getUserNotificationsAfter(String cursor, int size) {
+        User currentUser = authenticationFacade.getCurrentUser();
+        InboxCursor position = cursor == null || cursor.isBlank() ? InboxCursor.START : InboxCursor.decode(cursor);
+        // Um item a mais de cada fonte indica se há próxima página
+        PageRequest limit = PageRequest.of(0, size + 1);
 
-        Page<NotificationDTO> dtoPage = notificationsPage.map(NotificationDTO::fromEntity);
-        return PageResponse.fromPage(dtoPage);
+        List<Notification> notifications = position.directCreatedAt() == null
+                ? notificationRepository.findInboxFirstPage(currentUser.getId(), limit)
+                : notificationRepository.findInboxPageAfter(currentUser.getId(),
+                        position.directCreatedAt(), position.directId(), limit);
+        List<BroadcastNotification> broadcasts = position.broadcastCreatedAt() == null
+                ? broadcastNotificationRepository.findVisibleTo(currentUser.getRole(), limit)
+                : broadcastNotificationRepository.findVisibleToAfter(currentUser.getRole(),
+                        position.broadcastCreatedAt(), position.broadcastId(), limit);
+
+        List<NotificationDTO> merged = merge(currentUser, notifications, broadcasts);
+        boolean hasMore = merged.size() > size;
+        List<NotificationDTO> page = hasMore ? merged.subList(0, size) : merged;
+        return CursorPageResponse.<NotificationDTO>builder()
+                .content(page)
+                .nextCursor(hasMore ? position.advance(page).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
-     * Obtém a contagem de notificações não lidas do usuário autenticado
+     * Obtém a contagem de notificações não lidas do usuário autenticado,
+     * incluindo os broadcasts não lidos. São duas leituras por chave, o
+     * contador do usuário e o do perfil, sem contar broadcasts.
      * 
      * @return Número de notificações não lidas
      */
     public long getUnreadNotificationsCount() {
         User currentUser = authenticationFacade.getCurrentUser();
-        return notificationRepository.countByUserIdAndIsRead(currentUser.getId(), false);
+        Optional<NotificationCounter> counter = notificationCounterRepository.findById(currentUser.getId());
+        if (counter.isEmpty()) {
+            // Até o reconciliador criar o contador, a contagem vem da tabela e os broadcasts ficam de fora
+            return notificationRepository.countByUserIdAndIsRead(currentUser.getId(), false);
+        }
+        long broadcasts = broadcastRoleCounterRepository.findById(currentUser.getRole())
+                .map(counter.get()::unreadBroadcasts)
+                .orElse(0L);
+        return counter.get().getUnreadCount() + broadcasts;
     }
 
     /**
@@ -84,30 +265,151 @@ public class NotificationService {
     @Transactional
     public void markNotificationAsRead(Long notificationId) {
         User currentUser = authenticationFacade.getCurrentUser();
-        Notification notification = notificationRepository.findById(notificationId)
+        int marked = notificationRepository.markAsRead(notificationId, currentUser.getId());
+        if (marked == 0) {
+            // Já lida é sucesso; inexistente ou de outro usuário é 404
+            if (!notificationRepository.existsByIdAndUserId(notificationId, currentUser.getId())) {
+                throw new ResourceNotFoundException("Notificação não encontrada");
+            }
+            return;
+        }
+        notificationCounterRepository.findForUpdate(currentUser.getId())
+                .ifPresent(counter -> counter.decrement(marked));
+    }
+
+    /**
+     * Marca um broadcast como lido para o usuário autenticado
+     * 
+     * @param broadcastId ID do broadcast
+     * @throws ResourceNotFoundException se o broadcast não existir ou não for
+     *                                   destinado ao perfil do usuário
+     */
+    @Transactional
+    public void markBroadcastAsRead(Long broadcastId) {
+        User currentUser = authenticationFacade.getCurrentUser();
+        BroadcastNotification broadcast = broadcastNotificationRepository.findById(broadcastId)
+                .filter(candidate -> candidate.isVisibleTo(currentUser.getRole()))
                 .orElseThrow(() -> new ResourceNotFoundException("Notificação não encontrada"));
 
-        // Verificar se a notificação pertence ao usuário autenticado
-        if (!notification.getUser().getId().equals(currentUser.getId())) {
-            throw new ResourceNotFoundException("Notificação não encontrada");
+        // O lock no contador serializa as marcações do usuário
+        NotificationCounter counter = lockCounter(currentUser.getId());
+        BroadcastRead.Key key = new BroadcastRead.Key(currentUser.getId(), broadcast.getId());
+        if (broadcast.getId() > counter.getBroadcastWatermark() && !broadcastReadRepository.existsById(key)) {
+            broadcastReadRepository.save(new BroadcastRead(key));
+            counter.broadcastRead();
         }
-
-        notification.setRead(true);
-        notificationRepository.save(notification);
     }
 
     /**
-     * Marca todas as notificações do usuário autenticado como lidas
+     * Marca todas as notificações do usuário autenticado como lidas,
+     * incluindo os broadcasts
      */
     @Transactional
     public void markAllNotificationsAsRead() {
         User currentUser = authenticationFacade.getCurrentUser();
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(
-                currentUser.getId(), false);
+        int marked = notificationRepository.markAllAsRead(currentUser.getId());
+        NotificationCounter counter = lockCounter(currentUser.getId());
+        // Subtrai em vez de zerar: uma notificação criada em paralelo continua não lida
+        counter.decrement(marked);
+        markBroadcastsRead(counter, currentUser.getRole());
+    }
+
+    private void markBroadcastsRead(NotificationCounter counter, Role role) {
+        BroadcastRoleCounter sent = broadcastRoleCounterRepository.findById(role).orElse(null);
+        if (sent == null) {
+            return;
+        }
+        if (counter.markBroadcastsRead(sent)) {
+            broadcastReadRepository.deleteUpTo(counter.getUserId(), counter.getBroadcastWatermark());
+        }
+        // Um broadcast mais novo que o contador do perfil lido pode já ter sido marcado
+        counter.recountBroadcastReads(
+                broadcastReadRepository.countAbove(counter.getUserId(), counter.getBroadcastWatermark()));
+    }
+
+    private NotificationCounter lockCounter(Long userId) {
+        // Upsert antes do lock: duas transações que criassem a linha colidiriam na chave
+        notificationCounterRepository.createIfAbsent(userId);
+        return notificationCounterRepository.findForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Contador de notificações ausente: " + userId));
+    }
+
+    /**
+     * Intercala as duas fontes na ordem da caixa de entrada, já com o estado de
+     * leitura dos broadcasts
+     */
+    private List<NotificationDTO> merge(User user, List<Notification> notifications,
+            List<BroadcastNotification> broadcasts) {
+        List<NotificationDTO> merged = new ArrayList<>(notifications.size() + broadcasts.size());
+        notifications.forEach(notification -> merged.add(NotificationDTO.fromEntity(notification)));
+        if (!broadcasts.isEmpty()) {
+            long watermark = notificationCounterRepository.findById(user.getId())
+                    .map(NotificationCounter::getBroadcastWatermark)
+                    .orElse(0L);
+            Set<Long> read = new HashSet<>(broadcastReadRepository.findReadAmong(user.getId(),
+                    broadcasts.stream().map(BroadcastNotification::getId).toList()));
+            broadcasts.forEach(broadcast -> merged.add(NotificationDTO.fromBroadcast(broadcast,
+                    broadcast.getId() <= watermark || read.contains(broadcast.getId()))));
+        }
+        merged.sort(INBOX_ORDER);
+        return merged;
+    }
+
+    /**
+     * Posição na caixa de entrada em cada fonte: (createdAt, id) da última
+     * notificação direta e do último broadcast entregues, nulos enquanto a
+     * fonte não entregou nada. Codificada como
+     * "directMicros.directId.broadcastMicros.broadcastId" em Base64 URL-safe.
+     */
+    record InboxCursor(LocalDateTime directCreatedAt, long directId,
+            LocalDateTime broadcastCreatedAt, long broadcastId) {
+
+        private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+        private static final String NONE = "-";
+
+        static final InboxCursor START = new InboxCursor(null, 0, null, 0);
+
+        /**
+         * Posição depois de entregar a página
+         */
+        InboxCursor advance(List<NotificationDTO> page) {
+            InboxCursor next = this;
+            for (NotificationDTO notification : page) {
+                next = Boolean.TRUE.equals(notification.getBroadcast())
+                        ? new InboxCursor(next.directCreatedAt, next.directId,
+                                notification.getCreatedAt(), notification.getId())
+                        : new InboxCursor(notification.getCreatedAt(), notification.getId(),
+                                next.broadcastCreatedAt, next.broadcastId);
+            }
+            return next;
+        }
+
+        String encode() {
+            String raw = micros(directCreatedAt) + "." + directId + "." + micros(broadcastCreatedAt) + "."
+                    + broadcastId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static InboxCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII)
+                        .split("\\.");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException();
+                }
+                return new InboxCursor(fromMicros(parts[0]), Long.parseLong(parts[1]),
+                        fromMicros(parts[2]), Long.parseLong(parts[3]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cursor de notificações inválido");
+            }
+        }
+
+        private static String micros(LocalDateTime value) {
+            return value == null ? NONE : String.valueOf(ChronoUnit.MICROS.between(ORIGIN, value));
+        }
 
-        if (!unreadNotifications.isEmpty()) {
-            unreadNotifications.forEach(notification -> notification.setRead(true));
-            notificationRepository.saveAll(unreadNotifications);
+        private static LocalDateTime fromMicros(String value) {
+            return NONE.equals(value) ? null : ORIGIN.plus(Long.parseLong(value), ChronoUnit.MICROS);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package com.carrent.application.service;
+
+import com.carrent.domain.entity.RentalSnapshot;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.repository.ArchivedRentalRepository;
+import com.carrent.domain.repository.RentalViewRepository;
+import com.carrent.infrastructure.archive.ArchiveProperties;
+import com.carrent.infrastructure.segment.SegmentColumn;
+import com.carrent.infrastructure.segment.SegmentPredicate;
+import com.carrent.infrastructure.segment.SegmentStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Leituras do histórico de locações sobre a rental_view, o rentals_archive e
+ * os segmentos colunares em disco. O arquivo e os segmentos só são
+ * consultados quando a pergunta pode alcançá-los: períodos que começam antes
+ * do horizonte de retenção e status encerrados. Sem início de período, as
+ * listagens ficam nas locações ainda em rentals. Nos segmentos, o filtro
+ * ainda descarta pelo mínimo e máximo os meses que não têm linhas do
+ * resultado.
+ */
+@Service
+@RequiredArgsConstructor
+public class RentalHistoryService {
+
+    private final RentalViewRepository rentalViewRepository;
+    private final ArchivedRentalRepository archivedRentalRepository;
+    private final SegmentStore segmentStore;
+    private final ArchiveProperties archiveProperties;
+
+    // Extremos do DATETIME do MySQL, para as listagens sem período
+    private static final LocalDateTime OPEN_START = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime OPEN_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * Locação que já saiu de rentals
+     */
+    @Transactional(readOnly = true)
+    public Optional<RentalSnapshot> findArchived(Long id) {
+        Optional<RentalSnapshot> archived = archivedRentalRepository.findById(id).map(RentalSnapshot.class::cast);
+        if (archived.isPresent()) {
+            return archived;
+        }
+        return segmentStore.scan(SegmentPredicate.equalTo(SegmentColumn.ID, id)).stream()
+                .map(RentalSnapshot.class::cast)
+                .findFirst();
+    }
+
+    /**
+     * Locações com algum dia dentro de [start, end]; os dois limites são
+     * opcionais, e sem start a busca não sai de rentals
+     */
+    @Transactional(readOnly = true)
+    public List<RentalSnapshot> findAll(LocalDateTime start, LocalDateTime end) {
+        return inPeriod(start, end, rentalViewRepository::findOverlapping, archivedRentalRepository::findOverlapping,
+                SegmentPredicate.all());
+    }
+
+    @Transactional(readOnly = true)
+    public List<RentalSnapshot> findByCustomerId(Long customerId, LocalDateTime start, LocalDateTime end) {
+        return inPeriod(start, end,
+                (from, to) -> rentalViewRepository.findOverlappingByCustomerId(customerId, from, to),
+                (from, to) -> archivedRentalRepository.findOverlappingByCustomerId(customerId, from, to),
+                SegmentPredicate.equalTo(SegmentColumn.CUSTOMER_ID, customerId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RentalSnapshot> findByVehicleId(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        return inPeriod(start, end,
+                (from, to) -> rentalViewRepository.findOverlappingByVehicleId(vehicleId, from, to),
+                (from, to) -> archivedRentalRepository.findOverlappingByVehicleId(vehicleId, from, to),
+                SegmentPredicate.equalTo(SegmentColumn.VEHICLE_ID, vehicleId));
+    }
+
+    /**
+     * Como nas demais listagens, o arquivo e os segmentos só entram para
+     * status encerrados e períodos que começam antes do horizonte
+     */
+    @Transactional(readOnly = true)
+    public List<RentalSnapshot> findByStatus(RentalStatus status, LocalDateTime start, LocalDateTime end) {
+        if (!status.isClosed()) {
+            // Locações em andamento nunca saem de rentals
+            return List.copyOf(rentalViewRepository.findOverlappingByStatus(status,
+                    start != null ? start : OPEN_START, end != null ? end : OPEN_END));
+        }
+        return inPeriod(start, end,
+                (from, to) -> rentalViewRepository.findOverlappingByStatus(status, from, to),
+                (from, to) -> archivedRentalRepository.findOverlappingByStatus(status, from, to),
+                SegmentPredicate.withStatus(status));
+    }
+
+    /**
+     * Locações que têm algum dia dentro de [start, end]. Uma locação arquivada
+     * terminou antes do horizonte, então só pode cruzar períodos que começam
+     * antes dele; o mesmo vale para os segmentos, que vêm do arquivo.
+     */
+    @Transactional(readOnly = true)
+    public List<RentalSnapshot> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        return findAll(start, end);
+    }
+
+    /**
+     * Limites em aberto viram datas que o banco aceita. O arquivo e os
+     * segmentos entram só quando o período começa antes do horizonte; a faixa
+     * de datas vai junto para os segmentos, que descartam os meses fora dela.
+     */
+    private List<RentalSnapshot> inPeriod(LocalDateTime start, LocalDateTime end, PeriodQuery live,
+            PeriodQuery archived, SegmentPredicate filter) {
+        LocalDateTime from = start != null ? start : OPEN_START;
+        LocalDateTime to = end != null ? end : OPEN_END;
+        if (start == null || !start.isBefore(archiveProperties.horizon())) {
+            return List.copyOf(live.find(from, to));
+        }
+        return union(live.find(from, to), archived.find(from, to),
+                segmentStore.scan(SegmentPredicate.overlapping(from, to).and(filter)));
+    }
+
+    @FunctionalInterface
+    private interface PeriodQuery {
+        List<? extends RentalSnapshot> find(LocalDateTime start, LocalDateTime end);
+    }
+
+    /**
+     * Junta as fontes pelo id, da mais recente para a mais antiga: uma locação
+     * sendo arquivada ou exportada durante a leitura pode aparecer em duas
+     */
+    @SafeVarargs
+    private List<RentalSnapshot> union(List<? extends RentalSnapshot> hot, List<? extends RentalSnapshot>... older) {
+        Map<Long, RentalSnapshot> byId = new LinkedHashMap<>();
+        hot.forEach(rental -> byId.put(rental.getId(), rental));
+        for (List<? extends RentalSnapshot> source : older) {
+            source.forEach(rental -> byId.putIfAbsent(rental.getId(), rental));
+        }
+        return new ArrayList<>(byId.values());
+    }
+}
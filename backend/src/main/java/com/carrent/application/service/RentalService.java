@@ -14,13 +14,16 @@ import com.carrent.domain.exception.VehicleNotFoundException;
 import com.carrent.domain.repository.RentalRepository;
 import com.carrent.domain.repository.VehicleRepository;
 import com.carrent.domain.repository.CustomerRepository;
-import com.carrent.infrastructure.metrics.CustomMetricsService;
+import com.carrent.infrastructure.hold.VehicleHoldRegistry;
+import com.carrent.infrastructure.security.AuthenticationFacade;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -30,43 +33,42 @@ import java.math.RoundingMode;
 public class RentalService {
 
     private final RentalRepository rentalRepository;
+    private final RentalHistoryService rentalHistoryService;
     private final VehicleRepository vehicleRepository;
     private final CustomerRepository customerRepository;
     private final RentalMapper rentalMapper;
-    private final CustomMetricsService metricsService;
+    private final VehicleHoldRegistry vehicleHoldRegistry;
+    private final AuthenticationFacade authenticationFacade;
 
     private static final int MAX_RENTAL_DAYS = 30;
     private static final int MIN_RENTAL_DAYS = 1;
 
     @Transactional(readOnly = true)
-    public List<RentalDTO> findAll() {
-        List<Rental> rentals = rentalRepository.findAllWithCustomersAndVehicles();
-        return rentalMapper.toDTOList(rentals);
+    public List<RentalDTO> findAll(LocalDateTime start, LocalDateTime end) {
+        return rentalMapper.viewsToDTOList(rentalHistoryService.findAll(start, end));
     }
 
     @Transactional(readOnly = true)
     public RentalDTO findById(Long id) {
-        Rental rental = rentalRepository.findByIdWithVehicleAndCustomer(id)
+        return rentalRepository.findByIdWithVehicleAndCustomer(id)
+                .map(rentalMapper::toDTO)
+                .or(() -> rentalHistoryService.findArchived(id).map(rentalMapper::toDTO))
                 .orElseThrow(() -> new RentalNotFoundException(id));
-        return rentalMapper.toDTO(rental);
     }
 
     @Transactional(readOnly = true)
-    public List<RentalDTO> findByCustomerId(Long customerId) {
-        List<Rental> rentals = rentalRepository.findByCustomerId(customerId);
-        return rentalMapper.toDTOList(rentals);
+    public List<RentalDTO> findByCustomerId(Long customerId, LocalDateTime start, LocalDateTime end) {
+        return rentalMapper.viewsToDTOList(rentalHistoryService.findByCustomerId(customerId, start, end));
     }
 
     @Transactional(readOnly = true)
-    public List<RentalDTO> findByVehicleId(Long vehicleId) {
-        List<Rental> rentals = rentalRepository.findByVehicleId(vehicleId);
-        return rentalMapper.toDTOList(rentals);
+    public List<RentalDTO> findByVehicleId(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        return rentalMapper.viewsToDTOList(rentalHistoryService.findByVehicleId(vehicleId, start, end));
     }
 
     @Transactional(readOnly = true)
-    public List<RentalDTO> findByStatus(RentalStatus status) {
-        List<Rental> rentals = rentalRepository.findByStatus(status);
-        return rentalMapper.toDTOList(rentals);
+    public List<RentalDTO> findByStatus(RentalStatus status, LocalDateTime start, LocalDateTime end) {
+        return rentalMapper.viewsToDTOList(rentalHistoryService.findByStatus(status, start, end));
     }
 
     @Transactional(readOnly = true)
@@ -74,20 +76,21 @@ public class RentalService {
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("A data de início deve ser anterior à data de término");
         }
-        List<Rental> rentals = rentalRepository.findByStartDateBetweenOrEndDateBetween(start, end);
-        return rentalMapper.toDTOList(rentals);
+        return rentalMapper.viewsToDTOList(rentalHistoryService.findOverlapping(start, end));
     }
 
-    @Transactional
+    // READ COMMITTED: a conferência de conflitos depois do bloqueio precisa
+    // ver as locações gravadas por quem tinha o bloqueio antes
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public RentalDTO create(RentalDTO rentalDTO) {
         validateRentalDates(rentalDTO.getStartDate(), rentalDTO.getEndDate());
-        validateVehicleAvailability(rentalDTO.getVehiclePlate(), rentalDTO.getStartDate(), rentalDTO.getEndDate());
-
-        Vehicle vehicle = findVehicleByPlate(rentalDTO.getVehiclePlate());
+        lockVehicles(findVehicleByPlate(rentalDTO.getVehiclePlate()));
+        Vehicle vehicle = validateVehicleAvailability(rentalDTO.getVehiclePlate(), rentalDTO.getStartDate(),
+                rentalDTO.getEndDate());
         Customer customer = findCustomerById(rentalDTO.getCustomerId());
 
         // Verificar se o cliente já possui algum aluguel em andamento
-        if (rentalRepository.hasActiveRentals(customer.getId())) {
+        if (customerRepository.hasActiveRentals(customer.getId())) {
             throw new IllegalStateException(
                     "O cliente já possui um aluguel em andamento e não pode alugar outro veículo");
         }
@@ -106,10 +109,23 @@ public class RentalService {
         vehicleRepository.updateStatus(VehicleStatus.RESERVED, true, vehicle.getId());
 
         Rental savedRental = rentalRepository.save(rental);
+        releaseConvertedHolds(vehicle.getId(), rentalDTO.getStartDate(), rentalDTO.getEndDate());
         return rentalMapper.toDTO(savedRental);
     }
 
-    @Transactional
+    /**
+     * Confere datas e disponibilidade do veículo sem criar a locação; usado
+     * antes de conceder uma reserva provisória
+     */
+    @Transactional(readOnly = true)
+    public Vehicle checkBookable(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate) {
+        validateRentalDates(startDate, endDate);
+        return validateVehicleAvailability(vehiclePlate, startDate, endDate);
+    }
+
+    // Como em create: o novo período e o novo veículo são conferidos depois
+    // do bloqueio, em READ COMMITTED
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public RentalDTO update(Long id, RentalDTO rentalDTO) {
         Rental rental = findRentalById(id);
 
@@ -118,9 +134,10 @@ public class RentalService {
         }
 
         validateRentalDates(rentalDTO.getStartDate(), rentalDTO.getEndDate());
-        validateVehicleAvailability(rentalDTO.getVehiclePlate(), rentalDTO.getStartDate(), rentalDTO.getEndDate(), id);
-
-        Vehicle vehicle = findVehicleByPlate(rentalDTO.getVehiclePlate());
+        // Com a troca de veículo, os dois ficam bloqueados, em ordem de id
+        lockVehicles(rental.getVehicle(), findVehicleByPlate(rentalDTO.getVehiclePlate()));
+        Vehicle vehicle = validateVehicleAvailability(rentalDTO.getVehiclePlate(), rentalDTO.getStartDate(),
+                rentalDTO.getEndDate(), id);
         Customer customer = findCustomerById(rentalDTO.getCustomerId());
 
         rentalMapper.updateEntity(rental, rentalDTO);
@@ -159,9 +176,6 @@ public class RentalService {
         // Atualiza o status do aluguel e do veículo diretamente no banco de dados
         rentalRepository.updateStatus(RentalStatus.IN_PROGRESS, id);
         vehicleRepository.updateStatus(VehicleStatus.RENTED, false, vehicle.getId());
-
-        // Atualiza métricas
-        metricsService.incrementActiveRentals();
     }
 
     @Transactional
@@ -184,9 +198,6 @@ public class RentalService {
         // Atualiza o status do aluguel e do veículo diretamente no banco de dados
         rentalRepository.updateStatusAndReturnDate(RentalStatus.COMPLETED, LocalDateTime.now(), id);
         vehicleRepository.updateStatus(VehicleStatus.AVAILABLE, true, vehicle.getId());
-
-        // Atualiza métricas
-        metricsService.decrementActiveRentals();
     }
 
     @Transactional
@@ -238,9 +249,6 @@ public class RentalService {
 
         // Liberar o veículo
         vehicleRepository.updateStatus(VehicleStatus.AVAILABLE, true, vehicle.getId());
-
-        // Atualiza métricas
-        metricsService.decrementActiveRentals();
     }
 
     @Transactional
@@ -315,14 +323,14 @@ public class RentalService {
 
         // Verificar disponibilidade do veículo no novo período
         List<RentalStatus> activeStatuses = List.of(RentalStatus.PENDING, RentalStatus.IN_PROGRESS);
-        List<Rental> overlappingRentals = rentalRepository.findOverlappingRentals(
+        boolean overlapping = rentalRepository.hasOverlappingRentals(
                 vehicle.getId(),
                 rental.getEndDate(),
                 newEndDate,
                 id, // excluir o próprio aluguel atual
                 activeStatuses);
 
-        if (!overlappingRentals.isEmpty()) {
+        if (overlapping) {
             throw new VehicleNotAvailableException(
                     "Não é possível estender o aluguel pois o veículo já está reservado para o período solicitado");
         }
@@ -354,7 +362,7 @@ public class RentalService {
                 .orElseThrow(() -> new CustomerNotFoundException(id));
     }
 
-    private void validateRentalDates(LocalDateTime startDate, LocalDateTime endDate) {
+    static void validateRentalDates(LocalDateTime startDate, LocalDateTime endDate) {
         LocalDateTime now = LocalDateTime.now();
 
         if (startDate.isBefore(now)) {
@@ -383,11 +391,11 @@ public class RentalService {
         }
     }
 
-    private void validateVehicleAvailability(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate) {
-        validateVehicleAvailability(vehiclePlate, startDate, endDate, null);
+    private Vehicle validateVehicleAvailability(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate) {
+        return validateVehicleAvailability(vehiclePlate, startDate, endDate, null);
     }
 
-    private void validateVehicleAvailability(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate,
+    private Vehicle validateVehicleAvailability(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate,
             Long excludeRentalId) {
         Vehicle vehicle = findVehicleByPlate(vehiclePlate);
 
@@ -395,15 +403,45 @@ public class RentalService {
             throw new VehicleNotAvailableException("O veículo não está disponível para locação");
         }
 
+        // Com o veículo bloqueado, nenhuma reserva provisória sobreposta pode
+        // ser gravada até o fim da transação
+        Long currentUserId = authenticationFacade.findCurrentUserId().orElse(null);
+        if (vehicleHoldRegistry.isHeldByOthers(vehicle.getId(), startDate, endDate, currentUserId)) {
+            throw new VehicleNotAvailableException(
+                    "O veículo está reservado por outro cliente para o período solicitado");
+        }
+
+        // Sem compromissos abertos que terminem depois do início pedido, não há
+        // o que sobrepor: dispensa a busca por locações conflitantes
+        LocalDateTime nextFreeAt = vehicleRepository.findNextFreeAt(vehicle.getId()).orElse(null);
+        if (nextFreeAt == null || !nextFreeAt.isAfter(startDate)) {
+            return vehicle;
+        }
+
         List<RentalStatus> activeStatuses = List.of(RentalStatus.PENDING, RentalStatus.IN_PROGRESS);
-        List<Rental> overlappingRentals = rentalRepository.findOverlappingRentals(vehicle.getId(), startDate, endDate,
-                excludeRentalId, activeStatuses);
-        if (!overlappingRentals.isEmpty()) {
+        if (rentalRepository.hasOverlappingRentals(vehicle.getId(), startDate, endDate, excludeRentalId,
+                activeStatuses)) {
             throw new VehicleNotAvailableException("O veículo não está disponível para o período solicitado");
         }
+        return vehicle;
+    }
+
+    /**
+     * Bloqueia os veículos até o fim da transação, em ordem de id como a
+     * reserva em grupo, e relê o seu estado, que pode ter mudado desde que
+     * entraram na sessão
+     */
+    private void lockVehicles(Vehicle... vehicles) {
+        List<Long> ids = Arrays.stream(vehicles).map(Vehicle::getId).distinct().toList();
+        vehicleRepository.findAllByIdForUpdate(ids).forEach(vehicleRepository::refresh);
+    }
+
+    private void releaseConvertedHolds(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        authenticationFacade.findCurrentUserId().ifPresent(userId ->
+                vehicleHoldRegistry.releaseConverted(vehicleId, userId, startDate, endDate));
     }
 
-    private BigDecimal calculateTotalAmount(BigDecimal dailyRate, LocalDateTime startDate, LocalDateTime endDate) {
+    static BigDecimal calculateTotalAmount(BigDecimal dailyRate, LocalDateTime startDate, LocalDateTime endDate) {
         // Calcular dias (mesmo cálculo usado no frontend)
         // A diferença em dias é arredondada para cima para considerar dias parciais
         // como completos
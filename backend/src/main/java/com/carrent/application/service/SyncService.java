@@ -0,0 +1,165 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.ChangeFeedResponse;
+import com.carrent.application.dto.CustomerDTO;
+import com.carrent.application.dto.RentalDTO;
+import com.carrent.application.dto.VehicleDTO;
+import com.carrent.application.mapper.CustomerMapper;
+import com.carrent.application.mapper.RentalMapper;
+import com.carrent.application.mapper.VehicleMapper;
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.SyncEntityType;
+import com.carrent.domain.entity.SyncTombstone;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.repository.CustomerRepository;
+import com.carrent.domain.repository.RentalRepository;
+import com.carrent.domain.repository.SyncTombstoneRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.sync.SyncProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Feed de alterações de locações, veículos e clientes.
+ * <p>
+ * O token guarda a posição (updatedAt, id) da última linha entregue e o id
+ * do último tombstone, e cada página é uma leitura por faixa dos índices
+ * (updated_at, id) e (entity_type, id). Alterações dos últimos
+ * application.sync.settle-ms ficam para a chamada seguinte, pois uma
+ * transação ainda aberta pode gravar um updatedAt anterior ao da última
+ * linha vista.
+ * <p>
+ * O feed de locações cobre só a tabela rentals. Uma locação arquivada pelo
+ * RentalArchiver aparece em deleted, como uma remoção; quem precisar do
+ * histórico antigo o consulta em /rentals com o início do período.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RentalRepository rentalRepository;
+    private final VehicleRepository vehicleRepository;
+    private final CustomerRepository customerRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final RentalMapper rentalMapper;
+    private final VehicleMapper vehicleMapper;
+    private final CustomerMapper customerMapper;
+    private final SyncProperties properties;
+
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse<RentalDTO> rentalChanges(String token, Integer limit) {
+        return changes(SyncEntityType.RENTAL, token, limit, rentalRepository::findChangedSince,
+                Rental::getUpdatedAt, Rental::getId, rentalMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse<VehicleDTO> vehicleChanges(String token, Integer limit) {
+        return changes(SyncEntityType.VEHICLE, token, limit, vehicleRepository::findChangedSince,
+                Vehicle::getUpdatedAt, Vehicle::getId, vehicleMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse<CustomerDTO> customerChanges(String token, Integer limit) {
+        return changes(SyncEntityType.CUSTOMER, token, limit, customerRepository::findChangedSince,
+                Customer::getUpdatedAt, Customer::getId, customerMapper::toDTO);
+    }
+
+    @FunctionalInterface
+    interface ChangeQuery<E> {
+        List<E> find(LocalDateTime since, Long afterId, LocalDateTime until, Pageable pageable);
+    }
+
+    private <E, D> ChangeFeedResponse<D> changes(SyncEntityType type, String token, Integer limit,
+            ChangeQuery<E> query, Function<E, LocalDateTime> updatedAt, Function<E, Long> id,
+            Function<E, D> mapper) {
+        int pageSize = pageSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.minus(properties.getSettleMs(), ChronoUnit.MILLIS);
+
+        SyncToken position = token == null || token.isBlank() ? null : SyncToken.decode(token);
+        boolean reset = position == null
+                || position.issuedAt().isBefore(now.minusDays(properties.getTombstoneRetentionDays()));
+        if (reset) {
+            position = new SyncToken(ORIGIN, 0L, syncTombstoneRepository.findLastRecordedBefore(until), now);
+        }
+
+        Pageable page = PageRequest.of(0, pageSize);
+        List<E> changed = query.find(position.since(), position.afterId(), until, page);
+        List<SyncTombstone> deleted = reset ? List.of()
+                : syncTombstoneRepository.findRecordedSince(type, position.tombstoneId(), until, page);
+
+        LocalDateTime since = position.since();
+        long afterId = position.afterId();
+        if (!changed.isEmpty()) {
+            E last = changed.get(changed.size() - 1);
+            since = updatedAt.apply(last);
+            afterId = id.apply(last);
+        }
+        long tombstoneId = deleted.isEmpty() ? position.tombstoneId() : deleted.get(deleted.size() - 1).getId();
+
+        return ChangeFeedResponse.<D>builder()
+                .changed(changed.stream().map(mapper).toList())
+                .deleted(deleted.stream().map(SyncTombstone::getEntityId).toList())
+                .token(new SyncToken(since, afterId, tombstoneId, now).encode())
+                .hasMore(changed.size() == pageSize || deleted.size() == pageSize)
+                .reset(reset)
+                .build();
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return properties.getDefaultPageSize();
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("O limite deve ser maior que zero");
+        }
+        return Math.min(limit, properties.getMaxPageSize());
+    }
+
+    /**
+     * Posição de um cliente no feed. Opaco para o cliente: texto
+     * "sinceMicros.afterId.tombstoneId.issuedMicros" em Base64 URL-safe.
+     */
+    record SyncToken(LocalDateTime since, long afterId, long tombstoneId, LocalDateTime issuedAt) {
+
+        String encode() {
+            String raw = micros(since) + "." + afterId + "." + tombstoneId + "." + micros(issuedAt);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static SyncToken decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII)
+                        .split("\\.");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException();
+                }
+                return new SyncToken(fromMicros(Long.parseLong(parts[0])), Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]), fromMicros(Long.parseLong(parts[3])));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Token de sincronização inválido");
+            }
+        }
+
+        private static long micros(LocalDateTime value) {
+            return ChronoUnit.MICROS.between(ORIGIN, value);
+        }
+
+        private static LocalDateTime fromMicros(long micros) {
+            return ORIGIN.plus(micros, ChronoUnit.MICROS);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.HoldDTO;
+import com.carrent.application.dto.HoldRequest;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.infrastructure.hold.HoldProperties;
+import com.carrent.infrastructure.hold.VehicleHold;
+import com.carrent.infrastructure.hold.VehicleHoldRegistry;
+import com.carrent.infrastructure.security.AuthenticationFacade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reservas provisórias: seguram o veículo enquanto o cliente conclui a
+ * locação. Enquanto a reserva vale, RentalService recusa locações de outros
+ * usuários para o período.
+ */
+@Service
+@RequiredArgsConstructor
+public class VehicleHoldService {
+
+    private final RentalService rentalService;
+    private final VehicleHoldRegistry vehicleHoldRegistry;
+    private final HoldProperties holdProperties;
+    private final AuthenticationFacade authenticationFacade;
+
+    public HoldDTO place(HoldRequest request) {
+        Long userId = authenticationFacade.getCurrentUserId();
+        Vehicle vehicle = rentalService.checkBookable(request.getVehiclePlate(), request.getStartDate(),
+                request.getEndDate());
+        int minutes = request.getMinutes() != null ? request.getMinutes() : holdProperties.getDurationMinutes();
+        VehicleHold hold = vehicleHoldRegistry.place(vehicle.getId(), vehicle.getPlate(), userId,
+                request.getStartDate(), request.getEndDate(), minutes);
+        return HoldDTO.fromHold(hold);
+    }
+
+    public List<HoldDTO> findMine() {
+        return vehicleHoldRegistry.findByHolder(authenticationFacade.getCurrentUserId()).stream()
+                .map(HoldDTO::fromHold)
+                .toList();
+    }
+
+    public void release(UUID id) {
+        vehicleHoldRegistry.release(id, authenticationFacade.getCurrentUserId());
+    }
+}
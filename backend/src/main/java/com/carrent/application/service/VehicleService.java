@@ -8,6 +8,7 @@ import com.carrent.domain.entity.VehicleStatus;
 import com.carrent.domain.exception.DuplicateResourceException;
 import com.carrent.domain.exception.VehicleNotFoundException;
 import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.annotation.SingleFlight;
 import com.carrent.infrastructure.metrics.CustomMetricsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -40,6 +41,7 @@ public class VehicleService {
                 .orElseThrow(() -> new VehicleNotFoundException(plate));
     }
 
+    @SingleFlight
     @Transactional(readOnly = true)
     public List<VehicleDTO> findAvailable() {
         List<VehicleDTO> availableVehicles = vehicleMapper.toDTOList(vehicleRepository.findByAvailableTrue());
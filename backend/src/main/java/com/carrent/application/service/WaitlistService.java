@@ -0,0 +1,72 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.WaitlistEntryDTO;
+import com.carrent.application.dto.WaitlistRequest;
+import com.carrent.domain.entity.WaitlistEntry;
+import com.carrent.domain.entity.WaitlistStatus;
+import com.carrent.domain.exception.CustomerNotFoundException;
+import com.carrent.domain.exception.ResourceNotFoundException;
+import com.carrent.domain.repository.CustomerRepository;
+import com.carrent.domain.repository.WaitlistEntryRepository;
+import com.carrent.infrastructure.security.AuthenticationFacade;
+import com.carrent.infrastructure.waitlist.WaitlistProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inscrições na lista de espera por categoria e período. A atribuição de
+ * veículos é feita pelo WaitlistMatcher quando um evento de locação libera
+ * um período; ele lê as inscrições direto da tabela.
+ */
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final CustomerRepository customerRepository;
+    private final WaitlistProperties waitlistProperties;
+    private final AuthenticationFacade authenticationFacade;
+
+    @Transactional
+    public WaitlistEntryDTO register(WaitlistRequest request) {
+        RentalService.validateRentalDates(request.getStartDate(), request.getEndDate());
+        if (!customerRepository.existsById(request.getCustomerId())) {
+            throw new CustomerNotFoundException(request.getCustomerId());
+        }
+        long waiting = waitlistEntryRepository.countByCustomerIdAndStatus(request.getCustomerId(),
+                WaitlistStatus.WAITING);
+        if (waiting >= waitlistProperties.getMaxEntriesPerCustomer()) {
+            throw new IllegalStateException("Limite de " + waitlistProperties.getMaxEntriesPerCustomer()
+                    + " inscrições na lista de espera atingido para o cliente");
+        }
+
+        WaitlistEntry entry = waitlistEntryRepository.save(WaitlistEntry.builder()
+                .customerId(request.getCustomerId())
+                .userId(authenticationFacade.getCurrentUserId())
+                .category(request.getCategory())
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .priority(request.getPriority())
+                .build());
+        return WaitlistEntryDTO.fromEntity(entry);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDTO> findMine() {
+        return waitlistEntryRepository.findByUserIdAndStatusOrderByStartDate(
+                        authenticationFacade.getCurrentUserId(), WaitlistStatus.WAITING).stream()
+                .map(WaitlistEntryDTO::fromEntity)
+                .toList();
+    }
+
+    @Transactional
+    public void cancel(Long id) {
+        if (waitlistEntryRepository.cancel(id, authenticationFacade.getCurrentUserId(), LocalDateTime.now()) == 0) {
+            throw new ResourceNotFoundException("Inscrição na lista de espera não encontrada: " + id);
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.carrent.application.service.admin;
 
 import com.carrent.application.dto.UserDTO;
+import com.carrent.application.dto.admin.BroadcastRequest;
 import com.carrent.application.dto.admin.NotificationRequest;
 import com.carrent.application.dto.admin.UserCreateRequest;
 import com.carrent.application.dto.admin.UserUpdateRequest;
+import com.carrent.application.service.NotificationService;
 import com.carrent.domain.entity.Role;
 import com.carrent.domain.entity.User;
 import com.carrent.domain.exception.DuplicateResourceException;
 import com.carrent.domain.exception.ResourceNotFoundException;
 import com.carrent.domain.repository.UserRepository;
 import com.carrent.infrastructure.notification.SystemNotificationService;
+import com.carrent.infrastructure.notification.delivery.NotificationDispatcher;
 import com.carrent.infrastructure.security.AuthenticationFacade;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,7 +32,9 @@ public class AdminUserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final SystemNotificationService systemNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final AuthenticationFacade authenticationFacade;
+    private final NotificationService notificationService;
 
     /**
      * Obtém todos os usuários normais do sistema (não administradores),
@@ -99,6 +104,7 @@ public class AdminUserService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        notificationService.createCounter(savedUser.getId());
         return mapToDTO(savedUser);
     }
 
@@ -130,6 +136,9 @@ public class AdminUserService {
             throw new DuplicateResourceException("Já existe um usuário com o email: " + request.getEmail());
         }
 
+        if (user.getRole() != request.getRole()) {
+            notificationService.changeRole(user.getId(), request.getRole());
+        }
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setRole(request.getRole());
@@ -165,18 +174,36 @@ public class AdminUserService {
     }
 
     /**
-     * Envia uma notificação para um usuário
+     * Envia uma notificação para um usuário. A do sistema é gravada nesta
+     * transação, e a resposta só sai depois de ela estar confirmada; as de
+     * e-mail e webhook são apenas enfileiradas no canal.
      * 
      * @param id      ID do usuário
      * @param request Dados da notificação
      * @throws ResourceNotFoundException se o usuário não existir
+     * @throws IllegalArgumentException  se o canal do tipo não estiver habilitado
      */
+    @Transactional
     public void notifyUser(Long id, NotificationRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + id));
 
-        // Sempre enviar como notificação do sistema, independente do tipo solicitado
-        systemNotificationService.sendSystemNotification(user.getId(), request.getTitle(), request.getContent());
+        if (request.getType() == NotificationRequest.NotificationType.SYSTEM) {
+            systemNotificationService.sendSystemNotification(user, request.getTitle(), request.getContent());
+            return;
+        }
+        notificationDispatcher.dispatch(request.getType().getChannel(), user, request.getTitle(),
+                request.getContent());
+    }
+
+    /**
+     * Envia uma notificação para todos os usuários de um perfil, ou para todos
+     * 
+     * @param request Dados da notificação e perfil destinatário
+     */
+    public void broadcast(BroadcastRequest request) {
+        systemNotificationService.sendSystemBroadcast(request.getTargetRole(), request.getTitle(),
+                request.getContent());
     }
 
     /**
@@ -1,14 +1,14 @@
 package com.carrent.application.service.admin;
 
 import com.carrent.application.dto.metrics.BusinessMetricsDTO;
-import com.carrent.domain.entity.Customer;
-import com.carrent.domain.entity.Rental;
+import com.carrent.application.service.RentalHistoryService;
+import com.carrent.domain.entity.RentalSnapshot;
 import com.carrent.domain.entity.RentalStatus;
 import com.carrent.domain.entity.Vehicle;
 import com.carrent.domain.entity.VehicleStatus;
 import com.carrent.domain.repository.CustomerRepository;
-import com.carrent.domain.repository.RentalRepository;
 import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.annotation.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,7 +30,7 @@ import java.time.LocalDate;
 @RequiredArgsConstructor
 public class BusinessMetricsService {
 
-        private final RentalRepository rentalRepository;
+        private final RentalHistoryService rentalHistoryService;
         private final VehicleRepository vehicleRepository;
         private final CustomerRepository customerRepository;
 
@@ -42,6 +42,7 @@ public class BusinessMetricsService {
                 return getBusinessMetrics(null, null, null, null, null);
         }
 
+        @SingleFlight(timeoutMs = 30000)
         @Transactional(readOnly = true)
         public BusinessMetricsDTO getBusinessMetrics(String days, String startDate, String endDate, String category,
                         String status) {
@@ -80,32 +81,8 @@ public class BusinessMetricsService {
         @Transactional(readOnly = true)
         private BusinessMetricsDTO.RentalMetrics calculateRentalMetrics(LocalDateTime periodStart,
                         LocalDateTime periodEnd, String category, String status) {
-                List<Rental> allRentals = rentalRepository.findAllWithCustomersAndVehicles();
-
                 // Filtrar rentals pelo período
-                List<Rental> filteredRentals = allRentals.stream()
-                                .filter(rental -> {
-                                        // Aplicar filtro de período - verificar se há interseção
-                                        boolean inPeriod = rental.getStartDate() != null &&
-                                                        rental.getEndDate() != null &&
-                                                        !(rental.getEndDate().isBefore(periodStart) ||
-                                                                        rental.getStartDate().isAfter(periodEnd));
-
-                                        // Aplicar filtro de categoria, se fornecido
-                                        boolean matchesCategory = category == null || category.isEmpty() ||
-                                                        (rental.getVehicle() != null &&
-                                                                        rental.getVehicle().getCategory() != null &&
-                                                                        rental.getVehicle().getCategory().name()
-                                                                                        .equals(category));
-
-                                        // Aplicar filtro de status, se fornecido
-                                        boolean matchesStatus = status == null || status.isEmpty() ||
-                                                        (rental.getStatus() != null &&
-                                                                        rental.getStatus().name().equals(status));
-
-                                        return inPeriod && matchesCategory && matchesStatus;
-                                })
-                                .collect(Collectors.toList());
+                List<RentalSnapshot> filteredRentals = filterRentals(periodStart, periodEnd, category, status);
 
                 long totalRentals = filteredRentals.size();
                 long activeRentals = filteredRentals.stream()
@@ -189,17 +166,10 @@ public class BusinessMetricsService {
                                                 .endDate(rental.getEndDate() != null ? rental.getEndDate().toString()
                                                                 : null)
                                                 .status(rental.getStatus() != null ? rental.getStatus().name() : null)
-                                                .customerId(rental.getCustomer() != null ? rental.getCustomer().getId()
-                                                                : null)
-                                                .customerName(rental.getCustomer() != null
-                                                                ? rental.getCustomer().getName()
-                                                                : null)
-                                                .vehicleId(rental.getVehicle() != null ? rental.getVehicle().getId()
-                                                                : null)
-                                                .vehicleModel(rental.getVehicle() != null
-                                                                ? rental.getVehicle().getBrand() + " "
-                                                                                + rental.getVehicle().getModel()
-                                                                : null)
+                                                .customerId(rental.getCustomerId())
+                                                .customerName(rental.getCustomerName())
+                                                .vehicleId(rental.getVehicleId())
+                                                .vehicleModel(rental.getVehicleBrand() + " " + rental.getVehicleModel())
                                                 .totalAmount(rental.getTotalAmount())
                                                 .build())
                                 .collect(Collectors.toList());
@@ -211,22 +181,20 @@ public class BusinessMetricsService {
                                                 Collectors.counting()));
 
                 // Top 5 clientes com mais aluguéis
-                Map<Customer, List<Rental>> rentalsByCustomer = filteredRentals.stream()
-                                .filter(r -> r.getCustomer() != null)
-                                .collect(Collectors.groupingBy(Rental::getCustomer));
+                Map<Long, List<RentalSnapshot>> rentalsByCustomer = filteredRentals.stream()
+                                .collect(Collectors.groupingBy(RentalSnapshot::getCustomerId));
 
                 List<BusinessMetricsDTO.TopCustomerDTO> topCustomers = rentalsByCustomer.entrySet().stream()
                                 .map(entry -> {
-                                        Customer customer = entry.getKey();
-                                        List<Rental> customerRentals = entry.getValue();
+                                        List<RentalSnapshot> customerRentals = entry.getValue();
                                         BigDecimal totalSpent = customerRentals.stream()
-                                                        .map(Rental::getTotalAmount)
+                                                        .map(RentalSnapshot::getTotalAmount)
                                                         .filter(amount -> amount != null)
                                                         .reduce(BigDecimal.ZERO, BigDecimal::add);
 
                                         return BusinessMetricsDTO.TopCustomerDTO.builder()
-                                                        .customerId(customer.getId())
-                                                        .customerName(customer.getName())
+                                                        .customerId(entry.getKey())
+                                                        .customerName(customerRentals.get(0).getCustomerName())
                                                         .rentalCount(customerRentals.size())
                                                         .totalSpent(totalSpent)
                                                         .build();
@@ -262,8 +230,6 @@ public class BusinessMetricsService {
         private BusinessMetricsDTO.VehicleMetrics calculateVehicleMetrics(LocalDateTime periodStart,
                         LocalDateTime periodEnd, String category, String status) {
                 List<Vehicle> allVehicles = vehicleRepository.findAll();
-                List<Rental> allRentals = rentalRepository.findAllWithCustomersAndVehicles();
-
                 // Filtrar veículos pela categoria, se fornecido
                 List<Vehicle> filteredVehicles = allVehicles;
                 if (category != null && !category.isEmpty()) {
@@ -273,29 +239,7 @@ public class BusinessMetricsService {
                 }
 
                 // Filtrar aluguéis pelo período e outros filtros
-                List<Rental> filteredRentals = allRentals.stream()
-                                .filter(rental -> {
-                                        // Aplicar filtro de período - verificar se há interseção
-                                        boolean inPeriod = rental.getStartDate() != null &&
-                                                        rental.getEndDate() != null &&
-                                                        !(rental.getEndDate().isBefore(periodStart) ||
-                                                                        rental.getStartDate().isAfter(periodEnd));
-
-                                        // Aplicar filtro de categoria, se fornecido
-                                        boolean matchesCategory = category == null || category.isEmpty() ||
-                                                        (rental.getVehicle() != null &&
-                                                                        rental.getVehicle().getCategory() != null &&
-                                                                        rental.getVehicle().getCategory().name()
-                                                                                        .equals(category));
-
-                                        // Aplicar filtro de status, se fornecido
-                                        boolean matchesStatus = status == null || status.isEmpty() ||
-                                                        (rental.getStatus() != null &&
-                                                                        rental.getStatus().name().equals(status));
-
-                                        return inPeriod && matchesCategory && matchesStatus;
-                                })
-                                .collect(Collectors.toList());
+                List<RentalSnapshot> filteredRentals = filterRentals(periodStart, periodEnd, category, status);
 
                 long totalVehicles = filteredVehicles.size();
                 long availableVehicles = filteredVehicles.stream()
@@ -316,9 +260,8 @@ public class BusinessMetricsService {
                                                 Collectors.counting()));
 
                 // Top 5 veículos mais alugados no período filtrado
-                Map<Vehicle, List<Rental>> rentalsByVehicle = filteredRentals.stream()
-                                .filter(r -> r.getVehicle() != null)
-                                .collect(Collectors.groupingBy(Rental::getVehicle));
+                Map<Long, List<RentalSnapshot>> rentalsByVehicle = filteredRentals.stream()
+                                .collect(Collectors.groupingBy(RentalSnapshot::getVehicleId));
 
                 // Calcula a taxa de utilização para o período filtrado
                 final long totalDaysInPeriod = Duration.between(periodStart, periodEnd).toDays();
@@ -327,10 +270,10 @@ public class BusinessMetricsService {
 
                 List<BusinessMetricsDTO.TopVehicleDTO> mostRentedVehicles = rentalsByVehicle.entrySet().stream()
                                 .map(entry -> {
-                                        Vehicle vehicle = entry.getKey();
-                                        List<Rental> vehicleRentals = entry.getValue();
+                                        RentalSnapshot vehicle = entry.getValue().get(0);
+                                        List<RentalSnapshot> vehicleRentals = entry.getValue();
                                         BigDecimal totalRevenue = vehicleRentals.stream()
-                                                        .map(Rental::getTotalAmount)
+                                                        .map(RentalSnapshot::getTotalAmount)
                                                         .filter(amount -> amount != null)
                                                         .reduce(BigDecimal.ZERO, BigDecimal::add);
 
@@ -357,10 +300,10 @@ public class BusinessMetricsService {
                                         double utilizationRate = (double) daysRented / effectiveDaysInPeriod * 100;
 
                                         return BusinessMetricsDTO.TopVehicleDTO.builder()
-                                                        .vehicleId(vehicle.getId())
-                                                        .vehicleBrand(vehicle.getBrand())
-                                                        .vehicleModel(vehicle.getModel())
-                                                        .vehiclePlate(vehicle.getPlate())
+                                                        .vehicleId(vehicle.getVehicleId())
+                                                        .vehicleBrand(vehicle.getVehicleBrand())
+                                                        .vehicleModel(vehicle.getVehicleModel())
+                                                        .vehiclePlate(vehicle.getVehiclePlate())
                                                         .rentalCount(vehicleRentals.size())
                                                         .totalRevenue(totalRevenue)
                                                         .utilizationRate(utilizationRate)
@@ -374,7 +317,7 @@ public class BusinessMetricsService {
                 // Cálculo da taxa média de utilização para o período filtrado
                 double averageUtilizationRate = filteredVehicles.stream()
                                 .mapToDouble(vehicle -> {
-                                        List<Rental> vehicleRentals = rentalsByVehicle.getOrDefault(vehicle,
+                                        List<RentalSnapshot> vehicleRentals = rentalsByVehicle.getOrDefault(vehicle.getId(),
                                                         new ArrayList<>());
 
                                         long daysRented = vehicleRentals.stream()
@@ -416,34 +359,11 @@ public class BusinessMetricsService {
         private BusinessMetricsDTO.DiscountMetrics calculateDiscountMetrics(LocalDateTime periodStart,
                         LocalDateTime periodEnd, String category, String status) {
                 // Filtrar aluguéis pelo período e outros filtros
-                List<Rental> allRentals = rentalRepository.findAll();
-                List<Rental> filteredRentals = allRentals.stream()
-                                .filter(rental -> {
-                                        // Aplicar filtro de período - verificar se há interseção
-                                        boolean inPeriod = rental.getStartDate() != null &&
-                                                        rental.getEndDate() != null &&
-                                                        !(rental.getEndDate().isBefore(periodStart) ||
-                                                                        rental.getStartDate().isAfter(periodEnd));
-
-                                        // Aplicar filtro de categoria, se fornecido
-                                        boolean matchesCategory = category == null || category.isEmpty() ||
-                                                        (rental.getVehicle() != null &&
-                                                                        rental.getVehicle().getCategory() != null &&
-                                                                        rental.getVehicle().getCategory().name()
-                                                                                        .equals(category));
-
-                                        // Aplicar filtro de status, se fornecido
-                                        boolean matchesStatus = status == null || status.isEmpty() ||
-                                                        (rental.getStatus() != null &&
-                                                                        rental.getStatus().name().equals(status));
-
-                                        return inPeriod && matchesCategory && matchesStatus;
-                                })
-                                .collect(Collectors.toList());
+                List<RentalSnapshot> filteredRentals = filterRentals(periodStart, periodEnd, category, status);
 
                 // Restante do código para calcular métricas de desconto usando filteredRentals
                 // Simular dados de desconto (já que não existe na entidade Rental)
-                List<Rental> rentalsWithDiscount = filteredRentals.stream()
+                List<RentalSnapshot> rentalsWithDiscount = filteredRentals.stream()
                                 .filter(r -> r.getTotalAmount() != null && r.getOriginalTotalAmount() != null &&
                                                 r.getOriginalTotalAmount().compareTo(r.getTotalAmount()) > 0)
                                 .collect(Collectors.toList());
@@ -497,4 +417,18 @@ public class BusinessMetricsService {
                                 .discountDistribution(discountDistribution)
                                 .build();
         }
-}
\ No newline at end of file
+
+        /**
+         * Locações com algum dia no período, lidas da rental_view e, para
+         * períodos antigos, também do arquivo; categoria e status são opcionais
+         */
+        private List<RentalSnapshot> filterRentals(LocalDateTime periodStart, LocalDateTime periodEnd, String category,
+                        String status) {
+                return rentalHistoryService.findOverlapping(periodStart, periodEnd).stream()
+                                .filter(rental -> category == null || category.isEmpty()
+                                                || rental.getVehicleCategory().name().equals(category))
+                                .filter(rental -> status == null || status.isEmpty()
+                                                || rental.getStatus().name().equals(status))
+                                .collect(Collectors.toList());
+        }
+}
@@ -0,0 +1,31 @@
+package com.carrent.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Locação encerrada há mais tempo que a retenção, movida de rentals pelo
+ * RentalArchiver. Guarda os dados do cliente e do veículo da época, de modo
+ * que não depende das tabelas de origem.
+ */
+@Entity
+@Immutable
+@Table(name = "rentals_archive", indexes = {
+        @Index(name = "idx_rentals_archive_customer", columnList = "customer_id, start_date"),
+        @Index(name = "idx_rentals_archive_vehicle", columnList = "vehicle_id, start_date"),
+        @Index(name = "idx_rentals_archive_status", columnList = "status, start_date"),
+        @Index(name = "idx_rentals_archive_period", columnList = "start_date, end_date")
+})
+@Getter
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class ArchivedRental extends RentalSnapshot {
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,59 @@
+package com.carrent.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificação enviada a todos os usuários, ou a todos de um perfil, gravada
+ * uma única vez. O estado de leitura de cada usuário fica no
+ * {@link NotificationCounter#getBroadcastWatermark() watermark} do contador e,
+ * acima dele, em {@link BroadcastRead}.
+ */
+@Entity
+@Immutable
+@Table(name = "broadcast_notifications", indexes = {
+        @Index(name = "idx_broadcast_notifications_created", columnList = "created_at, id")
+})
+@Getter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    /**
+     * Perfil destinatário; nulo para todos os usuários
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_role", length = 20)
+    private Role targetRole;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public boolean isVisibleTo(Role role) {
+        return targetRole == null || targetRole == role;
+    }
+}
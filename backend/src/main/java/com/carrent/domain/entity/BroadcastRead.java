@@ -0,0 +1,46 @@
+package com.carrent.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Marca de leitura de um broadcast mais recente que o watermark do usuário.
+ * Ao marcar tudo como lido o watermark avança e as marcas abaixo dele são
+ * removidas, então a tabela só guarda leituras avulsas recentes.
+ */
+@Entity
+@Table(name = "broadcast_reads")
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastRead {
+
+    @EmbeddedId
+    private Key id;
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id")
+        private Long userId;
+
+        @Column(name = "broadcast_id")
+        private Long broadcastId;
+    }
+
+    public static BroadcastRead of(Long userId, Long broadcastId) {
+        return new BroadcastRead(new Key(userId, broadcastId));
+    }
+}
@@ -0,0 +1,50 @@
+package com.carrent.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * Quantos broadcasts um perfil já recebeu (os enviados a todos contam para
+ * cada perfil) e quantos deles a retenção removeu. Com a base guardada no
+ * {@link NotificationCounter} do usuário, os broadcasts não lidos saem de duas
+ * leituras por chave em vez de uma contagem sobre a tabela de broadcasts.
+ */
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "broadcast_role_counters")
+public class BroadcastRoleCounter {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Role role;
+
+    /**
+     * Broadcasts enviados ao perfil desde o início, inclusive os já removidos
+     */
+    @Column(nullable = false)
+    private long sent;
+
+    /**
+     * Broadcasts do perfil removidos pela retenção; são sempre os mais antigos
+     */
+    @Column(nullable = false)
+    private long purged;
+
+    @Column(name = "last_broadcast_id", nullable = false)
+    private long lastBroadcastId;
+
+    public void recordSent(long broadcastId) {
+        sent++;
+        lastBroadcastId = Math.max(lastBroadcastId, broadcastId);
+    }
+}
@@ -6,6 +6,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -15,6 +20,9 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Table(name = "customers")
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -45,6 +53,7 @@ public class Customer {
     @Pattern(regexp = "^(\\([0-9]{2}\\) [0-9]{4,5}-[0-9]{4})$", message = "O telefone deve estar no formato (99) 99999-9999")
     private String phone;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     @NotBlank(message = "O documento é obrigatório")
     @Pattern(regexp = "^[0-9]{3}\\.[0-9]{3}\\.[0-9]{3}-[0-9]{2}$", message = "O documento deve estar no formato 123.456.789-00")
@@ -55,6 +64,18 @@ public class Customer {
     @Size(max = 200, message = "O endereço deve ter no máximo 200 caracteres")
     private String address;
 
+    /*
+     * Estado mantido pelo banco a cada transição de locação (RentalHotStateMaintainer);
+     * a aplicação nunca grava estas colunas.
+     */
+    @ColumnDefault("0")
+    @Column(name = "active_rental_count", nullable = false, insertable = false, updatable = false)
+    private Integer activeRentalCount;
+
+    @ColumnDefault("0")
+    @Column(name = "pending_rental_count", nullable = false, insertable = false, updatable = false)
+    private Integer pendingRentalCount;
+
     @Column(name = "created_at")
     @CreatedDate
     private LocalDateTime createdAt;
@@ -0,0 +1,95 @@
+package com.carrent.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * Contador de notificações não lidas de um usuário, mantido junto com cada
+ * criação e leitura para que o badge seja uma leitura por chave (em geral
+ * atendida pelo cache de segundo nível). Guarda também o watermark dos
+ * broadcasts: os de id até ele contam como lidos; acima dele, os não lidos são
+ * os enviados ao perfil ({@link BroadcastRoleCounter}) menos a base e as
+ * leituras avulsas.
+ */
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    @Column(name = "broadcast_watermark", nullable = false)
+    private long broadcastWatermark;
+
+    /**
+     * Broadcasts do perfil com id até o watermark
+     */
+    @Column(name = "broadcast_base", nullable = false)
+    private long broadcastBase;
+
+    /**
+     * Broadcasts acima do watermark marcados como lidos avulsamente
+     */
+    @Column(name = "broadcast_reads", nullable = false)
+    private long broadcastReads;
+
+    public static NotificationCounter create(Long userId) {
+        NotificationCounter counter = new NotificationCounter();
+        counter.userId = userId;
+        return counter;
+    }
+
+    public void increment() {
+        unreadCount++;
+    }
+
+    public void decrement(long amount) {
+        unreadCount = Math.max(0, unreadCount - amount);
+    }
+
+    /**
+     * Marca como lidos todos os broadcasts já enviados ao perfil. As leituras
+     * avulsas acima do novo watermark precisam ser recontadas em seguida.
+     * 
+     * @return true se o watermark avançou
+     */
+    public boolean markBroadcastsRead(BroadcastRoleCounter role) {
+        broadcastBase = role.getSent();
+        broadcastReads = 0;
+        if (role.getLastBroadcastId() <= broadcastWatermark) {
+            return false;
+        }
+        broadcastWatermark = role.getLastBroadcastId();
+        return true;
+    }
+
+    public void broadcastRead() {
+        broadcastReads++;
+    }
+
+    public void recountBroadcastReads(long reads) {
+        broadcastReads = reads;
+    }
+
+    /**
+     * Broadcasts do perfil ainda não lidos. Os removidos pela retenção não
+     * contam, mesmo antes de a retenção avançar a base deste contador.
+     */
+    public long unreadBroadcasts(BroadcastRoleCounter role) {
+        return Math.max(0, role.getSent() - Math.max(broadcastBase, role.getPurged()) - broadcastReads);
+    }
+}
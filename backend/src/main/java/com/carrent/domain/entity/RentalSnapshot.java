@@ -0,0 +1,83 @@
+package com.carrent.domain.entity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+/**
+ * Locação já combinada com os dados do cliente e do veículo, como é gravada
+ * na rental_view, no arquivo de locações encerradas e nos segmentos colunares.
+ */
+@MappedSuperclass
+@Getter
+@Setter(AccessLevel.PROTECTED)
+@ToString
+@NoArgsConstructor
+public abstract class RentalSnapshot {
+
+    @Id
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "vehicle_brand", nullable = false)
+    private String vehicleBrand;
+
+    @Column(name = "vehicle_model", nullable = false)
+    private String vehicleModel;
+
+    @Column(name = "vehicle_plate", nullable = false)
+    private String vehiclePlate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vehicle_category", nullable = false)
+    private VehicleCategory vehicleCategory;
+
+    @Column(name = "vehicle_daily_rate", nullable = false)
+    private BigDecimal vehicleDailyRate;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(name = "actual_return_date")
+    private LocalDateTime actualReturnDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RentalStatus status;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "original_total_amount")
+    private BigDecimal originalTotalAmount;
+
+    @Column(name = "early_termination_fee")
+    private BigDecimal earlyTerminationFee;
+
+    @Column(name = "ended_early")
+    private Boolean endedEarly;
+
+    @Column(length = 1000)
+    private String notes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
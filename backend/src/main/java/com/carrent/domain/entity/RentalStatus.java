@@ -1,9 +1,30 @@
 package com.carrent.domain.entity;
 
 public enum RentalStatus {
-    PENDING,
-    IN_PROGRESS,
-    COMPLETED,
-    CANCELLED,
-    EARLY_TERMINATED
-}
\ No newline at end of file
+    PENDING(1),
+    IN_PROGRESS(0),
+    COMPLETED(2),
+    CANCELLED(3),
+    EARLY_TERMINATED(4);
+
+    /**
+     * Posição nas listagens: em andamento primeiro, depois pendentes e por
+     * fim as encerradas
+     */
+    private final int listPriority;
+
+    RentalStatus(int listPriority) {
+        this.listPriority = listPriority;
+    }
+
+    public int getListPriority() {
+        return listPriority;
+    }
+
+    /**
+     * Status finais: a locação não muda mais e pode ser arquivada
+     */
+    public boolean isClosed() {
+        return this == COMPLETED || this == CANCELLED || this == EARLY_TERMINATED;
+    }
+}
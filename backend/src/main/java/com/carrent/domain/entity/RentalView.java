@@ -0,0 +1,35 @@
+package com.carrent.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Modelo de leitura das locações: uma linha por locação, já com os dados do
+ * cliente e do veículo, para que as listagens não precisem de joins.
+ * <p>
+ * Mantido pelo RentalViewProjector na mesma transação que altera a locação,
+ * o veículo ou o cliente; a aplicação nunca escreve nesta entidade.
+ */
+@Entity
+@Immutable
+@Table(name = "rental_view", indexes = {
+        @Index(name = "idx_rental_view_priority", columnList = "status_priority, start_date"),
+        @Index(name = "idx_rental_view_customer", columnList = "customer_id, start_date"),
+        @Index(name = "idx_rental_view_vehicle", columnList = "vehicle_id, start_date"),
+        @Index(name = "idx_rental_view_status", columnList = "status, start_date"),
+        @Index(name = "idx_rental_view_period", columnList = "start_date, end_date")
+})
+@Getter
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class RentalView extends RentalSnapshot {
+
+    /**
+     * {@link RentalStatus#getListPriority()}, para ordenar pelo índice
+     */
+    @Column(name = "status_priority", nullable = false)
+    private Integer statusPriority;
+}
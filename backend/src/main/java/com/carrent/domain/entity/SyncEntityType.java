@@ -0,0 +1,10 @@
+package com.carrent.domain.entity;
+
+/**
+ * Coleções expostas pelo feed de alterações
+ */
+public enum SyncEntityType {
+    RENTAL,
+    VEHICLE,
+    CUSTOMER
+}
@@ -0,0 +1,40 @@
+package com.carrent.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma entidade removida, para que o feed de alterações avise os
+ * clientes que guardam cópia local. Gravado pelo TombstoneRecorder na mesma
+ * transação da remoção.
+ */
+@Entity
+@Immutable
+@Table(name = "sync_tombstones", indexes = {
+        @Index(name = "idx_sync_tombstones_type", columnList = "entity_type, id"),
+        @Index(name = "idx_sync_tombstones_deleted", columnList = "deleted_at")
+})
+@Getter
+@ToString
+@NoArgsConstructor
+public class SyncTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private SyncEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
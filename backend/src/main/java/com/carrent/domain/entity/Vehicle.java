@@ -3,6 +3,10 @@ package com.carrent.domain.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -13,6 +17,9 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Table(name = "vehicles")
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -43,6 +50,7 @@ public class Vehicle {
     @Max(value = 2100, message = "O ano deve ser menor que 2100")
     private Integer year;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     @NotBlank(message = "A placa é obrigatória")
     @Pattern(regexp = "^[A-Z]{3}[0-9][0-9A-Z][0-9]{2}$", message = "A placa deve estar no formato ABC1234 ou ABC1D23")
@@ -72,6 +80,16 @@ public class Vehicle {
     @Size(max = 1000, message = "A descrição deve ter no máximo 1000 caracteres")
     private String description;
 
+    /*
+     * Estado mantido pelo banco a cada transição de locação (RentalHotStateMaintainer):
+     * fim do último compromisso pendente ou em andamento e a locação em curso.
+     */
+    @Column(name = "next_free_at", insertable = false, updatable = false)
+    private LocalDateTime nextFreeAt;
+
+    @Column(name = "current_rental_id", insertable = false, updatable = false)
+    private Long currentRentalId;
+
     @Column(name = "created_at")
     @CreatedDate
     private LocalDateTime createdAt;
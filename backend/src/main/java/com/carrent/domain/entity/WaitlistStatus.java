@@ -0,0 +1,8 @@
+package com.carrent.domain.entity;
+
+public enum WaitlistStatus {
+    WAITING,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
@@ -0,0 +1,15 @@
+package com.carrent.domain.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fato ocorrido em um agregado, registrado junto com a transação que o causou
+ */
+public interface DomainEvent {
+
+    String aggregateType();
+
+    Long aggregateId();
+
+    LocalDateTime occurredAt();
+}
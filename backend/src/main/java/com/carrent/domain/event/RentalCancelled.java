@@ -0,0 +1,12 @@
+package com.carrent.domain.event;
+
+import java.time.LocalDateTime;
+
+public record RentalCancelled(
+        Long rentalId,
+        Long vehicleId,
+        Long customerId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        LocalDateTime occurredAt) implements RentalEvent {
+}
@@ -0,0 +1,13 @@
+package com.carrent.domain.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RentalCompleted(
+        Long rentalId,
+        Long vehicleId,
+        Long customerId,
+        LocalDateTime endDate,
+        BigDecimal totalAmount,
+        LocalDateTime occurredAt) implements RentalEvent {
+}
@@ -0,0 +1,14 @@
+package com.carrent.domain.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RentalCreated(
+        Long rentalId,
+        Long vehicleId,
+        Long customerId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        BigDecimal totalAmount,
+        LocalDateTime occurredAt) implements RentalEvent {
+}
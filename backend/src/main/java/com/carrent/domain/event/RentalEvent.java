@@ -0,0 +1,29 @@
+package com.carrent.domain.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento do ciclo de vida de uma locação, publicado após o commit da
+ * transação que o originou.
+ */
+public sealed interface RentalEvent extends DomainEvent
+        permits RentalCreated, RentalStarted, RentalCompleted, RentalCancelled, RentalTerminatedEarly {
+
+    Long rentalId();
+
+    Long vehicleId();
+
+    Long customerId();
+
+    LocalDateTime occurredAt();
+
+    @Override
+    default String aggregateType() {
+        return "Rental";
+    }
+
+    @Override
+    default Long aggregateId() {
+        return rentalId();
+    }
+}
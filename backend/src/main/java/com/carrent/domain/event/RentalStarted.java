@@ -0,0 +1,10 @@
+package com.carrent.domain.event;
+
+import java.time.LocalDateTime;
+
+public record RentalStarted(
+        Long rentalId,
+        Long vehicleId,
+        Long customerId,
+        LocalDateTime occurredAt) implements RentalEvent {
+}
@@ -0,0 +1,14 @@
+package com.carrent.domain.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RentalTerminatedEarly(
+        Long rentalId,
+        Long vehicleId,
+        Long customerId,
+        LocalDateTime endDate,
+        BigDecimal earlyTerminationFee,
+        BigDecimal totalAmount,
+        LocalDateTime occurredAt) implements RentalEvent {
+}
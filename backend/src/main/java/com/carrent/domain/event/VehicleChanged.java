@@ -0,0 +1,35 @@
+package com.carrent.domain.event;
+
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.VehicleStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inclusão, alteração ou exclusão de um veículo, com o estado resultante
+ */
+public record VehicleChanged(
+        Long vehicleId,
+        Change change,
+        String plate,
+        VehicleCategory category,
+        VehicleStatus status,
+        Boolean available,
+        LocalDateTime occurredAt) implements DomainEvent {
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    @Override
+    public String aggregateType() {
+        return "Vehicle";
+    }
+
+    @Override
+    public Long aggregateId() {
+        return vehicleId;
+    }
+}
@@ -0,0 +1,48 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.ArchivedRental;
+import com.carrent.domain.entity.RentalStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas sobre as locações arquivadas; mesmas formas do
+ * RentalViewRepository, para que as leituras possam juntar as duas tabelas.
+ */
+@Repository
+public interface ArchivedRentalRepository extends JpaRepository<ArchivedRental, Long> {
+
+        List<ArchivedRental> findByCustomerId(Long customerId);
+
+        List<ArchivedRental> findByVehicleId(Long vehicleId);
+
+        /**
+         * Locações que têm algum dia dentro de [start, end]
+         */
+        @Query("SELECT r FROM ArchivedRental r WHERE r.startDate <= :end AND r.endDate >= :start")
+        List<ArchivedRental> findOverlapping(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        @Query("SELECT r FROM ArchivedRental r WHERE r.customerId = :customerId AND r.startDate <= :end AND r.endDate >= :start")
+        List<ArchivedRental> findOverlappingByCustomerId(@Param("customerId") Long customerId,
+                        @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        @Query("SELECT r FROM ArchivedRental r WHERE r.vehicleId = :vehicleId AND r.startDate <= :end AND r.endDate >= :start")
+        List<ArchivedRental> findOverlappingByVehicleId(@Param("vehicleId") Long vehicleId,
+                        @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        @Query("SELECT r FROM ArchivedRental r WHERE r.status = :status AND r.startDate <= :end AND r.endDate >= :start")
+        List<ArchivedRental> findOverlappingByStatus(@Param("status") RentalStatus status,
+                        @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        /**
+         * Locações iniciadas em [from, to), na ordem em que vão para o segmento
+         */
+        @Query("SELECT r FROM ArchivedRental r WHERE r.startDate >= :from AND r.startDate < :to "
+                        + "ORDER BY r.startDate, r.id")
+        List<ArchivedRental> findStartedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,42 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.BroadcastNotification;
+import com.carrent.domain.entity.Role;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    /**
+     * Broadcasts visíveis para um perfil, mais recentes primeiro
+     * 
+     * @param role     Perfil do usuário
+     * @param pageable Limite de resultados
+     * @return Broadcasts mais recentes
+     */
+    @Query("SELECT b FROM BroadcastNotification b WHERE b.targetRole IS NULL OR b.targetRole = :role "
+            + "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BroadcastNotification> findVisibleTo(@Param("role") Role role, Pageable pageable);
+
+    /**
+     * Broadcasts visíveis para um perfil anteriores à posição (createdAt, id)
+     * 
+     * @param role      Perfil do usuário
+     * @param createdAt Data de criação do último broadcast entregue
+     * @param id        ID do último broadcast entregue
+     * @param pageable  Limite de resultados
+     * @return Broadcasts seguintes
+     */
+    @Query("SELECT b FROM BroadcastNotification b WHERE (b.targetRole IS NULL OR b.targetRole = :role) "
+            + "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) "
+            + "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BroadcastNotification> findVisibleToAfter(@Param("role") Role role,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+}
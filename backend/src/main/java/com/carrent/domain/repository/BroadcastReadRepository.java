@@ -0,0 +1,47 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.BroadcastRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BroadcastReadRepository extends JpaRepository<BroadcastRead, BroadcastRead.Key> {
+
+    /**
+     * Conta os broadcasts lidos avulsamente acima do watermark do usuário
+     * 
+     * @param userId    ID do usuário
+     * @param watermark Watermark de leitura do usuário
+     * @return Número de marcas de leitura
+     */
+    @Query("SELECT COUNT(r) FROM BroadcastRead r WHERE r.id.userId = :userId AND r.id.broadcastId > :watermark")
+    long countAbove(@Param("userId") Long userId, @Param("watermark") long watermark);
+
+    /**
+     * Entre os broadcasts informados, os que o usuário já leu
+     * 
+     * @param userId       ID do usuário
+     * @param broadcastIds IDs dos broadcasts
+     * @return IDs lidos
+     */
+    @Query("SELECT r.id.broadcastId FROM BroadcastRead r WHERE r.id.userId = :userId "
+            + "AND r.id.broadcastId IN :broadcastIds")
+    List<Long> findReadAmong(@Param("userId") Long userId, @Param("broadcastIds") Collection<Long> broadcastIds);
+
+    /**
+     * Remove as marcas cobertas pelo watermark
+     * 
+     * @param userId    ID do usuário
+     * @param watermark Novo watermark de leitura do usuário
+     * @return Número de marcas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM BroadcastRead r WHERE r.id.userId = :userId AND r.id.broadcastId <= :watermark")
+    int deleteUpTo(@Param("userId") Long userId, @Param("watermark") long watermark);
+}
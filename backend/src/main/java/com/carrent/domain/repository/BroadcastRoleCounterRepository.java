@@ -0,0 +1,28 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.BroadcastRoleCounter;
+import com.carrent.domain.entity.Role;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BroadcastRoleCounterRepository extends JpaRepository<BroadcastRoleCounter, Role> {
+
+    /**
+     * Bloqueia, sempre na mesma ordem, os contadores dos perfis que recebem um
+     * broadcast. Tomado antes de gravar o broadcast, o lock faz os ids de cada
+     * perfil crescerem na ordem em que os contadores são atualizados.
+     * 
+     * @param role Perfil destinatário, ou nulo para todos os perfis
+     * @return Contadores bloqueados
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BroadcastRoleCounter c WHERE :role IS NULL OR c.role = :role ORDER BY c.role")
+    List<BroadcastRoleCounter> findForUpdateVisibleTo(@Param("role") Role role);
+}
@@ -1,19 +1,49 @@
 package com.carrent.domain.repository;
 
 import com.carrent.domain.entity.Customer;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends NaturalIdRepository<Customer, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByEmail(String email);
 
-    Optional<Customer> findByDocument(String document);
+    default Optional<Customer> findByDocument(String document) {
+        return findBySimpleNaturalId(document);
+    }
 
     boolean existsByEmail(String email);
 
     boolean existsByDocument(String document);
 
+    /*
+     * Consultas pela chave primária sobre os contadores mantidos a cada
+     * transição de locação; não passam pelo cache de segundo nível, que pode
+     * estar atrás dessas colunas.
+     */
+
+    @Query("SELECT COUNT(c) > 0 FROM Customer c WHERE c.id = :id AND c.activeRentalCount > 0")
+    boolean hasActiveRentals(@Param("id") Long id);
+
+    @Query("SELECT COUNT(c) > 0 FROM Customer c WHERE c.id = :id AND c.pendingRentalCount > 0")
+    boolean hasPendingRentals(@Param("id") Long id);
+
+    /**
+     * Clientes alterados depois da posição (since, afterId) e antes de until,
+     * em ordem de (updatedAt, id), servidos por idx_customers_updated
+     */
+    @Query("SELECT c FROM Customer c WHERE (c.updatedAt > :since OR (c.updatedAt = :since AND c.id > :afterId)) "
+            + "AND c.updatedAt < :until ORDER BY c.updatedAt, c.id")
+    List<Customer> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+            @Param("until") LocalDateTime until, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.carrent.domain.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Repositório de entidades com chave natural (@NaturalId).
+ * A busca pela chave natural passa pelo cache de chaves naturais do Hibernate,
+ * evitando a consulta ao banco quando a entidade já está em cache.
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+
+    /**
+     * Relê do banco o estado de uma entidade já carregada na sessão. Uma
+     * consulta com bloqueio devolve a instância que já estava na sessão sem
+     * atualizá-la, então quem confere o estado depois do bloqueio precisa
+     * relê-la.
+     */
+    void refresh(T entity);
+}
@@ -0,0 +1,28 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.NotificationCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long>,
+        NotificationCounterUpserts {
+
+    /**
+     * Bloqueia o contador do usuário até o fim da transação, para que
+     * incrementos concorrentes não se percam
+     * 
+     * @param userId ID do usuário
+     * @return Contador, se já existir
+     * @see #createIfAbsent(Long)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM NotificationCounter c WHERE c.userId = :userId")
+    Optional<NotificationCounter> findForUpdate(@Param("userId") Long userId);
+}
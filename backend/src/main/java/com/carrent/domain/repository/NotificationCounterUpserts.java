@@ -0,0 +1,27 @@
+package com.carrent.domain.repository;
+
+/**
+ * Upserts do contador de notificações. São atômicos: não há janela entre
+ * verificar e inserir em que outra transação crie a mesma linha. Rodam na
+ * conexão da transação atual e invalidam, no cache de segundo nível, só a
+ * entrada do usuário afetado.
+ */
+public interface NotificationCounterUpserts {
+
+    /**
+     * Soma uma não lida ao contador do usuário, criando-o se ainda não existir
+     * 
+     * @param userId ID do usuário
+     * @return Linhas afetadas
+     */
+    int incrementUnread(Long userId);
+
+    /**
+     * Cria o contador do usuário se ainda não existir; o existente fica
+     * inalterado
+     * 
+     * @param userId ID do usuário
+     * @return Linhas afetadas
+     */
+    int createIfAbsent(Long userId);
+}
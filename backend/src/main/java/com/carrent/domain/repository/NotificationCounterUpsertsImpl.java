@@ -0,0 +1,76 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.NotificationCounter;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Uma consulta nativa do Hibernate que altera notification_counters invalida
+ * a região inteira do contador no cache de segundo nível. Aqui o upsert vai
+ * direto à conexão da sessão, e só a entrada do usuário sai do cache.
+ */
+class NotificationCounterUpsertsImpl implements NotificationCounterUpserts {
+
+    /**
+     * Linha criada quando o usuário ainda não tem contador: a contagem vem da
+     * tabela de notificações (já com as gravadas na transação) e os broadcasts
+     * enviados ao perfil antes da criação contam como lidos
+     */
+    private static final String INSERT_COUNTER_SQL = "INSERT INTO notification_counters "
+            + "(user_id, unread_count, broadcast_watermark, broadcast_base, broadcast_reads) "
+            + "SELECT u.id, (SELECT COUNT(*) FROM notifications n WHERE n.user_id = u.id AND n.is_read = FALSE), "
+            + "COALESCE(r.last_broadcast_id, 0), COALESCE(r.sent, 0), 0 "
+            + "FROM users u LEFT JOIN broadcast_role_counters r ON r.role = u.role WHERE u.id = ? ";
+    private static final String INCREMENT_UNREAD_SQL =
+            INSERT_COUNTER_SQL + "ON DUPLICATE KEY UPDATE unread_count = unread_count + 1";
+    private static final String CREATE_IF_ABSENT_SQL =
+            INSERT_COUNTER_SQL + "ON DUPLICATE KEY UPDATE user_id = user_id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int incrementUnread(Long userId) {
+        return upsert(INCREMENT_UNREAD_SQL, userId);
+    }
+
+    @Override
+    public int createIfAbsent(Long userId) {
+        return upsert(CREATE_IF_ABSENT_SQL, userId);
+    }
+
+    private int upsert(String sql, Long userId) {
+        Session session = entityManager.unwrap(Session.class);
+        // A contagem da linha nova precisa ver as notificações ainda pendentes na sessão
+        session.flush();
+        int rows = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, userId);
+                return statement.executeUpdate();
+            }
+        });
+        evict(userId);
+        return rows;
+    }
+
+    private void evict(Long userId) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(NotificationCounter.class, userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        // Uma leitura concorrente pode ter recolocado no cache o valor anterior ao commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.evict(NotificationCounter.class, userId);
+            }
+        });
+    }
+}
@@ -4,8 +4,13 @@ import com.carrent.domain.entity.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -38,6 +43,7 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     long countByUserIdAndIsRead(Long userId, boolean isRead);
 
+
     /**
      * Encontra todas as notificações de um usuário por status de leitura, ordenadas
      * por data de criação
@@ -47,4 +53,76 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      * @return Lista de notificações do usuário com o status especificado
      */
     List<Notification> findByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, boolean isRead);
-}
\ No newline at end of file
+
+    /**
+     * Encontra as notificações de um usuário posteriores a um ID, em ordem
+     * crescente, para o reenvio na reconexão do stream
+     * 
+     * @param userId   ID do usuário
+     * @param afterId  ID da última notificação recebida pelo cliente
+     * @param pageable Limite de resultados
+     * @return Notificações com ID maior que afterId
+     */
+    List<Notification> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    /**
+     * Encontra, entre os IDs informados, as notificações ainda não lidas
+     * 
+     * @param ids IDs das notificações
+     * @return Notificações não lidas
+     */
+    @Query("SELECT n FROM Notification n WHERE n.id IN :ids AND n.isRead = false")
+    List<Notification> findUnreadByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Primeira página da caixa de entrada, mais recentes primeiro, pelo índice
+     * (user_id, created_at, id)
+     * 
+     * @param userId   ID do usuário
+     * @param pageable Limite de resultados
+     * @return Notificações mais recentes
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Página seguinte da caixa de entrada: notificações anteriores à posição
+     * (createdAt, id) da última notificação entregue
+     * 
+     * @param userId    ID do usuário
+     * @param createdAt Data de criação da última notificação entregue
+     * @param id        ID da última notificação entregue
+     * @param pageable  Limite de resultados
+     * @return Notificações seguintes
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Marca uma notificação não lida do usuário como lida, em um único UPDATE
+     * 
+     * @param id     ID da notificação
+     * @param userId ID do usuário dono da notificação
+     * @return 1 se a notificação foi marcada, 0 se não existe, é de outro
+     *         usuário ou já estava lida
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
+    int markAsRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Marca todas as notificações não lidas do usuário como lidas, em um único
+     * UPDATE
+     * 
+     * @param userId ID do usuário
+     * @return Número de notificações marcadas
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+}
@@ -2,83 +2,107 @@ package com.carrent.domain.repository;
 
 import com.carrent.domain.entity.Rental;
 import com.carrent.domain.entity.RentalStatus;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.math.BigDecimal;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
-        List<Rental> findByCustomerId(Long customerId);
-
-        List<Rental> findByVehicleId(Long vehicleId);
-
-        List<Rental> findByStatus(RentalStatus status);
-
-        @Query("SELECT r FROM Rental r WHERE " +
-                        "(r.startDate BETWEEN :start AND :end) OR " +
-                        "(r.endDate BETWEEN :start AND :end) OR " +
-                        "(r.startDate <= :start AND r.endDate >= :end)")
-        List<Rental> findByStartDateBetweenOrEndDateBetween(
-                        @Param("start") LocalDateTime start,
-                        @Param("end") LocalDateTime end);
-
-        @Query("SELECT r FROM Rental r WHERE r.vehicle.id = :vehicleId " +
-                        "AND r.id != :excludeRentalId " +
+        long countByStatus(RentalStatus status);
+
+        /*
+         * Intervalos semiabertos [início, fim): uma locação que termina exatamente
+         * quando a outra começa não conflita. Na forma "início < :fim AND fim >
+         * :início" o predicado é uma faixa única sobre o índice
+         * (vehicle_id, status, start_date, end_date), que também cobre a consulta:
+         * só colunas do índice são lidas.
+         */
+        @Query("SELECT COUNT(r) > 0 FROM Rental r WHERE r.vehicle.id = :vehicleId " +
+                        "AND (:excludeRentalId IS NULL OR r.id <> :excludeRentalId) " +
                         "AND r.status IN :activeStatuses " +
-                        "AND ((r.startDate BETWEEN :startDate AND :endDate) " +
-                        "OR (r.endDate BETWEEN :startDate AND :endDate) " +
-                        "OR (r.startDate <= :startDate AND r.endDate >= :endDate))")
-        List<Rental> findOverlappingRentals(
+                        "AND r.startDate < :endDate " +
+                        "AND r.endDate > :startDate")
+        boolean hasOverlappingRentals(
                         @Param("vehicleId") Long vehicleId,
                         @Param("startDate") LocalDateTime startDate,
                         @Param("endDate") LocalDateTime endDate,
                         @Param("excludeRentalId") Long excludeRentalId,
                         @Param("activeStatuses") List<RentalStatus> activeStatuses);
 
-        @Query("SELECT COUNT(r) > 0 FROM Rental r WHERE r.customer.id = :customerId " +
-                        "AND r.status = 'IN_PROGRESS'")
-        boolean hasActiveRentals(@Param("customerId") Long customerId);
-
-        List<Rental> findByCustomerIdAndStatus(Long customerId, RentalStatus status);
-
-        @Query("SELECT r FROM Rental r LEFT JOIN FETCH r.customer LEFT JOIN FETCH r.vehicle")
-        List<Rental> findAllWithCustomersAndVehicles();
-
-        @Query("SELECT r FROM Rental r LEFT JOIN FETCH r.customer LEFT JOIN FETCH r.vehicle")
-        Page<Rental> findAllWithCustomersAndVehicles(Pageable pageable);
+        /*
+         * Mesmo predicado de hasOverlappingRentals para vários veículos de uma
+         * vez: devolve os que têm locação conflitante com o período
+         */
+        @Query("SELECT DISTINCT r.vehicle.id FROM Rental r WHERE r.vehicle.id IN :vehicleIds " +
+                        "AND r.status IN :activeStatuses " +
+                        "AND r.startDate < :endDate " +
+                        "AND r.endDate > :startDate")
+        List<Long> findConflictingVehicleIds(
+                        @Param("vehicleIds") Collection<Long> vehicleIds,
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("activeStatuses") List<RentalStatus> activeStatuses);
 
         @Query("SELECT r FROM Rental r LEFT JOIN FETCH r.customer LEFT JOIN FETCH r.vehicle WHERE r.id = :id")
         Optional<Rental> findByIdWithVehicleAndCustomer(Long id);
 
+        /*
+         * As transições abaixo alteram a entidade gerenciada em vez de executar
+         * um UPDATE em massa: assim passam pelos listeners do Hibernate (auditoria
+         * e registro de alterações do cluster) e a entidade já carregada na
+         * transação reflete os novos valores.
+         */
+
         @Transactional
-        @Modifying
-        @Query("update Rental r set r.status = ?1 where r.id = ?2")
-        void updateStatus(RentalStatus status, Long id);
+        default void updateStatus(RentalStatus status, Long id) {
+                findById(id).ifPresent(rental -> rental.setStatus(status));
+        }
 
         @Transactional
-        @Modifying
-        @Query("update Rental r set r.status = ?1, r.actualReturnDate = ?2 where r.id = ?3")
-        void updateStatusAndReturnDate(RentalStatus status, LocalDateTime actualReturnDate, Long id);
+        default void updateStatusAndReturnDate(RentalStatus status, LocalDateTime actualReturnDate, Long id) {
+                findById(id).ifPresent(rental -> {
+                        rental.setStatus(status);
+                        rental.setActualReturnDate(actualReturnDate);
+                });
+        }
 
         @Transactional
-        @Modifying
-        @Query("update Rental r set r.status = ?1, r.actualReturnDate = ?2, r.earlyTerminationFee = ?3, " +
-                        "r.totalAmount = ?4, r.endedEarly = true, r.originalTotalAmount = r.totalAmount where r.id = ?5")
-        void updateForEarlyTermination(RentalStatus status, LocalDateTime actualReturnDate,
-                        BigDecimal earlyTerminationFee, BigDecimal newTotalAmount, Long id);
+        default void updateForEarlyTermination(RentalStatus status, LocalDateTime actualReturnDate,
+                        BigDecimal earlyTerminationFee, BigDecimal newTotalAmount, Long id) {
+                findById(id).ifPresent(rental -> {
+                        rental.setOriginalTotalAmount(rental.getTotalAmount());
+                        rental.setStatus(status);
+                        rental.setActualReturnDate(actualReturnDate);
+                        rental.setEarlyTerminationFee(earlyTerminationFee);
+                        rental.setTotalAmount(newTotalAmount);
+                        rental.setEndedEarly(true);
+                });
+        }
 
         @Transactional
-        @Modifying
-        @Query("update Rental r set r.endDate = ?1, r.totalAmount = ?2 where r.id = ?3")
-        void updateRentalEndDate(LocalDateTime newEndDate, BigDecimal newTotalAmount, Long id);
+        default void updateRentalEndDate(LocalDateTime newEndDate, BigDecimal newTotalAmount, Long id) {
+                findById(id).ifPresent(rental -> {
+                        rental.setEndDate(newEndDate);
+                        rental.setTotalAmount(newTotalAmount);
+                });
+        }
+
+        /**
+         * Locações alteradas depois da posição (since, afterId) e antes de
+         * until, em ordem de (updatedAt, id), servidas por idx_rentals_updated
+         */
+        @Query("SELECT r FROM Rental r JOIN FETCH r.vehicle JOIN FETCH r.customer "
+                        + "WHERE (r.updatedAt > :since OR (r.updatedAt = :since AND r.id > :afterId)) "
+                        + "AND r.updatedAt < :until ORDER BY r.updatedAt, r.id")
+        List<Rental> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                        @Param("until") LocalDateTime until, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.RentalView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas das listagens de locações sobre a tabela desnormalizada
+ * rental_view; cada método corresponde a um índice da tabela.
+ */
+@Repository
+public interface RentalViewRepository extends JpaRepository<RentalView, Long> {
+
+        List<RentalView> findByCustomerId(Long customerId);
+
+        List<RentalView> findByVehicleId(Long vehicleId);
+
+        long countByStatus(RentalStatus status);
+
+        /**
+         * Locações que têm algum dia dentro de [start, end]
+         */
+        @Query("SELECT r FROM RentalView r WHERE r.startDate <= :end AND r.endDate >= :start")
+        List<RentalView> findOverlapping(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        @Query("SELECT r FROM RentalView r WHERE r.customerId = :customerId AND r.startDate <= :end AND r.endDate >= :start")
+        List<RentalView> findOverlappingByCustomerId(@Param("customerId") Long customerId,
+                        @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        @Query("SELECT r FROM RentalView r WHERE r.vehicleId = :vehicleId AND r.startDate <= :end AND r.endDate >= :start")
+        List<RentalView> findOverlappingByVehicleId(@Param("vehicleId") Long vehicleId,
+                        @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        @Query("SELECT r FROM RentalView r WHERE r.status = :status AND r.startDate <= :end AND r.endDate >= :start")
+        List<RentalView> findOverlappingByStatus(@Param("status") RentalStatus status,
+                        @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
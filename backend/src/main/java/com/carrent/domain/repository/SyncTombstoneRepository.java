@@ -0,0 +1,37 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.SyncEntityType;
+import com.carrent.domain.entity.SyncTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+        /**
+         * Remoções registradas depois do tombstone afterId e antes de until,
+         * servidas por idx_sync_tombstones_type
+         */
+        @Query("SELECT t FROM SyncTombstone t WHERE t.entityType = :type AND t.id > :afterId "
+                        + "AND t.deletedAt < :until ORDER BY t.id")
+        List<SyncTombstone> findRecordedSince(@Param("type") SyncEntityType type, @Param("afterId") Long afterId,
+                        @Param("until") LocalDateTime until, Pageable pageable);
+
+        /**
+         * Posição inicial para quem começa do zero: remoções anteriores não
+         * interessam a quem ainda não tem cópia local
+         */
+        @Query("SELECT COALESCE(MAX(t.id), 0) FROM SyncTombstone t WHERE t.deletedAt < :until")
+        long findLastRecordedBefore(@Param("until") LocalDateTime until);
+
+        @Modifying
+        @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :before")
+        int deleteRecordedBefore(@Param("before") LocalDateTime before);
+}
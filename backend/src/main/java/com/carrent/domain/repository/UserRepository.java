@@ -2,15 +2,21 @@ package com.carrent.domain.repository;
 
 import com.carrent.domain.entity.Role;
 import com.carrent.domain.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends NaturalIdRepository<User, Long> {
+
+    /**
+     * Busca pela chave natural; atende a autenticação de cada requisição a
+     * partir do cache de segundo nível
+     */
+    default Optional<User> findByEmail(String email) {
+        return findBySimpleNaturalId(email);
+    }
 
     boolean existsByEmail(String email);
 
@@ -3,35 +3,114 @@ package com.carrent.domain.repository;
 import com.carrent.domain.entity.Vehicle;
 import com.carrent.domain.entity.VehicleCategory;
 import com.carrent.domain.entity.VehicleStatus;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
-    Optional<Vehicle> findByPlate(String plate);
+public interface VehicleRepository extends NaturalIdRepository<Vehicle, Long> {
 
+    /**
+     * Região do cache de consultas usada pelas buscas do catálogo
+     */
+    String CATALOG_REGION = "vehicle-catalog";
+
+    default Optional<Vehicle> findByPlate(String plate) {
+        return findBySimpleNaturalId(plate);
+    }
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_REGION)
+    })
     List<Vehicle> findByAvailableTrue();
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_REGION)
+    })
     List<Vehicle> findByCategoryAndAvailableTrue(VehicleCategory category);
 
+    /**
+     * Candidatos a substituto na reserva em grupo; lido do banco, sem o cache
+     * de consultas, porque a disponibilidade é conferida logo em seguida
+     */
+    List<Vehicle> findByCategoryInAndAvailableTrue(Collection<VehicleCategory> categories);
+
+    /**
+     * Bloqueia os veículos até o fim da transação. O ORDER BY faz o banco
+     * percorrer a chave primária em ordem crescente, de modo que duas
+     * transações que bloqueiam conjuntos sobrepostos sempre disputam os
+     * veículos na mesma ordem e não entram em deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id")
+    List<Vehicle> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     boolean existsByPlate(String plate);
 
-    Optional<Vehicle> findVehicleByPlate(String plate);
+    long countByAvailableTrue();
 
+    default Optional<Vehicle> findVehicleByPlate(String plate) {
+        return findBySimpleNaturalId(plate);
+    }
+
+    /**
+     * Altera status e disponibilidade pela entidade gerenciada, e não por um
+     * UPDATE em massa: o UPDATE em JPQL invalidaria a região inteira de
+     * veículos no cache de segundo nível a cada transição de locação.
+     */
     @Transactional
-    @Modifying
-    @Query("update Vehicle v set v.status = ?1, v.available = ?2 where v.id = ?3")
-    void updateStatus(VehicleStatus status, Boolean available, Long id);
+    default void updateStatus(VehicleStatus status, Boolean available, Long id) {
+        findById(id).ifPresent(vehicle -> {
+            vehicle.setStatus(status);
+            vehicle.setAvailable(available);
+        });
+    }
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_REGION)
+    })
     List<Vehicle> findByAvailable(Boolean available);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_REGION)
+    })
     List<Vehicle> findByCategory(VehicleCategory category);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_REGION)
+    })
     List<Vehicle> findByStatus(VehicleStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Fim do último compromisso pendente ou em andamento do veículo, lido
+     * pela chave primária e sem passar pelo cache de segundo nível
+     */
+    @Query("SELECT v.nextFreeAt FROM Vehicle v WHERE v.id = :id")
+    Optional<LocalDateTime> findNextFreeAt(@Param("id") Long id);
+
+    /**
+     * Veículos alterados depois da posição (since, afterId) e antes de until,
+     * em ordem de (updatedAt, id), servidos por idx_vehicles_updated
+     */
+    @Query("SELECT v FROM Vehicle v WHERE (v.updatedAt > :since OR (v.updatedAt = :since AND v.id > :afterId)) "
+            + "AND v.updatedAt < :until ORDER BY v.updatedAt, v.id")
+    List<Vehicle> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+            @Param("until") LocalDateTime until, Pageable pageable);
+}
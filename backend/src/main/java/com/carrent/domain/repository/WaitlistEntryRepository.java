@@ -0,0 +1,66 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.WaitlistEntry;
+import com.carrent.domain.entity.WaitlistStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByUserIdAndStatusOrderByStartDate(Long userId, WaitlistStatus status);
+
+    long countByCustomerIdAndStatus(Long customerId, WaitlistStatus status);
+
+    long countByStatus(WaitlistStatus status);
+
+    /**
+     * Entradas em espera da categoria cujo período cabe inteiro em [from, to],
+     * da maior para a menor prioridade e, no empate, por ordem de chegada;
+     * servida por idx_waitlist_entries_category. Limitada pela página, para
+     * que um evento não leia todas as entradas da categoria
+     */
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status = com.carrent.domain.entity.WaitlistStatus.WAITING "
+            + "AND w.category = :category AND w.startDate >= :from AND w.endDate <= :to "
+            + "ORDER BY w.priority DESC, w.id")
+    List<WaitlistEntry> findWaitingWithin(@Param("category") VehicleCategory category,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+
+    /**
+     * Marca a entrada como atendida, se ainda estiver esperando. Condicional
+     * para que duas instâncias não atendam a mesma entrada.
+     *
+     * @return 1 se a entrada foi marcada, 0 se já não estava esperando
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.carrent.domain.entity.WaitlistStatus.FULFILLED, "
+            + "w.rentalId = :rentalId, w.updatedAt = :now "
+            + "WHERE w.id = :id AND w.status = com.carrent.domain.entity.WaitlistStatus.WAITING")
+    int markFulfilled(@Param("id") Long id, @Param("rentalId") Long rentalId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.carrent.domain.entity.WaitlistStatus.CANCELLED, "
+            + "w.updatedAt = :now WHERE w.id = :id AND w.userId = :userId "
+            + "AND w.status = com.carrent.domain.entity.WaitlistStatus.WAITING")
+    int cancel(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Encerra as entradas cujo período já começou; servida por
+     * idx_waitlist_entries_status_start
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = com.carrent.domain.entity.WaitlistStatus.EXPIRED, "
+            + "w.updatedAt = :now WHERE w.status = com.carrent.domain.entity.WaitlistStatus.WAITING "
+            + "AND w.startDate < :now")
+    int expireStartedBefore(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,27 @@
+package com.carrent.infrastructure.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Agrupa chamadas concorrentes idênticas (mesmo método e mesmos argumentos) em
+ * uma única execução. As chamadas que chegam enquanto a primeira está em
+ * andamento recebem o mesmo resultado, que deve ser tratado como imutável.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+
+    /**
+     * Nome usado nas métricas e na chave; por padrão Classe.metodo
+     */
+    String value() default "";
+
+    /**
+     * Tempo máximo de espera pela execução em andamento. Esgotado o prazo, a
+     * chamada executa o método por conta própria.
+     */
+    long timeoutMs() default 5000;
+}
@@ -0,0 +1,45 @@
+package com.carrent.infrastructure.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.archive")
+public class ArchiveProperties {
+
+    /**
+     * Liga o job de arquivamento; as leituras consultam o arquivo de qualquer forma
+     */
+    private boolean enabled = true;
+
+    /**
+     * Meses, contados do término, que uma locação encerrada fica em rentals.
+     * Só deve crescer junto com a volta das locações já arquivadas, pois as
+     * leituras usam este valor para decidir quando consultar o arquivo.
+     */
+    private int retentionMonths = 12;
+
+    /**
+     * Locações movidas por transação
+     */
+    private int batchSize = 500;
+
+    /**
+     * Limite de lotes por execução, para não ocupar o banco por muito tempo
+     */
+    private int maxBatchesPerRun = 200;
+
+    private long intervalMs = 3600000;
+
+    /**
+     * Locações encerradas que terminaram antes deste instante podem estar no
+     * arquivo; as que terminaram depois certamente estão em rentals.
+     */
+    public LocalDateTime horizon() {
+        return LocalDateTime.now().minusMonths(retentionMonths);
+    }
+}
@@ -0,0 +1,122 @@
+package com.carrent.infrastructure.archive;
+
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.SyncEntityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Move para rentals_archive as locações encerradas (concluídas, canceladas
+ * ou encerradas antecipadamente) que terminaram há mais que a retenção.
+ * <p>
+ * Cada lote roda em sua própria transação: reserva as locações com
+ * SELECT ... FOR UPDATE SKIP LOCKED, copia-as já com os dados do cliente e do
+ * veículo e as remove de rentals e da rental_view. Assim várias instâncias
+ * podem rodar o job ao mesmo tempo e uma falha desfaz apenas o lote corrente.
+ * <p>
+ * O feed de sincronização cobre só as locações em rentals: cada locação
+ * arquivada ganha um tombstone em sync_tombstones no mesmo lote, e os
+ * clientes a tiram da cópia local como se tivesse sido removida.
+ */
+@Slf4j
+public class RentalArchiver {
+
+    private static final String CLOSED_STATUSES = Arrays.stream(RentalStatus.values())
+            .filter(RentalStatus::isClosed)
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", "));
+
+    // end_date >= start_date: o filtro em start_date permite usar idx_rentals_status_start
+    private static final String CLAIM_SQL = "SELECT id FROM rentals WHERE status IN (" + CLOSED_STATUSES + ") "
+            + "AND start_date < ? AND end_date < ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String COPY_SQL = "INSERT INTO rentals_archive (id, customer_id, customer_name, "
+            + "vehicle_id, vehicle_brand, vehicle_model, vehicle_plate, vehicle_category, vehicle_daily_rate, "
+            + "start_date, end_date, actual_return_date, status, total_amount, original_total_amount, "
+            + "early_termination_fee, ended_early, notes, created_at, updated_at, archived_at) "
+            + "SELECT r.id, c.id, c.name, v.id, v.brand, v.model, v.plate, v.category, v.daily_rate, "
+            + "r.start_date, r.end_date, r.actual_return_date, r.status, r.total_amount, r.original_total_amount, "
+            + "r.early_termination_fee, r.ended_early, r.notes, r.created_at, r.updated_at, :archivedAt "
+            + "FROM rentals r JOIN customers c ON c.id = r.customer_id JOIN vehicles v ON v.id = r.vehicle_id "
+            + "WHERE r.id IN (:ids)";
+    private static final String TOMBSTONE_SQL = "INSERT INTO sync_tombstones (entity_type, entity_id, deleted_at) "
+            + "SELECT '" + SyncEntityType.RENTAL.name() + "', id, :archivedAt FROM rentals WHERE id IN (:ids)";
+    private static final String DELETE_VIEW_SQL = "DELETE FROM rental_view WHERE id IN (:ids)";
+    private static final String DELETE_SQL = "DELETE FROM rentals WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final ArchiveProperties properties;
+
+    private final Counter archived;
+    private final Timer batchTimer;
+
+    public RentalArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ArchiveProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.archived = Counter.builder("carrent.archive.rentals")
+                .description("Locações movidas para rentals_archive")
+                .register(registry);
+        this.batchTimer = Timer.builder("carrent.archive.batch")
+                .description("Duração de cada lote de arquivamento")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${application.archive.interval-ms:3600000}",
+            fixedDelayString = "${application.archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime horizon = properties.horizon();
+        int total = 0;
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                int moved = batchTimer.record(() -> archiveBatch(horizon));
+                total += moved;
+                if (moved < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao arquivar locações anteriores a {}", horizon, e);
+        }
+        if (total > 0) {
+            log.info("{} locação(ões) encerrada(s) antes de {} arquivada(s)", total, horizon);
+        }
+    }
+
+    /**
+     * Arquiva um lote e devolve quantas locações foram movidas
+     */
+    int archiveBatch(LocalDateTime horizon) {
+        Integer moved = batchTransaction.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(CLAIM_SQL, Long.class,
+                    horizon, horizon, properties.getBatchSize());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                    .addValue("archivedAt", LocalDateTime.now());
+            namedJdbcTemplate.update(COPY_SQL, params);
+            namedJdbcTemplate.update(TOMBSTONE_SQL, params);
+            namedJdbcTemplate.update(DELETE_VIEW_SQL, params);
+            return namedJdbcTemplate.update(DELETE_SQL, params);
+        });
+        archived.increment(moved);
+        return moved;
+    }
+}
@@ -0,0 +1,101 @@
+package com.carrent.infrastructure.aspect;
+
+import com.carrent.infrastructure.annotation.SingleFlight;
+import com.carrent.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Implementa {@link SingleFlight}. Executa fora da transação do método
+ * anotado, para que as chamadas agrupadas não abram transações próprias.
+ * Quem acabou de escrever lê do primário ({@link ReadYourWritesTracker}) e
+ * executa sozinho: o resultado de um líder lido na réplica pode ainda não
+ * conter a escrita.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+    private final MeterRegistry registry;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightAspect(MeterRegistry registry, ReadYourWritesTracker readYourWritesTracker) {
+        this.registry = registry;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Around("@annotation(com.carrent.infrastructure.annotation.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        SingleFlight singleFlight = signature.getMethod().getAnnotation(SingleFlight.class);
+        String name = singleFlight.value().isEmpty()
+                ? signature.getDeclaringType().getSimpleName() + "." + signature.getName()
+                : singleFlight.value();
+        if (readYourWritesTracker.isSticky()) {
+            counter(name, "sticky").increment();
+            return joinPoint.proceed();
+        }
+        FlightKey key = new FlightKey(name, Arrays.asList(joinPoint.getArgs()));
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing == null) {
+            counter(name, "leader").increment();
+            try {
+                Object result = joinPoint.proceed();
+                flight.complete(result);
+                return result;
+            } catch (Throwable e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        try {
+            Object result = existing.get(singleFlight.timeoutMs(), TimeUnit.MILLISECONDS);
+            counter(name, "shared").increment();
+            return result;
+        } catch (ExecutionException e) {
+            counter(name, "shared").increment();
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            counter(name, "timeout").increment();
+            return joinPoint.proceed();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private Counter counter(String name, String result) {
+        return Counter.builder("carrent.singleflight.calls")
+                .description("Chamadas agrupadas pelo single-flight (shared = duplicadas suprimidas, sticky = lidas do primário)")
+                .tag("name", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record FlightKey(String name, List<Object> args) {
+    }
+}
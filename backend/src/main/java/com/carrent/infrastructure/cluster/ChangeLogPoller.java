@@ -0,0 +1,209 @@
+package com.carrent.infrastructure.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê o cluster_change_log em ordem de sequência e entrega aos listeners as
+ * alterações feitas pelas demais instâncias.
+ * <p>
+ * Uma sequência faltante pode ser uma transação ainda não confirmada (o
+ * AUTO_INCREMENT é atribuído antes do commit) ou uma transação desfeita.
+ * A leitura não para na lacuna: a sequência é lembrada e procurada de novo
+ * nas leituras seguintes por até gapTimeoutMs, e a alteração é entregue se
+ * aparecer nesse prazo. Depois disso é tratada como transação desfeita e
+ * esquecida, sem descartar o estado local.
+ * <p>
+ * Os listeners só recebem onReset() quando podem ter perdido alterações de
+ * fato: se a instância ficou sem ler o registro por mais que a retenção, a
+ * limpeza pode ter removido alterações que ela não leu.
+ */
+@Slf4j
+public class ChangeLogPoller {
+
+    private static final String SELECT_SQL = "SELECT id, node_id, entity_type, entity_id, created_at "
+            + "FROM cluster_change_log WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String GAPS_SQL = "SELECT id, node_id, entity_type, entity_id, created_at "
+            + "FROM cluster_change_log WHERE id IN (:ids)";
+    private static final String PURGE_SQL = "DELETE FROM cluster_change_log "
+            + "WHERE created_at < TIMESTAMPADD(MINUTE, ?, CURRENT_TIMESTAMP) LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final List<ClusterChangeListener> listeners;
+    private final ClusterProperties properties;
+
+    private final Counter received;
+    private final Counter gaps;
+    private final Timer delay;
+
+    private volatile long lastSequence = -1;
+    private long lastReadAt;
+
+    /**
+     * Sequências faltantes ainda aguardadas, com o instante em que a lacuna
+     * foi vista
+     */
+    private final Map<Long, Long> pendingGaps = new LinkedHashMap<>();
+
+    public ChangeLogPoller(JdbcTemplate jdbcTemplate, List<ClusterChangeListener> listeners,
+            ClusterProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.listeners = listeners;
+        this.properties = properties;
+        this.received = Counter.builder("carrent.cluster.changes.received")
+                .description("Alterações recebidas de outras instâncias")
+                .register(registry);
+        this.gaps = Counter.builder("carrent.cluster.changes.gaps")
+                .description("Sequências faltantes no registro de alterações que não apareceram no prazo")
+                .register(registry);
+        this.delay = Timer.builder("carrent.cluster.changes.delay")
+                .description("Tempo entre a gravação da alteração e sua aplicação nesta instância")
+                .register(registry);
+        Gauge.builder("carrent.cluster.changes.sequence", this, ChangeLogPoller::getLastSequence)
+                .description("Última sequência aplicada nesta instância")
+                .register(registry);
+        Gauge.builder("carrent.cluster.changes.pending_gaps", this, ChangeLogPoller::getPendingGaps)
+                .description("Sequências faltantes ainda aguardadas")
+                .register(registry);
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized int getPendingGaps() {
+        return pendingGaps.size();
+    }
+
+    @Scheduled(fixedDelayString = "${application.cluster.poll-interval-ms:500}")
+    public synchronized void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            if (lastSequence < 0) {
+                // Ao iniciar, o estado local já é o do banco: só interessa o que vier depois
+                Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cluster_change_log", Long.class);
+                lastSequence = max == null ? 0 : max;
+                lastReadAt = now;
+                return;
+            }
+            List<LogRow> late = pendingGaps.isEmpty() ? List.of() : namedJdbcTemplate.query(GAPS_SQL,
+                    new MapSqlParameterSource("ids", pendingGaps.keySet()), ROW_MAPPER);
+            List<LogRow> rows = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, lastSequence, properties.getBatchSize());
+            // Sem ler por mais que a retenção, a limpeza pode ter levado alterações não lidas
+            boolean missed = now - lastReadAt >= Duration.ofMinutes(properties.getRetentionMinutes()).toMillis();
+            lastReadAt = now;
+            apply(late, rows, missed, now);
+        } catch (Exception e) {
+            log.warn("Falha ao ler o registro de alterações do cluster: {}", e.getMessage());
+        }
+    }
+
+    private void apply(List<LogRow> late, List<LogRow> rows, boolean missed, long now) {
+        List<EntityChange> changes = new ArrayList<>();
+        for (LogRow row : late) {
+            pendingGaps.remove(row.id());
+            collect(row, changes, now);
+        }
+        for (LogRow row : rows) {
+            for (long gap = lastSequence + 1; gap < row.id(); gap++) {
+                pendingGaps.put(gap, now);
+            }
+            lastSequence = row.id();
+            collect(row, changes, now);
+        }
+        expireGaps(now);
+
+        if (!changes.isEmpty()) {
+            received.increment(changes.size());
+            for (ClusterChangeListener listener : listeners) {
+                notify(listener, () -> listener.onChanges(changes));
+            }
+        }
+        if (missed || pendingGaps.size() > properties.getMaxPendingGaps()) {
+            log.warn("Alterações do cluster possivelmente perdidas ({} sequências faltantes aguardadas); "
+                    + "descartando o estado local", pendingGaps.size());
+            pendingGaps.clear();
+            for (ClusterChangeListener listener : listeners) {
+                notify(listener, listener::onReset);
+            }
+        }
+    }
+
+    private void collect(LogRow row, List<EntityChange> changes, long now) {
+        if (!properties.getNodeId().equals(row.nodeId())) {
+            changes.add(new EntityChange(row.id(), row.entityType(), row.entityId()));
+            delay.record(Duration.ofMillis(Math.max(0, now - row.createdAt().getTime())));
+        }
+    }
+
+    /**
+     * Esquece as sequências que não apareceram no prazo: a transação que as
+     * reservou foi desfeita
+     */
+    private void expireGaps(long now) {
+        int expired = 0;
+        Iterator<Map.Entry<Long, Long>> iterator = pendingGaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue() >= properties.getGapTimeoutMs()) {
+                iterator.remove();
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            gaps.increment(expired);
+            log.debug("{} sequência(s) do registro de alterações não apareceram no prazo", expired);
+        }
+    }
+
+    private void notify(ClusterChangeListener listener, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("Erro ao aplicar alterações do cluster em {}", listener.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Remove em lotes pequenos as alterações mais antigas que a retenção
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purge() {
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, -properties.getRetentionMinutes(),
+                        properties.getBatchSize());
+            } while (deleted == properties.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Falha ao limpar o registro de alterações do cluster: {}", e.getMessage());
+        }
+    }
+
+    private static final RowMapper<LogRow> ROW_MAPPER = (rs, i) -> new LogRow(
+            rs.getLong("id"),
+            rs.getString("node_id"),
+            rs.getString("entity_type"),
+            rs.getLong("entity_id"),
+            rs.getTimestamp("created_at"));
+
+    private record LogRow(long id, String nodeId, String entityType, long entityId, Timestamp createdAt) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.carrent.infrastructure.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registra no cluster_change_log as entidades alteradas em cada transação.
+ * As linhas são gravadas em lote, na mesma transação e conexão da alteração,
+ * logo antes do commit: se a transação for desfeita, nada é publicado.
+ */
+public class ChangeLogRecorder implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String INSERT_SQL =
+            "INSERT INTO cluster_change_log (node_id, entity_type, entity_id) VALUES (?, ?, ?)";
+
+    private final Set<String> trackedEntities;
+    private final String nodeId;
+    private final Counter published;
+    private final Map<SharedSessionContractImplementor, Set<PendingChange>> pending = new ConcurrentHashMap<>();
+
+    public ChangeLogRecorder(Set<Class<?>> trackedEntities, String nodeId, MeterRegistry registry) {
+        this.trackedEntities = trackedEntities.stream().map(Class::getName).collect(Collectors.toSet());
+        this.nodeId = nodeId;
+        this.published = Counter.builder("carrent.cluster.changes.published")
+                .description("Alterações de entidades publicadas para as demais instâncias")
+                .register(registry);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Publica um aviso que não vem de uma entidade (um segmento novo, por
+     * exemplo) na transação corrente do JdbcTemplate; só chega às demais
+     * instâncias se ela for confirmada
+     */
+    public void publish(JdbcTemplate jdbcTemplate, String type, long id) {
+        jdbcTemplate.update(INSERT_SQL, nodeId, type, id);
+        published.increment();
+    }
+
+    private void record(EventSource session, EntityPersister persister, Object id) {
+        String entityName = persister.getEntityName();
+        if (!trackedEntities.contains(entityName) || !(id instanceof Number number)) {
+            return;
+        }
+        Set<PendingChange> changes = pending.computeIfAbsent(session, s -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::flush);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) ->
+                    pending.remove(completed));
+            return new LinkedHashSet<>();
+        });
+        changes.add(new PendingChange(entityName, number.longValue()));
+    }
+
+    private void flush(SessionImplementor session) {
+        Set<PendingChange> changes = pending.remove(session);
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (PendingChange change : changes) {
+                    statement.setString(1, nodeId);
+                    statement.setString(2, change.entityType());
+                    statement.setLong(3, change.entityId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        published.increment(changes.size());
+    }
+
+    private record PendingChange(String entityType, long entityId) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.carrent.infrastructure.cluster;
+
+import java.util.List;
+
+/**
+ * Recebe as alterações feitas por outras instâncias, em lotes e em ordem de
+ * sequência. A alteração de uma transação que confirmou depois das seguintes
+ * chega num lote posterior, fora de ordem.
+ */
+public interface ClusterChangeListener {
+
+    void onChanges(List<EntityChange> changes);
+
+    /**
+     * Chamado quando alterações podem ter sido perdidas (a instância ficou sem
+     * ler o registro por mais que a retenção): o estado local deve ser
+     * descartado por completo, pois não se sabe o que foi alterado
+     */
+    void onReset();
+}
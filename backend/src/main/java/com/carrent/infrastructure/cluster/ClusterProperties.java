@@ -0,0 +1,42 @@
+package com.carrent.infrastructure.cluster;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.UUID;
+
+/**
+ * Configuração do barramento de alterações entre instâncias
+ */
+@Getter
+@Setter
+@ConfigurationProperties("application.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Identificador desta instância; alterações gravadas por ela mesma são
+     * ignoradas na leitura
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    private long pollIntervalMs = 500;
+
+    private int batchSize = 500;
+
+    /**
+     * Tempo em que uma sequência faltante continua sendo procurada antes de
+     * ser tratada como transação desfeita
+     */
+    private long gapTimeoutMs = 5000;
+
+    /**
+     * Sequências faltantes aguardadas ao mesmo tempo; acima disso o estado
+     * local é descartado, pois não é mais uma transação em andamento
+     */
+    private int maxPendingGaps = 1000;
+
+    private long retentionMinutes = 60;
+}
@@ -0,0 +1,15 @@
+package com.carrent.infrastructure.cluster;
+
+/**
+ * Alteração de uma entidade registrada por outra instância
+ *
+ * @param sequence   número de sequência no registro de alterações
+ * @param entityType nome da entidade no Hibernate (nome qualificado da classe)
+ * @param entityId   identificador da entidade alterada
+ */
+public record EntityChange(long sequence, String entityType, long entityId) {
+
+    public boolean isOf(Class<?> type) {
+        return type.getName().equals(entityType);
+    }
+}
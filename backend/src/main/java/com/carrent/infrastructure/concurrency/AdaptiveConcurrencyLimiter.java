@@ -0,0 +1,117 @@
+package com.carrent.infrastructure.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limitador de concorrência adaptativo baseado em gradiente de latência.
+ * <p>
+ * O limite cresce enquanto a latência de curto prazo acompanha a latência de
+ * referência (longo prazo) e encolhe proporcionalmente quando ela se degrada,
+ * por exemplo quando o pool do MySQL começa a enfileirar conexões. Falhas
+ * (timeouts, erros de infraestrutura) aplicam uma redução multiplicativa,
+ * no estilo AIMD. Só as latências de prioridade NORMAL e CRITICAL entram no
+ * gradiente: exportações e relatórios são lentos por natureza e fariam o
+ * limite encolher sem que o banco estivesse sobrecarregado.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double lowPriorityRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double estimatedLimit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+            double lowPriorityRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites de concorrência inválidos: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.lowPriorityRatio = lowPriorityRatio;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Tenta reservar uma vaga para a requisição.
+     *
+     * @param priority Prioridade da requisição
+     * @return true se a requisição foi admitida; nesse caso {@link #release}
+     *         deve ser chamado ao final
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int ceiling = ceilingFor(priority);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga e alimenta o estimador com a latência observada.
+     *
+     * @param priority Prioridade com que a requisição foi admitida
+     * @param rttNanos Tempo de processamento da requisição
+     * @param dropped  true se a requisição falhou por sobrecarga (timeout,
+     *                 erro de banco); nesse caso o limite é reduzido
+     */
+    public void release(RequestPriority priority, long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_DECREASE_FACTOR);
+                return;
+            }
+            if (rttNanos <= 0 || priority == RequestPriority.LOW) {
+                return;
+            }
+            shortRttNanos = shortRttNanos == 0 ? rttNanos : shortRttNanos * 0.9 + rttNanos * 0.1;
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * 0.99 + rttNanos * 0.01;
+
+            // Sem demanda suficiente não há sinal para aumentar o limite
+            if (inFlightAtCompletion < estimatedLimit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRttNanos / shortRttNanos));
+            double queueSize = Math.sqrt(estimatedLimit);
+            double newLimit = estimatedLimit * gradient + queueSize;
+            newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+            // Quando a latência se recupera, a referência de longo prazo acompanha
+            if (longRttNanos > shortRttNanos * 2) {
+                longRttNanos *= 0.95;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private int ceilingFor(RequestPriority priority) {
+        return switch (priority) {
+            case CRITICAL -> maxLimit;
+            case NORMAL -> getLimit();
+            case LOW -> Math.max(1, (int) (getLimit() * lowPriorityRatio));
+        };
+    }
+}
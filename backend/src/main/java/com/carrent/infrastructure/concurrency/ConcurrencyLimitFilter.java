@@ -0,0 +1,178 @@
+package com.carrent.infrastructure.concurrency;
+
+import com.carrent.web.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filtro de admissão que aplica o {@link AdaptiveConcurrencyLimiter} antes da
+ * autenticação e dos controllers. Requisições recusadas recebem 503 com o
+ * cabeçalho Retry-After.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Endpoints de baixa prioridade: descartados primeiro sob carga
+     */
+    private static final List<String> LOW_PRIORITY_ENDPOINTS = List.of(
+            "/admin/metrics/**",
+            "/**/export/**",
+            "/**/reports/**");
+
+    /**
+     * Endpoints de operação não passam pelo limitador, nem os streams SSE, que
+     * ocupariam uma vaga enquanto a conexão estivesse aberta
+     */
+    private static final List<String> EXCLUDED_ENDPOINTS = List.of(
+            "/actuator/**",
+            "/management/**",
+            "/**/notifications/stream");
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Map<RequestPriority, Counter> shedCounters = new EnumMap<>(RequestPriority.class);
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${application.concurrency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.concurrency.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+            MeterRegistry registry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        for (RequestPriority priority : RequestPriority.values()) {
+            shedCounters.put(priority, Counter.builder("carrent.concurrency.shed")
+                    .description("Número de requisições descartadas pelo limitador de concorrência")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !enabled || EXCLUDED_ENDPOINTS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestPriority priority = classify(request);
+        if (!limiter.tryAcquire(priority)) {
+            shedCounters.get(priority).increment();
+            log.warn("Requisição descartada por sobrecarga: {} {} (prioridade {}, limite {})",
+                    request.getMethod(), request.getServletPath(), priority, limiter.getLimit());
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            limiter.release(priority, System.nanoTime() - start, true);
+            throw e;
+        }
+
+        if (request.isAsyncStarted()) {
+            // A vaga só é liberada quando o processamento assíncrono terminar
+            request.getAsyncContext().addListener(new ReleaseOnCompleteListener(priority, start));
+        } else {
+            limiter.release(priority, System.nanoTime() - start, isOverloadStatus(response.getStatus()));
+        }
+    }
+
+    RequestPriority classify(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (LOW_PRIORITY_ENDPOINTS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+            return RequestPriority.LOW;
+        }
+        if (pathMatcher.match("/rentals/**", path) || "/rentals".equals(path)) {
+            return READ_METHODS.contains(request.getMethod()) ? RequestPriority.NORMAL : RequestPriority.CRITICAL;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private boolean isOverloadStatus(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Serviço sobrecarregado")
+                .message("O servidor está temporariamente sobrecarregado. Tente novamente em instantes.")
+                .path(request.getRequestURI())
+                .build());
+    }
+
+    private class ReleaseOnCompleteListener implements AsyncListener {
+
+        private final RequestPriority priority;
+        private final long start;
+
+        ReleaseOnCompleteListener(RequestPriority priority, long start) {
+            this.priority = priority;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            limiter.release(priority, System.nanoTime() - start, isOverloadStatus(response.getStatus()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete é sempre chamado em seguida; o timeout é tratado pelo status 503
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete é sempre chamado em seguida
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.carrent.infrastructure.concurrency;
+
+/**
+ * Prioridade de uma requisição perante o limitador de concorrência.
+ * Requisições de menor prioridade são descartadas primeiro quando o limite é
+ * atingido.
+ */
+public enum RequestPriority {
+    /** Escritas de aluguéis: só são recusadas no teto absoluto de concorrência */
+    CRITICAL,
+    /** Tráfego comum da API */
+    NORMAL,
+    /** Relatórios, exportações e métricas administrativas */
+    LOW
+}
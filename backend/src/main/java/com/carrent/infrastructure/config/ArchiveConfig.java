@@ -0,0 +1,29 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.archive.ArchiveProperties;
+import com.carrent.infrastructure.archive.RentalArchiver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Arquivamento das locações encerradas.
+ * As propriedades ficam disponíveis mesmo com o job desligado, pois as
+ * leituras do histórico usam a retenção para decidir se consultam o arquivo.
+ */
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.archive", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public RentalArchiver rentalArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ArchiveProperties properties, MeterRegistry registry) {
+        return new RentalArchiver(jdbcTemplate, transactionManager, properties, registry);
+    }
+}
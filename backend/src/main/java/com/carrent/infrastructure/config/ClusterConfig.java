@@ -0,0 +1,60 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.domain.entity.BroadcastNotification;
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Notification;
+import com.carrent.domain.entity.NotificationCounter;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.infrastructure.cluster.ChangeLogPoller;
+import com.carrent.infrastructure.cluster.ChangeLogRecorder;
+import com.carrent.infrastructure.cluster.ClusterChangeListener;
+import com.carrent.infrastructure.cluster.ClusterProperties;
+import com.carrent.infrastructure.persistence.EventListenerIntegrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.integrator.spi.Integrator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Barramento de alterações entre instâncias.
+ * As alterações de veículos, locações, clientes e usuários são gravadas no
+ * cluster_change_log junto com a transação que as causou; cada instância lê
+ * o registro periodicamente e invalida o próprio estado em memória. As
+ * notificações e os broadcasts também passam pelo registro, para chegar aos
+ * streams SSE abertos em outras instâncias, e os contadores de não lidas, que ficam no
+ * cache de segundo nível.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ClusterProperties.class)
+@ConditionalOnProperty(prefix = "application.cluster", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterConfig {
+
+    @Bean
+    public ChangeLogRecorder changeLogRecorder(ClusterProperties properties, MeterRegistry registry) {
+        log.info("Instância {} registrada no barramento de alterações do cluster", properties.getNodeId());
+        return new ChangeLogRecorder(Set.of(Vehicle.class, Rental.class, Customer.class, User.class,
+                Notification.class, NotificationCounter.class, BroadcastNotification.class),
+                properties.getNodeId(), registry);
+    }
+
+    @Bean
+    public Integrator changeLogIntegrator(ChangeLogRecorder changeLogRecorder) {
+        return new EventListenerIntegrator(changeLogRecorder);
+    }
+
+    @Bean
+    public ChangeLogPoller changeLogPoller(JdbcTemplate jdbcTemplate, List<ClusterChangeListener> listeners,
+            ClusterProperties properties, MeterRegistry registry) {
+        return new ChangeLogPoller(jdbcTemplate, listeners, properties, registry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.concurrency.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConcurrencyLimitConfiguration {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            MeterRegistry registry,
+            @Value("${application.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${application.concurrency.min-limit:5}") int minLimit,
+            @Value("${application.concurrency.max-limit:200}") int maxLimit,
+            @Value("${application.concurrency.smoothing:0.2}") double smoothing,
+            @Value("${application.concurrency.low-priority-ratio:0.5}") double lowPriorityRatio) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, smoothing, lowPriorityRatio);
+
+        Gauge.builder("carrent.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Limite atual de requisições concorrentes")
+                .register(registry);
+
+        Gauge.builder("carrent.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Número de requisições em processamento")
+                .register(registry);
+
+        return limiter;
+    }
+}
@@ -0,0 +1,122 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.datasource.ReadWriteRoutingDataSource;
+import com.carrent.infrastructure.datasource.ReadYourWritesTracker;
+import com.carrent.infrastructure.datasource.ReplicaHealthMonitor;
+import com.carrent.infrastructure.datasource.ReplicaProperties;
+import com.carrent.infrastructure.datasource.ReplicaTarget;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração dos pools de conexão.
+ * O pool transacional atende as escritas; réplicas opcionais atendem as
+ * transações somente leitura; os pools de análise, pequenos e somente
+ * leitura, atendem apenas as tarefas executadas pelo AnalyticsTaskRunner: um
+ * em cada réplica e um no primário, usado quando nenhuma réplica está
+ * saudável.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource transactionalDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("carrent-transactional");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource analyticsDataSource(
+            DataSourceProperties properties,
+            @Value("${application.analytics.pool-size:2}") int poolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("carrent-analytics");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties.getStickyPrimaryMs());
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            DataSourceProperties properties,
+            ReplicaProperties replicaProperties,
+            ReadYourWritesTracker readYourWritesTracker,
+            MeterRegistry registry,
+            @Qualifier("transactionalDataSource") DataSource transactionalDataSource,
+            @Qualifier("analyticsDataSource") DataSource analyticsDataSource,
+            @Value("${application.analytics.pool-size:2}") int analyticsPoolSize) {
+        List<ReplicaTarget> replicas = new ArrayList<>();
+        List<ReplicaProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties.Replica replica = configured.get(i);
+            String name = "replica-" + i;
+
+            HikariDataSource dataSource = replicaPool(properties, replica, "carrent-" + name, registry);
+            dataSource.setMaximumPoolSize(replica.getPoolSize());
+
+            HikariDataSource analytics = replicaPool(properties, replica, "carrent-analytics-" + name, registry);
+            analytics.setMaximumPoolSize(analyticsPoolSize);
+            analytics.setMinimumIdle(0);
+
+            replicas.add(new ReplicaTarget(name, dataSource, analytics, replica.getLagQuery()));
+        }
+        return new ReadWriteRoutingDataSource(transactionalDataSource, analyticsDataSource, replicas,
+                readYourWritesTracker);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(
+            ReadWriteRoutingDataSource readWriteRoutingDataSource,
+            ReadYourWritesTracker readYourWritesTracker,
+            ReplicaProperties replicaProperties,
+            MeterRegistry registry) {
+        return new ReplicaHealthMonitor(readWriteRoutingDataSource, readYourWritesTracker,
+                replicaProperties.getMaxLagSeconds(), registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    private HikariDataSource replicaPool(DataSourceProperties properties, ReplicaProperties.Replica replica,
+            String poolName, MeterRegistry registry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(poolName);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return dataSource;
+    }
+}
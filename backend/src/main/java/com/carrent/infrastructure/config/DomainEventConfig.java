@@ -0,0 +1,26 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.event.DomainEventRecorder;
+import com.carrent.infrastructure.event.RentalEventBus;
+import com.carrent.infrastructure.outbox.OutboxStore;
+import com.carrent.infrastructure.persistence.EventListenerIntegrator;
+import org.hibernate.integrator.spi.Integrator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Liga as alterações de locações e veículos ao outbox e ao RentalEventBus.
+ * Ambos são resolvidos só no primeiro commit, pois seus consumidores podem
+ * depender de repositórios que ainda estão sendo criados junto com o
+ * EntityManagerFactory.
+ */
+@Configuration
+public class DomainEventConfig {
+
+    @Bean
+    public Integrator domainEventIntegrator(ObjectProvider<RentalEventBus> rentalEventBus,
+            ObjectProvider<OutboxStore> outboxStore) {
+        return new EventListenerIntegrator(new DomainEventRecorder(rentalEventBus, outboxStore));
+    }
+}
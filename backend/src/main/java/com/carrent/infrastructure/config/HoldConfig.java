@@ -0,0 +1,24 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.hold.HoldProperties;
+import com.carrent.infrastructure.hold.VehicleHoldRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Reservas provisórias de veículos durante o checkout
+ */
+@Configuration
+@EnableConfigurationProperties(HoldProperties.class)
+public class HoldConfig {
+
+    @Bean
+    public VehicleHoldRegistry vehicleHoldRegistry(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, HoldProperties properties, MeterRegistry registry) {
+        return new VehicleHoldRegistry(jdbcTemplate, transactionManager, properties, registry);
+    }
+}
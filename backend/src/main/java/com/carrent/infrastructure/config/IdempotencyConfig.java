@@ -0,0 +1,41 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.idempotency.IdempotencyFilter;
+import com.carrent.infrastructure.idempotency.IdempotencyProperties;
+import com.carrent.infrastructure.idempotency.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Cabeçalho Idempotency-Key nas requisições de escrita de locações e
+ * clientes
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "application.idempotency", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties,
+            MeterRegistry registry) {
+        return new IdempotencyStore(jdbcTemplate, properties, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+            IdempotencyProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, properties, objectMapper, registry));
+        // Depois do Spring Security: a chave pertence ao usuário autenticado
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registration;
+    }
+}
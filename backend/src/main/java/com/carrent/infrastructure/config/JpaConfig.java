@@ -1,9 +1,29 @@
 package com.carrent.infrastructure.config;
 
+import com.carrent.infrastructure.persistence.NaturalIdJpaRepository;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @Configuration
 @EnableJpaAuditing
+@EnableJpaRepositories(basePackages = "com.carrent.domain.repository", repositoryBaseClass = NaturalIdJpaRepository.class)
 public class JpaConfig {
-}
\ No newline at end of file
+
+    /**
+     * Repassa ao Hibernate os Integrators declarados como beans
+     */
+    @Bean
+    public HibernatePropertiesCustomizer integratorCustomizer(ObjectProvider<Integrator> integrators) {
+        return properties -> {
+            IntegratorProvider provider = () -> integrators.orderedStream().toList();
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER, provider);
+        };
+    }
+}
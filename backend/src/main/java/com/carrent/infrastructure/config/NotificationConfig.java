@@ -0,0 +1,66 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.application.service.NotificationService;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.infrastructure.notification.NotificationCoalescer;
+import com.carrent.infrastructure.notification.NotificationCoalescingProperties;
+import com.carrent.infrastructure.notification.NotificationPurger;
+import com.carrent.infrastructure.notification.NotificationRetentionProperties;
+import com.carrent.infrastructure.notification.NotificationStreamProperties;
+import com.carrent.infrastructure.notification.NotificationStreamRegistry;
+import com.carrent.infrastructure.notification.UnreadCounterProperties;
+import com.carrent.infrastructure.notification.UnreadCounterReconciler;
+import com.carrent.infrastructure.notification.delivery.DeadLetterStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Entrega das notificações em tempo real por Server-Sent Events,
+ * agrupamento das notificações geradas por eventos, reconciliação dos
+ * contadores de não lidas e retenção das notificações lidas
+ */
+@Configuration
+@EnableConfigurationProperties({ NotificationStreamProperties.class, UnreadCounterProperties.class,
+        NotificationRetentionProperties.class, NotificationCoalescingProperties.class })
+public class NotificationConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public NotificationStreamRegistry notificationStreamRegistry(NotificationStreamProperties properties,
+            MeterRegistry registry) {
+        return new NotificationStreamRegistry(properties, registry);
+    }
+
+    @Bean
+    public NotificationCoalescer notificationCoalescer(NotificationService notificationService,
+            UserRepository userRepository, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            DeadLetterStore deadLetterStore, NotificationCoalescingProperties properties, MeterRegistry registry) {
+        return new NotificationCoalescer(notificationService, userRepository, jdbcTemplate, transactionManager,
+                deadLetterStore, properties, registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.notifications.counters", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public UnreadCounterReconciler unreadCounterReconciler(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+            UnreadCounterProperties properties, MeterRegistry registry) {
+        return new UnreadCounterReconciler(jdbcTemplate, transactionManager, entityManagerFactory, properties,
+                registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.notifications.retention", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public NotificationPurger notificationPurger(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+            NotificationRetentionProperties properties, MeterRegistry registry) {
+        return new NotificationPurger(jdbcTemplate, transactionManager, entityManagerFactory, properties,
+                registry);
+    }
+}
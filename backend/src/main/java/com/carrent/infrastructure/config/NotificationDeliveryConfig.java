@@ -0,0 +1,62 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.notification.delivery.DeadLetterStore;
+import com.carrent.infrastructure.notification.delivery.EmailChannel;
+import com.carrent.infrastructure.notification.delivery.NotificationChannel;
+import com.carrent.infrastructure.notification.delivery.NotificationDeliveryProperties;
+import com.carrent.infrastructure.notification.delivery.NotificationDispatcher;
+import com.carrent.infrastructure.notification.delivery.WebhookChannel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.List;
+
+/**
+ * Canais externos de entrega das notificações enviadas pelos administradores.
+ * Cada canal habilitado tem um worker com fila própria; o que não puder ser
+ * entregue vai para a tabela notification_dead_letters. As notificações da
+ * interface não passam por aqui: são gravadas na transação de quem as envia.
+ */
+@Configuration
+@EnableConfigurationProperties(NotificationDeliveryProperties.class)
+public class NotificationDeliveryConfig {
+
+    @Bean
+    public DeadLetterStore deadLetterStore(JdbcTemplate jdbcTemplate) {
+        return new DeadLetterStore(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.notifications.delivery.email", name = "enabled",
+            havingValue = "true")
+    public EmailChannel emailNotificationChannel(ObjectProvider<JavaMailSender> mailSender,
+            NotificationDeliveryProperties properties) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            throw new IllegalStateException("O canal de e-mail requer spring.mail.host");
+        }
+        return new EmailChannel(sender, properties.getEmail().getFrom());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.notifications.delivery.webhook", name = "enabled",
+            havingValue = "true")
+    public WebhookChannel webhookNotificationChannel(ObjectMapper objectMapper,
+            NotificationDeliveryProperties properties) {
+        return new WebhookChannel(objectMapper, properties.getWebhook().getUrl(),
+                properties.getWebhook().getTimeoutMs());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public NotificationDispatcher notificationDispatcher(List<NotificationChannel> channels,
+            NotificationDeliveryProperties properties, DeadLetterStore deadLetterStore, MeterRegistry registry) {
+        return new NotificationDispatcher(channels, properties, deadLetterStore, registry);
+    }
+}
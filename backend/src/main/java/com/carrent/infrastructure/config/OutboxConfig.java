@@ -0,0 +1,40 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.outbox.OutboxHandler;
+import com.carrent.infrastructure.outbox.OutboxProperties;
+import com.carrent.infrastructure.outbox.OutboxRelay;
+import com.carrent.infrastructure.outbox.OutboxStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Outbox transacional.
+ * Os eventos de domínio são gravados na tabela outbox pela mesma transação
+ * que alterou a locação ou o veículo; o relay os entrega depois aos
+ * OutboxHandler, com garantia de pelo menos uma entrega.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+@ConditionalOnProperty(prefix = "application.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    @Bean
+    public OutboxStore outboxStore(ObjectMapper objectMapper, MeterRegistry registry) {
+        return new OutboxStore(objectMapper, registry);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            OutboxStore outboxStore, List<OutboxHandler> handlers, OutboxProperties properties,
+            MeterRegistry registry) {
+        return new OutboxRelay(jdbcTemplate, transactionManager, outboxStore, handlers, properties, registry);
+    }
+}
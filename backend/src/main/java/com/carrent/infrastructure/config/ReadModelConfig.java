@@ -0,0 +1,25 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.persistence.EventListenerIntegrator;
+import com.carrent.infrastructure.readmodel.RentalHotStateMaintainer;
+import com.carrent.infrastructure.readmodel.RentalViewProjector;
+import org.hibernate.integrator.spi.Integrator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modelos de leitura mantidos a partir das gravações das entidades
+ */
+@Configuration
+public class ReadModelConfig {
+
+    @Bean
+    public Integrator rentalViewIntegrator() {
+        return new EventListenerIntegrator(new RentalViewProjector());
+    }
+
+    @Bean
+    public Integrator rentalHotStateIntegrator() {
+        return new EventListenerIntegrator(new RentalHotStateMaintainer());
+    }
+}
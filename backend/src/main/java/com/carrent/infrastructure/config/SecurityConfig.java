@@ -1,9 +1,13 @@
 package com.carrent.infrastructure.config;
 
+import com.carrent.infrastructure.idempotency.IdempotencyFilter;
 import com.carrent.infrastructure.security.JwtAuthenticationFilter;
+import com.carrent.infrastructure.waitingroom.WaitingRoomFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -79,7 +83,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
 
                 // Configura regras de autorização para requests HTTP
+                // Despachos assíncronos e de erro pertencem a requisições já autorizadas
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
                         .anyRequest().authenticated())
 
@@ -110,8 +116,10 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(
                 Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin",
-                        "Cache-Control", "Pragma", "Expires"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+                        "Cache-Control", "Pragma", "Expires", WaitingRoomFilter.TICKET_HEADER, IdempotencyFilter.HEADER));
+        configuration.setExposedHeaders(
+                List.of("Authorization", HttpHeaders.RETRY_AFTER, WaitingRoomFilter.TICKET_HEADER,
+                        IdempotencyFilter.REPLAYED_HEADER));
         configuration.setAllowCredentials(false);
         configuration.setMaxAge(3600L);
 
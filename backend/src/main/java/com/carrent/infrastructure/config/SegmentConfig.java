@@ -0,0 +1,54 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.domain.repository.ArchivedRentalRepository;
+import com.carrent.infrastructure.cluster.ChangeLogRecorder;
+import com.carrent.infrastructure.segment.SegmentExporter;
+import com.carrent.infrastructure.segment.SegmentProperties;
+import com.carrent.infrastructure.segment.SegmentReloader;
+import com.carrent.infrastructure.segment.SegmentStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Segmentos colunares em disco com as locações mais antigas.
+ * O SegmentStore existe mesmo com a exportação desligada, para que os
+ * segmentos já gravados continuem entrando nas leituras do histórico.
+ * A exportação remove as linhas do banco: é ligada em uma única instância e,
+ * com o barramento do cluster ligado, só sobre um diretório compartilhado.
+ */
+@Configuration
+@EnableConfigurationProperties(SegmentProperties.class)
+public class SegmentConfig {
+
+    @Bean
+    public SegmentStore segmentStore(SegmentProperties properties, MeterRegistry registry) {
+        return new SegmentStore(properties, registry);
+    }
+
+    @Bean
+    public SegmentReloader segmentReloader(SegmentStore segmentStore) {
+        return new SegmentReloader(segmentStore);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.segments", name = "enabled", havingValue = "true")
+    public SegmentExporter segmentExporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ArchivedRentalRepository archivedRentalRepository, SegmentStore segmentStore,
+            SegmentProperties properties, ObjectProvider<ChangeLogRecorder> changeLogRecorder,
+            MeterRegistry registry) {
+        ChangeLogRecorder recorder = changeLogRecorder.getIfAvailable();
+        if (recorder != null && !properties.isSharedDirectory()) {
+            throw new IllegalStateException("application.segments.enabled exige application.segments."
+                    + "shared-directory=true com o barramento do cluster ligado: as linhas exportadas saem do "
+                    + "banco e as demais instâncias só as leem do diretório compartilhado");
+        }
+        return new SegmentExporter(jdbcTemplate, transactionManager, archivedRentalRepository, segmentStore,
+                properties, recorder, registry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.persistence.EventListenerIntegrator;
+import com.carrent.infrastructure.sync.SyncProperties;
+import com.carrent.infrastructure.sync.TombstoneRecorder;
+import org.hibernate.integrator.spi.Integrator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feed de alterações para sincronização incremental dos clientes
+ */
+@Configuration
+@EnableConfigurationProperties(SyncProperties.class)
+public class SyncConfig {
+
+    @Bean
+    public Integrator tombstoneIntegrator() {
+        return new EventListenerIntegrator(new TombstoneRecorder());
+    }
+}
@@ -0,0 +1,40 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.infrastructure.waitingroom.WaitingRoom;
+import com.carrent.infrastructure.waitingroom.WaitingRoomFilter;
+import com.carrent.infrastructure.waitingroom.WaitingRoomProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sala de espera dos endpoints de reserva em picos de acesso
+ */
+@Configuration
+@EnableConfigurationProperties(WaitingRoomProperties.class)
+@ConditionalOnProperty(prefix = "application.waiting-room", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class WaitingRoomConfig {
+
+    @Bean
+    public WaitingRoom waitingRoom(WaitingRoomProperties properties, MeterRegistry registry) {
+        return new WaitingRoom(properties, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<WaitingRoomFilter> waitingRoomFilter(WaitingRoom waitingRoom,
+            WaitingRoomProperties properties, ObjectMapper objectMapper) {
+        FilterRegistrationBean<WaitingRoomFilter> registration = new FilterRegistrationBean<>(
+                new WaitingRoomFilter(waitingRoom, properties, objectMapper));
+        // Depois do Spring Security: as respostas da sala levam os cabeçalhos
+        // CORS e o ticket pertence ao usuário autenticado. Antes da
+        // idempotência, para que quem espera não reserve chave
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 5);
+        return registration;
+    }
+}
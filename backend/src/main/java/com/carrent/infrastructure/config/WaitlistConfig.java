@@ -0,0 +1,37 @@
+package com.carrent.infrastructure.config;
+
+import com.carrent.application.service.RentalService;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.domain.repository.WaitlistEntryRepository;
+import com.carrent.infrastructure.notification.NotificationCoalescer;
+import com.carrent.infrastructure.waitlist.WaitlistMatcher;
+import com.carrent.infrastructure.waitlist.WaitlistProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Lista de espera para períodos esgotados, atendida pelos eventos de locação
+ * que chegam pelo outbox
+ */
+@Configuration
+@EnableConfigurationProperties(WaitlistProperties.class)
+public class WaitlistConfig {
+
+    @Bean
+    public WaitlistMatcher waitlistMatcher(
+            WaitlistEntryRepository waitlistEntryRepository,
+            VehicleRepository vehicleRepository,
+            UserRepository userRepository,
+            RentalService rentalService,
+            NotificationCoalescer notificationCoalescer,
+            PlatformTransactionManager transactionManager,
+            WaitlistProperties properties,
+            MeterRegistry registry) {
+        return new WaitlistMatcher(waitlistEntryRepository, vehicleRepository, userRepository, rentalService,
+                notificationCoalescer, transactionManager, properties, registry);
+    }
+}
@@ -0,0 +1,113 @@
+package com.carrent.infrastructure.datasource;
+
+import com.carrent.infrastructure.workload.Workload;
+import com.carrent.infrastructure.workload.WorkloadContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Escolhe o pool de cada conexão:
+ * <ul>
+ * <li>tarefas de análise usam o pool de análise da réplica saudável com
+ * menor atraso, ou o do primário quando nenhuma estiver saudável;</li>
+ * <li>transações de escrita usam o primário;</li>
+ * <li>transações somente leitura usam uma réplica saudável (round-robin),
+ * exceto quando o usuário escreveu recentemente.</li>
+ * </ul>
+ * Deve ser envolvido por um LazyConnectionDataSourceProxy, para que a conexão
+ * física só seja obtida depois que o gerenciador de transações marcar a
+ * transação como somente leitura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String ANALYTICS = "analytics";
+
+    private final List<ReplicaTarget> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource, DataSource analyticsDataSource,
+            List<ReplicaTarget> replicas, ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primaryDataSource);
+        targets.put(ANALYTICS, analyticsDataSource);
+        replicas.forEach(replica -> {
+            targets.put(replica.getName(), replica.getDataSource());
+            if (replica.getAnalyticsDataSource() != null) {
+                targets.put(replica.getAnalyticsName(), replica.getAnalyticsDataSource());
+            }
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primaryDataSource);
+        setLenientFallback(false);
+    }
+
+    public List<ReplicaTarget> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Fecha os pools das réplicas, que não são beans gerenciados pelo Spring
+     */
+    public void close() throws Exception {
+        for (ReplicaTarget replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+            if (replica.getAnalyticsDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (WorkloadContext.current() == Workload.ANALYTICS) {
+            return selectAnalytics();
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.registerWrite();
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || readYourWritesTracker.isSticky()) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    private String selectReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaTarget replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        // Nenhuma réplica dentro do atraso tolerado
+        return PRIMARY;
+    }
+
+    /**
+     * As tarefas de análise são longas: vão para a réplica mais adiantada,
+     * sem rodízio, e só para o primário se nenhuma estiver saudável
+     */
+    private String selectAnalytics() {
+        return replicas.stream()
+                .filter(replica -> replica.isHealthy() && replica.getAnalyticsDataSource() != null)
+                .min(Comparator.comparingDouble(ReplicaTarget::getLagSeconds))
+                .map(ReplicaTarget::getAnalyticsName)
+                .orElse(ANALYTICS);
+    }
+}
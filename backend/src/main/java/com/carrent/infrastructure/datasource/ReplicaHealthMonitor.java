@@ -0,0 +1,92 @@
+package com.carrent.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Verifica periodicamente o atraso de replicação de cada réplica e retira da
+ * rotação as que estiverem atrasadas além do limite ou inacessíveis.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long maxLagSeconds;
+
+    public ReplicaHealthMonitor(ReadWriteRoutingDataSource routingDataSource,
+            ReadYourWritesTracker readYourWritesTracker, long maxLagSeconds, MeterRegistry registry) {
+        this.routingDataSource = routingDataSource;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLagSeconds = maxLagSeconds;
+
+        for (ReplicaTarget replica : routingDataSource.getReplicas()) {
+            Gauge.builder("carrent.datasource.replica.lag", replica, ReplicaTarget::getLagSeconds)
+                    .description("Atraso de replicação observado em segundos (-1 = desconhecido)")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+            Gauge.builder("carrent.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Indica se a réplica está recebendo leituras")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.health-check-interval-ms:2000}")
+    public void checkReplicas() {
+        for (ReplicaTarget replica : routingDataSource.getReplicas()) {
+            checkReplica(replica);
+        }
+        readYourWritesTracker.evictExpired();
+    }
+
+    void checkReplica(ReplicaTarget replica) {
+        try {
+            Double lag = new JdbcTemplate(replica.getDataSource()).query(replica.getLagQuery(), this::extractLag);
+            if (lag == null) {
+                markUnhealthy(replica, -1, "replicação parada");
+            } else if (lag > maxLagSeconds) {
+                markUnhealthy(replica, lag, "atraso de " + lag + "s");
+            } else {
+                if (!replica.isHealthy()) {
+                    log.info("Réplica {} voltou à rotação de leituras (atraso {}s)", replica.getName(), lag);
+                }
+                replica.markHealthy(lag);
+            }
+        } catch (Exception e) {
+            markUnhealthy(replica, -1, e.getMessage());
+        }
+    }
+
+    private void markUnhealthy(ReplicaTarget replica, double lag, String reason) {
+        if (replica.isHealthy()) {
+            log.warn("Réplica {} removida da rotação de leituras: {}", replica.getName(), reason);
+        }
+        replica.markUnhealthy(lag);
+    }
+
+    private Double extractLag(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        ResultSetMetaData metaData = rs.getMetaData();
+        int column = 1;
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                column = i;
+                break;
+            }
+        }
+        double lag = rs.getDouble(column);
+        return rs.wasNull() ? null : lag;
+    }
+}
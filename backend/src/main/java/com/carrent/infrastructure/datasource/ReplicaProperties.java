@@ -0,0 +1,43 @@
+package com.carrent.infrastructure.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração das réplicas de leitura. Sem réplicas configuradas, todo o
+ * tráfego continua indo para o banco primário.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Atraso máximo de replicação tolerado antes de desviar leituras para o primário
+     */
+    private long maxLagSeconds = 5;
+
+    /**
+     * Janela após uma escrita do usuário em que suas leituras vão para o primário
+     */
+    private long stickyPrimaryMs = 5000;
+
+    private long healthCheckIntervalMs = 2000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int poolSize = 10;
+        /**
+         * Consulta que retorna o atraso em segundos (coluna Seconds_Behind_Source
+         * ou a primeira coluna). Resultado vazio indica replicação parada.
+         */
+        private String lagQuery = "SHOW REPLICA STATUS";
+    }
+}
@@ -0,0 +1,47 @@
+package com.carrent.infrastructure.datasource;
+
+import lombok.Getter;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica de leitura com o estado observado pelo {@link ReplicaHealthMonitor}.
+ * Uma réplica só recebe leituras depois da primeira verificação bem-sucedida.
+ * O pool de análise, opcional, é um pool pequeno na mesma réplica para as
+ * tarefas do AnalyticsTaskRunner.
+ */
+@Getter
+public class ReplicaTarget {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final DataSource analyticsDataSource;
+    private final String lagQuery;
+    private volatile boolean healthy;
+    private volatile double lagSeconds = -1;
+
+    public ReplicaTarget(String name, DataSource dataSource, String lagQuery) {
+        this(name, dataSource, null, lagQuery);
+    }
+
+    public ReplicaTarget(String name, DataSource dataSource, DataSource analyticsDataSource, String lagQuery) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.analyticsDataSource = analyticsDataSource;
+        this.lagQuery = lagQuery;
+    }
+
+    String getAnalyticsName() {
+        return name + "-analytics";
+    }
+
+    void markHealthy(double lagSeconds) {
+        this.lagSeconds = lagSeconds;
+        this.healthy = true;
+    }
+
+    void markUnhealthy(double lagSeconds) {
+        this.lagSeconds = lagSeconds;
+        this.healthy = false;
+    }
+}
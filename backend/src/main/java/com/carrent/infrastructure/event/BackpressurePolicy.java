@@ -0,0 +1,20 @@
+package com.carrent.infrastructure.event;
+
+/**
+ * Comportamento de um consumidor quando o buffer circular enche
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * O consumidor segura os publicadores: com o buffer cheio, a publicação
+     * espera até o tempo limite configurado e, esgotado o prazo, o evento é
+     * recusado. Para consumidores que não podem perder eventos.
+     */
+    WAIT,
+
+    /**
+     * O consumidor nunca segura os publicadores: se ficar uma volta inteira
+     * para trás, salta para os eventos mais recentes e contabiliza os perdidos.
+     */
+    SKIP
+}
@@ -0,0 +1,160 @@
+package com.carrent.infrastructure.event;
+
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.event.DomainEvent;
+import com.carrent.domain.event.RentalCancelled;
+import com.carrent.domain.event.RentalCompleted;
+import com.carrent.domain.event.RentalCreated;
+import com.carrent.domain.event.RentalEvent;
+import com.carrent.domain.event.RentalStarted;
+import com.carrent.domain.event.RentalTerminatedEarly;
+import com.carrent.domain.event.VehicleChanged;
+import com.carrent.infrastructure.outbox.OutboxStore;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converte as alterações de locações e veículos em eventos de domínio.
+ * <p>
+ * Os eventos de cada transação são retidos na sessão. Logo antes do commit
+ * são gravados no outbox, na mesma conexão; depois do commit, os eventos de
+ * locação são publicados no {@link RentalEventBus}. Se a transação for
+ * desfeita, são descartados.
+ */
+public class DomainEventRecorder implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private static final String STATUS = "status";
+
+    private final ObjectProvider<RentalEventBus> eventBus;
+    private final ObjectProvider<OutboxStore> outboxStore;
+    private final Map<SharedSessionContractImplementor, List<DomainEvent>> pending = new ConcurrentHashMap<>();
+
+    public DomainEventRecorder(ObjectProvider<RentalEventBus> eventBus, ObjectProvider<OutboxStore> outboxStore) {
+        this.eventBus = eventBus;
+        this.outboxStore = outboxStore;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Rental rental && rental.getStatus() == RentalStatus.PENDING) {
+            record(event.getSession(), new RentalCreated(rental.getId(), vehicleId(rental), customerId(rental),
+                    rental.getStartDate(), rental.getEndDate(), rental.getTotalAmount(), LocalDateTime.now()));
+        } else if (event.getEntity() instanceof Vehicle vehicle) {
+            record(event.getSession(), vehicleChanged(vehicle, VehicleChanged.Change.CREATED));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Vehicle vehicle) {
+            record(event.getSession(), vehicleChanged(vehicle, VehicleChanged.Change.UPDATED));
+            return;
+        }
+        if (!(event.getEntity() instanceof Rental rental) || event.getOldState() == null) {
+            return;
+        }
+        Object previous = event.getOldState()[statusIndex(event.getPersister())];
+        if (previous == rental.getStatus()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RentalEvent rentalEvent = switch (rental.getStatus()) {
+            case IN_PROGRESS -> new RentalStarted(rental.getId(), vehicleId(rental), customerId(rental), now);
+            case COMPLETED -> new RentalCompleted(rental.getId(), vehicleId(rental), customerId(rental),
+                    rental.getEndDate(), rental.getTotalAmount(), now);
+            case CANCELLED -> new RentalCancelled(rental.getId(), vehicleId(rental), customerId(rental),
+                    rental.getStartDate(), rental.getEndDate(), now);
+            case EARLY_TERMINATED -> new RentalTerminatedEarly(rental.getId(), vehicleId(rental),
+                    customerId(rental), rental.getEndDate(), rental.getEarlyTerminationFee(),
+                    rental.getTotalAmount(), now);
+            case PENDING -> null;
+        };
+        if (rentalEvent != null) {
+            record(event.getSession(), rentalEvent);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Vehicle vehicle) {
+            record(event.getSession(), vehicleChanged(vehicle, VehicleChanged.Change.DELETED));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, DomainEvent event) {
+        pending.computeIfAbsent(session, s -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::beforeCompletion);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) this::afterCompletion);
+            return new ArrayList<>();
+        }).add(event);
+    }
+
+    private void beforeCompletion(SessionImplementor session) {
+        OutboxStore store = outboxStore.getIfAvailable();
+        List<DomainEvent> events = pending.get(session);
+        if (store != null && events != null && !events.isEmpty()) {
+            session.doWork(connection -> store.append(connection, events));
+        }
+    }
+
+    private void afterCompletion(boolean success, SharedSessionContractImplementor session) {
+        List<DomainEvent> events = pending.remove(session);
+        if (!success || events == null) {
+            return;
+        }
+        RentalEventBus bus = eventBus.getObject();
+        for (DomainEvent event : events) {
+            if (event instanceof RentalEvent rentalEvent) {
+                bus.publish(rentalEvent);
+            }
+        }
+    }
+
+    private static VehicleChanged vehicleChanged(Vehicle vehicle, VehicleChanged.Change change) {
+        return new VehicleChanged(vehicle.getId(), change, vehicle.getPlate(), vehicle.getCategory(),
+                vehicle.getStatus(), vehicle.getAvailable(), LocalDateTime.now());
+    }
+
+    private static int statusIndex(EntityPersister persister) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (STATUS.equals(names[i])) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Propriedade status não mapeada em " + persister.getEntityName());
+    }
+
+    private static Long vehicleId(Rental rental) {
+        return rental.getVehicle() != null ? rental.getVehicle().getId() : null;
+    }
+
+    private static Long customerId(Rental rental) {
+        return rental.getCustomer() != null ? rental.getCustomer().getId() : null;
+    }
+}
@@ -0,0 +1,253 @@
+package com.carrent.infrastructure.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Buffer circular pré-alocado com vários publicadores e vários consumidores.
+ * <p>
+ * Publicar não adquire locks nem aloca: o publicador reserva uma sequência por
+ * CAS e grava o evento na posição correspondente. Cada consumidor roda em sua
+ * própria thread, lê os eventos em ordem de sequência e os recebe em lotes.
+ * Consumidores {@link BackpressurePolicy#WAIT} limitam o avanço dos
+ * publicadores; consumidores {@link BackpressurePolicy#SKIP} não.
+ */
+@Slf4j
+public class EventRingBuffer<E> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> entries;
+    /**
+     * Sequência publicada em cada posição; valores negativos (-seq - 2)
+     * indicam que a sequência está sendo gravada
+     */
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final long publishTimeoutNanos;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public EventRingBuffer(int capacity, long publishTimeoutNanos) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("A capacidade do buffer deve ser potência de 2: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.publishTimeoutNanos = publishTimeoutNanos;
+    }
+
+    /**
+     * Registra um consumidor; deve ser chamado antes de {@link #start()}
+     */
+    public Subscriber subscribe(String name, BackpressurePolicy policy, int maxBatchSize, Consumer<List<E>> handler) {
+        Subscriber subscriber = new Subscriber(name, policy, maxBatchSize, handler);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    public void start() {
+        subscribers.forEach(Subscriber::start);
+    }
+
+    /**
+     * Interrompe os consumidores depois de entregar o que já foi publicado
+     */
+    public void stop() {
+        subscribers.forEach(Subscriber::stop);
+    }
+
+    /**
+     * Publica um evento
+     *
+     * @return false se o buffer estava cheio e o evento foi recusado
+     */
+    public boolean publish(E event) {
+        long deadline = 0;
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            if (next - capacity > minimumGatingSequence(current)) {
+                if (publishTimeoutNanos <= 0) {
+                    return false;
+                }
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + publishTimeoutNanos;
+                } else if (now - deadline >= 0) {
+                    return false;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                int index = (int) (next & mask);
+                published.set(index, -next - 2);
+                entries.set(index, event);
+                published.set(index, next);
+                return true;
+            }
+        }
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public List<Subscriber> getSubscribers() {
+        return Collections.unmodifiableList(subscribers);
+    }
+
+    private long minimumGatingSequence(long cursorValue) {
+        long minimum = cursorValue;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.policy == BackpressurePolicy.WAIT) {
+                minimum = Math.min(minimum, subscriber.sequence.get());
+            }
+        }
+        return minimum;
+    }
+
+    /**
+     * Consumidor com thread e sequência próprias
+     */
+    public final class Subscriber implements Runnable {
+
+        private final String name;
+        private final BackpressurePolicy policy;
+        private final int maxBatchSize;
+        private final Consumer<List<E>> handler;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final List<E> batch;
+        private final List<E> batchView;
+        private volatile boolean running;
+        private Thread thread;
+
+        private Subscriber(String name, BackpressurePolicy policy, int maxBatchSize, Consumer<List<E>> handler) {
+            this.name = name;
+            this.policy = policy;
+            this.maxBatchSize = maxBatchSize;
+            this.handler = handler;
+            this.batch = new ArrayList<>(maxBatchSize);
+            this.batchView = Collections.unmodifiableList(batch);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public BackpressurePolicy getPolicy() {
+            return policy;
+        }
+
+        /**
+         * Eventos publicados e ainda não entregues a este consumidor
+         */
+        public long getLag() {
+            return Math.max(0, cursor.get() - sequence.get());
+        }
+
+        public long getSkipped() {
+            return skipped.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        private void start() {
+            running = true;
+            thread = new Thread(this, "events-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void stop() {
+            running = false;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                if (!drainBatch()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            while (drainBatch()) {
+                // entrega o que restou antes de encerrar
+            }
+        }
+
+        /**
+         * @return true se algum evento foi entregue
+         */
+        boolean drainBatch() {
+            long next = sequence.get() + 1;
+            while (batch.size() < maxBatchSize) {
+                int index = (int) (next & mask);
+                long slot = published.get(index);
+                long slotSequence = slot >= 0 ? slot : -slot - 2;
+                if (slotSequence < next || (slotSequence == next && slot < 0)) {
+                    break; // ainda não publicado
+                }
+                E event = slotSequence == next ? entries.get(index) : null;
+                if (slotSequence > next || published.get(index) != next) {
+                    // Sobrescrito pelos publicadores: salta para o evento mais antigo ainda disponível
+                    long resumeAt = Math.max(next + 1, cursor.get() - capacity + 1);
+                    skipped.add(resumeAt - next);
+                    next = resumeAt;
+                    continue;
+                }
+                batch.add(event);
+                next++;
+            }
+            if (batch.isEmpty()) {
+                if (next - 1 != sequence.get()) {
+                    sequence.set(next - 1);
+                }
+                return false;
+            }
+            try {
+                handler.accept(batchView);
+            } catch (Exception e) {
+                failures.increment();
+                log.error("Consumidor de eventos {} falhou ao processar {} eventos", name, batch.size(), e);
+            } finally {
+                batch.clear();
+                sequence.set(next - 1);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.carrent.infrastructure.event;
+
+import com.carrent.domain.event.RentalEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barramento em memória dos eventos de ciclo de vida das locações.
+ * <p>
+ * A publicação nunca bloqueia a thread da requisição além do tempo limite
+ * configurado (zero por padrão): com o buffer cheio o evento é recusado e
+ * contabilizado em carrent.events.rejected.
+ */
+@Slf4j
+@Component
+public class RentalEventBus implements DisposableBean {
+
+    private final EventRingBuffer<RentalEvent> ringBuffer;
+    private final Counter publishedCounter;
+    private final Counter rejectedCounter;
+
+    public RentalEventBus(
+            List<RentalEventConsumer> consumers,
+            MeterRegistry registry,
+            @Value("${application.events.buffer-size:4096}") int bufferSize,
+            @Value("${application.events.batch-size:256}") int batchSize,
+            @Value("${application.events.publish-timeout-ms:0}") long publishTimeoutMs) {
+        this.ringBuffer = new EventRingBuffer<>(bufferSize, TimeUnit.MILLISECONDS.toNanos(publishTimeoutMs));
+
+        for (RentalEventConsumer consumer : consumers) {
+            EventRingBuffer<RentalEvent>.Subscriber subscriber = ringBuffer.subscribe(consumer.getName(),
+                    consumer.getBackpressurePolicy(), batchSize, consumer::onEvents);
+            Gauge.builder("carrent.events.lag", subscriber, EventRingBuffer.Subscriber::getLag)
+                    .description("Eventos publicados e ainda não processados pelo consumidor")
+                    .tag("consumer", consumer.getName())
+                    .register(registry);
+            FunctionCounter.builder("carrent.events.skipped", subscriber, EventRingBuffer.Subscriber::getSkipped)
+                    .description("Eventos perdidos por um consumidor que ficou uma volta para trás")
+                    .tag("consumer", consumer.getName())
+                    .register(registry);
+            FunctionCounter.builder("carrent.events.failures", subscriber, EventRingBuffer.Subscriber::getFailures)
+                    .description("Lotes de eventos em que o consumidor lançou exceção")
+                    .tag("consumer", consumer.getName())
+                    .register(registry);
+        }
+        this.publishedCounter = Counter.builder("carrent.events.published")
+                .description("Eventos de locação publicados")
+                .register(registry);
+        this.rejectedCounter = Counter.builder("carrent.events.rejected")
+                .description("Eventos de locação recusados com o buffer cheio")
+                .register(registry);
+
+        ringBuffer.start();
+    }
+
+    public void publish(RentalEvent event) {
+        if (ringBuffer.publish(event)) {
+            publishedCounter.increment();
+        } else {
+            rejectedCounter.increment();
+            log.warn("Buffer de eventos cheio; evento descartado: {}", event);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ringBuffer.stop();
+    }
+}
@@ -0,0 +1,21 @@
+package com.carrent.infrastructure.event;
+
+import com.carrent.domain.event.RentalEvent;
+
+import java.util.List;
+
+/**
+ * Consumidor dos eventos de locação publicados no {@link RentalEventBus}.
+ * Os eventos chegam em lotes, em ordem de publicação, na thread do próprio
+ * consumidor; a lista recebida só é válida durante a chamada.
+ */
+public interface RentalEventConsumer {
+
+    String getName();
+
+    default BackpressurePolicy getBackpressurePolicy() {
+        return BackpressurePolicy.SKIP;
+    }
+
+    void onEvents(List<RentalEvent> events);
+}
@@ -0,0 +1,29 @@
+package com.carrent.infrastructure.hold;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.holds")
+public class HoldProperties {
+
+    /**
+     * Duração padrão de uma reserva provisória
+     */
+    private int durationMinutes = 10;
+
+    private int maxDurationMinutes = 30;
+
+    /**
+     * Reservas provisórias simultâneas por usuário
+     */
+    private int maxHoldsPerUser = 3;
+
+    /**
+     * Intervalo da varredura que remove as reservas vencidas e atualiza a
+     * métrica de reservas ativas
+     */
+    private long sweepIntervalMs = 60000;
+}
@@ -0,0 +1,33 @@
+package com.carrent.infrastructure.hold;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reserva provisória de um veículo para um período, válida até expiresAt
+ */
+@Getter
+public class VehicleHold {
+
+    private final UUID id;
+    private final Long vehicleId;
+    private final String vehiclePlate;
+    private final Long holderId;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final Instant expiresAt;
+
+    public VehicleHold(UUID id, Long vehicleId, String vehiclePlate, Long holderId, LocalDateTime startDate,
+            LocalDateTime endDate, Instant expiresAt) {
+        this.id = id;
+        this.vehicleId = vehicleId;
+        this.vehiclePlate = vehiclePlate;
+        this.holderId = holderId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.expiresAt = expiresAt;
+    }
+}
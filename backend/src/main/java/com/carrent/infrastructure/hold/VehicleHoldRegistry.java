@@ -0,0 +1,263 @@
+package com.carrent.infrastructure.hold;
+
+import com.carrent.domain.exception.ResourceNotFoundException;
+import com.carrent.domain.exception.VehicleNotAvailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reservas provisórias ativas, na tabela vehicle_holds.
+ * <p>
+ * A tabela é compartilhada pelas instâncias: uma reserva feita em um nó é
+ * vista pelas locações criadas em qualquer outro. Uma reserva é gravada com
+ * o veículo bloqueado (o mesmo bloqueio de RentalService.create), de modo
+ * que dois usuários não obtêm reservas sobrepostas do mesmo carro e uma
+ * locação não passa por uma reserva gravada ao mesmo tempo. O limite por
+ * usuário é conferido com a linha do usuário bloqueada, então pedidos
+ * simultâneos do mesmo usuário não o ultrapassam.
+ * <p>
+ * Uma reserva vale enquanto expires_at estiver no futuro; a validade é
+ * conferida em cada consulta, então a linha vencida não precisa ser removida
+ * na hora. A varredura periódica, em qualquer instância, apaga as vencidas e
+ * atualiza o total de reservas ativas exposto na métrica.
+ */
+@Slf4j
+public class VehicleHoldRegistry {
+
+    private static final String LOCK_HOLDER_SQL = "SELECT id FROM users WHERE id = ? FOR UPDATE";
+    private static final String LOCK_VEHICLE_SQL = "SELECT id FROM vehicles WHERE id = ? FOR UPDATE";
+    private static final String OVERLAPPING_SQL = "SELECT id, holder_id FROM vehicle_holds "
+            + "WHERE vehicle_id = ? AND expires_at > ? AND start_date < ? AND end_date > ?";
+    private static final String COUNT_BY_HOLDER_SQL =
+            "SELECT COUNT(*) FROM vehicle_holds WHERE holder_id = ? AND expires_at > ?";
+    private static final String INSERT_SQL = "INSERT INTO vehicle_holds "
+            + "(id, vehicle_id, holder_id, start_date, end_date, expires_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String HELD_BY_OTHERS_SQL = "SELECT COUNT(*) FROM vehicle_holds "
+            + "WHERE vehicle_id = ? AND expires_at > ? AND start_date < ? AND end_date > ? AND holder_id <> ?";
+    private static final String HELD_SQL = "SELECT COUNT(*) FROM vehicle_holds "
+            + "WHERE vehicle_id = ? AND expires_at > ? AND start_date < ? AND end_date > ?";
+    private static final String HELD_AMONG_SQL = "SELECT DISTINCT vehicle_id FROM vehicle_holds "
+            + "WHERE vehicle_id IN (%s) AND expires_at > ? AND start_date < ? AND end_date > ?";
+    private static final String FIND_BY_HOLDER_SQL = "SELECT h.id, h.vehicle_id, v.plate, h.holder_id, "
+            + "h.start_date, h.end_date, h.expires_at FROM vehicle_holds h JOIN vehicles v ON v.id = h.vehicle_id "
+            + "WHERE h.holder_id = ? AND h.expires_at > ? ORDER BY h.expires_at";
+    private static final String DELETE_SQL = "DELETE FROM vehicle_holds WHERE id = ?";
+    private static final String RELEASE_SQL =
+            "DELETE FROM vehicle_holds WHERE id = ? AND holder_id = ? AND expires_at > ?";
+    private static final String RELEASE_CONVERTED_SQL = "DELETE FROM vehicle_holds "
+            + "WHERE vehicle_id = ? AND holder_id = ? AND start_date < ? AND end_date > ?";
+    private static final String SWEEP_SQL = "DELETE FROM vehicle_holds WHERE expires_at <= ? LIMIT ?";
+    private static final String COUNT_ACTIVE_SQL = "SELECT COUNT(*) FROM vehicle_holds WHERE expires_at > ?";
+    private static final int SWEEP_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate placeTransaction;
+    private final HoldProperties properties;
+    private final Clock clock;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter placed;
+    private final Counter expired;
+
+    public VehicleHoldRegistry(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            HoldProperties properties, MeterRegistry registry) {
+        this(jdbcTemplate, transactionManager, properties, registry, Clock.systemDefaultZone());
+    }
+
+    VehicleHoldRegistry(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            HoldProperties properties, MeterRegistry registry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Junta-se à transação de quem chama, se houver; READ COMMITTED para
+        // que a conferência depois do bloqueio veja as reservas gravadas por
+        // quem tinha o bloqueio antes
+        this.placeTransaction = new TransactionTemplate(transactionManager);
+        this.placeTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.properties = properties;
+        this.clock = clock;
+        this.placed = Counter.builder("carrent.holds.placed")
+                .description("Reservas provisórias criadas")
+                .register(registry);
+        this.expired = Counter.builder("carrent.holds.expired")
+                .description("Reservas provisórias vencidas sem virar locação")
+                .register(registry);
+        // Valor da última varredura: a coleta de métricas não consulta o banco
+        Gauge.builder("carrent.holds.active", active, AtomicInteger::get)
+                .description("Reservas provisórias ativas")
+                .register(registry);
+    }
+
+    /**
+     * Reserva o veículo para o período. Uma reserva anterior do mesmo usuário
+     * que se sobreponha é substituída.
+     *
+     * @throws VehicleNotAvailableException se outro usuário já reservou o
+     *                                      veículo para um período sobreposto
+     * @throws IllegalStateException        se o usuário atingiu o limite de
+     *                                      reservas
+     */
+    public VehicleHold place(Long vehicleId, String vehiclePlate, Long holderId, LocalDateTime startDate,
+            LocalDateTime endDate, int minutes) {
+        Objects.requireNonNull(holderId, "holderId");
+        if (minutes < 1 || minutes > properties.getMaxDurationMinutes()) {
+            throw new IllegalArgumentException(
+                    "A reserva deve durar entre 1 e " + properties.getMaxDurationMinutes() + " minutos");
+        }
+        return placeTransaction.execute(status -> {
+            // Sempre usuário antes de veículo; as locações bloqueiam só o veículo
+            jdbcTemplate.queryForList(LOCK_HOLDER_SQL, Long.class, holderId);
+            jdbcTemplate.queryForList(LOCK_VEHICLE_SQL, Long.class, vehicleId);
+
+            Instant now = clock.instant();
+            List<String> replaced = new ArrayList<>();
+            jdbcTemplate.query(OVERLAPPING_SQL, rs -> {
+                if (rs.getLong("holder_id") != holderId) {
+                    throw new VehicleNotAvailableException(
+                            "O veículo está reservado por outro cliente para o período solicitado");
+                }
+                replaced.add(rs.getString("id"));
+            }, vehicleId, Timestamp.from(now), endDate, startDate);
+
+            Integer active = jdbcTemplate.queryForObject(COUNT_BY_HOLDER_SQL, Integer.class, holderId,
+                    Timestamp.from(now));
+            if (active != null && active - replaced.size() >= properties.getMaxHoldsPerUser()) {
+                throw new IllegalStateException(
+                        "Limite de " + properties.getMaxHoldsPerUser() + " reservas provisórias atingido");
+            }
+
+            for (String id : replaced) {
+                jdbcTemplate.update(DELETE_SQL, id);
+            }
+            VehicleHold hold = new VehicleHold(UUID.randomUUID(), vehicleId, vehiclePlate, holderId, startDate,
+                    endDate, now.plusSeconds(minutes * 60L));
+            jdbcTemplate.update(INSERT_SQL, hold.getId().toString(), vehicleId, holderId, startDate, endDate,
+                    Timestamp.from(hold.getExpiresAt()), Timestamp.from(now));
+            afterCommit(placed::increment);
+            return hold;
+        });
+    }
+
+    /**
+     * Verifica se o veículo tem reserva de outro usuário sobreposta ao
+     * período. Com holderId nulo, qualquer reserva conta. Chamado com o
+     * veículo bloqueado, a resposta vale até o fim da transação.
+     */
+    public boolean isHeldByOthers(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate, Long holderId) {
+        Timestamp now = Timestamp.from(clock.instant());
+        Integer count = holderId == null
+                ? jdbcTemplate.queryForObject(HELD_SQL, Integer.class, vehicleId, now, endDate, startDate)
+                : jdbcTemplate.queryForObject(HELD_BY_OTHERS_SQL, Integer.class, vehicleId, now, endDate,
+                        startDate, holderId);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Os veículos, entre os informados, com reserva de outro usuário
+     * sobreposta ao período, em uma única consulta. Com holderId nulo,
+     * qualquer reserva conta.
+     */
+    public Set<Long> findHeldByOthers(Collection<Long> vehicleIds, LocalDateTime startDate, LocalDateTime endDate,
+            Long holderId) {
+        if (vehicleIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Object> args = new ArrayList<>(vehicleIds);
+        args.add(Timestamp.from(clock.instant()));
+        args.add(endDate);
+        args.add(startDate);
+        String sql = String.format(HELD_AMONG_SQL, String.join(", ", Collections.nCopies(vehicleIds.size(), "?")));
+        if (holderId != null) {
+            sql += " AND holder_id <> ?";
+            args.add(holderId);
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, args.toArray()));
+    }
+
+    public List<VehicleHold> findByHolder(Long holderId) {
+        return jdbcTemplate.query(FIND_BY_HOLDER_SQL, (rs, rowNum) -> new VehicleHold(
+                UUID.fromString(rs.getString("id")),
+                rs.getLong("vehicle_id"),
+                rs.getString("plate"),
+                rs.getLong("holder_id"),
+                rs.getTimestamp("start_date").toLocalDateTime(),
+                rs.getTimestamp("end_date").toLocalDateTime(),
+                rs.getTimestamp("expires_at").toInstant()), holderId, Timestamp.from(clock.instant()));
+    }
+
+    /**
+     * Libera antecipadamente uma reserva do usuário
+     */
+    public void release(UUID holdId, Long holderId) {
+        if (jdbcTemplate.update(RELEASE_SQL, holdId.toString(), holderId, Timestamp.from(clock.instant())) == 0) {
+            throw new ResourceNotFoundException("Reserva provisória não encontrada: " + holdId);
+        }
+    }
+
+    /**
+     * Libera as reservas do usuário sobre o período, que acabou de virar
+     * locação. Roda na transação da locação: até o commit, a reserva
+     * continua protegendo o período para as outras transações.
+     */
+    public void releaseConverted(Long vehicleId, Long holderId, LocalDateTime startDate, LocalDateTime endDate) {
+        jdbcTemplate.update(RELEASE_CONVERTED_SQL, vehicleId, holderId, endDate, startDate);
+    }
+
+    /**
+     * Remove as reservas vencidas e recalcula o total de reservas ativas
+     */
+    @Scheduled(initialDelayString = "${application.holds.sweep-interval-ms:60000}",
+            fixedDelayString = "${application.holds.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        try {
+            Timestamp now = Timestamp.from(clock.instant());
+            int removed;
+            do {
+                removed = jdbcTemplate.update(SWEEP_SQL, now, SWEEP_BATCH_SIZE);
+                expired.increment(removed);
+            } while (removed == SWEEP_BATCH_SIZE);
+            active.set(size());
+        } catch (Exception e) {
+            log.warn("Falha ao remover reservas provisórias vencidas: {}", e.getMessage());
+        }
+    }
+
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject(COUNT_ACTIVE_SQL, Integer.class,
+                Timestamp.from(clock.instant()));
+        return count == null ? 0 : count;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,298 @@
+package com.carrent.infrastructure.idempotency;
+
+import com.carrent.web.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Torna idempotentes as requisições de escrita que trazem o cabeçalho
+ * Idempotency-Key.
+ * <p>
+ * A primeira requisição com uma chave é executada e sua resposta gravada;
+ * as repetições com a mesma chave e o mesmo conteúdo recebem essa resposta
+ * (com o cabeçalho Idempotent-Replayed) sem passar por validação nem pelos
+ * serviços. A chave é do usuário autenticado, por isso o filtro roda depois
+ * do Spring Security. Respostas 5xx e exceções liberam a chave.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private enum Result {
+        EXECUTED, REPLAYED, IN_PROGRESS, MISMATCH
+    }
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<Result, Counter> counters = new EnumMap<>(Result.class);
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper,
+            MeterRegistry registry) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        for (Result result : Result.values()) {
+            counters.put(result, Counter.builder("carrent.idempotency.requests")
+                    .description("Requisições com Idempotency-Key, por resultado")
+                    .tag("result", result.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (request.getHeader(HEADER) == null || !MUTATING_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return properties.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    "O cabeçalho " + HEADER + " deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(properties.getMaxBodyBytes() + 1);
+        if (body.length > properties.getMaxBodyBytes()) {
+            writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Corpo grande demais para uma requisição com " + HEADER);
+            return;
+        }
+
+        IdempotencyStore.Claim claim = store.claim(sha256(principal() + "\n" + key),
+                fingerprint(request, body));
+        switch (claim.getOutcome()) {
+            case REPLAY -> {
+                counters.get(Result.REPLAYED).increment();
+                replay(claim.getResponse(), response);
+            }
+            case IN_PROGRESS -> {
+                counters.get(Result.IN_PROGRESS).increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "Uma requisição com a mesma " + HEADER + " ainda está em andamento");
+            }
+            case MISMATCH -> {
+                counters.get(Result.MISMATCH).increment();
+                writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "A " + HEADER + " informada já foi usada com outra requisição");
+            }
+            case ACQUIRED -> {
+                counters.get(Result.EXECUTED).increment();
+                execute(claim, new CachedBodyRequest(request, body), response, filterChain);
+            }
+        }
+    }
+
+    private void execute(IdempotencyStore.Claim claim, HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.release(claim);
+            throw e;
+        }
+
+        if (wrapper.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            store.release(claim);
+        } else {
+            store.complete(claim, new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                    wrapper.getContentAsByteArray()));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private String fingerprint(HttpServletRequest request, byte[] body) {
+        String target = request.getMethod() + " " + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "") + "\n";
+        byte[] prefix = target.getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[prefix.length + body.length];
+        System.arraycopy(prefix, 0, content, 0, prefix.length);
+        System.arraycopy(body, 0, content, prefix.length, body.length);
+        return sha256(content);
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+            String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getRequestURI())
+                .build());
+    }
+
+    /**
+     * Requisição com o corpo já lido, para que o controller possa lê-lo de novo
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new CachedBodyInputStream(body);
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : "UTF-8";
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    Charset.forName(encoding)));
+        }
+    }
+
+    /**
+     * Corpo já lido pelo filtro. Também atende a leitura assíncrona: como os
+     * dados estão em memória, o listener é avisado na hora e recebe
+     * onAllDataRead depois de onDataAvailable, ou na leitura que esgotar o
+     * corpo, se ela vier depois.
+     */
+    private static class CachedBodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream input;
+        private ReadListener listener;
+        private boolean dispatching;
+        private boolean allDataRead;
+
+        CachedBodyInputStream(byte[] body) {
+            this.input = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (listener == null) {
+                throw new NullPointerException("ReadListener não pode ser nulo");
+            }
+            if (this.listener != null) {
+                throw new IllegalStateException("ReadListener já registrado");
+            }
+            this.listener = listener;
+            try {
+                if (!isFinished()) {
+                    dispatching = true;
+                    try {
+                        listener.onDataAvailable();
+                    } finally {
+                        dispatching = false;
+                    }
+                }
+                notifyIfFinished();
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = input.read();
+            notifyIfFinished();
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = input.read(buffer, offset, length);
+            notifyIfFinished();
+            return count;
+        }
+
+        private void notifyIfFinished() throws IOException {
+            if (listener != null && !dispatching && !allDataRead && isFinished()) {
+                allDataRead = true;
+                listener.onAllDataRead();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.carrent.infrastructure.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Endpoints que aceitam o cabeçalho Idempotency-Key nos métodos POST,
+     * PUT, PATCH e DELETE
+     */
+    private List<String> paths = new ArrayList<>(List.of("/rentals/**", "/customers/**"));
+
+    /**
+     * Por quanto tempo a resposta de uma chave é reaproveitada
+     */
+    private long ttlMs = 86400000;
+
+    /**
+     * Respostas mantidas em memória; as demais são lidas da tabela
+     * idempotency_keys
+     */
+    private int memoryMaxEntries = 10000;
+
+    /**
+     * Espera de uma repetição concorrente pela resposta da requisição em
+     * andamento na mesma instância; esgotada, responde 409
+     */
+    private long inFlightWaitMs = 5000;
+
+    /**
+     * Idade a partir da qual uma chave em andamento é considerada abandonada
+     * (instância que caiu no meio da requisição) e pode ser retomada
+     */
+    private long inFlightTimeoutMs = 60000;
+
+    private long purgeIntervalMs = 3600000;
+
+    /**
+     * Tamanho máximo do corpo das requisições com chave
+     */
+    private int maxBodyBytes = 1048576;
+}
@@ -0,0 +1,283 @@
+package com.carrent.infrastructure.idempotency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Respostas por chave de idempotência, em dois níveis.
+ * <p>
+ * A memória guarda as chaves recentes desta instância: uma repetição é
+ * respondida sem tocar no banco e, se a original ainda estiver em andamento,
+ * espera por ela em vez de executar de novo. A tabela idempotency_keys guarda
+ * todas as chaves até expirarem: é ali que a chave é reservada antes da
+ * execução (a chave primária impede duas execuções, mesmo entre instâncias)
+ * e de onde vêm as respostas que já saíram da memória.
+ */
+@Slf4j
+public class IdempotencyStore {
+
+    private static final String INSERT_SQL = "INSERT INTO idempotency_keys "
+            + "(key_hash, fingerprint, created_at, expires_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT fingerprint, status_code, content_type, body, created_at, "
+            + "expires_at FROM idempotency_keys WHERE key_hash = ?";
+    private static final String TAKE_OVER_SQL = "UPDATE idempotency_keys SET fingerprint = ?, status_code = NULL, "
+            + "content_type = NULL, body = NULL, created_at = ?, expires_at = ? "
+            + "WHERE key_hash = ? AND created_at = ?";
+    private static final String COMPLETE_SQL = "UPDATE idempotency_keys SET status_code = ?, content_type = ?, "
+            + "body = ? WHERE key_hash = ?";
+    private static final String RELEASE_SQL = "DELETE FROM idempotency_keys WHERE key_hash = ? AND status_code IS NULL";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at < ? LIMIT ?";
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    public enum Outcome {
+        /**
+         * A chave é nova: a requisição deve ser executada e depois concluída
+         * com complete() ou release()
+         */
+        ACQUIRED,
+        /**
+         * A chave já tem resposta
+         */
+        REPLAY,
+        /**
+         * A chave está em execução e a resposta não ficou pronta a tempo
+         */
+        IN_PROGRESS,
+        /**
+         * A chave já foi usada com outra requisição
+         */
+        MISMATCH
+    }
+
+    public static final class Claim {
+
+        private final Outcome outcome;
+        private final String keyHash;
+        private final Entry entry;
+        private final StoredResponse response;
+
+        private Claim(Outcome outcome, String keyHash, Entry entry, StoredResponse response) {
+            this.outcome = outcome;
+            this.keyHash = keyHash;
+            this.entry = entry;
+            this.response = response;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public StoredResponse getResponse() {
+            return response;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+    private final Map<String, Entry> memory = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        Gauge.builder("carrent.idempotency.memory", memory, Map::size)
+                .description("Chaves de idempotência mantidas em memória")
+                .register(registry);
+    }
+
+    /**
+     * Reserva a chave ou devolve o que já se sabe sobre ela
+     *
+     * @param keyHash     hash do usuário e da chave informada
+     * @param fingerprint hash do método, caminho e corpo da requisição
+     */
+    public Claim claim(String keyHash, String fingerprint) {
+        for (int attempt = 1; ; attempt++) {
+            long now = System.currentTimeMillis();
+            Entry[] existing = new Entry[1];
+            Entry entry = memory.compute(keyHash, (key, current) -> {
+                if (current != null && current.expiresAt > now) {
+                    existing[0] = current;
+                    return current;
+                }
+                return new Entry(fingerprint, now + properties.getTtlMs());
+            });
+
+            if (existing[0] == null) {
+                return claimInDatabase(keyHash, fingerprint, entry, now);
+            }
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return new Claim(Outcome.MISMATCH, keyHash, null, null);
+            }
+            try {
+                StoredResponse response = entry.result.get(properties.getInFlightWaitMs(), TimeUnit.MILLISECONDS);
+                return new Claim(Outcome.REPLAY, keyHash, null, response);
+            } catch (TimeoutException e) {
+                return new Claim(Outcome.IN_PROGRESS, keyHash, null, null);
+            } catch (ExecutionException e) {
+                // A execução original falhou e liberou a chave: esta repetição pode executar
+                if (attempt == MAX_CLAIM_ATTEMPTS) {
+                    return new Claim(Outcome.IN_PROGRESS, keyHash, null, null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, keyHash, null, null);
+            }
+        }
+    }
+
+    /**
+     * Grava a resposta de uma chave reservada
+     */
+    public void complete(Claim claim, StoredResponse response) {
+        try {
+            jdbcTemplate.update(COMPLETE_SQL, response.status(), response.contentType(), response.body(),
+                    claim.keyHash);
+        } catch (RuntimeException e) {
+            // Segue em memória; no banco, a chave fica em andamento até ser considerada abandonada
+            log.warn("Falha ao gravar a resposta da chave de idempotência: {}", e.getMessage());
+        }
+        claim.entry.result.complete(response);
+        if (memory.size() > properties.getMemoryMaxEntries()) {
+            evict();
+        }
+    }
+
+    /**
+     * Libera uma chave reservada cuja execução falhou, para que a próxima
+     * repetição execute de novo
+     */
+    public void release(Claim claim) {
+        memory.remove(claim.keyHash, claim.entry);
+        try {
+            jdbcTemplate.update(RELEASE_SQL, claim.keyHash);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao liberar a chave de idempotência: {}", e.getMessage());
+        } finally {
+            claim.entry.result.completeExceptionally(new IllegalStateException("Chave liberada"));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${application.idempotency.purge-interval-ms:3600000}",
+            fixedDelayString = "${application.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        memory.entrySet().removeIf(entry -> entry.getValue().expiresAt <= now && entry.getValue().result.isDone());
+        try {
+            Timestamp cutoff = new Timestamp(now);
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, cutoff, PURGE_BATCH_SIZE);
+            } while (deleted == PURGE_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao remover chaves de idempotência expiradas: {}", e.getMessage());
+        }
+    }
+
+    int getMemorySize() {
+        return memory.size();
+    }
+
+    private Claim claimInDatabase(String keyHash, String fingerprint, Entry entry, long now) {
+        try {
+            if (insert(keyHash, fingerprint, now)) {
+                return new Claim(Outcome.ACQUIRED, keyHash, entry, null);
+            }
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_SQL, keyHash);
+            if (rows.isEmpty()) {
+                // Liberada entre o INSERT e o SELECT
+                return insert(keyHash, fingerprint, now)
+                        ? new Claim(Outcome.ACQUIRED, keyHash, entry, null)
+                        : abandon(keyHash, entry, Outcome.IN_PROGRESS, null);
+            }
+
+            Map<String, Object> row = rows.get(0);
+            Timestamp createdAt = (Timestamp) row.get("created_at");
+            Number status = (Number) row.get("status_code");
+            boolean expired = ((Timestamp) row.get("expires_at")).getTime() <= now;
+            boolean abandoned = status == null && createdAt.getTime() < now - properties.getInFlightTimeoutMs();
+            if (expired || abandoned) {
+                int updated = jdbcTemplate.update(TAKE_OVER_SQL, fingerprint, new Timestamp(now),
+                        new Timestamp(now + properties.getTtlMs()), keyHash, createdAt);
+                return updated == 1
+                        ? new Claim(Outcome.ACQUIRED, keyHash, entry, null)
+                        : abandon(keyHash, entry, Outcome.IN_PROGRESS, null);
+            }
+            if (!fingerprint.equals(row.get("fingerprint"))) {
+                return abandon(keyHash, entry, Outcome.MISMATCH, null);
+            }
+            if (status == null) {
+                // Em execução em outra instância
+                return abandon(keyHash, entry, Outcome.IN_PROGRESS, null);
+            }
+
+            StoredResponse response = new StoredResponse(status.intValue(), (String) row.get("content_type"),
+                    (byte[]) row.get("body"));
+            entry.result.complete(response);
+            return new Claim(Outcome.REPLAY, keyHash, null, response);
+        } catch (RuntimeException e) {
+            abandon(keyHash, entry, null, null);
+            throw e;
+        }
+    }
+
+    private boolean insert(String keyHash, String fingerprint, long now) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, keyHash, fingerprint, new Timestamp(now),
+                    new Timestamp(now + properties.getTtlMs()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Desfaz a reserva em memória de uma chave que não será executada aqui
+     */
+    private Claim abandon(String keyHash, Entry entry, Outcome outcome, StoredResponse response) {
+        memory.remove(keyHash, entry);
+        entry.result.completeExceptionally(new IllegalStateException("Chave reservada em outra instância"));
+        return new Claim(outcome, keyHash, null, response);
+    }
+
+    /**
+     * Remove da memória as chaves concluídas até voltar a 90% da capacidade;
+     * elas continuam disponíveis no banco
+     */
+    private synchronized void evict() {
+        int target = properties.getMemoryMaxEntries() * 9 / 10;
+        long now = System.currentTimeMillis();
+        memory.entrySet().removeIf(entry -> entry.getValue().expiresAt <= now && entry.getValue().result.isDone());
+        memory.entrySet().stream()
+                .filter(entry -> entry.getValue().result.isDone())
+                .sorted((a, b) -> Long.compare(a.getValue().expiresAt, b.getValue().expiresAt))
+                .limit(Math.max(0, memory.size() - target))
+                .toList()
+                .forEach(entry -> memory.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
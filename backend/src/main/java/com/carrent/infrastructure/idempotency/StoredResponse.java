@@ -0,0 +1,7 @@
+package com.carrent.infrastructure.idempotency;
+
+/**
+ * Resposta gravada para uma chave de idempotência
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
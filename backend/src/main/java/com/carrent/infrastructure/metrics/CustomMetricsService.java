@@ -62,6 +62,10 @@ public class CustomMetricsService {
         activeRentals.decrementAndGet();
     }
 
+    public void setActiveRentals(int count) {
+        activeRentals.set(count);
+    }
+
     public void setAvailableVehicles(int count) {
         availableVehicles.set(count);
     }
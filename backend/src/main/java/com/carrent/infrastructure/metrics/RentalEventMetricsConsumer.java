@@ -0,0 +1,51 @@
+package com.carrent.infrastructure.metrics;
+
+import com.carrent.domain.event.RentalCompleted;
+import com.carrent.domain.event.RentalEvent;
+import com.carrent.domain.event.RentalStarted;
+import com.carrent.domain.event.RentalTerminatedEarly;
+import com.carrent.infrastructure.event.RentalEventConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Contabiliza as transições de locação, as locações ativas e a receita
+ * realizada a partir dos eventos de domínio, fora da thread da requisição
+ */
+@Component
+@RequiredArgsConstructor
+public class RentalEventMetricsConsumer implements RentalEventConsumer {
+
+    private final MeterRegistry registry;
+    private final CustomMetricsService metricsService;
+
+    @Override
+    public String getName() {
+        return "metrics";
+    }
+
+    @Override
+    public void onEvents(List<RentalEvent> events) {
+        for (RentalEvent event : events) {
+            registry.counter("carrent.rentals.events", "type", event.getClass().getSimpleName()).increment();
+
+            BigDecimal revenue = null;
+            if (event instanceof RentalStarted) {
+                metricsService.incrementActiveRentals();
+            } else if (event instanceof RentalCompleted completed) {
+                metricsService.decrementActiveRentals();
+                revenue = completed.totalAmount();
+            } else if (event instanceof RentalTerminatedEarly terminated) {
+                metricsService.decrementActiveRentals();
+                revenue = terminated.totalAmount();
+            }
+            if (revenue != null) {
+                registry.counter("carrent.rentals.revenue").increment(revenue.doubleValue());
+            }
+        }
+    }
+}
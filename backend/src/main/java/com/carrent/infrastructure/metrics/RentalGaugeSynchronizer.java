@@ -0,0 +1,55 @@
+package com.carrent.infrastructure.metrics;
+
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.repository.RentalRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.cluster.ClusterChangeListener;
+import com.carrent.infrastructure.cluster.EntityChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Recalcula a partir do banco os gauges de locações ativas e veículos
+ * disponíveis quando outra instância altera locações ou veículos, já que os
+ * contadores em memória só enxergam as transições feitas localmente.
+ */
+@Component
+@RequiredArgsConstructor
+public class RentalGaugeSynchronizer implements ClusterChangeListener {
+
+    private final RentalRepository rentalRepository;
+    private final VehicleRepository vehicleRepository;
+    private final CustomMetricsService metricsService;
+
+    // Sem readOnly: a contagem vem do primário, não de uma réplica atrasada
+    @Override
+    @Transactional
+    public void onChanges(List<EntityChange> changes) {
+        if (changes.stream().anyMatch(change -> change.isOf(Rental.class))) {
+            syncActiveRentals();
+        }
+        if (changes.stream().anyMatch(change -> change.isOf(Vehicle.class))) {
+            syncAvailableVehicles();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onReset() {
+        syncActiveRentals();
+        syncAvailableVehicles();
+    }
+
+    private void syncActiveRentals() {
+        metricsService.setActiveRentals((int) rentalRepository.countByStatus(RentalStatus.IN_PROGRESS));
+    }
+
+    private void syncAvailableVehicles() {
+        metricsService.setAvailableVehicles((int) vehicleRepository.countByAvailableTrue());
+    }
+}
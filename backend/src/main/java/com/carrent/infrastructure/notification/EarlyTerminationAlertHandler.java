@@ -0,0 +1,43 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.event.DomainEvent;
+import com.carrent.domain.event.RentalTerminatedEarly;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.infrastructure.outbox.OutboxHandler;
+import com.carrent.infrastructure.outbox.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Avisa os administradores quando uma locação é encerrada antecipadamente
+ */
+@Component
+@RequiredArgsConstructor
+public class EarlyTerminationAlertHandler implements OutboxHandler {
+
+    /**
+     * Tipo usado nas regras de agrupamento
+     */
+    public static final String KIND = "rental-terminated-early";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final UserRepository userRepository;
+    private final NotificationCoalescer notificationCoalescer;
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        return event instanceof RentalTerminatedEarly;
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        RentalTerminatedEarly event = (RentalTerminatedEarly) message.event();
+        String content = String.format("A locação #%d foi encerrada antecipadamente em %s. Multa: R$ %s.",
+                event.rentalId(), event.endDate().format(DATE_FORMAT), event.earlyTerminationFee());
+        userRepository.findByRole(Role.ADMIN).forEach(admin ->
+                notificationCoalescer.submit(admin, KIND, "Locação encerrada antecipadamente", content));
+    }
+}
@@ -0,0 +1,268 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.application.service.NotificationService;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.infrastructure.notification.delivery.DeadLetterStore;
+import com.carrent.infrastructure.notification.delivery.NotificationDelivery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Agrupa as notificações geradas por eventos antes de gravá-las.
+ * <p>
+ * A primeira notificação de um tipo para um usuário abre uma janela; as do
+ * mesmo tipo que chegarem até o fim dela são gravadas como uma única
+ * notificação de resumo, com o conteúdo de todas. Só os tipos com regra em
+ * application.notifications.coalescing.rules são agrupados; os demais, e
+ * janelas com uma única notificação, são gravados como vieram.
+ * <p>
+ * As notificações pendentes ficam em notification_digest_entries, gravadas
+ * na transação de quem as gera: um handler do outbox só confirma a mensagem
+ * depois que elas estão no banco. Cada uma leva o prazo da sua janela
+ * (due_at), antecipado para o grupo todo quando ele completa um resumo; a
+ * cada passada o agendador lê pelo índice de due_at só as vencidas e grava
+ * os grupos delas. O resumo é gravado na mesma transação que remove as
+ * linhas, reservadas com FOR UPDATE SKIP LOCKED para que duas instâncias não
+ * gravem o mesmo resumo; se a gravação falhar, as linhas voltam na próxima
+ * passada e, esgotadas as tentativas, vão para as notification_dead_letters.
+ */
+@Slf4j
+public class NotificationCoalescer {
+
+    /**
+     * Canal registrado nas dead letters dos resumos que não puderam ser gravados
+     */
+    static final String DEAD_LETTER_CHANNEL = "digest";
+
+    private static final String INSERT_SQL = "INSERT INTO notification_digest_entries "
+            + "(user_id, kind, title, content, created_at, due_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String PENDING_SQL = "SELECT COUNT(*) FROM (SELECT 1 FROM notification_digest_entries "
+            + "WHERE user_id = ? AND kind = ? LIMIT ?) pending";
+    private static final String DUE_NOW_SQL = "UPDATE notification_digest_entries SET due_at = ? "
+            + "WHERE user_id = ? AND kind = ? AND due_at > ?";
+    private static final String DUE_SQL = "SELECT user_id, kind FROM notification_digest_entries "
+            + "WHERE due_at <= ? ORDER BY due_at LIMIT ?";
+    private static final String DEFER_SQL = "UPDATE notification_digest_entries SET due_at = :dueAt "
+            + "WHERE id IN (:ids)";
+    private static final String CLAIM_SQL = "SELECT id, title, content, attempts, created_at "
+            + "FROM notification_digest_entries WHERE user_id = ? AND kind = ? "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_SQL = "DELETE FROM notification_digest_entries WHERE id IN (:ids)";
+    private static final String RETRY_SQL =
+            "UPDATE notification_digest_entries SET attempts = attempts + 1 WHERE id IN (:ids)";
+
+    private final NotificationService notificationService;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DeadLetterStore deadLetterStore;
+    private final NotificationCoalescingProperties properties;
+
+    private final Counter coalesced;
+    private final Counter digests;
+    private final Counter failures;
+
+    public NotificationCoalescer(NotificationService notificationService, UserRepository userRepository,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            DeadLetterStore deadLetterStore, NotificationCoalescingProperties properties, MeterRegistry registry) {
+        this.notificationService = notificationService;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deadLetterStore = deadLetterStore;
+        this.properties = properties;
+        this.coalesced = Counter.builder("carrent.notifications.coalesced")
+                .description("Notificações incorporadas a um resumo em vez de gravadas")
+                .register(registry);
+        this.digests = Counter.builder("carrent.notifications.digests")
+                .description("Resumos gravados")
+                .register(registry);
+        this.failures = Counter.builder("carrent.notifications.digest.failures")
+                .description("Tentativas de gravar um resumo que falharam")
+                .register(registry);
+    }
+
+    /**
+     * Grava a notificação, ou a guarda para o resumo do tipo. Dentro de uma
+     * transação, a notificação pendente é gravada com ela e só entra no
+     * resumo depois do commit.
+     *
+     * @param kind tipo da notificação, chave das regras de agrupamento
+     */
+    public void submit(User user, String kind, String title, String content) {
+        if (!properties.isEnabled() || !properties.getRules().containsKey(kind)) {
+            notificationService.createNotification(user, title, content);
+            return;
+        }
+        append(user.getId(), kind, title, content, LocalDateTime.now());
+    }
+
+    @Scheduled(initialDelayString = "${application.notifications.coalescing.flush-interval-ms:1000}",
+            fixedDelayString = "${application.notifications.coalescing.flush-interval-ms:1000}")
+    public void flushDue() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            flush(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Falha ao gravar os resumos de notificações: {}", e.getMessage());
+        }
+    }
+
+    void append(long userId, String kind, String title, String content, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update(INSERT_SQL, userId, kind, title, content, created,
+                Timestamp.valueOf(createdAt.plus(window(kind))));
+        // Com um resumo completo, o grupo não espera o fim da janela
+        Integer pending = jdbcTemplate.queryForObject(PENDING_SQL, Integer.class, userId, kind,
+                properties.getMaxPerDigest());
+        if (pending != null && pending >= properties.getMaxPerDigest()) {
+            jdbcTemplate.update(DUE_NOW_SQL, created, userId, kind, created);
+        }
+    }
+
+    /**
+     * Grava os resumos cuja janela terminou até {@code now}, ou que atingiram
+     * o limite de notificações. Cada grupo é tentado uma vez por passada.
+     */
+    void flush(LocalDateTime now) {
+        Set<Group> attempted = new HashSet<>();
+        while (true) {
+            Set<Group> due = new LinkedHashSet<>(jdbcTemplate.query(DUE_SQL,
+                    (rs, rowNum) -> new Group(rs.getLong("user_id"), rs.getString("kind")),
+                    Timestamp.valueOf(now), properties.getFlushBatchSize()));
+            due.removeAll(attempted);
+            if (due.isEmpty()) {
+                return;
+            }
+            for (Group group : due) {
+                attempted.add(group);
+                // Um resumo por chamada, até o grupo esvaziar ou sobrar um resumo incompleto na janela
+                boolean written = write(group, now);
+                while (written) {
+                    written = write(group, now);
+                }
+            }
+        }
+    }
+
+    private Duration window(String kind) {
+        NotificationCoalescingProperties.Rule rule = properties.getRules().get(kind);
+        return Duration.ofMillis(rule != null && rule.getWindowMs() != null
+                ? rule.getWindowMs()
+                : properties.getWindowMs());
+    }
+
+    /**
+     * Reserva até maxPerDigest notificações do grupo e grava o resumo delas.
+     * Um resumo incompleto cuja janela ainda não terminou não é gravado: é a
+     * sobra de um grupo antecipado, e volta a vencer no fim da janela.
+     *
+     * @return se um resumo foi gravado
+     */
+    private boolean write(Group group, LocalDateTime now) {
+        List<Entry> claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> {
+                List<Entry> entries = claim(group);
+                if (entries.isEmpty()) {
+                    return entries;
+                }
+                LocalDateTime deadline = entries.get(0).createdAt().plus(window(group.kind()));
+                if (entries.size() < properties.getMaxPerDigest() && deadline.isAfter(now)) {
+                    namedJdbcTemplate.update(DEFER_SQL, new MapSqlParameterSource("ids", ids(entries))
+                            .addValue("dueAt", Timestamp.valueOf(deadline)));
+                    return List.<Entry>of();
+                }
+                notificationService.createNotification(userRepository.getReferenceById(group.userId()),
+                        title(group.kind(), entries), content(entries));
+                namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids(entries)));
+                return entries;
+            });
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Falha ao gravar o resumo {} do usuário {}: {}", group.kind(), group.userId(), e.getMessage());
+            retryOrDeadLetter(group, e.getMessage());
+            return false;
+        }
+        if (claimed == null || claimed.isEmpty()) {
+            return false;
+        }
+        if (claimed.size() > 1) {
+            digests.increment();
+            coalesced.increment(claimed.size() - 1);
+        }
+        return true;
+    }
+
+    private void retryOrDeadLetter(Group group, String error) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Entry> entries = claim(group);
+            if (entries.isEmpty()) {
+                return;
+            }
+            namedJdbcTemplate.update(RETRY_SQL, new MapSqlParameterSource("ids", ids(entries)));
+            List<Entry> exhausted = entries.stream()
+                    .filter(entry -> entry.attempts() + 1 >= properties.getMaxAttempts())
+                    .toList();
+            if (exhausted.isEmpty()) {
+                return;
+            }
+            exhausted.forEach(entry -> deadLetterStore.store(new NotificationDelivery(DEAD_LETTER_CHANNEL,
+                    group.userId(), null, entry.title(), entry.content(), entry.attempts() + 1,
+                    entry.createdAt()), error));
+            namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids(exhausted)));
+            log.error("{} notificação(ões) do tipo {} para o usuário {} enviadas às dead letters após {} "
+                    + "tentativas", exhausted.size(), group.kind(), group.userId(), properties.getMaxAttempts());
+        });
+    }
+
+    private List<Entry> claim(Group group) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new Entry(rs.getLong("id"), rs.getString("title"),
+                rs.getString("content"), rs.getInt("attempts"), rs.getTimestamp("created_at").toLocalDateTime()),
+                group.userId(), group.kind(), properties.getMaxPerDigest());
+    }
+
+    private String title(String kind, List<Entry> entries) {
+        if (entries.size() == 1) {
+            return entries.get(0).title();
+        }
+        NotificationCoalescingProperties.Rule rule = properties.getRules().get(kind);
+        return rule != null && rule.getDigestTitle() != null
+                ? String.format(rule.getDigestTitle(), entries.size())
+                : entries.get(0).title() + " (" + entries.size() + ")";
+    }
+
+    private static String content(List<Entry> entries) {
+        return String.join("\n", entries.stream().map(Entry::content).toList());
+    }
+
+    private static List<Long> ids(List<Entry> entries) {
+        return entries.stream().map(Entry::id).toList();
+    }
+
+    private record Group(long userId, String kind) {
+    }
+
+    private record Entry(long id, String title, String content, int attempts, LocalDateTime createdAt) {
+    }
+}
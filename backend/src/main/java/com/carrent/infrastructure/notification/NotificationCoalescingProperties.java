@@ -0,0 +1,64 @@
+package com.carrent.infrastructure.notification;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.notifications.coalescing")
+public class NotificationCoalescingProperties {
+
+    /**
+     * Desligado, toda notificação é gravada na hora
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tempo que a primeira notificação de um tipo espera por outras do mesmo
+     * tipo para o mesmo usuário
+     */
+    private long windowMs = 30000;
+
+    private long flushIntervalMs = 1000;
+
+    /**
+     * Notificações vencidas lidas por consulta ao procurar os grupos a gravar
+     */
+    private int flushBatchSize = 500;
+
+    /**
+     * Notificações por resumo; ao atingir o limite, o resumo é gravado antes
+     * do fim da janela
+     */
+    private int maxPerDigest = 50;
+
+    /**
+     * Tentativas de gravar um resumo antes de mandar suas notificações para
+     * as dead letters
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Regras por tipo de notificação; tipos sem regra não são agrupados
+     */
+    private Map<String, Rule> rules = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        /**
+         * Título do resumo, com %d para a quantidade de notificações
+         */
+        private String digestTitle;
+
+        /**
+         * Janela própria do tipo; sem ela, vale a janela geral
+         */
+        private Long windowMs;
+    }
+}
@@ -0,0 +1,213 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.domain.entity.BroadcastRoleCounter;
+import com.carrent.domain.entity.NotificationCounter;
+import com.carrent.domain.entity.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remove as notificações lidas mais antigas que a retenção.
+ * <p>
+ * Cada lote roda em sua própria transação e remove por chave primária os ids
+ * encontrados pelo índice de created_at, então os locks duram só o lote. Os
+ * contadores de não lidas não mudam, pois só notificações lidas saem.
+ * <p>
+ * Os broadcasts saem depois da sua própria retenção, lidos ou não, com as
+ * marcas de leitura deles, sempre dos ids mais antigos para os mais novos.
+ * Cada perfil soma os removidos em {@link BroadcastRoleCounter#getPurged()}, e
+ * os contadores cujo watermark ficou abaixo do último removido avançam até
+ * ele, com as leituras avulsas recontadas. Essas escritas não passam pelo
+ * Hibernate, então as duas regiões de cache são descartadas ao fim.
+ */
+@Slf4j
+public class NotificationPurger {
+
+    private static final String SELECT_SQL = "SELECT id FROM notifications WHERE created_at < ? AND is_read = TRUE "
+            + "ORDER BY created_at LIMIT ?";
+    // is_read repetido: a notificação pode ter mudado entre a seleção e a remoção
+    private static final String DELETE_SQL = "DELETE FROM notifications WHERE id IN (:ids) AND is_read = TRUE";
+
+    private static final String SELECT_BROADCASTS_SQL = "SELECT id, target_role, created_at "
+            + "FROM broadcast_notifications ORDER BY id LIMIT ?";
+    private static final String DELETE_BROADCAST_READS_SQL = "DELETE FROM broadcast_reads WHERE broadcast_id IN (:ids)";
+    private static final String DELETE_BROADCASTS_SQL = "DELETE FROM broadcast_notifications WHERE id IN (:ids)";
+    private static final String ADD_PURGED_SQL = "UPDATE broadcast_role_counters SET purged = purged + ? WHERE role = ?";
+    private static final String BEHIND_SQL = "SELECT user_id FROM notification_counters "
+            + "WHERE user_id > ? AND broadcast_watermark < ? ORDER BY user_id LIMIT ?";
+    // Os broadcasts do perfil até o último removido são exatamente os removidos
+    private static final String CATCH_UP_SQL = "UPDATE notification_counters SET broadcast_watermark = :through, "
+            + "broadcast_base = COALESCE((SELECT r.purged FROM broadcast_role_counters r JOIN users u "
+            + "ON r.role = u.role WHERE u.id = notification_counters.user_id), 0), "
+            + "broadcast_reads = (SELECT COUNT(*) FROM broadcast_reads br "
+            + "WHERE br.user_id = notification_counters.user_id AND br.broadcast_id > :through) "
+            + "WHERE user_id IN (:ids) AND broadcast_watermark < :through";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final NotificationRetentionProperties properties;
+    private final Counter purged;
+    private final Counter broadcastsPurged;
+
+    public NotificationPurger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory, NotificationRetentionProperties properties,
+            MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+        this.purged = Counter.builder("carrent.notifications.purged")
+                .description("Notificações lidas removidas pela retenção")
+                .register(registry);
+        this.broadcastsPurged = Counter.builder("carrent.notifications.broadcasts.purged")
+                .description("Broadcasts removidos pela retenção")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${application.notifications.retention.interval-ms:3600000}",
+            fixedDelayString = "${application.notifications.retention.interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getReadRetentionDays());
+        int total = 0;
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                int removed = purgeBatch(cutoff);
+                total += removed;
+                if (removed < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao remover notificações lidas anteriores a {}", cutoff, e);
+        }
+        if (total > 0) {
+            log.info("{} notificação(ões) lida(s) anterior(es) a {} removida(s)", total, cutoff);
+        }
+        purgeBroadcasts(LocalDateTime.now().minusDays(properties.getBroadcastRetentionDays()));
+    }
+
+    void purgeBroadcasts(LocalDateTime cutoff) {
+        long through = 0;
+        int total = 0;
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                List<Long> removed = purgeBroadcastBatch(cutoff);
+                if (removed.isEmpty()) {
+                    break;
+                }
+                total += removed.size();
+                through = removed.get(removed.size() - 1);
+                if (removed.size() < properties.getBatchSize()) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                catchUpCounters(through);
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao remover broadcasts anteriores a {}", cutoff, e);
+        }
+        if (total > 0) {
+            entityManagerFactory.getCache().evict(BroadcastRoleCounter.class);
+            entityManagerFactory.getCache().evict(NotificationCounter.class);
+            log.info("{} broadcast(s) anterior(es) a {} removido(s)", total, cutoff);
+        }
+    }
+
+    /**
+     * Remove um lote e devolve quantas notificações saíram
+     */
+    int purgeBatch(LocalDateTime cutoff) {
+        Integer removed = batchTransaction.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_SQL, Long.class, cutoff, properties.getBatchSize());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            return namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+        });
+        int count = removed != null ? removed : 0;
+        purged.increment(count);
+        return count;
+    }
+
+    /**
+     * Remove o lote seguinte de broadcasts expirados, por ordem de id, e
+     * devolve os ids removidos em ordem crescente. Para no primeiro broadcast
+     * ainda dentro da retenção, para que os removidos sejam sempre um prefixo.
+     */
+    List<Long> purgeBroadcastBatch(LocalDateTime cutoff) {
+        List<Long> removed = batchTransaction.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            Map<Role, Long> perRole = new EnumMap<>(Role.class);
+            long toAll = 0;
+            List<StoredBroadcast> oldest = jdbcTemplate.query(SELECT_BROADCASTS_SQL,
+                    (rs, rowNum) -> new StoredBroadcast(rs.getLong("id"), rs.getString("target_role"),
+                            rs.getTimestamp("created_at").toLocalDateTime()),
+                    properties.getBatchSize());
+            for (StoredBroadcast broadcast : oldest) {
+                if (!broadcast.createdAt().isBefore(cutoff)) {
+                    break;
+                }
+                ids.add(broadcast.id());
+                if (broadcast.targetRole() == null) {
+                    toAll++;
+                } else {
+                    perRole.merge(Role.valueOf(broadcast.targetRole()), 1L, Long::sum);
+                }
+            }
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+            namedJdbcTemplate.update(DELETE_BROADCAST_READS_SQL, params);
+            namedJdbcTemplate.update(DELETE_BROADCASTS_SQL, params);
+            for (Role role : Role.values()) {
+                jdbcTemplate.update(ADD_PURGED_SQL, toAll + perRole.getOrDefault(role, 0L), role.name());
+            }
+            return ids;
+        });
+        List<Long> ids = removed != null ? removed : List.of();
+        broadcastsPurged.increment(ids.size());
+        return ids;
+    }
+
+    /**
+     * Avança até o último broadcast removido os contadores que ficaram abaixo
+     * dele, em lotes por faixa de usuário
+     */
+    void catchUpCounters(long through) {
+        long afterUserId = 0;
+        List<Long> userIds;
+        do {
+            userIds = jdbcTemplate.queryForList(BEHIND_SQL, Long.class, afterUserId, through,
+                    properties.getBatchSize());
+            if (userIds.isEmpty()) {
+                break;
+            }
+            List<Long> batch = userIds;
+            batchTransaction.executeWithoutResult(status -> namedJdbcTemplate.update(CATCH_UP_SQL,
+                    new MapSqlParameterSource("ids", batch).addValue("through", through)));
+            afterUserId = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == properties.getBatchSize());
+    }
+
+    private record StoredBroadcast(long id, String targetRole, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.carrent.infrastructure.notification;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.notifications.retention")
+public class NotificationRetentionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Dias, contados da criação, que uma notificação lida é mantida.
+     * Notificações não lidas nunca são removidas.
+     */
+    private int readRetentionDays = 90;
+
+    /**
+     * Dias, contados da criação, que um broadcast é mantido, lido ou não
+     */
+    private int broadcastRetentionDays = 180;
+
+    /**
+     * Notificações removidas por transação; lotes pequenos seguram os locks
+     * por pouco tempo
+     */
+    private int batchSize = 500;
+
+    /**
+     * Limite de lotes por execução, para não ocupar o banco por muito tempo
+     */
+    private int maxBatchesPerRun = 200;
+
+    private long intervalMs = 3600000;
+}
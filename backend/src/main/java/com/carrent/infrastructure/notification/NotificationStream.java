@@ -0,0 +1,174 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.application.dto.NotificationDTO;
+import com.carrent.domain.entity.Role;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uma conexão SSE aberta. Os eventos passam por um buffer limitado e são
+ * escritos por uma única thread de cada vez. Durante o reenvio do
+ * Last-Event-ID as notificações novas ficam retidas e saem depois das
+ * perdidas; só os ids que o próprio reenvio entregou são descartados como
+ * repetidos, já que as notificações podem ser confirmadas fora da ordem de id.
+ */
+final class NotificationStream {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String BROADCAST_EVENT = "broadcast";
+    static final String RESYNC_EVENT = "resync";
+
+    private final long userId;
+    private final Role role;
+    private final SseEmitter emitter;
+    private final int bufferSize;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Protegidos por this
+    private List<NotificationDTO> held = new ArrayList<>();
+    private boolean heldOverflow;
+    private Set<Long> replayedIds = Set.of();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    NotificationStream(long userId, Role role, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.role = role;
+        this.emitter = emitter;
+        this.bufferSize = bufferSize;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    long getUserId() {
+        return userId;
+    }
+
+    Role getRole() {
+        return role;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * @return false se o buffer estiver cheio
+     */
+    synchronized boolean offer(NotificationDTO notification) {
+        if (held != null) {
+            // Reenvio em andamento: o evento sai depois das notificações perdidas.
+            // Retenção além do buffer não caberia na fila de qualquer forma: o
+            // cliente recebe um resync no lugar
+            if (held.size() < bufferSize) {
+                held.add(notification);
+            } else {
+                heldOverflow = true;
+            }
+            return true;
+        }
+        // O commit pode ter entrado na consulta do reenvio antes de chegar aqui
+        if (replayedIds.contains(notification.getId())) {
+            return true;
+        }
+        return buffer.offer(notificationEvent(notification));
+    }
+
+    /**
+     * Broadcasts não têm id de evento: o Last-Event-ID segue só as notificações
+     * diretas, e um broadcast perdido aparece na caixa de entrada e na contagem
+     *
+     * @return false se o buffer estiver cheio
+     */
+    boolean offerBroadcast(NotificationDTO broadcast) {
+        return buffer.offer(SseEmitter.event().name(BROADCAST_EVENT).data(broadcast));
+    }
+
+    /**
+     * Enfileira as notificações perdidas desde o Last-Event-ID e, em seguida,
+     * as que chegaram durante a consulta e que o reenvio ainda não trouxe
+     *
+     * @param replayed notificações perdidas, em ordem de id, ou null se
+     *                 excederam o limite
+     * @return false se o buffer estiver cheio
+     */
+    synchronized boolean finishReplay(List<NotificationDTO> replayed) {
+        List<NotificationDTO> pending = held;
+        held = null;
+        if (replayed == null || heldOverflow) {
+            // O cliente recarrega a caixa de entrada; nada do que ficou retido precisa sair
+            heldOverflow = false;
+            return buffer.offer(SseEmitter.event().name(RESYNC_EVENT).data(""));
+        }
+
+        Set<Long> sent = new HashSet<>();
+        for (NotificationDTO notification : replayed) {
+            sent.add(notification.getId());
+            if (!buffer.offer(notificationEvent(notification))) {
+                return false;
+            }
+        }
+        for (NotificationDTO notification : pending) {
+            if (!sent.contains(notification.getId()) && !buffer.offer(notificationEvent(notification))) {
+                return false;
+            }
+        }
+        replayedIds = sent;
+        return true;
+    }
+
+    /**
+     * Heartbeat só quando não há nada na fila: qualquer evento já mantém a
+     * conexão viva
+     */
+    void heartbeat() {
+        if (buffer.isEmpty()) {
+            buffer.offer(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    boolean hasPending() {
+        return !buffer.isEmpty();
+    }
+
+    SseEmitter.SseEventBuilder poll() {
+        return buffer.poll();
+    }
+
+    boolean startDraining() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void stopDraining() {
+        draining.set(false);
+    }
+
+    /**
+     * @return true apenas na primeira chamada
+     */
+    boolean close() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        buffer.clear();
+        return true;
+    }
+
+    private static SseEmitter.SseEventBuilder notificationEvent(NotificationDTO notification) {
+        return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name(NOTIFICATION_EVENT)
+                .data(notification);
+    }
+}
@@ -0,0 +1,41 @@
+package com.carrent.infrastructure.notification;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.notifications.stream")
+public class NotificationStreamProperties {
+
+    /**
+     * Duração máxima de uma conexão; o cliente reconecta com o Last-Event-ID
+     */
+    private long timeoutMs = 1800000;
+
+    /**
+     * Intervalo dos comentários de heartbeat, abaixo do timeout de ociosidade
+     * dos proxies
+     */
+    private long heartbeatIntervalMs = 25000;
+
+    /**
+     * Eventos pendentes por conexão; ao exceder, a conexão é encerrada e o
+     * cliente recupera o que perdeu ao reconectar
+     */
+    private int bufferSize = 64;
+
+    /**
+     * Máximo de notificações reenviadas na reconexão; acima disso o cliente
+     * recebe um evento resync e recarrega a lista
+     */
+    private int replayLimit = 100;
+
+    private int maxConnectionsPerUser = 5;
+
+    /**
+     * Threads que escrevem nos sockets; conexões ociosas não ocupam threads
+     */
+    private int writerThreads = 4;
+}
@@ -0,0 +1,275 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.application.dto.NotificationDTO;
+import com.carrent.domain.entity.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conexões SSE abertas nesta instância, por usuário.
+ * As conexões ociosas não ocupam threads: a requisição fica em modo assíncrono
+ * e só um pequeno pool de escrita toca nos sockets quando há eventos. Quem
+ * publica apenas enfileira no buffer da conexão, sem nunca bloquear em um
+ * cliente lento.
+ */
+@Slf4j
+public class NotificationStreamRegistry {
+
+    /**
+     * Busca as notificações do usuário com id maior que afterId, em ordem
+     * crescente de id
+     */
+    @FunctionalInterface
+    public interface ReplaySource {
+        List<NotificationDTO> since(long afterId, int limit);
+    }
+
+    private final NotificationStreamProperties properties;
+    private final Executor writer;
+    private final Map<Long, List<NotificationStream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter dropped;
+
+    public NotificationStreamRegistry(NotificationStreamProperties properties, MeterRegistry registry) {
+        this(properties, writerPool(properties.getWriterThreads()), registry);
+    }
+
+    NotificationStreamRegistry(NotificationStreamProperties properties, Executor writer, MeterRegistry registry) {
+        this.properties = properties;
+        this.writer = writer;
+        Gauge.builder("carrent.notifications.streams", connections, AtomicInteger::get)
+                .description("Conexões SSE de notificações abertas nesta instância")
+                .register(registry);
+        this.dropped = Counter.builder("carrent.notifications.streams.dropped")
+                .description("Conexões encerradas por excesso de eventos pendentes")
+                .register(registry);
+    }
+
+    /**
+     * Abre uma conexão para o usuário. Com Last-Event-ID, reenvia antes as
+     * notificações criadas desde então.
+     */
+    public SseEmitter connect(long userId, Role role, Long lastEventId, ReplaySource replaySource) {
+        SseEmitter emitter = createEmitter();
+        NotificationStream stream = new NotificationStream(userId, role, emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(error -> remove(stream));
+        // Registrada antes da consulta: o que for criado durante o reenvio fica retido na conexão
+        register(stream);
+
+        List<NotificationDTO> replayed = List.of();
+        if (lastEventId != null) {
+            try {
+                replayed = replaySource.since(lastEventId, properties.getReplayLimit() + 1);
+            } catch (RuntimeException e) {
+                remove(stream);
+                throw e;
+            }
+            if (replayed.size() > properties.getReplayLimit()) {
+                replayed = null;
+            }
+        }
+        if (!stream.finishReplay(replayed)) {
+            overflow(stream);
+            return emitter;
+        }
+        // Envia os cabeçalhos imediatamente, mesmo sem eventos
+        stream.heartbeat();
+        schedule(stream);
+        return emitter;
+    }
+
+    /**
+     * Entrega a notificação às conexões do usuário nesta instância depois do
+     * commit da transação atual, se houver uma
+     */
+    public void publishAfterCommit(long userId, NotificationDTO notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(userId, notification);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(userId, notification);
+            }
+        });
+    }
+
+    public void publish(long userId, NotificationDTO notification) {
+        List<NotificationStream> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (NotificationStream stream : userStreams) {
+            if (stream.offer(notification)) {
+                schedule(stream);
+            } else {
+                overflow(stream);
+            }
+        }
+    }
+
+    /**
+     * Entrega o broadcast, depois do commit, a todas as conexões desta
+     * instância cujo usuário tem o perfil destinatário
+     *
+     * @param targetRole perfil destinatário, ou nulo para todos
+     */
+    public void publishBroadcastAfterCommit(Role targetRole, NotificationDTO broadcast) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishBroadcast(targetRole, broadcast);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishBroadcast(targetRole, broadcast);
+            }
+        });
+    }
+
+    public void publishBroadcast(Role targetRole, NotificationDTO broadcast) {
+        for (List<NotificationStream> userStreams : streams.values()) {
+            for (NotificationStream stream : userStreams) {
+                if (targetRole != null && targetRole != stream.getRole()) {
+                    continue;
+                }
+                if (stream.offerBroadcast(broadcast)) {
+                    schedule(stream);
+                } else {
+                    overflow(stream);
+                }
+            }
+        }
+    }
+
+    public boolean isConnected(long userId) {
+        return streams.containsKey(userId);
+    }
+
+    public boolean hasConnections() {
+        return !streams.isEmpty();
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @Scheduled(initialDelayString = "${application.notifications.stream.heartbeat-interval-ms:25000}",
+            fixedDelayString = "${application.notifications.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (List<NotificationStream> userStreams : streams.values()) {
+            for (NotificationStream stream : userStreams) {
+                stream.heartbeat();
+                schedule(stream);
+            }
+        }
+    }
+
+    public void shutdown() {
+        streams.values().forEach(userStreams -> userStreams.forEach(this::disconnect));
+        if (writer instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(properties.getTimeoutMs());
+    }
+
+    private void register(NotificationStream stream) {
+        List<NotificationStream> userStreams = streams.compute(stream.getUserId(), (id, current) -> {
+            List<NotificationStream> list = current != null ? current : new CopyOnWriteArrayList<>();
+            list.add(stream);
+            return list;
+        });
+        connections.incrementAndGet();
+
+        // Abas esquecidas abertas não acumulam conexões: a mais antiga sai
+        while (userStreams.size() > properties.getMaxConnectionsPerUser()) {
+            disconnect(userStreams.get(0));
+        }
+    }
+
+    private void remove(NotificationStream stream) {
+        if (!stream.close()) {
+            return;
+        }
+        streams.computeIfPresent(stream.getUserId(), (id, list) -> {
+            list.remove(stream);
+            return list.isEmpty() ? null : list;
+        });
+        connections.decrementAndGet();
+    }
+
+    private void disconnect(NotificationStream stream) {
+        remove(stream);
+        try {
+            stream.getEmitter().complete();
+        } catch (RuntimeException e) {
+            log.debug("Falha ao encerrar conexão SSE do usuário {}: {}", stream.getUserId(), e.getMessage());
+        }
+    }
+
+    private void overflow(NotificationStream stream) {
+        dropped.increment();
+        log.debug("Conexão SSE do usuário {} encerrada: buffer cheio", stream.getUserId());
+        disconnect(stream);
+    }
+
+    private void schedule(NotificationStream stream) {
+        if (!stream.hasPending() || !stream.startDraining()) {
+            return;
+        }
+        try {
+            writer.execute(() -> drain(stream));
+        } catch (RejectedExecutionException e) {
+            stream.stopDraining();
+        }
+    }
+
+    private void drain(NotificationStream stream) {
+        try {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!stream.isClosed() && (event = stream.poll()) != null) {
+                    stream.getEmitter().send(event);
+                }
+                stream.stopDraining();
+                // Um evento enfileirado depois do último poll pode ter perdido a vez
+            } while (stream.hasPending() && stream.startDraining());
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado; o container também avisa pelo onError
+            stream.stopDraining();
+            disconnect(stream);
+        }
+    }
+
+    private static ExecutorService writerPool(int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
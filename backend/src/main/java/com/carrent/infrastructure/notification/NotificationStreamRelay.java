@@ -0,0 +1,67 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.application.dto.NotificationDTO;
+import com.carrent.domain.entity.BroadcastNotification;
+import com.carrent.domain.entity.Notification;
+import com.carrent.domain.repository.BroadcastNotificationRepository;
+import com.carrent.domain.repository.NotificationRepository;
+import com.carrent.infrastructure.cluster.ClusterChangeListener;
+import com.carrent.infrastructure.cluster.EntityChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Entrega aos streams desta instância as notificações e broadcasts criados em
+ * outras.
+ * Alterações de notificações antigas (marcação como lida) são descartadas pela
+ * consulta, e o cursor de cada conexão ignora o que ela já recebeu.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationStreamRelay implements ClusterChangeListener {
+
+    private final NotificationStreamRegistry streamRegistry;
+    private final NotificationRepository notificationRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+
+    // Sem readOnly: a notificação acabou de ser criada e uma réplica pode não tê-la ainda
+    @Override
+    @Transactional
+    public void onChanges(List<EntityChange> changes) {
+        if (!streamRegistry.hasConnections()) {
+            return;
+        }
+        List<Long> ids = idsOf(changes, Notification.class);
+        if (!ids.isEmpty()) {
+            for (Notification notification : notificationRepository.findUnreadByIdIn(ids)) {
+                // getId no proxy não inicializa o usuário
+                Long userId = notification.getUser().getId();
+                if (streamRegistry.isConnected(userId)) {
+                    streamRegistry.publish(userId, NotificationDTO.fromEntity(notification));
+                }
+            }
+        }
+        for (BroadcastNotification broadcast : broadcastNotificationRepository.findAllById(
+                idsOf(changes, BroadcastNotification.class))) {
+            streamRegistry.publishBroadcast(broadcast.getTargetRole(), NotificationDTO.fromBroadcast(broadcast, false));
+        }
+    }
+
+    private static List<Long> idsOf(List<EntityChange> changes, Class<?> type) {
+        return changes.stream()
+                .filter(change -> change.isOf(type))
+                .map(EntityChange::entityId)
+                .toList();
+    }
+
+    /**
+     * As notificações perdidas continuam na caixa de entrada; derrubar todas as
+     * conexões para forçar o reenvio causaria uma onda de reconexões
+     */
+    @Override
+    public void onReset() {
+    }
+}
@@ -1,9 +1,8 @@
 package com.carrent.infrastructure.notification;
 
-import com.carrent.domain.entity.Notification;
+import com.carrent.application.service.NotificationService;
+import com.carrent.domain.entity.Role;
 import com.carrent.domain.entity.User;
-import com.carrent.domain.repository.NotificationRepository;
-import com.carrent.domain.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,28 +13,30 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class SystemNotificationService {
 
-    private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
 
     /**
      * Envia uma notificação do sistema (armazenada para exibição na interface)
      * 
-     * @param userId  ID do usuário
+     * @param user    Usuário destinatário, já carregado por quem chama
      * @param title   Título da notificação
      * @param content Conteúdo da notificação
      */
     @Transactional
-    public void sendSystemNotification(Long userId, String title, String content) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com ID: " + userId));
-
-        Notification notification = Notification.builder()
-                .user(user)
-                .title(title)
-                .content(content)
-                .isRead(false)
-                .build();
+    public void sendSystemNotification(User user, String title, String content) {
+        notificationService.createNotification(user, title, content);
+    }
 
-        notificationRepository.save(notification);
+    /**
+     * Envia uma notificação do sistema a todos os usuários de um perfil, ou a
+     * todos, gravando uma única linha
+     * 
+     * @param targetRole Perfil destinatário, ou nulo para todos os usuários
+     * @param title      Título da notificação
+     * @param content    Conteúdo da notificação
+     */
+    @Transactional
+    public void sendSystemBroadcast(Role targetRole, String title, String content) {
+        notificationService.createBroadcast(title, content, targetRole);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package com.carrent.infrastructure.notification;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.notifications.counters")
+public class UnreadCounterProperties {
+
+    /**
+     * Liga o reconciliador; os contadores são mantidos de qualquer forma
+     */
+    private boolean enabled = true;
+
+    private long reconcileIntervalMs = 3600000;
+
+    /**
+     * Usuários por transação do reconciliador
+     */
+    private int batchSize = 500;
+}
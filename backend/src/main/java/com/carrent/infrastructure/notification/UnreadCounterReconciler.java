@@ -0,0 +1,89 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.domain.entity.NotificationCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Corrige os contadores de notificações não lidas a partir da tabela de
+ * notificações e cria os que faltam (usuários novos e linhas perdidas).
+ * <p>
+ * Percorre os usuários em faixas de id, uma transação por faixa, e só grava
+ * os contadores divergentes. Como as correções não passam pelo Hibernate, a
+ * região do cache é descartada ao fim; nas outras instâncias a cópia em cache
+ * expira pelo TTL.
+ */
+@Slf4j
+public class UnreadCounterReconciler {
+
+    private static final String UNREAD_SQL = "(SELECT COUNT(*) FROM notifications n "
+            + "WHERE n.user_id = %s AND n.is_read = FALSE)";
+    private static final String USERS_SQL = "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    // Como no cadastro, os broadcasts já enviados ao perfil contam como lidos
+    private static final String INSERT_MISSING_SQL = "INSERT INTO notification_counters "
+            + "(user_id, unread_count, broadcast_watermark, broadcast_base, broadcast_reads) "
+            + "SELECT u.id, " + UNREAD_SQL.formatted("u.id") + ", COALESCE(r.last_broadcast_id, 0), "
+            + "COALESCE(r.sent, 0), 0 FROM users u LEFT JOIN broadcast_role_counters r ON r.role = u.role "
+            + "WHERE u.id BETWEEN ? AND ? "
+            + "AND NOT EXISTS (SELECT 1 FROM notification_counters c WHERE c.user_id = u.id)";
+    private static final String FIX_DRIFT_SQL = "UPDATE notification_counters SET unread_count = "
+            + UNREAD_SQL.formatted("notification_counters.user_id") + " WHERE user_id BETWEEN ? AND ? "
+            + "AND unread_count <> " + UNREAD_SQL.formatted("notification_counters.user_id");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UnreadCounterProperties properties;
+    private final Counter corrected;
+
+    public UnreadCounterReconciler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory, UnreadCounterProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+        this.corrected = Counter.builder("carrent.notifications.counters.corrected")
+                .description("Contadores de não lidas criados ou corrigidos pelo reconciliador")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${application.notifications.counters.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${application.notifications.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        int total = 0;
+        try {
+            long afterId = 0;
+            List<Long> userIds;
+            do {
+                userIds = jdbcTemplate.queryForList(USERS_SQL, Long.class, afterId, properties.getBatchSize());
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                total += reconcileRange(userIds.get(0), userIds.get(userIds.size() - 1));
+                afterId = userIds.get(userIds.size() - 1);
+            } while (userIds.size() == properties.getBatchSize());
+        } catch (RuntimeException e) {
+            log.error("Falha ao reconciliar os contadores de notificações não lidas", e);
+        }
+        if (total > 0) {
+            corrected.increment(total);
+            entityManagerFactory.getCache().evict(NotificationCounter.class);
+            log.info("{} contadores de notificações não lidas criados ou corrigidos", total);
+        }
+    }
+
+    int reconcileRange(long fromUserId, long toUserId) {
+        Integer changed = batchTransaction.execute(status ->
+                jdbcTemplate.update(INSERT_MISSING_SQL, fromUserId, toUserId)
+                        + jdbcTemplate.update(FIX_DRIFT_SQL, fromUserId, toUserId));
+        return changed != null ? changed : 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import java.util.List;
+
+/**
+ * Falha parcial de um lote: apenas as notificações listadas são repetidas
+ */
+public class ChannelDeliveryException extends RuntimeException {
+
+    private final List<NotificationDelivery> failed;
+
+    public ChannelDeliveryException(String message, List<NotificationDelivery> failed, Throwable cause) {
+        super(message, cause);
+        this.failed = List.copyOf(failed);
+    }
+
+    public List<NotificationDelivery> getFailed() {
+        return failed;
+    }
+}
@@ -0,0 +1,247 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executa um canal em uma thread própria, alimentada por uma fila limitada.
+ * <p>
+ * Quem envia apenas enfileira: um canal lento ou fora do ar só atrasa a
+ * própria fila, nunca a requisição nem os demais canais. A thread entrega em
+ * lotes o que estiver na fila; as notificações que falham voltam para a fila
+ * depois de uma espera exponencial e, esgotadas as tentativas, vão para a
+ * dead-letter. Com a fila cheia, a notificação vai direto para a dead-letter.
+ * <p>
+ * Ao desligar, tudo o que não foi entregue vai para a dead-letter: a fila,
+ * as repetições agendadas e o lote em andamento, se a thread não terminar no
+ * prazo. Nesse último caso o lote pode acabar entregue e também gravado na
+ * dead-letter; perder a notificação seria pior do que repeti-la.
+ */
+@Slf4j
+public class ChannelWorker {
+
+    private final NotificationChannel channel;
+    private final NotificationDeliveryProperties.Worker settings;
+    private final DeadLetterStore deadLetterStore;
+    private final BlockingQueue<NotificationDelivery> queue;
+    // Por identidade: duas notificações iguais aguardando ao mesmo tempo são entregas distintas
+    private final Set<NotificationDelivery> awaitingRetry = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+    // Lote entregue pela thread agora; quem o retira primeiro (a thread ou o shutdown) cuida das falhas
+    private final AtomicReference<List<NotificationDelivery>> inFlight = new AtomicReference<>();
+    private final ScheduledExecutorService retryScheduler;
+    private final Thread thread;
+    private volatile boolean running;
+
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    public ChannelWorker(NotificationChannel channel, NotificationDeliveryProperties.Worker settings,
+            DeadLetterStore deadLetterStore, MeterRegistry registry) {
+        this.channel = channel;
+        this.settings = settings;
+        this.deadLetterStore = deadLetterStore;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                daemon("notification-" + channel.name() + "-retry"));
+        this.thread = daemon("notification-" + channel.name()).newThread(this::run);
+
+        Gauge.builder("carrent.notifications.delivery.queue", queue, BlockingQueue::size)
+                .description("Notificações aguardando entrega")
+                .tag("channel", channel.name())
+                .register(registry);
+        this.delivered = Counter.builder("carrent.notifications.delivery.delivered")
+                .description("Notificações entregues")
+                .tag("channel", channel.name())
+                .register(registry);
+        this.retried = Counter.builder("carrent.notifications.delivery.retried")
+                .description("Entregas que falharam e serão repetidas")
+                .tag("channel", channel.name())
+                .register(registry);
+        this.deadLettered = Counter.builder("carrent.notifications.delivery.dead_lettered")
+                .description("Notificações gravadas na dead-letter")
+                .tag("channel", channel.name())
+                .register(registry);
+    }
+
+    public String getChannel() {
+        return channel.name();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Enfileira sem bloquear
+     *
+     * @return false se a fila estava cheia e a notificação foi para a
+     *         dead-letter
+     */
+    public boolean submit(NotificationDelivery delivery) {
+        if (running && queue.offer(delivery)) {
+            // O shutdown pode ter esvaziado a fila entre a verificação e o offer
+            if (!running && queue.remove(delivery)) {
+                deadLetter(delivery, "Canal desligado");
+                return false;
+            }
+            return true;
+        }
+        deadLetter(delivery, running ? "Fila do canal cheia" : "Canal desligado");
+        return false;
+    }
+
+    /**
+     * Para a thread e grava na dead-letter o que ainda não foi entregue
+     */
+    public void shutdown() {
+        // Antes de esvaziar qualquer coisa: a partir daqui retry() não agenda mais
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(settings.getShutdownTimeoutMs());
+            retryScheduler.shutdownNow();
+            retryScheduler.awaitTermination(settings.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<NotificationDelivery> pending = new ArrayList<>();
+        List<NotificationDelivery> stuck = inFlight.getAndSet(null);
+        if (stuck != null) {
+            log.warn("Canal {} não terminou a entrega em {} ms; {} notificação(ões) em andamento vão para a "
+                    + "dead-letter", channel.name(), settings.getShutdownTimeoutMs(), stuck.size());
+            pending.addAll(stuck);
+        }
+        synchronized (awaitingRetry) {
+            pending.addAll(awaitingRetry);
+            awaitingRetry.clear();
+        }
+        queue.drainTo(pending);
+        pending.forEach(delivery -> deadLetter(delivery, "Canal desligado antes da entrega"));
+    }
+
+    private void run() {
+        while (running) {
+            List<NotificationDelivery> batch = new ArrayList<>(settings.getBatchSize());
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, settings.getBatchSize() - 1);
+            deliver(batch);
+        }
+    }
+
+    /**
+     * Entrega um lote e agenda a repetição do que falhou
+     */
+    void deliver(List<NotificationDelivery> batch) {
+        inFlight.set(batch);
+        List<NotificationDelivery> failed;
+        Exception error;
+        try {
+            channel.deliver(List.copyOf(batch));
+            failed = List.of();
+            error = null;
+        } catch (ChannelDeliveryException e) {
+            failed = e.getFailed();
+            error = e;
+        } catch (Exception e) {
+            failed = batch;
+            error = e;
+        }
+        if (!inFlight.compareAndSet(batch, null)) {
+            // O shutdown desistiu de esperar e já gravou o lote inteiro na dead-letter
+            return;
+        }
+        delivered.increment(batch.size() - failed.size());
+        for (NotificationDelivery delivery : failed) {
+            retry(delivery, error);
+        }
+    }
+
+    private void retry(NotificationDelivery delivery, Exception error) {
+        NotificationDelivery failed = delivery.failed();
+        String message = error.getCause() != null ? error.getMessage() + ": " + error.getCause().getMessage()
+                : error.getMessage();
+        if (failed.attempts() >= settings.getMaxAttempts()) {
+            log.warn("Notificação para o usuário {} pelo canal {} descartada após {} tentativas: {}",
+                    failed.userId(), channel.name(), failed.attempts(), message);
+            deadLetter(failed, message);
+            return;
+        }
+
+        // Sob o mesmo bloqueio do shutdown: ou entra antes de ele esvaziar, ou vê o canal desligado
+        boolean accepted;
+        synchronized (awaitingRetry) {
+            accepted = running && awaitingRetry.add(failed);
+        }
+        if (!accepted) {
+            deadLetter(failed, "Canal desligado antes da entrega: " + message);
+            return;
+        }
+
+        retried.increment();
+        try {
+            retryScheduler.schedule(() -> {
+                boolean requeued;
+                synchronized (awaitingRetry) {
+                    if (!awaitingRetry.remove(failed)) {
+                        // Já esvaziada pelo shutdown
+                        return;
+                    }
+                    requeued = running && queue.offer(failed);
+                }
+                if (!requeued) {
+                    deadLetter(failed, running ? "Fila do canal cheia ao repetir: " + message
+                            : "Canal desligado antes da entrega: " + message);
+                }
+            }, backoffMs(failed.attempts()), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Desligando: shutdown() grava o que ficou em awaitingRetry
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = settings.getInitialBackoffMs() << Math.min(attempts - 1, 20);
+        return Math.min(backoff, settings.getMaxBackoffMs());
+    }
+
+    private void deadLetter(NotificationDelivery delivery, String error) {
+        deadLettered.increment();
+        deadLetterStore.store(delivery, error);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+
+/**
+ * Grava em notification_dead_letters as notificações que esgotaram as
+ * tentativas ou não couberam na fila do canal, para inspeção e reenvio manual
+ */
+@Slf4j
+public class DeadLetterStore {
+
+    private static final String INSERT_SQL = "INSERT INTO notification_dead_letters "
+            + "(channel, user_id, recipient, title, content, attempts, last_error, created_at, failed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeadLetterStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void store(NotificationDelivery delivery, String error) {
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+        try {
+            jdbcTemplate.update(INSERT_SQL, delivery.channel(), delivery.userId(), delivery.recipient(),
+                    delivery.title(), delivery.content(), delivery.attempts(), lastError,
+                    Timestamp.valueOf(delivery.createdAt()));
+        } catch (RuntimeException e) {
+            // Último recurso: não há outro lugar para guardar a notificação
+            log.error("Notificação perdida (canal {}, usuário {}, título \"{}\"): {}", delivery.channel(),
+                    delivery.userId(), delivery.title(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envia as notificações por e-mail. O lote inteiro usa uma única conexão
+ * SMTP; apenas as mensagens recusadas são repetidas.
+ */
+public class EmailChannel implements NotificationChannel {
+
+    public static final String NAME = "email";
+
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public EmailChannel(JavaMailSender mailSender, String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void deliver(List<NotificationDelivery> batch) {
+        SimpleMailMessage[] messages = batch.stream()
+                .map(this::toMessage)
+                .toArray(SimpleMailMessage[]::new);
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                throw e;
+            }
+            List<NotificationDelivery> failed = new ArrayList<>();
+            for (int i = 0; i < messages.length; i++) {
+                if (failedMessages.containsKey(messages[i])) {
+                    failed.add(batch.get(i));
+                }
+            }
+            throw new ChannelDeliveryException("Falha ao enviar e-mails", failed, e);
+        }
+    }
+
+    private SimpleMailMessage toMessage(NotificationDelivery delivery) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(delivery.recipient());
+        message.setSubject(delivery.title());
+        message.setText(delivery.content());
+        return message;
+    }
+}
@@ -0,0 +1,24 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import java.util.List;
+
+/**
+ * Meio de entrega das notificações (interface, e-mail, webhook...).
+ * <p>
+ * Cada canal é executado por um ChannelWorker próprio, fora da thread da
+ * requisição, e recebe as notificações em lotes. A entrega é "pelo menos uma
+ * vez": um lote que falha é repetido, então o canal deve tolerar repetições.
+ */
+public interface NotificationChannel {
+
+    /**
+     * Nome do canal, usado na configuração, nas métricas e na dead-letter
+     */
+    String name();
+
+    /**
+     * Entrega um lote. Uma exceção comum faz o lote inteiro ser repetido; uma
+     * ChannelDeliveryException repete apenas as notificações que ela lista.
+     */
+    void deliver(List<NotificationDelivery> batch) throws Exception;
+}
@@ -0,0 +1,24 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificação a entregar por um canal
+ *
+ * @param channel   nome do canal
+ * @param userId    usuário destinatário
+ * @param recipient endereço no canal (e-mail do usuário, por exemplo)
+ * @param attempts  tentativas de entrega que já falharam
+ */
+public record NotificationDelivery(String channel, long userId, String recipient, String title, String content,
+        int attempts, LocalDateTime createdAt) {
+
+    public static NotificationDelivery of(String channel, long userId, String recipient, String title,
+            String content) {
+        return new NotificationDelivery(channel, userId, recipient, title, content, 0, LocalDateTime.now());
+    }
+
+    public NotificationDelivery failed() {
+        return new NotificationDelivery(channel, userId, recipient, title, content, attempts + 1, createdAt);
+    }
+}
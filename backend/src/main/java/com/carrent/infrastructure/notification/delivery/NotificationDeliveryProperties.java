@@ -0,0 +1,93 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.notifications.delivery")
+public class NotificationDeliveryProperties {
+
+    private Email email = new Email();
+
+    private Webhook webhook = new Webhook();
+
+    /**
+     * Configuração do worker de um canal; canais sem seção própria usam os
+     * valores padrão
+     */
+    public Worker forChannel(String channel) {
+        return switch (channel) {
+            case EmailChannel.NAME -> email;
+            case WebhookChannel.NAME -> webhook;
+            default -> new Worker();
+        };
+    }
+
+    @Getter
+    @Setter
+    public static class Worker {
+
+        private boolean enabled = true;
+
+        /**
+         * Notificações pendentes antes de o canal recusar novas, que vão
+         * direto para a dead-letter
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * Notificações entregues por chamada ao canal
+         */
+        private int batchSize = 50;
+
+        /**
+         * Tentativas antes de a notificação ir para a dead-letter
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Espera antes da primeira nova tentativa; dobra a cada falha
+         */
+        private long initialBackoffMs = 1000;
+
+        private long maxBackoffMs = 300000;
+
+        /**
+         * Espera pela entrega em andamento ao desligar; passado o prazo, o
+         * lote vai para a dead-letter mesmo que ainda possa ser entregue
+         */
+        private long shutdownTimeoutMs = 5000;
+    }
+
+    @Getter
+    @Setter
+    public static class Email extends Worker {
+
+        /**
+         * Remetente das mensagens; o servidor SMTP vem de spring.mail.*
+         */
+        private String from = "no-reply@carrent.com";
+
+        public Email() {
+            setEnabled(false);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Webhook extends Worker {
+
+        /**
+         * Endpoint que recebe cada lote em um único POST JSON
+         */
+        private String url;
+
+        private long timeoutMs = 5000;
+
+        public Webhook() {
+            setEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import com.carrent.domain.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encaminha as notificações ao worker de cada canal habilitado
+ */
+@Slf4j
+public class NotificationDispatcher {
+
+    private final Map<String, ChannelWorker> workers = new LinkedHashMap<>();
+
+    public NotificationDispatcher(List<NotificationChannel> channels, NotificationDeliveryProperties properties,
+            DeadLetterStore deadLetterStore, MeterRegistry registry) {
+        for (NotificationChannel channel : channels) {
+            NotificationDeliveryProperties.Worker settings = properties.forChannel(channel.name());
+            if (settings.isEnabled()) {
+                workers.put(channel.name(), new ChannelWorker(channel, settings, deadLetterStore, registry));
+            }
+        }
+    }
+
+    public void start() {
+        workers.values().forEach(ChannelWorker::start);
+        log.info("Canais de notificação habilitados: {}", workers.keySet());
+    }
+
+    public void shutdown() {
+        workers.values().forEach(ChannelWorker::shutdown);
+    }
+
+    public boolean isEnabled(String channel) {
+        return workers.containsKey(channel);
+    }
+
+    /**
+     * Enfileira a notificação no canal, sem esperar a entrega
+     *
+     * @throws IllegalArgumentException se o canal não estiver habilitado
+     */
+    public void dispatch(String channel, User user, String title, String content) {
+        ChannelWorker worker = workers.get(channel);
+        if (worker == null) {
+            throw new IllegalArgumentException("Canal de notificação não habilitado: " + channel);
+        }
+        if (!worker.submit(NotificationDelivery.of(channel, user.getId(), user.getEmail(), title, content))) {
+            log.warn("Fila do canal {} cheia; notificação para o usuário {} gravada na dead-letter",
+                    channel, user.getId());
+        }
+    }
+}
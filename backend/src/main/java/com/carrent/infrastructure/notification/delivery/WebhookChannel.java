@@ -0,0 +1,64 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envia cada lote em um único POST JSON ({"notifications": [...]}). Qualquer
+ * resposta fora da faixa 2xx faz o lote ser repetido.
+ */
+public class WebhookChannel implements NotificationChannel {
+
+    public static final String NAME = "webhook";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+
+    public WebhookChannel(ObjectMapper objectMapper, String url, long timeoutMs) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("application.notifications.delivery.webhook.url não configurada");
+        }
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void deliver(List<NotificationDelivery> batch) throws IOException, InterruptedException {
+        List<Payload> notifications = batch.stream()
+                .map(delivery -> new Payload(delivery.userId(), delivery.title(), delivery.content(),
+                        delivery.createdAt()))
+                .toList();
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        objectMapper.writeValueAsBytes(Map.of("notifications", notifications))))
+                .build();
+
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook respondeu com status " + response.statusCode());
+        }
+    }
+
+    private record Payload(long userId, String title, String content, LocalDateTime createdAt) {
+    }
+}
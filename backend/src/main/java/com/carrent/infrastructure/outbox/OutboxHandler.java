@@ -0,0 +1,18 @@
+package com.carrent.infrastructure.outbox;
+
+import com.carrent.domain.event.DomainEvent;
+
+/**
+ * Efeito colateral executado a partir das mensagens do outbox.
+ * <p>
+ * Cada chamada roda em uma transação própria. A entrega é "pelo menos uma
+ * vez": se a instância cair entre o efeito e a remoção da mensagem, ou se
+ * outro handler da mesma mensagem falhar, ela é entregue de novo, então os
+ * handlers devem tolerar repetições (o id da mensagem é estável).
+ */
+public interface OutboxHandler {
+
+    boolean supports(DomainEvent event);
+
+    void handle(OutboxMessage message);
+}
@@ -0,0 +1,15 @@
+package com.carrent.infrastructure.outbox;
+
+import com.carrent.domain.event.DomainEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mensagem reservada do outbox, já desserializada
+ *
+ * @param id       identificador da linha, estável entre novas tentativas
+ * @param event    evento registrado
+ * @param attempts tentativas de entrega que já falharam
+ */
+public record OutboxMessage(long id, DomainEvent event, int attempts, LocalDateTime createdAt) {
+}
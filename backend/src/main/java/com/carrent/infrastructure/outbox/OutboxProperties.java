@@ -0,0 +1,36 @@
+package com.carrent.infrastructure.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Mensagens reservadas por transação do relay
+     */
+    private int batchSize = 100;
+
+    private long pollIntervalMs = 1000;
+
+    /**
+     * Tentativas antes de a mensagem ir para outbox_dead_letters
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Espera antes da primeira nova tentativa; dobra a cada falha
+     */
+    private long retryBackoffSeconds = 5;
+
+    /**
+     * Duração da reserva de um lote; se a entrega não terminar nesse prazo,
+     * outra instância pode reservar as mensagens de novo
+     */
+    private long leaseSeconds = 60;
+}
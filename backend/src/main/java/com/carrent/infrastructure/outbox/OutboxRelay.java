@@ -0,0 +1,225 @@
+package com.carrent.infrastructure.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega as mensagens do outbox aos handlers em processo.
+ * <p>
+ * Cada lote é reservado por lease em uma transação curta: SELECT ... FOR
+ * UPDATE SKIP LOCKED escolhe as linhas, que recebem o token da reserva em
+ * claimed_by e têm available_at adiado até o fim do lease. Os locks saem no
+ * commit, antes de os handlers rodarem, cada um na sua transação. Várias
+ * instâncias podem rodar o relay sem disputar as mesmas linhas, e a mensagem
+ * de uma instância que caiu volta a ser reservada quando o lease termina.
+ * <p>
+ * As mensagens entregues são removidas em um único DELETE; as que falharam
+ * têm a próxima tentativa adiada com espera exponencial. Esgotadas as
+ * tentativas, ou se a mensagem não puder ser lida, ela vai para
+ * outbox_dead_letters. Todas essas escritas exigem o token da reserva, para
+ * não mexer em uma mensagem que outra instância reservou depois que o lease
+ * expirou.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private static final String SELECT_SQL = "SELECT id, event_type, payload, attempts, created_at FROM outbox "
+            + "WHERE available_at <= CURRENT_TIMESTAMP ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String LEASE_SQL = "UPDATE outbox SET claimed_by = :owner, "
+            + "available_at = TIMESTAMPADD(SECOND, :lease, CURRENT_TIMESTAMP) WHERE id IN (:ids)";
+    private static final String DELETE_SQL = "DELETE FROM outbox WHERE id IN (:ids) AND claimed_by = :owner";
+    private static final String RETRY_SQL = "UPDATE outbox SET attempts = attempts + 1, claimed_by = NULL, "
+            + "available_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) WHERE id = ? AND claimed_by = ?";
+    private static final String DEAD_LETTER_SQL = "INSERT INTO outbox_dead_letters "
+            + "(id, aggregate_type, aggregate_id, event_type, payload, attempts, last_error, created_at, failed_at) "
+            + "SELECT id, aggregate_type, aggregate_id, event_type, payload, attempts + ?, ?, created_at, "
+            + "CURRENT_TIMESTAMP FROM outbox WHERE id = ? AND claimed_by = ?";
+    private static final String DELETE_ONE_SQL = "DELETE FROM outbox WHERE id = ? AND claimed_by = ?";
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxStore store;
+    private final List<OutboxHandler> handlers;
+    private final OutboxProperties properties;
+
+    private final Counter dispatched;
+    private final Counter failures;
+    private final Counter deadLettered;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, OutboxStore store,
+            List<OutboxHandler> handlers, OutboxProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.store = store;
+        this.handlers = handlers;
+        this.properties = properties;
+
+        this.dispatched = Counter.builder("carrent.outbox.dispatched")
+                .description("Mensagens do outbox entregues e removidas")
+                .register(registry);
+        this.failures = Counter.builder("carrent.outbox.failures")
+                .description("Entregas de mensagens do outbox que falharam")
+                .register(registry);
+        this.deadLettered = Counter.builder("carrent.outbox.dead_letters")
+                .description("Mensagens do outbox movidas para as dead letters")
+                .register(registry);
+        this.batchTimer = Timer.builder("carrent.outbox.batch")
+                .description("Duração de cada lote do relay")
+                .register(registry);
+        Gauge.builder("carrent.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Idade em segundos da mensagem mais antiga do último lote")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            int claimed;
+            do {
+                claimed = batchTimer.record(this::relayBatch);
+            } while (claimed == properties.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Falha ao processar o outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reserva, entrega e remove um lote
+     *
+     * @return número de mensagens reservadas
+     */
+    int relayBatch() {
+        String owner = UUID.randomUUID().toString();
+        List<OutboxMessage> messages = claim(owner);
+        if (messages.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Duration.between(messages.get(0).createdAt(), LocalDateTime.now()).toMillis());
+
+        List<Long> delivered = new ArrayList<>();
+        for (OutboxMessage message : messages) {
+            String error = deliver(message);
+            if (error == null) {
+                delivered.add(message.id());
+            } else {
+                failures.increment();
+                fail(message.id(), message.attempts(), owner, error);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            dispatched.increment(namedJdbcTemplate.update(DELETE_SQL,
+                    new MapSqlParameterSource("ids", delivered).addValue("owner", owner)));
+        }
+        return messages.size();
+    }
+
+    /**
+     * Reserva um lote em uma transação própria, que termina antes da entrega
+     */
+    private List<OutboxMessage> claim(String owner) {
+        List<OutboxMessage> messages = new ArrayList<>();
+        List<Unreadable> unreadable = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = new ArrayList<>();
+            jdbcTemplate.query(SELECT_SQL, rs -> {
+                long id = rs.getLong("id");
+                int attempts = rs.getInt("attempts");
+                LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+                ids.add(id);
+                try {
+                    messages.add(new OutboxMessage(id,
+                            store.deserialize(rs.getString("event_type"), rs.getString("payload")),
+                            attempts, createdAt));
+                } catch (IllegalArgumentException e) {
+                    log.error("Mensagem {} do outbox ilegível: {}", id, e.getMessage());
+                    unreadable.add(new Unreadable(id, e.getMessage()));
+                }
+            }, properties.getBatchSize());
+            if (!ids.isEmpty()) {
+                namedJdbcTemplate.update(LEASE_SQL, new MapSqlParameterSource("ids", ids)
+                        .addValue("owner", owner)
+                        .addValue("lease", properties.getLeaseSeconds()));
+            }
+        });
+        // Não há o que tentar de novo
+        unreadable.forEach(message -> deadLetter(message.id(), 0, owner, message.error()));
+        return messages;
+    }
+
+    /**
+     * Entrega a mensagem a cada handler interessado, cada um na sua transação
+     *
+     * @return nulo se todos a processaram, ou a mensagem do erro
+     */
+    private String deliver(OutboxMessage message) {
+        try {
+            for (OutboxHandler handler : handlers) {
+                if (handler.supports(message.event())) {
+                    transactionTemplate.executeWithoutResult(status -> handler.handle(message));
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            log.warn("Falha ao entregar a mensagem {} do outbox (tentativa {}): {}",
+                    message.id(), message.attempts() + 1, e.getMessage());
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        }
+    }
+
+    private void fail(long id, int attempts, String owner, String error) {
+        if (attempts + 1 >= properties.getMaxAttempts()) {
+            deadLetter(id, 1, owner, error);
+            log.error("Mensagem {} do outbox enviada às dead letters após {} tentativas", id, attempts + 1);
+        } else {
+            jdbcTemplate.update(RETRY_SQL, backoffSeconds(attempts), id, owner);
+        }
+    }
+
+    /**
+     * Move a mensagem para outbox_dead_letters, se ainda for desta reserva
+     *
+     * @param failedAttempts tentativas a somar às já registradas
+     */
+    private void deadLetter(long id, int failedAttempts, String owner, String error) {
+        transactionTemplate.executeWithoutResult(status -> {
+            String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+            if (jdbcTemplate.update(DEAD_LETTER_SQL, failedAttempts, lastError, id, owner) > 0) {
+                jdbcTemplate.update(DELETE_ONE_SQL, id, owner);
+                deadLettered.increment();
+            }
+        });
+    }
+
+    private long backoffSeconds(int attempts) {
+        long backoff = properties.getRetryBackoffSeconds() << Math.min(attempts, 20);
+        return Math.min(backoff, MAX_BACKOFF_SECONDS);
+    }
+
+    private record Unreadable(long id, String error) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.carrent.infrastructure.outbox;
+
+import com.carrent.domain.event.DomainEvent;
+import com.carrent.domain.event.RentalCancelled;
+import com.carrent.domain.event.RentalCompleted;
+import com.carrent.domain.event.RentalCreated;
+import com.carrent.domain.event.RentalStarted;
+import com.carrent.domain.event.RentalTerminatedEarly;
+import com.carrent.domain.event.VehicleChanged;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serializa eventos de domínio para a tabela outbox e de volta
+ */
+public class OutboxStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload) VALUES (?, ?, ?, ?)";
+
+    private static final Map<String, Class<? extends DomainEvent>> EVENT_TYPES = Stream.of(
+                    RentalCreated.class, RentalStarted.class, RentalCompleted.class, RentalCancelled.class,
+                    RentalTerminatedEarly.class, VehicleChanged.class)
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    private final ObjectMapper objectMapper;
+    private final Counter appended;
+
+    public OutboxStore(ObjectMapper objectMapper, MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.appended = Counter.builder("carrent.outbox.appended")
+                .description("Mensagens gravadas no outbox")
+                .register(registry);
+    }
+
+    /**
+     * Grava os eventos em lote na conexão da transação corrente
+     */
+    public void append(Connection connection, List<DomainEvent> events) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (DomainEvent event : events) {
+                statement.setString(1, event.aggregateType());
+                statement.setLong(2, event.aggregateId());
+                statement.setString(3, event.getClass().getSimpleName());
+                statement.setString(4, serialize(event));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        appended.increment(events.size());
+    }
+
+    public DomainEvent deserialize(String eventType, String payload) {
+        Class<? extends DomainEvent> type = EVENT_TYPES.get(eventType);
+        if (type == null) {
+            throw new IllegalArgumentException("Tipo de evento desconhecido no outbox: " + eventType);
+        }
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload inválido para " + eventType, e);
+        }
+    }
+
+    private String serialize(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar " + event, e);
+        }
+    }
+}
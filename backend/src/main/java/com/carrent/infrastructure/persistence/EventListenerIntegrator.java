@@ -0,0 +1,45 @@
+package com.carrent.infrastructure.persistence;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Registra um listener nos eventos de inserção, alteração e exclusão que ele
+ * implementa. Beans deste tipo são repassados ao Hibernate pelo JpaConfig.
+ */
+public class EventListenerIntegrator implements Integrator {
+
+    private final Object listener;
+
+    public EventListenerIntegrator(Object listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+            SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        if (listener instanceof PostInsertEventListener postInsert) {
+            registry.appendListeners(EventType.POST_INSERT, postInsert);
+        }
+        if (listener instanceof PostUpdateEventListener postUpdate) {
+            registry.appendListeners(EventType.POST_UPDATE, postUpdate);
+        }
+        if (listener instanceof PostDeleteEventListener postDelete) {
+            registry.appendListeners(EventType.POST_DELETE, postDelete);
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nada a liberar
+    }
+}
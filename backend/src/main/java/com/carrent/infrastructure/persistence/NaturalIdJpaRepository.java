@@ -0,0 +1,40 @@
+package com.carrent.infrastructure.persistence;
+
+import com.carrent.domain.repository.NaturalIdRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Classe base de todos os repositórios JPA da aplicação.
+ * Resolve buscas por chave natural com a API de NaturalId do Hibernate e
+ * expõe o refresh do EntityManager.
+ */
+@Transactional(readOnly = true)
+public class NaturalIdJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> implements NaturalIdRepository<T, ID> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+
+    public NaturalIdJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<T> findBySimpleNaturalId(Object naturalId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(entityInformation.getJavaType())
+                .loadOptional(naturalId);
+    }
+
+    @Override
+    public void refresh(T entity) {
+        entityManager.refresh(entity);
+    }
+}
@@ -0,0 +1,66 @@
+package com.carrent.infrastructure.persistence;
+
+import com.carrent.domain.entity.BroadcastNotification;
+import com.carrent.domain.entity.Notification;
+import com.carrent.domain.entity.NotificationCounter;
+import com.carrent.infrastructure.cluster.ClusterChangeListener;
+import com.carrent.infrastructure.cluster.EntityChange;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remove do cache de segundo nível local as entidades alteradas em outras
+ * instâncias.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheInvalidator implements ClusterChangeListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void onChanges(List<EntityChange> changes) {
+        Cache cache = cache();
+        Set<String> entityTypes = new LinkedHashSet<>();
+        for (EntityChange change : changes) {
+            // Notificações só trafegam no barramento para os streams SSE; não passam pelo cache
+            if (change.isOf(Notification.class) || change.isOf(BroadcastNotification.class)) {
+                continue;
+            }
+            // Avisos que não são entidades (segmentos novos) também passam pelo barramento
+            if (!isEntity(change.entityType())) {
+                continue;
+            }
+            cache.evictEntityData(change.entityType(), change.entityId());
+            entityTypes.add(change.entityType());
+        }
+        // A chave natural pode ter mudado, e o mapeamento antigo apontaria para a entidade errada
+        entityTypes.forEach(cache::evictNaturalIdData);
+        // Os timestamps que invalidam consultas em cache só enxergam escritas locais.
+        // Os contadores de notificações mudam a todo momento e não aparecem em consultas em cache
+        if (entityTypes.stream().anyMatch(type -> !NotificationCounter.class.getName().equals(type))) {
+            cache.evictQueryRegions();
+        }
+    }
+
+    @Override
+    public void onReset() {
+        cache().evictAllRegions();
+    }
+
+    private boolean isEntity(String entityType) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .findEntityDescriptor(entityType) != null;
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.carrent.infrastructure.readmodel;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Vehicle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Confere periodicamente as colunas de estado quente de clientes e veículos
+ * contra as locações e corrige as que divergirem (por exemplo, após uma
+ * alteração feita direto no banco).
+ * <p>
+ * Percorre as tabelas em faixas de id, cada uma em sua própria transação,
+ * para não manter muitas linhas bloqueadas de uma vez.
+ */
+@Slf4j
+@Component
+public class HotStateReconciler {
+
+    private static final String ACTIVE_COUNT = "(SELECT COUNT(*) FROM rentals r "
+            + "WHERE r.customer_id = customers.id AND r.status = 'IN_PROGRESS')";
+    private static final String PENDING_COUNT = "(SELECT COUNT(*) FROM rentals r "
+            + "WHERE r.customer_id = customers.id AND r.status = 'PENDING')";
+    private static final String NEXT_FREE_AT = "(SELECT MAX(r.end_date) FROM rentals r "
+            + "WHERE r.vehicle_id = vehicles.id AND r.status IN ('PENDING', 'IN_PROGRESS'))";
+    private static final String CURRENT_RENTAL = "(SELECT MAX(r.id) FROM rentals r "
+            + "WHERE r.vehicle_id = vehicles.id AND r.status = 'IN_PROGRESS')";
+    private static final String NO_DATE = "TIMESTAMP '1970-01-01 00:00:00'";
+
+    private static final String REPAIR_CUSTOMERS_SQL = "UPDATE customers SET active_rental_count = " + ACTIVE_COUNT
+            + ", pending_rental_count = " + PENDING_COUNT + " WHERE id BETWEEN ? AND ? "
+            + "AND (active_rental_count <> " + ACTIVE_COUNT + " OR pending_rental_count <> " + PENDING_COUNT + ")";
+    private static final String REPAIR_VEHICLES_SQL = "UPDATE vehicles SET next_free_at = " + NEXT_FREE_AT
+            + ", current_rental_id = " + CURRENT_RENTAL + " WHERE id BETWEEN ? AND ? "
+            + "AND (COALESCE(next_free_at, " + NO_DATE + ") <> COALESCE(" + NEXT_FREE_AT + ", " + NO_DATE + ") "
+            + "OR COALESCE(current_rental_id, 0) <> COALESCE(" + CURRENT_RENTAL + ", 0))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int chunkSize;
+    private final Counter repairedCustomers;
+    private final Counter repairedVehicles;
+
+    public HotStateReconciler(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+            MeterRegistry registry, @Value("${application.hot-state.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize = chunkSize;
+        this.repairedCustomers = Counter.builder("carrent.hotstate.repaired")
+                .description("Linhas com estado quente divergente corrigidas pela reconciliação")
+                .tag("table", "customers")
+                .register(registry);
+        this.repairedVehicles = Counter.builder("carrent.hotstate.repaired")
+                .description("Linhas com estado quente divergente corrigidas pela reconciliação")
+                .tag("table", "vehicles")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${application.hot-state.reconcile-interval-ms:900000}",
+            fixedDelayString = "${application.hot-state.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        try {
+            int customers = repair("customers", REPAIR_CUSTOMERS_SQL);
+            int vehicles = repair("vehicles", REPAIR_VEHICLES_SQL);
+            repairedCustomers.increment(customers);
+            repairedVehicles.increment(vehicles);
+
+            if (customers > 0) {
+                log.warn("Estado quente divergente corrigido em {} cliente(s)", customers);
+                entityManagerFactory.getCache().evict(Customer.class);
+            }
+            if (vehicles > 0) {
+                log.warn("Estado quente divergente corrigido em {} veículo(s)", vehicles);
+                entityManagerFactory.getCache().evict(Vehicle.class);
+            }
+        } catch (Exception e) {
+            log.warn("Falha na reconciliação do estado quente: {}", e.getMessage());
+        }
+    }
+
+    private int repair(String table, String sql) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+        int repaired = 0;
+        for (long from = 1; from <= maxId; from += chunkSize) {
+            repaired += jdbcTemplate.update(sql, from, from + chunkSize - 1);
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,190 @@
+package com.carrent.infrastructure.readmodel;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantém as colunas de estado quente usadas pelas validações de reserva:
+ * customers.active_rental_count / pending_rental_count e
+ * vehicles.next_free_at / current_rental_id.
+ * <p>
+ * Os contadores dos clientes recebem incrementos atômicos conforme o status
+ * anterior e o novo de cada locação; o estado do veículo é recalculado a
+ * partir das locações abertas dele. Tudo é aplicado logo antes do commit, na
+ * mesma conexão, em ordem de id para não haver deadlock entre transações.
+ * Como as colunas são alteradas fora do Hibernate, as entidades afetadas são
+ * retiradas do cache de segundo nível após o commit.
+ */
+public class RentalHotStateMaintainer implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private static final String CUSTOMER_SQL = "UPDATE customers SET active_rental_count = active_rental_count + ?, "
+            + "pending_rental_count = pending_rental_count + ? WHERE id = ?";
+    private static final String VEHICLE_SQL = "UPDATE vehicles SET "
+            + "next_free_at = (SELECT MAX(r.end_date) FROM rentals r "
+            + "WHERE r.vehicle_id = ? AND r.status IN ('PENDING', 'IN_PROGRESS')), "
+            + "current_rental_id = (SELECT MAX(r.id) FROM rentals r "
+            + "WHERE r.vehicle_id = ? AND r.status = 'IN_PROGRESS') "
+            + "WHERE id = ?";
+
+    private static final String[] TRACKED = { "status", "customer", "vehicle", "endDate" };
+
+    private final Map<SharedSessionContractImplementor, PendingChanges> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Rental rental) {
+            PendingChanges changes = changes(event.getSession());
+            changes.count(rental.getCustomer(), rental.getStatus(), 1);
+            changes.touch(rental.getVehicle());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Rental rental) || event.getOldState() == null) {
+            return;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        Object[] oldState = event.getOldState();
+        if (Arrays.stream(TRACKED).allMatch(property ->
+                Objects.equals(property(names, oldState, property), property(names, event.getState(), property)))) {
+            return;
+        }
+        PendingChanges changes = changes(event.getSession());
+        changes.count((Customer) property(names, oldState, "customer"),
+                (RentalStatus) property(names, oldState, "status"), -1);
+        changes.count(rental.getCustomer(), rental.getStatus(), 1);
+        changes.touch((Vehicle) property(names, oldState, "vehicle"));
+        changes.touch(rental.getVehicle());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Rental rental) {
+            PendingChanges changes = changes(event.getSession());
+            changes.count(rental.getCustomer(), rental.getStatus(), -1);
+            changes.touch(rental.getVehicle());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private PendingChanges changes(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::beforeCompletion);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) this::afterCompletion);
+            return new PendingChanges();
+        });
+    }
+
+    private void beforeCompletion(SessionImplementor session) {
+        PendingChanges changes = pending.get(session);
+        if (changes != null) {
+            session.doWork(changes::apply);
+        }
+    }
+
+    private void afterCompletion(boolean success, SharedSessionContractImplementor session) {
+        PendingChanges changes = pending.remove(session);
+        if (!success || changes == null) {
+            return;
+        }
+        CacheImplementor cache = session.getFactory().getCache();
+        changes.customers.keySet().forEach(id -> cache.evictEntityData(Customer.class, id));
+        changes.vehicles.forEach(id -> cache.evictEntityData(Vehicle.class, id));
+    }
+
+    private static Object property(String[] names, Object[] state, String property) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return state[i];
+            }
+        }
+        throw new IllegalStateException("Propriedade " + property + " não mapeada em Rental");
+    }
+
+    private static final class PendingChanges {
+        /** id do cliente -> {variação de em andamento, variação de pendentes} */
+        private final Map<Long, int[]> customers = new TreeMap<>();
+        private final Set<Long> vehicles = new TreeSet<>();
+
+        void count(Customer customer, RentalStatus status, int delta) {
+            if (customer == null || customer.getId() == null) {
+                return;
+            }
+            if (status == RentalStatus.IN_PROGRESS) {
+                customers.computeIfAbsent(customer.getId(), id -> new int[2])[0] += delta;
+            } else if (status == RentalStatus.PENDING) {
+                customers.computeIfAbsent(customer.getId(), id -> new int[2])[1] += delta;
+            }
+        }
+
+        void touch(Vehicle vehicle) {
+            if (vehicle != null && vehicle.getId() != null) {
+                vehicles.add(vehicle.getId());
+            }
+        }
+
+        void apply(Connection connection) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(CUSTOMER_SQL)) {
+                boolean any = false;
+                for (Map.Entry<Long, int[]> entry : customers.entrySet()) {
+                    int[] delta = entry.getValue();
+                    if (delta[0] == 0 && delta[1] == 0) {
+                        continue;
+                    }
+                    statement.setInt(1, delta[0]);
+                    statement.setInt(2, delta[1]);
+                    statement.setLong(3, entry.getKey());
+                    statement.addBatch();
+                    any = true;
+                }
+                if (any) {
+                    statement.executeBatch();
+                }
+            }
+            if (vehicles.isEmpty()) {
+                return;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(VEHICLE_SQL)) {
+                for (Long id : vehicles) {
+                    statement.setLong(1, id);
+                    statement.setLong(2, id);
+                    statement.setLong(3, id);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+}
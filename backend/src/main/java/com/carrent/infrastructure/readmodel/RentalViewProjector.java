@@ -0,0 +1,188 @@
+package com.carrent.infrastructure.readmodel;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém a tabela rental_view a partir das gravações de locações, veículos e
+ * clientes.
+ * <p>
+ * As alterações de cada transação são acumuladas na sessão e aplicadas logo
+ * antes do commit, na mesma conexão: a listagem nunca fica atrás da escrita
+ * e um rollback desfaz as duas. As locações afetadas são regravadas a partir
+ * das tabelas de origem; alterações de veículo e cliente só atualizam as
+ * colunas copiadas, e apenas quando uma delas mudou.
+ */
+public class RentalViewProjector implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private static final Set<String> VEHICLE_COLUMNS = Set.of("brand", "model", "plate", "category", "dailyRate");
+    private static final Set<String> CUSTOMER_COLUMNS = Set.of("name");
+
+    private static final String STATUS_PRIORITY = Arrays.stream(RentalStatus.values())
+            .map(status -> "WHEN '" + status.name() + "' THEN " + status.getListPriority())
+            .collect(Collectors.joining(" ", "CASE r.status ", " END"));
+
+    private static final String INSERT_SQL = "INSERT INTO rental_view (id, customer_id, customer_name, "
+            + "vehicle_id, vehicle_brand, vehicle_model, vehicle_plate, vehicle_category, vehicle_daily_rate, "
+            + "start_date, end_date, actual_return_date, status, status_priority, total_amount, "
+            + "original_total_amount, early_termination_fee, ended_early, notes, created_at, updated_at) "
+            + "SELECT r.id, c.id, c.name, v.id, v.brand, v.model, v.plate, v.category, v.daily_rate, "
+            + "r.start_date, r.end_date, r.actual_return_date, r.status, " + STATUS_PRIORITY + ", r.total_amount, "
+            + "r.original_total_amount, r.early_termination_fee, r.ended_early, r.notes, r.created_at, r.updated_at "
+            + "FROM rentals r JOIN customers c ON c.id = r.customer_id JOIN vehicles v ON v.id = r.vehicle_id "
+            + "WHERE r.id IN ";
+    private static final String DELETE_SQL = "DELETE FROM rental_view WHERE id IN ";
+    private static final String UPDATE_VEHICLE_SQL = "UPDATE rental_view SET vehicle_brand = ?, vehicle_model = ?, "
+            + "vehicle_plate = ?, vehicle_category = ?, vehicle_daily_rate = ? WHERE vehicle_id = ?";
+    private static final String UPDATE_CUSTOMER_SQL = "UPDATE rental_view SET customer_name = ? WHERE customer_id = ?";
+
+    private final Map<SharedSessionContractImplementor, PendingChanges> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Rental rental) {
+            changes(event.getSession()).rentals.add(rental.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Rental rental) {
+            changes(event.getSession()).rentals.add(rental.getId());
+        } else if (entity instanceof Vehicle vehicle && touches(event, VEHICLE_COLUMNS)) {
+            changes(event.getSession()).vehicles.put(vehicle.getId(), vehicle);
+        } else if (entity instanceof Customer customer && touches(event, CUSTOMER_COLUMNS)) {
+            changes(event.getSession()).customers.put(customer.getId(), customer);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Rental rental) {
+            changes(event.getSession()).deletedRentals.add(rental.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private PendingChanges changes(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::beforeCompletion);
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completed) -> pending.remove(completed));
+            return new PendingChanges();
+        });
+    }
+
+    private void beforeCompletion(SessionImplementor session) {
+        PendingChanges changes = pending.get(session);
+        if (changes != null && !changes.isEmpty()) {
+            session.doWork(changes::apply);
+        }
+    }
+
+    private static boolean touches(PostUpdateEvent event, Set<String> columns) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (columns.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class PendingChanges {
+        private final Set<Long> rentals = new LinkedHashSet<>();
+        private final Set<Long> deletedRentals = new LinkedHashSet<>();
+        private final Map<Long, Vehicle> vehicles = new LinkedHashMap<>();
+        private final Map<Long, Customer> customers = new LinkedHashMap<>();
+
+        boolean isEmpty() {
+            return rentals.isEmpty() && deletedRentals.isEmpty() && vehicles.isEmpty() && customers.isEmpty();
+        }
+
+        void apply(Connection connection) throws SQLException {
+            if (!vehicles.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_VEHICLE_SQL)) {
+                    for (Vehicle vehicle : vehicles.values()) {
+                        statement.setString(1, vehicle.getBrand());
+                        statement.setString(2, vehicle.getModel());
+                        statement.setString(3, vehicle.getPlate());
+                        statement.setString(4, vehicle.getCategory().name());
+                        statement.setBigDecimal(5, vehicle.getDailyRate());
+                        statement.setLong(6, vehicle.getId());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            if (!customers.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_CUSTOMER_SQL)) {
+                    for (Customer customer : customers.values()) {
+                        statement.setString(1, customer.getName());
+                        statement.setLong(2, customer.getId());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+
+            Set<Long> removed = new LinkedHashSet<>(rentals);
+            removed.addAll(deletedRentals);
+            if (!removed.isEmpty()) {
+                executeForIds(connection, DELETE_SQL, removed);
+            }
+            rentals.removeAll(deletedRentals);
+            if (!rentals.isEmpty()) {
+                executeForIds(connection, INSERT_SQL, rentals);
+            }
+        }
+
+        private static void executeForIds(Connection connection, String sql, Collection<Long> ids)
+                throws SQLException {
+            String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", ", "(", ")"));
+            try (PreparedStatement statement = connection.prepareStatement(sql + placeholders)) {
+                int index = 1;
+                for (Long id : ids) {
+                    statement.setLong(index++, id);
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+}
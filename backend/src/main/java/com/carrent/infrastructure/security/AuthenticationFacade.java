@@ -9,6 +9,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 /**
  * Fachada para operações de autenticação
  */
@@ -47,6 +49,19 @@ public class AuthenticationFacade {
         return getCurrentUser().getId();
     }
     
+    /**
+     * Obtém o ID do usuário autenticado, sem registrar erro quando não houver
+     * um (tarefas internas, por exemplo)
+     */
+    public Optional<Long> findCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof User user) {
+            return Optional.ofNullable(user.getId());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Verifica se o usuário atual é dono do recurso pelo ID
      * 
@@ -52,6 +52,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Console H2 (apenas para ambiente de desenvolvimento)
             "/h2-console/**");
 
+    // O EventSource do navegador não envia cabeçalhos: o stream aceita um token
+    // de stream (JwtService.generateStreamToken) no parâmetro da URL
+    static final String STREAM_PATH = "/api/notifications/stream";
+    static final String STREAM_TOKEN_PARAM = "streamToken";
+
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
     @Override
@@ -70,21 +75,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final boolean streamToken;
         final String userEmail;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwt = authHeader.substring(7);
+            streamToken = false;
+        } else if (STREAM_PATH.equals(request.getServletPath()) && request.getParameter(STREAM_TOKEN_PARAM) != null) {
+            jwt = request.getParameter(STREAM_TOKEN_PARAM);
+            streamToken = true;
+        } else {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
         try {
             userEmail = jwtService.extractUsername(jwt);
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                // Cada token só vale no seu lugar: o de stream na URL, o de acesso no cabeçalho
+                // (o refresh token não autentica requisição nenhuma)
+                boolean rightPlace = streamToken ? jwtService.isStreamToken(jwt) : jwtService.isAccessToken(jwt);
+                if (jwtService.isTokenValid(jwt, userDetails) && rightPlace) {
                     // Adicionando log para diagnóstico
                     log.debug("Usuário {} autoridades: {}", userEmail,
                             userDetails.getAuthorities().stream()
@@ -19,12 +19,18 @@ import io.jsonwebtoken.ExpiredJwtException;
 @Service
 public class JwtService {
 
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "notifications:stream";
+    private static final String REFRESH_SCOPE = "refresh";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
+    @Value("${application.security.jwt.stream-token.expiration:60000}")
+    private long streamExpiration;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -43,8 +49,44 @@ public class JwtService {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
+    /**
+     * Token longo que só serve para obter um novo par de tokens em /auth/refresh;
+     * o escopo próprio impede que ele seja aceito como token de acesso
+     */
     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(extractClaims(userDetails), userDetails, refreshExpiration);
+        Map<String, Object> claims = extractClaims(userDetails);
+        claims.put(SCOPE_CLAIM, REFRESH_SCOPE);
+        return buildToken(claims, userDetails, refreshExpiration);
+    }
+
+    /**
+     * Token curto que só abre o stream de notificações. Ele vai na URL, onde
+     * pode parar em logs de acesso, então não serve como token de acesso
+     * comum (e vice-versa)
+     */
+    public String generateStreamToken(UserDetails userDetails) {
+        return buildToken(Map.of(SCOPE_CLAIM, STREAM_SCOPE), userDetails, streamExpiration);
+    }
+
+    public boolean isStreamToken(String token) {
+        return STREAM_SCOPE.equals(extractScope(token));
+    }
+
+    public boolean isRefreshToken(String token) {
+        return REFRESH_SCOPE.equals(extractScope(token));
+    }
+
+    // Tokens de acesso não carregam escopo
+    public boolean isAccessToken(String token) {
+        return extractScope(token) == null;
+    }
+
+    private String extractScope(String token) {
+        return extractClaim(token, claims -> claims.get(SCOPE_CLAIM, String.class));
+    }
+
+    public long getStreamExpiration() {
+        return streamExpiration;
     }
 
     private Map<String, Object> extractClaims(UserDetails userDetails) {
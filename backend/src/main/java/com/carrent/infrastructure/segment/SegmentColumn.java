@@ -0,0 +1,105 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.domain.entity.RentalSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Function;
+
+/**
+ * Colunas gravadas nos segmentos, uma por campo de {@link RentalSnapshot}.
+ * O nome em minúsculas é o nome da coluna no banco.
+ * <p>
+ * Números, datas, valores e flags são codificados como long (datas em
+ * microssegundos, valores em centavos), o que permite guardar mínimo e
+ * máximo de cada coluna; textos usam dicionário.
+ */
+public enum SegmentColumn {
+    ID(Type.INTEGER, RentalSnapshot::getId),
+    CUSTOMER_ID(Type.INTEGER, RentalSnapshot::getCustomerId),
+    CUSTOMER_NAME(Type.STRING, RentalSnapshot::getCustomerName),
+    VEHICLE_ID(Type.INTEGER, RentalSnapshot::getVehicleId),
+    VEHICLE_BRAND(Type.STRING, RentalSnapshot::getVehicleBrand),
+    VEHICLE_MODEL(Type.STRING, RentalSnapshot::getVehicleModel),
+    VEHICLE_PLATE(Type.STRING, RentalSnapshot::getVehiclePlate),
+    VEHICLE_CATEGORY(Type.STRING, rental -> rental.getVehicleCategory() == null ? null
+            : rental.getVehicleCategory().name()),
+    VEHICLE_DAILY_RATE(Type.DECIMAL, RentalSnapshot::getVehicleDailyRate),
+    START_DATE(Type.TIMESTAMP, RentalSnapshot::getStartDate),
+    END_DATE(Type.TIMESTAMP, RentalSnapshot::getEndDate),
+    ACTUAL_RETURN_DATE(Type.TIMESTAMP, RentalSnapshot::getActualReturnDate),
+    STATUS(Type.STRING, rental -> rental.getStatus() == null ? null : rental.getStatus().name()),
+    TOTAL_AMOUNT(Type.DECIMAL, RentalSnapshot::getTotalAmount),
+    ORIGINAL_TOTAL_AMOUNT(Type.DECIMAL, RentalSnapshot::getOriginalTotalAmount),
+    EARLY_TERMINATION_FEE(Type.DECIMAL, RentalSnapshot::getEarlyTerminationFee),
+    ENDED_EARLY(Type.BOOLEAN, RentalSnapshot::getEndedEarly),
+    NOTES(Type.STRING, RentalSnapshot::getNotes),
+    CREATED_AT(Type.TIMESTAMP, RentalSnapshot::getCreatedAt),
+    UPDATED_AT(Type.TIMESTAMP, RentalSnapshot::getUpdatedAt);
+
+    enum Type {
+        INTEGER, DECIMAL, TIMESTAMP, BOOLEAN, STRING
+    }
+
+    /**
+     * Valor reservado para nulo nas colunas codificadas como long
+     */
+    static final long NULL = Long.MIN_VALUE;
+
+    private static final int DECIMAL_SCALE = 2;
+
+    private final Type type;
+    private final Function<RentalSnapshot, Object> getter;
+
+    SegmentColumn(Type type, Function<RentalSnapshot, Object> getter) {
+        this.type = type;
+        this.getter = getter;
+    }
+
+    Type type() {
+        return type;
+    }
+
+    boolean isText() {
+        return type == Type.STRING;
+    }
+
+    Object read(RentalSnapshot rental) {
+        return getter.apply(rental);
+    }
+
+    long encode(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        return switch (type) {
+            case INTEGER -> ((Number) value).longValue();
+            case DECIMAL -> ((BigDecimal) value).setScale(DECIMAL_SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+            case TIMESTAMP -> encodeTimestamp((LocalDateTime) value);
+            case BOOLEAN -> Boolean.TRUE.equals(value) ? 1 : 0;
+            case STRING -> throw new IllegalStateException("Coluna de texto não é codificada como long: " + this);
+        };
+    }
+
+    Object decode(long value) {
+        if (value == NULL) {
+            return null;
+        }
+        return switch (type) {
+            case INTEGER -> value;
+            case DECIMAL -> BigDecimal.valueOf(value, DECIMAL_SCALE);
+            case TIMESTAMP -> LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000L),
+                    (int) Math.floorMod(value, 1_000_000L) * 1000, ZoneOffset.UTC);
+            case BOOLEAN -> value == 1;
+            case STRING -> throw new IllegalStateException("Coluna de texto não é codificada como long: " + this);
+        };
+    }
+
+    static long encodeTimestamp(LocalDateTime value) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), value);
+    }
+}
@@ -0,0 +1,118 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.domain.entity.ArchivedRental;
+import com.carrent.domain.repository.ArchivedRentalRepository;
+import com.carrent.infrastructure.cluster.ChangeLogRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Leva para os segmentos colunares, mês a mês, as locações arquivadas que
+ * começaram antes de application.segments.export-after-months.
+ * <p>
+ * O segmento do mês é gravado e sincronizado em disco antes de as linhas
+ * saírem do rentals_archive, na mesma transação que as remove. Se a remoção
+ * falhar, a próxima execução regrava o mesmo mês; enquanto isso as leituras
+ * descartam a cópia repetida pelo id.
+ * <p>
+ * As linhas exportadas deixam de existir no banco. Com o barramento do
+ * cluster ligado, a mesma transação publica no cluster_change_log o mês
+ * exportado, para que as demais instâncias reabram o segmento no diretório
+ * compartilhado.
+ */
+@Slf4j
+public class SegmentExporter {
+
+    private static final String OLDEST_SQL = "SELECT MIN(start_date) FROM rentals_archive WHERE start_date < ?";
+    private static final String DELETE_SQL = "DELETE FROM rentals_archive WHERE id IN (:ids)";
+    private static final int DELETE_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate monthTransaction;
+    private final ArchivedRentalRepository archivedRentalRepository;
+    private final SegmentStore segmentStore;
+    private final SegmentProperties properties;
+    private final ChangeLogRecorder changeLogRecorder;
+
+    private final Counter exported;
+
+    /**
+     * @param changeLogRecorder nulo quando o barramento do cluster está desligado
+     */
+    public SegmentExporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ArchivedRentalRepository archivedRentalRepository, SegmentStore segmentStore,
+            SegmentProperties properties, ChangeLogRecorder changeLogRecorder, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.monthTransaction = new TransactionTemplate(transactionManager);
+        this.archivedRentalRepository = archivedRentalRepository;
+        this.segmentStore = segmentStore;
+        this.properties = properties;
+        this.changeLogRecorder = changeLogRecorder;
+        this.exported = Counter.builder("carrent.segments.exported")
+                .description("Locações arquivadas gravadas em segmentos e removidas do banco")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${application.segments.export-interval-ms:86400000}",
+            fixedDelayString = "${application.segments.export-interval-ms:86400000}")
+    public void export() {
+        LocalDateTime cutoff = YearMonth.now().minusMonths(properties.getExportAfterMonths()).atDay(1).atStartOfDay();
+        try {
+            LocalDateTime oldest = jdbcTemplate.queryForObject(OLDEST_SQL, LocalDateTime.class, cutoff);
+            while (oldest != null) {
+                YearMonth month = YearMonth.from(oldest);
+                int count = exportMonth(month);
+                log.info("{} locação(ões) de {} exportada(s) para segmento", count, month);
+                oldest = jdbcTemplate.queryForObject(OLDEST_SQL, LocalDateTime.class, cutoff);
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao exportar locações arquivadas anteriores a {}", cutoff, e);
+        }
+    }
+
+    /**
+     * Exporta as locações arquivadas iniciadas no mês e devolve quantas foram
+     * removidas do banco
+     */
+    int exportMonth(YearMonth month) {
+        Integer count = monthTransaction.execute(status -> {
+            List<ArchivedRental> rentals = archivedRentalRepository.findStartedBetween(
+                    month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+            if (rentals.isEmpty()) {
+                return 0;
+            }
+            try {
+                segmentStore.write(month, rentals);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao gravar o segmento de " + month, e);
+            }
+
+            List<Long> ids = rentals.stream().map(ArchivedRental::getId).toList();
+            for (int from = 0; from < ids.size(); from += DELETE_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK, ids.size()));
+                namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", chunk));
+            }
+            if (changeLogRecorder != null) {
+                changeLogRecorder.publish(jdbcTemplate, SegmentFile.class.getName(), SegmentStore.monthId(month));
+            }
+            return ids.size();
+        });
+        exported.increment(count);
+        return count;
+    }
+}
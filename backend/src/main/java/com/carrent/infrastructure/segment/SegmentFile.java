@@ -0,0 +1,380 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.domain.entity.RentalSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento colunar com as locações de um mês.
+ * <p>
+ * Cada coluna é um bloco comprimido com Deflate; o rodapé, no fim do arquivo,
+ * guarda a posição de cada bloco e o mínimo e o máximo das colunas
+ * numéricas. O arquivo é lido por mapeamento em memória: abrir um segmento
+ * lê só o rodapé, e uma consulta descomprime apenas as colunas do filtro e,
+ * se alguma linha passar, as demais.
+ * <p>
+ * O mapeamento é desfeito em {@link #close()}, sem esperar pelo coletor de
+ * lixo; cada leitura segura uma referência ({@link #retain()}), e o
+ * mapeamento só é liberado quando a última sai.
+ */
+final class SegmentFile {
+
+    private static final int MAGIC = 0x43525347; // "CRSG"
+    private static final short VERSION = 1;
+    private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES + Short.BYTES;
+
+    private record Chunk(int offset, int compressedLength, int rawLength, long min, long max) {
+    }
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final Map<SegmentColumn, Chunk> chunks;
+
+    // Uma referência do SegmentStore, que a solta no close, mais uma por leitura em andamento
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private SegmentFile(Path path, MappedByteBuffer buffer, int rowCount, Map<SegmentColumn, Chunk> chunks) {
+        this.path = path;
+        this.buffer = buffer;
+        this.rowCount = rowCount;
+        this.chunks = chunks;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Segura o mapeamento para uma leitura; falso se o segmento já foi fechado
+     */
+    boolean retain() {
+        while (true) {
+            int current = references.get();
+            if (current == 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            Unmapper.unmap(buffer);
+        }
+    }
+
+    /**
+     * Chamado por quem tirou o segmento do SegmentStore
+     */
+    void close() {
+        release();
+    }
+
+    static void write(Path path, List<? extends RentalSnapshot> rows) throws IOException {
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        DataOutputStream footer = new DataOutputStream(footerBytes);
+        footer.writeInt(rows.size());
+        footer.writeShort(SegmentColumn.values().length);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int offset = 0;
+            for (SegmentColumn column : SegmentColumn.values()) {
+                long[] stats = { Long.MAX_VALUE, Long.MIN_VALUE };
+                byte[] raw = column.isText() ? encodeText(column, rows) : encodeLongs(column, rows, stats);
+                byte[] compressed = compress(raw);
+                writeFully(channel, ByteBuffer.wrap(compressed));
+
+                footer.writeUTF(column.name());
+                footer.writeInt(offset);
+                footer.writeInt(compressed.length);
+                footer.writeInt(raw.length);
+                footer.writeLong(stats[0]);
+                footer.writeLong(stats[1]);
+                offset += compressed.length;
+            }
+
+            ByteBuffer trailer = ByteBuffer.allocate(footerBytes.size() + TRAILER_SIZE);
+            trailer.put(footerBytes.toByteArray());
+            trailer.putLong(offset);
+            trailer.putInt(MAGIC);
+            trailer.putShort(VERSION);
+            trailer.flip();
+            writeFully(channel, trailer);
+            channel.force(true);
+        }
+    }
+
+    static SegmentFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois que o canal é fechado
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int end = buffer.capacity();
+            if (end < TRAILER_SIZE || buffer.getInt(end - Integer.BYTES - Short.BYTES) != MAGIC) {
+                throw new IOException("Arquivo não é um segmento de locações: " + path);
+            }
+            if (buffer.getShort(end - Short.BYTES) != VERSION) {
+                throw new IOException("Versão de segmento não suportada: " + path);
+            }
+
+            ByteBuffer footer = buffer.duplicate().position((int) buffer.getLong(end - TRAILER_SIZE));
+            int rowCount = footer.getInt();
+            int columnCount = footer.getShort();
+            Map<SegmentColumn, Chunk> chunks = new EnumMap<>(SegmentColumn.class);
+            for (int i = 0; i < columnCount; i++) {
+                SegmentColumn column = SegmentColumn.valueOf(readUtf(footer));
+                chunks.put(column, new Chunk(footer.getInt(), footer.getInt(), footer.getInt(),
+                        footer.getLong(), footer.getLong()));
+            }
+            return new SegmentFile(path, buffer, rowCount, chunks);
+        }
+    }
+
+    /**
+     * Falso quando o mínimo e o máximo de alguma coluna do filtro já excluem
+     * todas as linhas
+     */
+    boolean mayMatch(SegmentPredicate predicate) {
+        if (rowCount == 0) {
+            return false;
+        }
+        for (Map.Entry<SegmentColumn, long[]> range : predicate.ranges().entrySet()) {
+            Chunk chunk = chunks.get(range.getKey());
+            if (chunk.max() < range.getValue()[0] || chunk.min() > range.getValue()[1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<SegmentRental> scan(SegmentPredicate predicate) {
+        if (!mayMatch(predicate)) {
+            return List.of();
+        }
+
+        BitSet selected = new BitSet(rowCount);
+        selected.set(0, rowCount);
+        for (Map.Entry<SegmentColumn, long[]> range : predicate.ranges().entrySet()) {
+            long[] values = readLongs(range.getKey());
+            long min = range.getValue()[0];
+            long max = range.getValue()[1];
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                long value = values[row];
+                if (value == SegmentColumn.NULL || value < min || value > max) {
+                    selected.clear(row);
+                }
+            }
+        }
+        if (predicate.status() != null && !selected.isEmpty()) {
+            TextColumn status = readText(SegmentColumn.STATUS);
+            int code = status.codeOf(predicate.status());
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                if (code < 0 || status.codes()[row] != code) {
+                    selected.clear(row);
+                }
+            }
+        }
+        if (selected.isEmpty()) {
+            return List.of();
+        }
+
+        int[] rows = selected.stream().toArray();
+        List<SegmentRental> rentals = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            rentals.add(new SegmentRental());
+        }
+        for (SegmentColumn column : SegmentColumn.values()) {
+            if (column.isText()) {
+                TextColumn text = readText(column);
+                for (int i = 0; i < rows.length; i++) {
+                    rentals.get(i).set(column, text.value(rows[i]));
+                }
+            } else {
+                long[] values = readLongs(column);
+                for (int i = 0; i < rows.length; i++) {
+                    rentals.get(i).set(column, column.decode(values[rows[i]]));
+                }
+            }
+        }
+        return rentals;
+    }
+
+    private long[] readLongs(SegmentColumn column) {
+        ByteBuffer raw = inflate(column);
+        long[] values = new long[rowCount];
+        raw.asLongBuffer().get(values);
+        return values;
+    }
+
+    private TextColumn readText(SegmentColumn column) {
+        ByteBuffer raw = inflate(column);
+        String[] dictionary = new String[raw.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[raw.getInt()];
+            raw.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int[] codes = new int[rowCount];
+        raw.asIntBuffer().get(codes);
+        return new TextColumn(dictionary, codes);
+    }
+
+    private ByteBuffer inflate(SegmentColumn column) {
+        Chunk chunk = chunks.get(column);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(chunk.offset(), chunk.compressedLength()));
+            byte[] raw = new byte[chunk.rawLength()];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Segmento corrompido: " + path + " (" + column + ")", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] encodeLongs(SegmentColumn column, List<? extends RentalSnapshot> rows, long[] stats) {
+        ByteBuffer raw = ByteBuffer.allocate(rows.size() * Long.BYTES);
+        for (RentalSnapshot row : rows) {
+            long value = column.encode(column.read(row));
+            if (value != SegmentColumn.NULL) {
+                stats[0] = Math.min(stats[0], value);
+                stats[1] = Math.max(stats[1], value);
+            }
+            raw.putLong(value);
+        }
+        return raw.array();
+    }
+
+    private static byte[] encodeText(SegmentColumn column, List<? extends RentalSnapshot> rows) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> entries = new ArrayList<>();
+        int[] codes = new int[rows.size()];
+        for (int i = 0; i < codes.length; i++) {
+            String value = (String) column.read(rows.get(i));
+            if (value == null) {
+                codes[i] = -1;
+                continue;
+            }
+            codes[i] = dictionary.computeIfAbsent(value, key -> {
+                entries.add(key.getBytes(StandardCharsets.UTF_8));
+                return entries.size() - 1;
+            });
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(entries.size());
+        for (byte[] entry : entries) {
+            out.writeInt(entry.length);
+            out.write(entry);
+        }
+        for (int code : codes) {
+            out.writeInt(code);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] compress(byte[] raw) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+            out.write(raw);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    private static String readUtf(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Desfaz o mapeamento pelo Unsafe.invokeCleaner; sem ele (outra JVM), o
+     * arquivo continua mapeado até o coletor de lixo recolher o buffer
+     */
+    private static final class Unmapper {
+
+        private static final MethodHandle INVOKE_CLEANER = lookup();
+
+        private static MethodHandle lookup() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                return MethodHandles.lookup()
+                        .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                        .bindTo(field.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        static void unmap(MappedByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Falha ao desfazer o mapeamento do segmento", e);
+            }
+        }
+    }
+
+    private record TextColumn(String[] dictionary, int[] codes) {
+
+        String value(int row) {
+            return codes[row] < 0 ? null : dictionary[codes[row]];
+        }
+
+        int codeOf(String value) {
+            for (int i = 0; i < dictionary.length; i++) {
+                if (dictionary[i].equals(value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.domain.entity.RentalStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Filtro aplicado dentro dos segmentos. Cada condição é uma faixa fechada
+ * sobre uma coluna codificada como long, o que permite descartar um segmento
+ * inteiro pelo mínimo e máximo da coluna antes de ler qualquer dado.
+ */
+public final class SegmentPredicate {
+
+    private final Map<SegmentColumn, long[]> ranges = new EnumMap<>(SegmentColumn.class);
+    private String status;
+
+    public static SegmentPredicate all() {
+        return new SegmentPredicate();
+    }
+
+    /**
+     * Locações que têm algum dia dentro de [start, end]
+     */
+    public static SegmentPredicate overlapping(LocalDateTime start, LocalDateTime end) {
+        return new SegmentPredicate()
+                .range(SegmentColumn.START_DATE, Long.MIN_VALUE + 1, SegmentColumn.encodeTimestamp(end))
+                .range(SegmentColumn.END_DATE, SegmentColumn.encodeTimestamp(start), Long.MAX_VALUE);
+    }
+
+    public static SegmentPredicate equalTo(SegmentColumn column, long value) {
+        return new SegmentPredicate().range(column, value, value);
+    }
+
+    public static SegmentPredicate withStatus(RentalStatus status) {
+        SegmentPredicate predicate = new SegmentPredicate();
+        predicate.status = status.name();
+        return predicate;
+    }
+
+    /**
+     * Combina as condições dos dois filtros; as do outro prevalecem na mesma coluna
+     */
+    public SegmentPredicate and(SegmentPredicate other) {
+        SegmentPredicate combined = new SegmentPredicate();
+        combined.ranges.putAll(ranges);
+        combined.ranges.putAll(other.ranges);
+        combined.status = other.status != null ? other.status : status;
+        return combined;
+    }
+
+    private SegmentPredicate range(SegmentColumn column, long min, long max) {
+        ranges.put(column, new long[] { min, max });
+        return this;
+    }
+
+    Map<SegmentColumn, long[]> ranges() {
+        return Collections.unmodifiableMap(ranges);
+    }
+
+    String status() {
+        return status;
+    }
+}
@@ -0,0 +1,40 @@
+package com.carrent.infrastructure.segment;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.segments")
+public class SegmentProperties {
+
+    /**
+     * Liga a exportação nesta instância. As linhas exportadas são removidas do
+     * rentals_archive, então com várias instâncias só uma deve exportar, e o
+     * diretório precisa ser compartilhado (shared-directory). Os segmentos já
+     * gravados são lidos de qualquer forma.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Diretório dos segmentos, um arquivo por mês de início
+     */
+    private String directory = "data/segments";
+
+    /**
+     * Declara que o diretório é visto por todas as instâncias (volume
+     * compartilhado). Obrigatório para exportar com o barramento do cluster
+     * ligado: as demais instâncias reabrem o segmento avisado pelo
+     * cluster_change_log, e sem o arquivo perderiam o histórico removido do banco.
+     */
+    private boolean sharedDirectory = false;
+
+    /**
+     * Meses completos, contados do mês corrente, que uma locação arquivada
+     * fica no banco antes de ir para os segmentos
+     */
+    private int exportAfterMonths = 24;
+
+    private long exportIntervalMs = 86400000;
+}
@@ -0,0 +1,43 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.infrastructure.cluster.ClusterChangeListener;
+import com.carrent.infrastructure.cluster.EntityChange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Reabre os segmentos exportados por outra instância no diretório
+ * compartilhado, avisados pelo cluster_change_log.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SegmentReloader implements ClusterChangeListener {
+
+    private final SegmentStore segmentStore;
+
+    @Override
+    public void onChanges(List<EntityChange> changes) {
+        for (EntityChange change : changes) {
+            if (!change.isOf(SegmentFile.class)) {
+                continue;
+            }
+            YearMonth month = SegmentStore.monthOf(change.entityId());
+            try {
+                segmentStore.reopen(month);
+            } catch (IOException e) {
+                // Sem o arquivo o histórico do mês some desta instância: reabre tudo na próxima tentativa
+                log.error("Falha ao reabrir o segmento {}; relendo o diretório", month, e);
+                segmentStore.reload();
+            }
+        }
+    }
+
+    @Override
+    public void onReset() {
+        segmentStore.reload();
+    }
+}
@@ -0,0 +1,41 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.domain.entity.RentalSnapshot;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.VehicleCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Locação lida de um segmento colunar. Não é entidade: existe só para que as
+ * leituras tratem os segmentos como mais uma fonte de {@link RentalSnapshot}.
+ */
+public class SegmentRental extends RentalSnapshot {
+
+    void set(SegmentColumn column, Object value) {
+        switch (column) {
+            case ID -> setId((Long) value);
+            case CUSTOMER_ID -> setCustomerId((Long) value);
+            case CUSTOMER_NAME -> setCustomerName((String) value);
+            case VEHICLE_ID -> setVehicleId((Long) value);
+            case VEHICLE_BRAND -> setVehicleBrand((String) value);
+            case VEHICLE_MODEL -> setVehicleModel((String) value);
+            case VEHICLE_PLATE -> setVehiclePlate((String) value);
+            case VEHICLE_CATEGORY -> setVehicleCategory(value == null ? null
+                    : VehicleCategory.valueOf((String) value));
+            case VEHICLE_DAILY_RATE -> setVehicleDailyRate((BigDecimal) value);
+            case START_DATE -> setStartDate((LocalDateTime) value);
+            case END_DATE -> setEndDate((LocalDateTime) value);
+            case ACTUAL_RETURN_DATE -> setActualReturnDate((LocalDateTime) value);
+            case STATUS -> setStatus(value == null ? null : RentalStatus.valueOf((String) value));
+            case TOTAL_AMOUNT -> setTotalAmount((BigDecimal) value);
+            case ORIGINAL_TOTAL_AMOUNT -> setOriginalTotalAmount((BigDecimal) value);
+            case EARLY_TERMINATION_FEE -> setEarlyTerminationFee((BigDecimal) value);
+            case ENDED_EARLY -> setEndedEarly((Boolean) value);
+            case NOTES -> setNotes((String) value);
+            case CREATED_AT -> setCreatedAt((LocalDateTime) value);
+            case UPDATED_AT -> setUpdatedAt((LocalDateTime) value);
+        }
+    }
+}
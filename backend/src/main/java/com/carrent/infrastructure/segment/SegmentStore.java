@@ -0,0 +1,195 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.domain.entity.RentalSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Segmentos colunares das locações já retiradas do banco, um por mês de
+ * início (rentals-AAAA-MM.seg).
+ * <p>
+ * Os arquivos são abertos uma vez e mantidos mapeados; uma consulta descarta
+ * pelo mínimo e máximo os segmentos que não podem conter linhas do filtro e
+ * lê só os demais. A gravação substitui o segmento do mês por renomeação
+ * atômica, então leituras concorrentes veem o arquivo antigo ou o novo; o
+ * mapeamento do arquivo substituído é desfeito quando a última leitura dele
+ * termina.
+ * <p>
+ * Com várias instâncias o diretório é compartilhado: o segmento gravado por
+ * outra instância é reaberto aqui quando o aviso dela chega pelo
+ * cluster_change_log (SegmentReloader).
+ */
+@Slf4j
+public class SegmentStore {
+
+    private static final String PREFIX = "rentals-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final ConcurrentSkipListMap<YearMonth, SegmentFile> segments = new ConcurrentSkipListMap<>();
+
+    private final Counter scanned;
+    private final Counter pruned;
+
+    public SegmentStore(SegmentProperties properties, MeterRegistry registry) {
+        this.directory = Paths.get(properties.getDirectory());
+        this.scanned = Counter.builder("carrent.segments.scanned")
+                .description("Segmentos lidos por consultas")
+                .register(registry);
+        this.pruned = Counter.builder("carrent.segments.pruned")
+                .description("Segmentos descartados pelas estatísticas de mínimo e máximo")
+                .register(registry);
+        Gauge.builder("carrent.segments.count", segments, Map::size)
+                .description("Segmentos disponíveis")
+                .register(registry);
+        reload();
+    }
+
+    /**
+     * Abre de novo todos os segmentos do diretório
+     */
+    public synchronized void reload() {
+        Map<YearMonth, SegmentFile> found = new LinkedHashMap<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    YearMonth month = YearMonth.parse(name.substring(PREFIX.length(),
+                            name.length() - SUFFIX.length()));
+                    found.put(month, SegmentFile.open(file));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao abrir os segmentos em " + directory, e);
+            }
+        }
+        found.forEach(this::replace);
+        for (YearMonth month : new ArrayList<>(segments.keySet())) {
+            if (!found.containsKey(month)) {
+                segments.remove(month).close();
+            }
+        }
+        log.info("{} segmento(s) de locações abertos em {}", segments.size(), directory.toAbsolutePath());
+    }
+
+    /**
+     * Abre de novo o segmento do mês, gravado por outra instância
+     */
+    public synchronized void reopen(YearMonth month) throws IOException {
+        Path file = directory.resolve(PREFIX + month + SUFFIX);
+        if (Files.exists(file)) {
+            replace(month, SegmentFile.open(file));
+        } else {
+            log.warn("Segmento {} avisado pelo cluster não encontrado em {}", month, directory.toAbsolutePath());
+        }
+    }
+
+    public List<SegmentRental> scan(SegmentPredicate predicate) {
+        List<SegmentRental> rentals = new ArrayList<>();
+        for (YearMonth month : segments.keySet()) {
+            SegmentFile segment = acquire(month);
+            if (segment == null) {
+                continue;
+            }
+            try {
+                if (!segment.mayMatch(predicate)) {
+                    pruned.increment();
+                    continue;
+                }
+                scanned.increment();
+                rentals.addAll(segment.scan(predicate));
+            } finally {
+                segment.release();
+            }
+        }
+        return rentals;
+    }
+
+    /**
+     * Segmento atual do mês, já retido; um segmento fechado entre a leitura do
+     * mapa e o retain foi trocado por outro, que é buscado de novo
+     */
+    private SegmentFile acquire(YearMonth month) {
+        while (true) {
+            SegmentFile segment = segments.get(month);
+            if (segment == null || segment.retain()) {
+                return segment;
+            }
+        }
+    }
+
+    private void replace(YearMonth month, SegmentFile segment) {
+        SegmentFile previous = segments.put(month, segment);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Grava as locações no segmento do mês, somando-as às que ele já tinha
+     * (a mesma locação gravada de novo substitui a anterior)
+     */
+    public synchronized void write(YearMonth month, List<? extends RentalSnapshot> rentals) throws IOException {
+        Map<Long, RentalSnapshot> byId = new LinkedHashMap<>();
+        SegmentFile existing = segments.get(month);
+        if (existing != null) {
+            existing.scan(SegmentPredicate.all()).forEach(rental -> byId.put(rental.getId(), rental));
+        }
+        rentals.forEach(rental -> byId.put(rental.getId(), rental));
+
+        Files.createDirectories(directory);
+        Path target = directory.resolve(PREFIX + month + SUFFIX);
+        Path temporary = directory.resolve(PREFIX + month + SUFFIX + ".tmp");
+        SegmentFile.write(temporary, new ArrayList<>(byId.values()));
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        replace(month, SegmentFile.open(target));
+    }
+
+    /**
+     * Grava a entrada do diretório criada pela renomeação; sem isso uma queda
+     * logo depois pode deixar o mês sem o arquivo novo, ainda que o conteúdo
+     * já esteja no disco. Sistemas que não abrem diretórios para leitura
+     * (Windows) ficam só com o fsync do arquivo.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Diretório {} não pôde ser sincronizado: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Identificador do mês nos avisos do cluster_change_log (AAAAMM)
+     */
+    static long monthId(YearMonth month) {
+        return month.getYear() * 100L + month.getMonthValue();
+    }
+
+    static YearMonth monthOf(long id) {
+        return YearMonth.of((int) (id / 100), (int) (id % 100));
+    }
+
+    public int rowCount(YearMonth month) {
+        SegmentFile segment = segments.get(month);
+        return segment == null ? 0 : segment.rowCount();
+    }
+}
@@ -0,0 +1,32 @@
+package com.carrent.infrastructure.sync;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.sync")
+public class SyncProperties {
+
+    private int defaultPageSize = 100;
+
+    /**
+     * Limite para o parâmetro limit das requisições
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Alterações mais recentes que isso ficam para a próxima página: uma
+     * transação que gravou updatedAt antes pode ainda não ter feito commit
+     */
+    private long settleMs = 2000;
+
+    /**
+     * Tempo que os tombstones são guardados; tokens mais antigos recomeçam
+     * a sincronização do zero
+     */
+    private int tombstoneRetentionDays = 30;
+
+    private long purgeIntervalMs = 3600000;
+}
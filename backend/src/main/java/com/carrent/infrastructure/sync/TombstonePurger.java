@@ -0,0 +1,34 @@
+package com.carrent.infrastructure.sync;
+
+import com.carrent.domain.repository.SyncTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Remove os tombstones mais antigos que a retenção; clientes com token
+ * anterior a ela recebem a coleção inteira de novo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TombstonePurger {
+
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final SyncProperties properties;
+
+    @Transactional
+    @Scheduled(initialDelayString = "${application.sync.purge-interval-ms:3600000}",
+            fixedDelayString = "${application.sync.purge-interval-ms:3600000}")
+    public void purge() {
+        int purged = syncTombstoneRepository.deleteRecordedBefore(
+                LocalDateTime.now().minusDays(properties.getTombstoneRetentionDays()));
+        if (purged > 0) {
+            log.info("{} tombstone(s) de sincronização removido(s)", purged);
+        }
+    }
+}
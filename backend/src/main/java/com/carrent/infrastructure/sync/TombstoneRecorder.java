@@ -0,0 +1,95 @@
+package com.carrent.infrastructure.sync;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.SyncEntityType;
+import com.carrent.domain.entity.Vehicle;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grava um tombstone em sync_tombstones para cada locação, veículo ou
+ * cliente removido, em lote e na mesma transação da remoção, para que o feed
+ * de alterações possa avisar os clientes que guardam cópia local.
+ */
+public class TombstoneRecorder implements PostDeleteEventListener {
+
+    private static final String INSERT_SQL = "INSERT INTO sync_tombstones (entity_type, entity_id, deleted_at) "
+            + "VALUES (?, ?, ?)";
+
+    private final Map<SharedSessionContractImplementor, List<Object[]>> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        SyncEntityType type = typeOf(event.getEntity());
+        if (type != null) {
+            tombstones(event.getSession()).add(new Object[] { type, event.getId() });
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static SyncEntityType typeOf(Object entity) {
+        if (entity instanceof Rental) {
+            return SyncEntityType.RENTAL;
+        }
+        if (entity instanceof Vehicle) {
+            return SyncEntityType.VEHICLE;
+        }
+        if (entity instanceof Customer) {
+            return SyncEntityType.CUSTOMER;
+        }
+        return null;
+    }
+
+    private List<Object[]> tombstones(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::beforeCompletion);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) this::afterCompletion);
+            return new ArrayList<>();
+        });
+    }
+
+    private void beforeCompletion(SessionImplementor session) {
+        List<Object[]> tombstones = pending.get(session);
+        if (tombstones != null && !tombstones.isEmpty()) {
+            session.doWork(connection -> insert(connection, tombstones));
+        }
+    }
+
+    private void afterCompletion(boolean success, SharedSessionContractImplementor session) {
+        pending.remove(session);
+    }
+
+    private static void insert(Connection connection, List<Object[]> tombstones) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (Object[] tombstone : tombstones) {
+                statement.setString(1, ((SyncEntityType) tombstone[0]).name());
+                statement.setLong(2, ((Number) tombstone[1]).longValue());
+                statement.setTimestamp(3, now);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
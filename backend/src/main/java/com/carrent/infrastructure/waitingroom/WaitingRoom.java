@@ -0,0 +1,232 @@
+package com.carrent.infrastructure.waitingroom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sala de espera em memória para os endpoints de reserva.
+ * <p>
+ * Um balde de fichas, reabastecido à taxa configurada, decide quem entra.
+ * Com a fila vazia e fichas disponíveis a requisição passa direto; senão
+ * recebe um ticket e espera a sua vez. Cada ticket guarda o número de
+ * sequência com que entrou na fila, e a sala guarda o número do próximo a
+ * ser admitido: a posição é a diferença entre os dois, sem percorrer a fila.
+ * Tickets abandonados ainda contam na posição de quem está atrás até a
+ * cabeça da fila passar por eles, quando são descartados sem gastar ficha.
+ * <p>
+ * Cada ticket pertence ao cliente que o recebeu (o usuário autenticado ou,
+ * sem autenticação, o endereço de origem): apresentado por outro cliente,
+ * vale como se não existisse. Um cliente tem no máximo
+ * {@code max-queued-per-client} tickets na fila, e um ticket admitido dá
+ * acesso a {@code admitted-requests} requisições dentro da validade.
+ * <p>
+ * A fila e a taxa valem por instância.
+ */
+public class WaitingRoom {
+
+    public enum Decision {
+        /** Pode seguir para o endpoint */
+        ADMITTED,
+        /** Está na fila; responder com o ticket */
+        QUEUED,
+        /** Fila cheia */
+        REJECTED,
+        /** O cliente já ocupa todas as vagas que pode ter na fila */
+        THROTTLED
+    }
+
+    public record Result(Decision decision, WaitingRoomTicket ticket) {
+    }
+
+    private final WaitingRoomProperties properties;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Queue<Ticket> waiting = new ArrayDeque<>();
+    private final Queue<Ticket> admitted = new ArrayDeque<>();
+    private final Map<String, Integer> queuedByClient = new HashMap<>();
+    private final Counter admittedDirectly;
+    private final Counter admittedFromQueue;
+    private final Counter abandoned;
+    private final Counter rejected;
+    private final Counter throttled;
+
+    private double tokens;
+    private long lastRefill;
+    private long nextSequence;
+    private volatile long headSequence;
+
+    public WaitingRoom(WaitingRoomProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.tokens = properties.getBurst();
+        this.lastRefill = System.currentTimeMillis();
+        this.admittedDirectly = admittedCounter(registry, "direct");
+        this.admittedFromQueue = admittedCounter(registry, "queue");
+        this.abandoned = Counter.builder("carrent.waiting_room.abandoned")
+                .description("Tickets descartados por não voltarem a consultar a fila")
+                .register(registry);
+        this.rejected = Counter.builder("carrent.waiting_room.rejected")
+                .description("Requisições recusadas com a fila cheia")
+                .register(registry);
+        this.throttled = Counter.builder("carrent.waiting_room.throttled")
+                .description("Requisições recusadas por excederem as vagas do cliente na fila")
+                .register(registry);
+        Gauge.builder("carrent.waiting_room.queue", this, WaitingRoom::queueSize)
+                .description("Tickets aguardando admissão")
+                .register(registry);
+    }
+
+    /**
+     * Decide a requisição do cliente. Um ticket do próprio cliente, admitido
+     * e dentro da validade e das requisições concedidas, passa; um ticket na
+     * fila recebe a posição atualizada; sem ticket (ou com um desconhecido,
+     * vencido, esgotado ou de outro cliente), a requisição passa direto ou
+     * entra na fila.
+     */
+    public Result enter(String ticketId, String client, long now) {
+        if (ticketId != null) {
+            Ticket ticket = tickets.get(ticketId);
+            if (ticket != null && ticket.client.equals(client)) {
+                if (ticket.admittedAt > 0) {
+                    if (now - ticket.admittedAt < properties.getAdmittedTtlMs() && consume(ticket)) {
+                        return new Result(Decision.ADMITTED, null);
+                    }
+                } else {
+                    ticket.lastSeen = now;
+                    return new Result(Decision.QUEUED, describe(ticket));
+                }
+            }
+        }
+        return arrive(client, now);
+    }
+
+    /**
+     * Admite os primeiros da fila com as fichas acumuladas desde a última
+     * rodada e descarta os tickets admitidos que venceram
+     */
+    @Scheduled(initialDelayString = "${application.waiting-room.admit-interval-ms:100}",
+            fixedDelayString = "${application.waiting-room.admit-interval-ms:100}")
+    public void admitDue() {
+        admit(System.currentTimeMillis());
+    }
+
+    synchronized void admit(long now) {
+        refill(now);
+        Ticket ticket;
+        while ((ticket = waiting.peek()) != null) {
+            if (now - ticket.lastSeen > properties.getAbandonAfterMs()) {
+                waiting.poll();
+                tickets.remove(ticket.id);
+                release(ticket);
+                headSequence = ticket.sequence + 1;
+                abandoned.increment();
+                continue;
+            }
+            if (tokens < 1) {
+                break;
+            }
+            waiting.poll();
+            release(ticket);
+            tokens -= 1;
+            ticket.admittedAt = now;
+            admitted.add(ticket);
+            headSequence = ticket.sequence + 1;
+            admittedFromQueue.increment();
+        }
+        while ((ticket = admitted.peek()) != null && now - ticket.admittedAt >= properties.getAdmittedTtlMs()) {
+            admitted.poll();
+            tickets.remove(ticket.id);
+        }
+    }
+
+    public synchronized int queueSize() {
+        return waiting.size();
+    }
+
+    private synchronized Result arrive(String client, long now) {
+        refill(now);
+        if (waiting.isEmpty() && tokens >= 1) {
+            tokens -= 1;
+            admittedDirectly.increment();
+            return new Result(Decision.ADMITTED, null);
+        }
+        if (waiting.size() >= properties.getMaxQueueSize()) {
+            rejected.increment();
+            return new Result(Decision.REJECTED, null);
+        }
+        if (queuedByClient.getOrDefault(client, 0) >= properties.getMaxQueuedPerClient()) {
+            throttled.increment();
+            return new Result(Decision.THROTTLED, null);
+        }
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), client, nextSequence++,
+                properties.getAdmittedRequests(), now);
+        waiting.add(ticket);
+        tickets.put(ticket.id, ticket);
+        queuedByClient.merge(client, 1, Integer::sum);
+        return new Result(Decision.QUEUED, describe(ticket));
+    }
+
+    /**
+     * Gasta uma das requisições concedidas ao ticket admitido; o último uso
+     * tira o ticket do mapa, e a limpeza por validade apenas o descarta da
+     * fila de admitidos
+     */
+    private boolean consume(Ticket ticket) {
+        int remaining = ticket.remainingUses.decrementAndGet();
+        if (remaining == 0) {
+            tickets.remove(ticket.id);
+        }
+        return remaining >= 0;
+    }
+
+    private void release(Ticket ticket) {
+        queuedByClient.computeIfPresent(ticket.client, (client, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(properties.getBurst(),
+                    tokens + (now - lastRefill) * properties.getAdmitRatePerSecond() / 1000.0);
+            lastRefill = now;
+        }
+    }
+
+    private WaitingRoomTicket describe(Ticket ticket) {
+        long position = Math.max(1, ticket.sequence - headSequence + 1);
+        long estimatedWait = (long) Math.ceil(position / properties.getAdmitRatePerSecond());
+        return new WaitingRoomTicket(ticket.id, position, estimatedWait);
+    }
+
+    private Counter admittedCounter(MeterRegistry registry, String path) {
+        return Counter.builder("carrent.waiting_room.admitted")
+                .description("Requisições admitidas pela sala de espera")
+                .tag("path", path)
+                .register(registry);
+    }
+
+    private static final class Ticket {
+
+        private final String id;
+        private final String client;
+        private final long sequence;
+        private final AtomicInteger remainingUses;
+        private volatile long lastSeen;
+        private volatile long admittedAt;
+
+        private Ticket(String id, String client, long sequence, int uses, long now) {
+            this.id = id;
+            this.client = client;
+            this.sequence = sequence;
+            this.remainingUses = new AtomicInteger(uses);
+            this.lastSeen = now;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.carrent.infrastructure.waitingroom;
+
+import com.carrent.web.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Coloca as requisições de reserva na sala de espera. Quem está na fila
+ * recebe 429 com o ticket, a posição e o Retry-After, e repete a requisição
+ * com o cabeçalho Waiting-Room-Ticket até ser admitido.
+ * <p>
+ * Roda depois do Spring Security: as respostas da sala já levam os
+ * cabeçalhos CORS, e o ticket fica preso ao usuário autenticado. Requisições
+ * sem autenticação que cheguem à sala são identificadas pelo endereço de
+ * origem.
+ */
+public class WaitingRoomFilter extends OncePerRequestFilter {
+
+    public static final String TICKET_HEADER = "Waiting-Room-Ticket";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final WaitingRoom waitingRoom;
+    private final WaitingRoomProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public WaitingRoomFilter(WaitingRoom waitingRoom, WaitingRoomProperties properties, ObjectMapper objectMapper) {
+        this.waitingRoom = waitingRoom;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!WRITE_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return properties.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        WaitingRoom.Result result = waitingRoom.enter(request.getHeader(TICKET_HEADER), client(request),
+                System.currentTimeMillis());
+        switch (result.decision()) {
+            case ADMITTED -> filterChain.doFilter(request, response);
+            case QUEUED -> queued(response, result.ticket());
+            case REJECTED -> rejected(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Sala de espera cheia",
+                    "Muitas reservas em andamento. Tente novamente em instantes.");
+            case THROTTLED -> rejected(request, response, HttpStatus.TOO_MANY_REQUESTS, "Limite da sala de espera",
+                    "Você já tem requisições aguardando na fila. Use o ticket recebido.");
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private void queued(HttpServletResponse response, WaitingRoomTicket ticket) throws IOException {
+        long retryAfter = Math.max(1, Math.min(ticket.estimatedWaitSeconds(), properties.getMaxRetryAfterSeconds()));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(TICKET_HEADER, ticket.ticket());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ticket);
+    }
+
+    private void rejected(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+            String error, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getMaxRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .status(status.value())
+                .error(error)
+                .message(message)
+                .path(request.getRequestURI())
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package com.carrent.infrastructure.waitingroom;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.waiting-room")
+public class WaitingRoomProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Endpoints de reserva protegidos nos métodos POST, PUT, PATCH e DELETE
+     */
+    private List<String> paths = new ArrayList<>(List.of("/rentals/**"));
+
+    /**
+     * Requisições admitidas por segundo nesta instância
+     */
+    private double admitRatePerSecond = 50;
+
+    /**
+     * Admissões acumuladas com a fila vazia; acima disso, quem chega entra
+     * na fila
+     */
+    private int burst = 100;
+
+    /**
+     * Tamanho máximo da fila; cheia, a requisição recebe 503
+     */
+    private int maxQueueSize = 100000;
+
+    /**
+     * Tickets na fila por cliente (usuário autenticado ou, sem autenticação,
+     * endereço de origem); acima disso, a requisição recebe 429 sem ticket
+     */
+    private int maxQueuedPerClient = 2;
+
+    /**
+     * Por quanto tempo um ticket admitido dá acesso aos endpoints
+     */
+    private long admittedTtlMs = 120000;
+
+    /**
+     * Requisições que um ticket admitido libera dentro da validade
+     */
+    private int admittedRequests = 5;
+
+    /**
+     * Ticket que não volta a consultar a fila nesse prazo é descartado
+     */
+    private long abandonAfterMs = 30000;
+
+    /**
+     * Intervalo máximo sugerido no Retry-After enquanto o cliente espera
+     */
+    private int maxRetryAfterSeconds = 10;
+
+    private long admitIntervalMs = 100;
+}
@@ -0,0 +1,10 @@
+package com.carrent.infrastructure.waitingroom;
+
+/**
+ * Resposta dada a quem está na fila
+ *
+ * @param position             posição na fila, a partir de 1
+ * @param estimatedWaitSeconds espera estimada pela taxa de admissão
+ */
+public record WaitingRoomTicket(String ticket, long position, long estimatedWaitSeconds) {
+}
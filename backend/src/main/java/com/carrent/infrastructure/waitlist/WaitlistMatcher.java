@@ -0,0 +1,230 @@
+package com.carrent.infrastructure.waitlist;
+
+import com.carrent.application.dto.RentalDTO;
+import com.carrent.application.service.RentalService;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.entity.WaitlistEntry;
+import com.carrent.domain.entity.WaitlistStatus;
+import com.carrent.domain.event.DomainEvent;
+import com.carrent.domain.event.RentalCancelled;
+import com.carrent.domain.event.RentalCompleted;
+import com.carrent.domain.event.RentalTerminatedEarly;
+import com.carrent.domain.exception.CustomerNotFoundException;
+import com.carrent.domain.exception.VehicleNotAvailableException;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.domain.repository.WaitlistEntryRepository;
+import com.carrent.infrastructure.notification.NotificationCoalescer;
+import com.carrent.infrastructure.outbox.OutboxHandler;
+import com.carrent.infrastructure.outbox.OutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Atende a lista de espera a partir dos eventos de locação, sem consultar
+ * periodicamente a tabela de locações.
+ * <p>
+ * Cancelamento, encerramento antecipado e devolução antes do fim liberam o
+ * veículo por uma janela conhecida pelo próprio evento. As entradas da mesma
+ * categoria que cabem na janela são lidas de waitlist_entries, no máximo
+ * application.waitlist.max-candidates-per-slot por evento, e tentadas da
+ * maior para a menor prioridade; cada uma vira uma locação pendente por
+ * RentalService.create, com todas as validações de uma reserva comum. Uma
+ * janela longa pode atender várias entradas que não se sobreponham.
+ * <p>
+ * Os eventos chegam pelo outbox, que os entrega pelo menos uma vez a uma
+ * única instância: um evento não se perde se o matcher ficar para trás, e
+ * as entradas gravadas por qualquer instância são vistas por todas. Cada
+ * atribuição roda em uma transação própria, com a notificação ao cliente; a
+ * marcação de atendida é condicional no banco, de modo que uma entrega
+ * repetida não transforma uma entrada em duas locações.
+ */
+@Slf4j
+public class WaitlistMatcher implements OutboxHandler {
+
+    /**
+     * Tipo usado nas regras de agrupamento
+     */
+    public static final String KIND = "waitlist-fulfilled";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final VehicleRepository vehicleRepository;
+    private final UserRepository userRepository;
+    private final RentalService rentalService;
+    private final NotificationCoalescer notificationCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final WaitlistProperties properties;
+    private final Counter fulfilled;
+    private final Counter expired;
+    private final AtomicLong waiting = new AtomicLong();
+
+    public WaitlistMatcher(WaitlistEntryRepository waitlistEntryRepository, VehicleRepository vehicleRepository,
+            UserRepository userRepository, RentalService rentalService, NotificationCoalescer notificationCoalescer,
+            PlatformTransactionManager transactionManager, WaitlistProperties properties, MeterRegistry registry) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.userRepository = userRepository;
+        this.rentalService = rentalService;
+        this.notificationCoalescer = notificationCoalescer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Fora da transação do handler, para que uma atribuição recusada não desfaça as outras
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // A transação é de RentalService.create, que confere conflitos depois de bloquear o veículo
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.properties = properties;
+        this.fulfilled = Counter.builder("carrent.waitlist.fulfilled")
+                .description("Entradas da lista de espera convertidas em locação")
+                .register(registry);
+        this.expired = Counter.builder("carrent.waitlist.expired")
+                .description("Entradas da lista de espera encerradas sem vaga")
+                .register(registry);
+        // Valor da última contagem periódica: a coleta de métricas não consulta o banco
+        Gauge.builder("carrent.waitlist.waiting", waiting, AtomicLong::get)
+                .description("Entradas aguardando vaga")
+                .register(registry);
+    }
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        return event instanceof RentalCancelled || event instanceof RentalTerminatedEarly
+                || event instanceof RentalCompleted;
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        DomainEvent event = message.event();
+        if (event instanceof RentalCancelled cancelled) {
+            offer(cancelled.vehicleId(), cancelled.startDate(), cancelled.endDate());
+        } else if (event instanceof RentalTerminatedEarly terminated) {
+            offer(terminated.vehicleId(), terminated.occurredAt(), terminated.endDate());
+        } else if (event instanceof RentalCompleted completed && completed.endDate() != null) {
+            // Só a devolução antes do fim previsto libera um período
+            offer(completed.vehicleId(), completed.occurredAt(), completed.endDate());
+        }
+    }
+
+    /**
+     * Atribui o veículo, liberado em [from, to], às entradas compatíveis de
+     * maior prioridade
+     */
+    void offer(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = from.isBefore(now) ? now : from;
+        if (vehicleId == null || !to.isAfter(windowStart)) {
+            return;
+        }
+        Vehicle vehicle = vehicleRepository.findById(vehicleId).orElse(null);
+        if (vehicle == null || vehicle.getCategory() == null) {
+            return;
+        }
+
+        List<WaitlistEntry> assigned = new ArrayList<>();
+        int attempts = 0;
+        for (WaitlistEntry waiter : waitlistEntryRepository.findWaitingWithin(vehicle.getCategory(), windowStart,
+                to, PageRequest.of(0, properties.getMaxCandidatesPerSlot()))) {
+            if (attempts >= properties.getMaxAttemptsPerSlot()) {
+                break;
+            }
+            if (assigned.stream().anyMatch(other -> overlaps(waiter, other))) {
+                continue;
+            }
+            attempts++;
+            if (assign(waiter, vehicle)) {
+                assigned.add(waiter);
+            }
+        }
+    }
+
+    /**
+     * Limpa as entradas cujo período já começou
+     */
+    @Scheduled(initialDelayString = "${application.waitlist.expire-interval-ms:300000}",
+            fixedDelayString = "${application.waitlist.expire-interval-ms:300000}")
+    public void expireStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = waitlistEntryRepository.expireStartedBefore(now);
+        if (updated > 0) {
+            expired.increment(updated);
+            log.info("{} entradas da lista de espera expiradas", updated);
+        }
+    }
+
+    /**
+     * Recalcula o total de entradas aguardando vaga exposto na métrica
+     */
+    @Scheduled(fixedDelayString = "${application.waitlist.waiting-refresh-interval-ms:60000}")
+    public void refreshWaiting() {
+        try {
+            waiting.set(waitlistEntryRepository.countByStatus(WaitlistStatus.WAITING));
+        } catch (Exception e) {
+            log.warn("Falha ao contar as entradas da lista de espera: {}", e.getMessage());
+        }
+    }
+
+    private boolean assign(WaitlistEntry waiter, Vehicle vehicle) {
+        RentalDTO rental;
+        try {
+            rental = transactionTemplate.execute(status -> {
+                RentalDTO created = rentalService.create(RentalDTO.builder()
+                        .vehicleId(vehicle.getId())
+                        .vehiclePlate(vehicle.getPlate())
+                        .customerId(waiter.getCustomerId())
+                        .startDate(waiter.getStartDate())
+                        .endDate(waiter.getEndDate())
+                        .status(RentalStatus.PENDING)
+                        .notes("Atendida pela lista de espera #" + waiter.getId())
+                        .build());
+                if (waitlistEntryRepository.markFulfilled(waiter.getId(), created.getId(), LocalDateTime.now()) == 0) {
+                    // Atendida ou cancelada em outra transação
+                    status.setRollbackOnly();
+                    return null;
+                }
+                notify(waiter, vehicle, created);
+                return created;
+            });
+        } catch (VehicleNotAvailableException | IllegalStateException | IllegalArgumentException
+                | CustomerNotFoundException e) {
+            // A entrada continua esperando a próxima vaga
+            log.debug("Entrada {} da lista de espera não atendida pelo veículo {}: {}", waiter.getId(),
+                    vehicle.getPlate(), e.getMessage());
+            return false;
+        }
+
+        if (rental == null) {
+            return false;
+        }
+        fulfilled.increment();
+        log.info("Entrada {} da lista de espera atendida pela locação {}", waiter.getId(), rental.getId());
+        return true;
+    }
+
+    /**
+     * Avisa o cliente na transação da atribuição: o aviso é gravado se, e só
+     * se, a locação for
+     */
+    private void notify(WaitlistEntry waiter, Vehicle vehicle, RentalDTO rental) {
+        String content = String.format("O veículo %s foi reservado de %s a %s (locação #%d).", vehicle.getPlate(),
+                waiter.getStartDate().format(DATE_FORMAT), waiter.getEndDate().format(DATE_FORMAT), rental.getId());
+        userRepository.findById(waiter.getUserId()).ifPresent(user ->
+                notificationCoalescer.submit(user, KIND, "Vaga da lista de espera", content));
+    }
+
+    private static boolean overlaps(WaitlistEntry entry, WaitlistEntry other) {
+        return entry.getStartDate().isBefore(other.getEndDate()) && entry.getEndDate().isAfter(other.getStartDate());
+    }
+}
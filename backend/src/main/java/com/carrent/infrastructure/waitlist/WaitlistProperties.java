@@ -0,0 +1,39 @@
+package com.carrent.infrastructure.waitlist;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("application.waitlist")
+public class WaitlistProperties {
+
+    /**
+     * Entradas em espera simultâneas por cliente
+     */
+    private int maxEntriesPerCustomer = 5;
+
+    /**
+     * Tentativas de criar locação por veículo liberado; cada tentativa que
+     * falha (cliente com locação em andamento, período já ocupado) passa para
+     * a próxima entrada compatível
+     */
+    private int maxAttemptsPerSlot = 10;
+
+    /**
+     * Entradas lidas por veículo liberado, contando as puladas por se
+     * sobreporem a uma já atendida; as demais esperam o próximo evento
+     */
+    private int maxCandidatesPerSlot = 100;
+
+    /**
+     * Intervalo da limpeza das entradas cujo período já começou
+     */
+    private long expireIntervalMs = 300000;
+
+    /**
+     * Intervalo da contagem das entradas em espera exposta na métrica
+     */
+    private long waitingRefreshIntervalMs = 60000;
+}
@@ -0,0 +1,66 @@
+package com.carrent.infrastructure.workload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Executa relatórios, exportações e métricas administrativas fora das threads
+ * do Tomcat, em um executor limitado e com pool de conexões próprio.
+ * <p>
+ * Quando o executor e a fila estão cheios, a tarefa é recusada com
+ * {@link org.springframework.core.task.TaskRejectedException}, convertida em
+ * 503 pelo tratador global de exceções.
+ */
+@Component
+public class AnalyticsTaskRunner implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMs;
+
+    public AnalyticsTaskRunner(
+            MeterRegistry registry,
+            @Value("${application.analytics.threads:2}") int threads,
+            @Value("${application.analytics.queue-capacity:20}") int queueCapacity,
+            @Value("${application.analytics.timeout-ms:30000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analytics-");
+        executor.setTaskDecorator(runnable -> () -> {
+            WorkloadContext.set(Workload.ANALYTICS);
+            try {
+                runnable.run();
+            } finally {
+                WorkloadContext.clear();
+            }
+        });
+        executor.initialize();
+
+        ExecutorServiceMetrics.monitor(registry, executor.getThreadPoolExecutor(), "analytics", List.of());
+    }
+
+    /**
+     * Cria uma tarefa assíncrona do Spring MVC executada no pool de análise.
+     *
+     * @param task Processamento a ser executado
+     * @return Tarefa a ser retornada pelo controller
+     */
+    public <T> WebAsyncTask<T> submit(Callable<T> task) {
+        return new WebAsyncTask<>(timeoutMs, executor, task);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
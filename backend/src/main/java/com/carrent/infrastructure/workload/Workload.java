@@ -0,0 +1,11 @@
+package com.carrent.infrastructure.workload;
+
+/**
+ * Classes de carga de trabalho que recebem pools de conexão separados.
+ */
+public enum Workload {
+    /** Requisições transacionais da API (reservas, cadastros, consultas) */
+    TRANSACTIONAL,
+    /** Relatórios e métricas administrativas de longa duração */
+    ANALYTICS
+}
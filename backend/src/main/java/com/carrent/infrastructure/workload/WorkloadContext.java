@@ -0,0 +1,26 @@
+package com.carrent.infrastructure.workload;
+
+/**
+ * Mantém a carga de trabalho associada à thread atual. Threads que não foram
+ * marcadas explicitamente são consideradas {@link Workload#TRANSACTIONAL}.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.TRANSACTIONAL;
+    }
+
+    public static void set(Workload workload) {
+        CURRENT.set(workload);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -3,9 +3,10 @@ package com.carrent.web.controller;
 import com.carrent.application.dto.CustomerDTO;
 import com.carrent.application.service.CustomerService;
 import com.carrent.domain.entity.Customer;
-import com.carrent.domain.repository.RentalRepository;
+import com.carrent.domain.repository.CustomerRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -33,7 +34,7 @@ import java.util.List;
 public class CustomerController {
 
         private final CustomerService customerService;
-        private final RentalRepository rentalRepository;
+        private final CustomerRepository customerRepository;
 
         @GetMapping
         @Operation(summary = "Lista todos os clientes")
@@ -87,6 +88,7 @@ public class CustomerController {
                         @ApiResponse(responseCode = "409", description = "Email ou documento já cadastrado")
         })
         @ResponseStatus(HttpStatus.CREATED)
+        @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
         public ResponseEntity<CustomerDTO> create(@Valid @RequestBody CustomerDTO customerDTO) {
                 return ResponseEntity.status(HttpStatus.CREATED)
                                 .body(customerService.create(customerDTO));
@@ -101,6 +103,7 @@ public class CustomerController {
                         @ApiResponse(responseCode = "409", description = "Email ou documento já cadastrado")
         })
         @Parameter(name = "id", description = "ID do cliente", required = true)
+        @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
         public ResponseEntity<CustomerDTO> update(
                         @PathVariable Long id,
                         @Valid @RequestBody CustomerDTO customerDTO) {
@@ -116,6 +119,7 @@ public class CustomerController {
         })
         @Parameter(name = "id", description = "ID do cliente", required = true)
         @ResponseStatus(HttpStatus.NO_CONTENT)
+        @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
         public ResponseEntity<Void> delete(@PathVariable Long id) {
                 customerService.delete(id);
                 return ResponseEntity.noContent().build();
@@ -123,7 +127,7 @@ public class CustomerController {
 
         @GetMapping("/{id}/active-rentals")
         public ResponseEntity<Boolean> hasActiveRentals(@PathVariable Long id) {
-                boolean hasActiveRentals = rentalRepository.hasActiveRentals(id);
+                boolean hasActiveRentals = customerRepository.hasActiveRentals(id);
                 return ResponseEntity.ok(hasActiveRentals);
         }
 }
\ No newline at end of file
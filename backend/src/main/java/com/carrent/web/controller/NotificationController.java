@@ -1,7 +1,9 @@
 package com.carrent.web.controller;
 
+import com.carrent.application.dto.CursorPageResponse;
 import com.carrent.application.dto.NotificationDTO;
 import com.carrent.application.dto.PageResponse;
+import com.carrent.application.dto.StreamTokenResponse;
 import com.carrent.application.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,12 +12,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -29,17 +34,54 @@ public class NotificationController {
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    @Operation(summary = "Listar notificações do usuário autenticado", description = "Retorna todas as notificações do usuário autenticado com paginação")
+    @Operation(summary = "Listar notificações do usuário autenticado", description = "Retorna as notificações do usuário autenticado com paginação, até a página 50. Para ir além, use /scroll")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Notificações listadas com sucesso"),
             @ApiResponse(responseCode = "401", description = "Não autorizado")
     })
     public ResponseEntity<PageResponse<NotificationDTO>> getNotifications(
-            @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "10") @Min(1) int size) {
+            @RequestParam(defaultValue = "0") @Min(0) @Max(50) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int size) {
         return ResponseEntity.ok(notificationService.getUserNotifications(page, size));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Navegar pelas notificações por cursor", description = "Retorna as notificações do usuário autenticado, mais recentes primeiro, a partir do cursor devolvido pela página anterior. O custo de cada página não depende da posição")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Notificações listadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    public ResponseEntity<CursorPageResponse<NotificationDTO>> scrollNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return ResponseEntity.ok(notificationService.getUserNotificationsAfter(cursor, size));
+    }
+
+    @PostMapping("/stream-token")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Token para o stream de notificações", description = "Emite um token de curta duração que abre o stream pelo parâmetro streamToken, para clientes como o EventSource do navegador, que não enviam o cabeçalho Authorization")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Token emitido com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    public ResponseEntity<StreamTokenResponse> issueStreamToken() {
+        return ResponseEntity.ok(notificationService.issueStreamToken());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Stream de notificações", description = "Abre uma conexão Server-Sent Events que recebe as novas notificações do usuário autenticado. Aceita o cabeçalho Authorization ou o parâmetro streamToken. Ao reconectar com o cabeçalho Last-Event-ID (ou o parâmetro lastEventId, quando a conexão é aberta de novo com outro token), as notificações perdidas são reenviadas")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream aberto com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        return notificationService.subscribe(lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
     @GetMapping("/unread-count")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Contagem de notificações não lidas", description = "Retorna o número de notificações não lidas para o usuário autenticado")
@@ -64,6 +106,19 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    @PatchMapping("/broadcasts/{id}/read")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Marcar broadcast como lido", description = "Marca como lida, para o usuário autenticado, uma notificação enviada a todos os usuários ou ao seu perfil")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Notificação marcada como lida com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Notificação não encontrada")
+    })
+    public ResponseEntity<Void> markBroadcastAsRead(@PathVariable Long id) {
+        notificationService.markBroadcastAsRead(id);
+        return ResponseEntity.ok().build();
+    }
+
     @PatchMapping("/read-all")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Marcar todas as notificações como lidas", description = "Marca todas as notificações do usuário autenticado como lidas")
@@ -1,10 +1,14 @@
 package com.carrent.web.controller;
 
+import com.carrent.application.dto.GroupBookingRequest;
+import com.carrent.application.dto.GroupBookingResponse;
 import com.carrent.application.dto.RentalDTO;
+import com.carrent.application.service.GroupBookingService;
 import com.carrent.application.service.RentalService;
 import com.carrent.domain.entity.RentalStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -31,12 +35,17 @@ import java.util.List;
 public class RentalController {
 
     private final RentalService rentalService;
+    private final GroupBookingService groupBookingService;
 
     @GetMapping
     @Operation(summary = "Lista todos os aluguéis")
     @ApiResponse(responseCode = "200", description = "Lista de aluguéis retornada com sucesso", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RentalDTO.class))))
-    public ResponseEntity<List<RentalDTO>> findAll() {
-        return ResponseEntity.ok(rentalService.findAll());
+    @Parameter(name = "start", description = "Início do período; sem ele, só as locações dos últimos meses de retenção")
+    @Parameter(name = "end", description = "Fim do período")
+    public ResponseEntity<List<RentalDTO>> findAll(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(rentalService.findAll(start, end));
     }
 
     @GetMapping("/{id}")
@@ -54,24 +63,36 @@ public class RentalController {
     @Operation(summary = "Lista aluguéis por cliente")
     @ApiResponse(responseCode = "200", description = "Lista de aluguéis por cliente retornada com sucesso", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RentalDTO.class))))
     @Parameter(name = "customerId", description = "ID do cliente", required = true)
-    public ResponseEntity<List<RentalDTO>> findByCustomerId(@PathVariable Long customerId) {
-        return ResponseEntity.ok(rentalService.findByCustomerId(customerId));
+    @Parameter(name = "start", description = "Início do período; sem ele, só as locações dos últimos meses de retenção")
+    @Parameter(name = "end", description = "Fim do período")
+    public ResponseEntity<List<RentalDTO>> findByCustomerId(@PathVariable Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(rentalService.findByCustomerId(customerId, start, end));
     }
 
     @GetMapping("/vehicle/{vehicleId}")
     @Operation(summary = "Lista aluguéis por veículo")
     @ApiResponse(responseCode = "200", description = "Lista de aluguéis por veículo retornada com sucesso", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RentalDTO.class))))
     @Parameter(name = "vehicleId", description = "ID do veículo", required = true)
-    public ResponseEntity<List<RentalDTO>> findByVehicleId(@PathVariable Long vehicleId) {
-        return ResponseEntity.ok(rentalService.findByVehicleId(vehicleId));
+    @Parameter(name = "start", description = "Início do período; sem ele, só as locações dos últimos meses de retenção")
+    @Parameter(name = "end", description = "Fim do período")
+    public ResponseEntity<List<RentalDTO>> findByVehicleId(@PathVariable Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(rentalService.findByVehicleId(vehicleId, start, end));
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Lista aluguéis por status")
     @ApiResponse(responseCode = "200", description = "Lista de aluguéis por status retornada com sucesso", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RentalDTO.class))))
     @Parameter(name = "status", description = "Status do aluguel", required = true)
-    public ResponseEntity<List<RentalDTO>> findByStatus(@PathVariable RentalStatus status) {
-        return ResponseEntity.ok(rentalService.findByStatus(status));
+    @Parameter(name = "start", description = "Início do período; sem ele, só as locações dos últimos meses de retenção")
+    @Parameter(name = "end", description = "Fim do período")
+    public ResponseEntity<List<RentalDTO>> findByStatus(@PathVariable RentalStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(rentalService.findByStatus(status, start, end));
     }
 
     @GetMapping("/period")
@@ -94,11 +115,27 @@ public class RentalController {
             @ApiResponse(responseCode = "409", description = "Veículo não disponível no período")
     })
     @ResponseStatus(HttpStatus.CREATED)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
     public ResponseEntity<RentalDTO> create(@Valid @RequestBody RentalDTO rentalDTO) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(rentalService.create(rentalDTO));
     }
 
+    @PostMapping("/group")
+    @Operation(summary = "Cria aluguéis de vários veículos para o mesmo cliente e período", description = "Tudo ou nada: se algum veículo não puder ser reservado, nenhum aluguel é criado. Com allowSubstitutes, um veículo ocupado é trocado por outro livre da mesma categoria")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Aluguéis criados com sucesso", content = @Content(schema = @Schema(implementation = GroupBookingResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "404", description = "Cliente ou veículo não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Algum veículo não disponível no período e sem substituto")
+    })
+    @ResponseStatus(HttpStatus.CREATED)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
+    public ResponseEntity<GroupBookingResponse> createGroup(@Valid @RequestBody GroupBookingRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(groupBookingService.book(request));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualiza um aluguel existente")
     @ApiResponses({
@@ -108,6 +145,7 @@ public class RentalController {
             @ApiResponse(responseCode = "409", description = "Veículo não disponível no período")
     })
     @Parameter(name = "id", description = "ID do aluguel", required = true)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
     public ResponseEntity<RentalDTO> update(
             @PathVariable Long id,
             @Valid @RequestBody RentalDTO rentalDTO) {
@@ -122,6 +160,7 @@ public class RentalController {
             @ApiResponse(responseCode = "400", description = "Aluguel não pode ser iniciado")
     })
     @Parameter(name = "id", description = "ID do aluguel", required = true)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
     public ResponseEntity<Void> startRental(@PathVariable Long id) {
         rentalService.startRental(id);
         return ResponseEntity.noContent().build();
@@ -135,6 +174,7 @@ public class RentalController {
             @ApiResponse(responseCode = "400", description = "Aluguel não pode ser finalizado")
     })
     @Parameter(name = "id", description = "ID do aluguel", required = true)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
     public ResponseEntity<Void> completeRental(@PathVariable Long id) {
         rentalService.completeRental(id);
         return ResponseEntity.noContent().build();
@@ -148,6 +188,7 @@ public class RentalController {
             @ApiResponse(responseCode = "400", description = "Aluguel não pode ser cancelado")
     })
     @Parameter(name = "id", description = "ID do aluguel", required = true)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
     public ResponseEntity<Void> cancelRental(@PathVariable Long id) {
         rentalService.cancelRental(id);
         return ResponseEntity.noContent().build();
@@ -161,6 +202,7 @@ public class RentalController {
             @ApiResponse(responseCode = "400", description = "Aluguel não pode ser encerrado antecipadamente")
     })
     @Parameter(name = "id", description = "ID do aluguel", required = true)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
     public ResponseEntity<Void> terminateRentalEarly(@PathVariable Long id) {
         rentalService.terminateRentalEarly(id);
         return ResponseEntity.noContent().build();
@@ -174,6 +216,7 @@ public class RentalController {
             @ApiResponse(responseCode = "400", description = "Aluguel não pode ser estendido")
     })
     @Parameter(name = "id", description = "ID do aluguel", required = true)
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = "Chave para repetir a requisição sem executá-la de novo")
     public ResponseEntity<RentalDTO> extendRental(
             @PathVariable Long id,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime newEndDate) {
@@ -0,0 +1,66 @@
+package com.carrent.web.controller;
+
+import com.carrent.application.dto.ChangeFeedResponse;
+import com.carrent.application.dto.CustomerDTO;
+import com.carrent.application.dto.RentalDTO;
+import com.carrent.application.dto.VehicleDTO;
+import com.carrent.application.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/sync")
+@RequiredArgsConstructor
+@Tag(name = "Sincronização", description = "Feed de alterações para clientes que mantêm cópia local das listas")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping("/rentals")
+    @Operation(summary = "Locações criadas, alteradas ou removidas desde o token", description = "Cobre só as locações ainda não arquivadas; uma locação arquivada é devolvida em deleted")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de alterações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Token ou limite inválido")
+    })
+    public ResponseEntity<ChangeFeedResponse<RentalDTO>> rentalChanges(
+            @Parameter(description = "Token devolvido pela chamada anterior; vazio para começar do zero")
+            @RequestParam(required = false) String token,
+            @Parameter(description = "Tamanho máximo da página") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(syncService.rentalChanges(token, limit));
+    }
+
+    @GetMapping("/vehicles")
+    @Operation(summary = "Veículos criados, alterados ou removidos desde o token")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de alterações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Token ou limite inválido")
+    })
+    public ResponseEntity<ChangeFeedResponse<VehicleDTO>> vehicleChanges(
+            @Parameter(description = "Token devolvido pela chamada anterior; vazio para começar do zero")
+            @RequestParam(required = false) String token,
+            @Parameter(description = "Tamanho máximo da página") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(syncService.vehicleChanges(token, limit));
+    }
+
+    @GetMapping("/customers")
+    @Operation(summary = "Clientes criados, alterados ou removidos desde o token")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de alterações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Token ou limite inválido")
+    })
+    public ResponseEntity<ChangeFeedResponse<CustomerDTO>> customerChanges(
+            @Parameter(description = "Token devolvido pela chamada anterior; vazio para começar do zero")
+            @RequestParam(required = false) String token,
+            @Parameter(description = "Tamanho máximo da página") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(syncService.customerChanges(token, limit));
+    }
+}
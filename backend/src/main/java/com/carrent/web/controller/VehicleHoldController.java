@@ -0,0 +1,67 @@
+package com.carrent.web.controller;
+
+import com.carrent.application.dto.HoldDTO;
+import com.carrent.application.dto.HoldRequest;
+import com.carrent.application.service.VehicleHoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/holds")
+@RequiredArgsConstructor
+@Tag(name = "Reservas provisórias", description = "Seguram um veículo por alguns minutos durante o checkout")
+@SecurityRequirement(name = "bearerAuth")
+public class VehicleHoldController {
+
+    private final VehicleHoldService vehicleHoldService;
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Reserva provisoriamente um veículo para um período", description = "A reserva expira sozinha após os minutos pedidos (ou o padrão configurado) e é liberada quando o mesmo usuário cria a locação")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Reserva criada", content = @Content(schema = @Schema(implementation = HoldDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou limite de reservas atingido"),
+            @ApiResponse(responseCode = "404", description = "Veículo não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Veículo indisponível ou reservado por outro cliente")
+    })
+    public ResponseEntity<HoldDTO> place(@Valid @RequestBody HoldRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(vehicleHoldService.place(request));
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Lista as reservas provisórias ativas do usuário autenticado")
+    @ApiResponse(responseCode = "200", description = "Reservas listadas", content = @Content(array = @ArraySchema(schema = @Schema(implementation = HoldDTO.class))))
+    public ResponseEntity<List<HoldDTO>> findMine() {
+        return ResponseEntity.ok(vehicleHoldService.findMine());
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Libera uma reserva provisória antes do prazo")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Reserva liberada"),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada")
+    })
+    @Parameter(name = "id", description = "ID da reserva", required = true)
+    public ResponseEntity<Void> release(@PathVariable UUID id) {
+        vehicleHoldService.release(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.carrent.web.controller;
+
+import com.carrent.application.dto.WaitlistEntryDTO;
+import com.carrent.application.dto.WaitlistRequest;
+import com.carrent.application.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/waitlist")
+@RequiredArgsConstructor
+@Tag(name = "Lista de espera", description = "Inscrição em categorias esgotadas, atendida quando um veículo é liberado")
+@SecurityRequirement(name = "bearerAuth")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Inscreve um cliente na lista de espera de uma categoria e período", description = "Quando um cancelamento, encerramento antecipado ou devolução libera um veículo da categoria no período, a locação é criada automaticamente para a inscrição de maior prioridade")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Inscrição criada", content = @Content(schema = @Schema(implementation = WaitlistEntryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou limite de inscrições atingido"),
+            @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
+    })
+    public ResponseEntity<WaitlistEntryDTO> register(@Valid @RequestBody WaitlistRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.register(request));
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Lista as inscrições em espera do usuário autenticado")
+    @ApiResponse(responseCode = "200", description = "Inscrições listadas", content = @Content(array = @ArraySchema(schema = @Schema(implementation = WaitlistEntryDTO.class))))
+    public ResponseEntity<List<WaitlistEntryDTO>> findMine() {
+        return ResponseEntity.ok(waitlistService.findMine());
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Cancela uma inscrição na lista de espera")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Inscrição cancelada"),
+            @ApiResponse(responseCode = "404", description = "Inscrição não encontrada ou já encerrada")
+    })
+    @Parameter(name = "id", description = "ID da inscrição", required = true)
+    public ResponseEntity<Void> cancel(@PathVariable Long id) {
+        waitlistService.cancel(id);
+        return ResponseEntity.noContent().build();
+    }
+}
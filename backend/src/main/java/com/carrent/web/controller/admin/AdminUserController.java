@@ -2,6 +2,7 @@ package com.carrent.web.controller.admin;
 
 import com.carrent.application.dto.AuthenticationResponse;
 import com.carrent.application.dto.UserDTO;
+import com.carrent.application.dto.admin.BroadcastRequest;
 import com.carrent.application.dto.admin.NotificationRequest;
 import com.carrent.application.dto.admin.UserCreateRequest;
 import com.carrent.application.dto.admin.UserUpdateRequest;
@@ -104,9 +105,9 @@ public class AdminUserController {
     @PostMapping("/{id}/notify")
     @Operation(summary = "Envia uma notificação para um usuário")
     @ApiResponses({
-            @ApiResponse(responseCode = "204", description = "Notificação enviada com sucesso"),
+            @ApiResponse(responseCode = "204", description = "Notificação aceita para entrega"),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
-            @ApiResponse(responseCode = "400", description = "Dados da notificação inválidos")
+            @ApiResponse(responseCode = "400", description = "Dados da notificação inválidos ou canal não habilitado")
     })
     @Parameter(name = "id", description = "ID do usuário", required = true)
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -116,4 +117,16 @@ public class AdminUserController {
         adminUserService.notifyUser(id, notificationRequest);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @PostMapping("/broadcast")
+    @Operation(summary = "Envia uma notificação para todos os usuários, ou para todos de um perfil")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Notificação enviada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados da notificação inválidos")
+    })
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public ResponseEntity<Void> broadcast(@Valid @RequestBody BroadcastRequest broadcastRequest) {
+        adminUserService.broadcast(broadcastRequest);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,6 +2,7 @@ package com.carrent.web.controller.admin;
 
 import com.carrent.application.dto.metrics.BusinessMetricsDTO;
 import com.carrent.application.service.admin.BusinessMetricsService;
+import com.carrent.infrastructure.workload.AnalyticsTaskRunner;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 @RestController
 @RequestMapping("/admin/metrics")
@@ -22,51 +24,56 @@ import org.springframework.web.bind.annotation.RestController;
 public class BusinessMetricsController {
 
     private final BusinessMetricsService businessMetricsService;
+    private final AnalyticsTaskRunner analyticsTaskRunner;
 
     @GetMapping("/business")
     @Operation(summary = "Obter métricas gerais de negócio")
-    public ResponseEntity<BusinessMetricsDTO> getBusinessMetrics(
+    public WebAsyncTask<ResponseEntity<BusinessMetricsDTO>> getBusinessMetrics(
             @RequestParam(required = false) String days,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status));
+        return analyticsTaskRunner.submit(() -> ResponseEntity.ok(
+                businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status)));
     }
 
     @GetMapping("/rentals")
     @Operation(summary = "Obter métricas específicas de aluguéis")
-    public ResponseEntity<BusinessMetricsDTO.RentalMetrics> getRentalMetrics(
+    public WebAsyncTask<ResponseEntity<BusinessMetricsDTO.RentalMetrics>> getRentalMetrics(
             @RequestParam(required = false) String days,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status)
-                .getRentalMetrics());
+        return analyticsTaskRunner.submit(() -> ResponseEntity.ok(
+                businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status)
+                        .getRentalMetrics()));
     }
 
     @GetMapping("/vehicles")
     @Operation(summary = "Obter métricas específicas de veículos")
-    public ResponseEntity<BusinessMetricsDTO.VehicleMetrics> getVehicleMetrics(
+    public WebAsyncTask<ResponseEntity<BusinessMetricsDTO.VehicleMetrics>> getVehicleMetrics(
             @RequestParam(required = false) String days,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status)
-                .getVehicleMetrics());
+        return analyticsTaskRunner.submit(() -> ResponseEntity.ok(
+                businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status)
+                        .getVehicleMetrics()));
     }
 
     @GetMapping("/discounts")
     @Operation(summary = "Obter métricas específicas de descontos")
-    public ResponseEntity<BusinessMetricsDTO.DiscountMetrics> getDiscountMetrics(
+    public WebAsyncTask<ResponseEntity<BusinessMetricsDTO.DiscountMetrics>> getDiscountMetrics(
             @RequestParam(required = false) String days,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status)
-                .getDiscountMetrics());
+        return analyticsTaskRunner.submit(() -> ResponseEntity.ok(
+                businessMetricsService.getBusinessMetrics(days, startDate, endDate, category, status)
+                        .getDiscountMetrics()));
     }
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.SQLGrammarException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -20,6 +22,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.validation.FieldError;
 
@@ -68,6 +71,12 @@ public class GlobalExceptionHandler {
                 return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
         }
 
+        @ExceptionHandler(ResourceNotFoundException.class)
+        public ResponseEntity<ApiError> handleResourceNotFoundException(ResourceNotFoundException ex) {
+                log.error("Recurso não encontrado: {}", ex.getMessage());
+                return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+        }
+
         @ExceptionHandler(VehicleNotAvailableException.class)
         public ResponseEntity<ApiError> handleVehicleNotAvailableException(VehicleNotAvailableException ex) {
                 log.error("Veículo não disponível: {}", ex.getMessage());
@@ -339,6 +348,22 @@ public class GlobalExceptionHandler {
                                                 .build());
         }
 
+        @ExceptionHandler({ TaskRejectedException.class, AsyncRequestTimeoutException.class })
+        public ResponseEntity<ErrorResponse> handleAnalyticsCapacityException(
+                        Exception ex,
+                        HttpServletRequest request) {
+                log.warn("Capacidade de processamento de relatórios esgotada: {}", ex.getMessage());
+                return ResponseEntity
+                                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "5")
+                                .body(ErrorResponse.builder()
+                                                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                                .error("Serviço sobrecarregado")
+                                                .message("O processamento de relatórios está ocupado. Tente novamente em instantes.")
+                                                .path(request.getRequestURI())
+                                                .build());
+        }
+
         @ExceptionHandler(Exception.class)
         public ResponseEntity<ApiError> handleGenericException(Exception ex) {
                 log.error("Erro interno do servidor: {}", ex.getMessage());
@@ -0,0 +1,49 @@
+CREATE TABLE IF NOT EXISTS rental_view (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    customer_name VARCHAR(100) NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    vehicle_brand VARCHAR(50) NOT NULL,
+    vehicle_model VARCHAR(50) NOT NULL,
+    vehicle_plate VARCHAR(255) NOT NULL,
+    vehicle_category VARCHAR(20) NOT NULL,
+    vehicle_daily_rate DECIMAL(38,2) NOT NULL,
+    start_date DATETIME(6) NOT NULL,
+    end_date DATETIME(6) NOT NULL,
+    actual_return_date DATETIME(6),
+    status VARCHAR(20) NOT NULL,
+    status_priority INT NOT NULL,
+    total_amount DECIMAL(38,2) NOT NULL,
+    original_total_amount DECIMAL(38,2),
+    early_termination_fee DECIMAL(38,2),
+    ended_early BIT,
+    notes VARCHAR(1000),
+    created_at DATETIME(6),
+    updated_at DATETIME(6)
+);
+
+CREATE INDEX idx_rental_view_priority ON rental_view(status_priority, start_date);
+CREATE INDEX idx_rental_view_customer ON rental_view(customer_id, start_date);
+CREATE INDEX idx_rental_view_vehicle ON rental_view(vehicle_id, start_date);
+CREATE INDEX idx_rental_view_status ON rental_view(status, start_date);
+CREATE INDEX idx_rental_view_period ON rental_view(start_date, end_date);
+
+-- Carga inicial; daqui em diante a tabela é mantida pelo RentalViewProjector
+INSERT INTO rental_view (id, customer_id, customer_name, vehicle_id, vehicle_brand, vehicle_model, vehicle_plate,
+                         vehicle_category, vehicle_daily_rate, start_date, end_date, actual_return_date, status,
+                         status_priority, total_amount, original_total_amount, early_termination_fee, ended_early,
+                         notes, created_at, updated_at)
+SELECT r.id, c.id, c.name, v.id, v.brand, v.model, v.plate, v.category, v.daily_rate,
+       r.start_date, r.end_date, r.actual_return_date, r.status,
+       CASE r.status
+           WHEN 'IN_PROGRESS' THEN 0
+           WHEN 'PENDING' THEN 1
+           WHEN 'COMPLETED' THEN 2
+           WHEN 'CANCELLED' THEN 3
+           ELSE 4
+       END,
+       r.total_amount, r.original_total_amount, r.early_termination_fee, r.ended_early,
+       r.notes, r.created_at, r.updated_at
+FROM rentals r
+JOIN customers c ON c.id = r.customer_id
+JOIN vehicles v ON v.id = r.vehicle_id;
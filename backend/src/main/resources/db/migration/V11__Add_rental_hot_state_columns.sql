@@ -0,0 +1,18 @@
+ALTER TABLE customers
+    ADD COLUMN active_rental_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN pending_rental_count INT NOT NULL DEFAULT 0;
+
+ALTER TABLE vehicles
+    ADD COLUMN next_free_at DATETIME(6) NULL,
+    ADD COLUMN current_rental_id BIGINT NULL;
+
+-- Carga inicial; daqui em diante as colunas são mantidas a cada transição
+-- (RentalHotStateMaintainer) e conferidas pelo HotStateReconciler
+UPDATE customers c SET
+    active_rental_count = (SELECT COUNT(*) FROM rentals r WHERE r.customer_id = c.id AND r.status = 'IN_PROGRESS'),
+    pending_rental_count = (SELECT COUNT(*) FROM rentals r WHERE r.customer_id = c.id AND r.status = 'PENDING');
+
+UPDATE vehicles v SET
+    next_free_at = (SELECT MAX(r.end_date) FROM rentals r
+                    WHERE r.vehicle_id = v.id AND r.status IN ('PENDING', 'IN_PROGRESS')),
+    current_rental_id = (SELECT MAX(r.id) FROM rentals r WHERE r.vehicle_id = v.id AND r.status = 'IN_PROGRESS');
@@ -0,0 +1,15 @@
+-- Conflito de reservas: igualdade em vehicle_id, IN em status e faixa em
+-- start_date; end_date no índice torna a consulta coberta
+CREATE INDEX idx_rentals_vehicle_status_period ON rentals(vehicle_id, status, start_date, end_date);
+
+-- Guardas e reconciliação por cliente e status
+CREATE INDEX idx_rentals_customer_status ON rentals(customer_id, status);
+
+-- Listagens e contagens por status, ordenadas por início
+CREATE INDEX idx_rentals_status_start ON rentals(status, start_date);
+
+-- Os índices de coluna única são prefixos dos compostos acima (e continuam
+-- atendendo as chaves estrangeiras)
+DROP INDEX idx_rentals_vehicle ON rentals;
+DROP INDEX idx_rentals_customer ON rentals;
+DROP INDEX idx_rentals_status ON rentals;
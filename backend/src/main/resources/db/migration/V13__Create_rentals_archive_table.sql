@@ -0,0 +1,32 @@
+-- Locações encerradas há mais que application.archive.retention-months.
+-- Em vez de particionar rentals por start_date (o InnoDB não aceita chaves
+-- estrangeiras em tabelas particionadas), as linhas antigas são movidas para
+-- esta tabela pelo RentalArchiver, já com os dados do cliente e do veículo.
+CREATE TABLE IF NOT EXISTS rentals_archive (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    customer_name VARCHAR(100) NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    vehicle_brand VARCHAR(50) NOT NULL,
+    vehicle_model VARCHAR(50) NOT NULL,
+    vehicle_plate VARCHAR(255) NOT NULL,
+    vehicle_category VARCHAR(20) NOT NULL,
+    vehicle_daily_rate DECIMAL(38,2) NOT NULL,
+    start_date DATETIME(6) NOT NULL,
+    end_date DATETIME(6) NOT NULL,
+    actual_return_date DATETIME(6),
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(38,2) NOT NULL,
+    original_total_amount DECIMAL(38,2),
+    early_termination_fee DECIMAL(38,2),
+    ended_early BIT,
+    notes VARCHAR(1000),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_rentals_archive_customer ON rentals_archive(customer_id, start_date);
+CREATE INDEX idx_rentals_archive_vehicle ON rentals_archive(vehicle_id, start_date);
+CREATE INDEX idx_rentals_archive_status ON rentals_archive(status, start_date);
+CREATE INDEX idx_rentals_archive_period ON rentals_archive(start_date, end_date);
@@ -0,0 +1,20 @@
+-- Remoções de locações, veículos e clientes, para o feed de alterações
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_sync_tombstones_type ON sync_tombstones(entity_type, id);
+CREATE INDEX idx_sync_tombstones_deleted ON sync_tombstones(deleted_at);
+
+-- O feed percorre cada tabela por (updated_at, id); linhas antigas sem
+-- updated_at ficariam fora dele
+UPDATE rentals SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP(6)) WHERE updated_at IS NULL;
+UPDATE vehicles SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP(6)) WHERE updated_at IS NULL;
+UPDATE customers SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP(6)) WHERE updated_at IS NULL;
+
+CREATE INDEX idx_rentals_updated ON rentals(updated_at, id);
+CREATE INDEX idx_vehicles_updated ON vehicles(updated_at, id);
+CREATE INDEX idx_customers_updated ON customers(updated_at, id);
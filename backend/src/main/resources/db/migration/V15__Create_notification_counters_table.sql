@@ -0,0 +1,13 @@
+-- Contador de notificações não lidas por usuário, para o badge ser uma leitura por chave
+CREATE TABLE IF NOT EXISTS notification_counters (
+    user_id BIGINT PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_notification_counters_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- A contagem por usuário (reconciliação e fallback) não precisa ler as linhas
+CREATE INDEX idx_notifications_user_read ON notifications(user_id, is_read);
+
+INSERT INTO notification_counters (user_id, unread_count)
+SELECT u.id, (SELECT COUNT(*) FROM notifications n WHERE n.user_id = u.id AND n.is_read = FALSE)
+FROM users u;
@@ -0,0 +1,8 @@
+-- Caixa de entrada navegada por cursor: (user_id, created_at DESC, id DESC)
+-- é lido de trás para frente neste índice, sem ordenação
+CREATE INDEX idx_notifications_user_created ON notifications(user_id, created_at, id);
+
+-- Cobertos pelos índices compostos que começam por user_id; is_read sozinho
+-- tem cardinalidade baixa demais para ser útil
+DROP INDEX idx_notifications_user_id ON notifications;
+DROP INDEX idx_notifications_read ON notifications;
@@ -0,0 +1,39 @@
+-- Notificações enviadas a todos os usuários (target_role nulo) ou a um perfil:
+-- uma linha por envio, sem cópia por usuário
+CREATE TABLE IF NOT EXISTS broadcast_notifications (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    target_role VARCHAR(20),
+    created_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_broadcast_notifications_created ON broadcast_notifications(created_at, id);
+
+-- Broadcasts enviados a cada perfil (os sem perfil contam para todos), para que
+-- os não lidos sejam calculados sem contar a tabela de broadcasts
+CREATE TABLE IF NOT EXISTS broadcast_role_counters (
+    role VARCHAR(20) PRIMARY KEY,
+    sent BIGINT NOT NULL DEFAULT 0,
+    purged BIGINT NOT NULL DEFAULT 0,
+    last_broadcast_id BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO broadcast_role_counters (role) VALUES ('USER'), ('ADMIN');
+
+-- Broadcasts até o watermark contam como lidos; acima dele, só os marcados em broadcast_reads.
+-- broadcast_base: broadcasts do perfil com id até o watermark;
+-- broadcast_reads: marcas de broadcast_reads acima dele
+ALTER TABLE notification_counters
+    ADD COLUMN broadcast_watermark BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN broadcast_base BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN broadcast_reads BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS broadcast_reads (
+    user_id BIGINT NOT NULL,
+    broadcast_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, broadcast_id),
+    CONSTRAINT fk_broadcast_reads_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_broadcast_reads_broadcast FOREIGN KEY (broadcast_id)
+        REFERENCES broadcast_notifications(id) ON DELETE CASCADE
+);
@@ -0,0 +1,16 @@
+-- Notificações que esgotaram as tentativas de entrega do canal, ou que não
+-- couberam na fila dele, guardadas para inspeção e reenvio manual
+CREATE TABLE IF NOT EXISTS notification_dead_letters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    channel VARCHAR(32) NOT NULL,
+    user_id BIGINT NOT NULL,
+    recipient VARCHAR(255),
+    title VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    attempts INT NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    failed_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_notification_dead_letters_channel ON notification_dead_letters(channel, failed_at);
@@ -0,0 +1,22 @@
+-- Lista de espera por categoria e período esgotados; as entradas WAITING são
+-- lidas do banco e atendidas pelos eventos de locação
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    category VARCHAR(20) NOT NULL,
+    start_date DATETIME(6) NOT NULL,
+    end_date DATETIME(6) NOT NULL,
+    priority INT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    rental_id BIGINT,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    CONSTRAINT fk_waitlist_entries_customer FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_entries_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_waitlist_entries_status_start ON waitlist_entries(status, start_date);
+CREATE INDEX idx_waitlist_entries_user ON waitlist_entries(user_id, status);
+-- Candidatas de um veículo liberado: mesma categoria, período dentro da janela
+CREATE INDEX idx_waitlist_entries_category ON waitlist_entries(status, category, start_date);
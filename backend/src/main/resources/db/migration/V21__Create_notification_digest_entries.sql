@@ -0,0 +1,19 @@
+-- Notificações aguardando o resumo do seu tipo. São gravadas na transação de
+-- quem as gera e removidas na mesma transação que grava o resumo, então nada
+-- se perde se a instância cair no meio da janela. due_at é o prazo de cada
+-- uma (criação + janela do tipo): o agendador procura os grupos vencidos pelo
+-- índice em vez de agrupar a tabela inteira a cada passada
+CREATE TABLE IF NOT EXISTS notification_digest_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    kind VARCHAR(64) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at DATETIME(6) NOT NULL,
+    due_at DATETIME(6) NOT NULL,
+    CONSTRAINT fk_notification_digest_entries_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_notification_digest_entries_group ON notification_digest_entries(user_id, kind, id);
+CREATE INDEX idx_notification_digest_entries_due ON notification_digest_entries(due_at);
@@ -0,0 +1,18 @@
+-- Reservas provisórias de veículos, compartilhadas entre as instâncias. Uma
+-- reserva vale enquanto expires_at estiver no futuro; as vencidas são
+-- removidas pela varredura periódica
+CREATE TABLE IF NOT EXISTS vehicle_holds (
+    id CHAR(36) PRIMARY KEY,
+    vehicle_id BIGINT NOT NULL,
+    holder_id BIGINT NOT NULL,
+    start_date DATETIME(6) NOT NULL,
+    end_date DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    CONSTRAINT fk_vehicle_holds_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicles(id) ON DELETE CASCADE,
+    CONSTRAINT fk_vehicle_holds_holder FOREIGN KEY (holder_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_vehicle_holds_vehicle ON vehicle_holds(vehicle_id, expires_at);
+CREATE INDEX idx_vehicle_holds_holder ON vehicle_holds(holder_id, expires_at);
+CREATE INDEX idx_vehicle_holds_expires ON vehicle_holds(expires_at);
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS cluster_change_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    node_id VARCHAR(64) NOT NULL,
+    entity_type VARCHAR(150) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX idx_cluster_change_log_created_at ON cluster_change_log(created_at);
@@ -0,0 +1,33 @@
+-- Reserva por lease: o relay marca as mensagens com o dono da reserva
+-- (claimed_by) e adia available_at até o fim do lease, em uma transação
+-- curta, e entrega depois do commit. Se a instância cair, a mensagem volta ao
+-- fim do lease.
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    claimed_by VARCHAR(36) NULL,
+    available_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX idx_outbox_available_at ON outbox(available_at, id);
+
+-- Mensagens que esgotaram as tentativas ou não puderam ser lidas, guardadas
+-- para inspeção e reenvio manual
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+    id BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(3) NOT NULL,
+    failed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX idx_outbox_dead_letters_failed ON outbox_dead_letters(failed_at);
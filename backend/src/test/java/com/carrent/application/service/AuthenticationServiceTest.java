@@ -0,0 +1,84 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.AuthenticationResponse;
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.infrastructure.metrics.CustomMetricsService;
+import com.carrent.infrastructure.security.JwtService;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private CustomMetricsService metricsService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    private JwtService jwtService;
+    private AuthenticationService authenticationService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "streamExpiration", 60_000L);
+        authenticationService = new AuthenticationService(userRepository, passwordEncoder, jwtService,
+                authenticationManager, metricsService, notificationService);
+        user = User.builder().id(1L).name("Maria").email("maria@carrent.com").password("x").role(Role.USER).build();
+    }
+
+    @Test
+    void refreshToken_WithRefreshToken_ShouldIssueNewPair() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        AuthenticationResponse response = authenticationService.refreshToken(jwtService.generateRefreshToken(user));
+
+        assertTrue(jwtService.isAccessToken(response.getToken()));
+        assertTrue(jwtService.isRefreshToken(response.getRefreshToken()));
+    }
+
+    @Test
+    void refreshToken_WithStreamToken_ShouldReject() {
+        String streamToken = jwtService.generateStreamToken(user);
+
+        assertThrows(JwtException.class, () -> authenticationService.refreshToken(streamToken));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void refreshToken_WithAccessToken_ShouldReject() {
+        String accessToken = jwtService.generateToken(user);
+
+        assertThrows(JwtException.class, () -> authenticationService.refreshToken(accessToken));
+        verifyNoInteractions(userRepository);
+    }
+}
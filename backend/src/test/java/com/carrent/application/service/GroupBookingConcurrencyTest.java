@@ -0,0 +1,228 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.GroupBookingRequest;
+import com.carrent.application.dto.RentalDTO;
+import com.carrent.application.mapper.RentalMapperImpl;
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.exception.VehicleNotAvailableException;
+import com.carrent.infrastructure.config.JpaConfig;
+import com.carrent.infrastructure.config.ReadModelConfig;
+import com.carrent.infrastructure.hold.VehicleHoldRegistry;
+import com.carrent.infrastructure.security.AuthenticationFacade;
+import com.carrent.mocks.RentalFixtures;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reserva em grupo e locação avulsa disputando o mesmo veículo em duas
+ * transações reais. O banco roda em REPEATABLE READ, como o MySQL; a pausa
+ * da reserva em grupo é feita na consulta às reservas provisórias, que ela
+ * faz antes e depois de bloquear os veículos.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-booking;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.transaction-isolation=TRANSACTION_REPEATABLE_READ"
+})
+@Import({ JpaConfig.class, ReadModelConfig.class, GroupBookingService.class, RentalService.class,
+        RentalMapperImpl.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupBookingConcurrencyTest {
+
+    private static final String BOOKING_THREAD = "group-booking";
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 10, 0);
+    private static final LocalDateTime END = START.plusDays(3);
+
+    @Autowired
+    private GroupBookingService groupBookingService;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private VehicleHoldRegistry vehicleHoldRegistry;
+
+    @MockBean
+    private AuthenticationFacade authenticationFacade;
+
+    @MockBean
+    private RentalHistoryService rentalHistoryService;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> new Thread(runnable));
+    private final ExecutorService bookingExecutor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, BOOKING_THREAD));
+    private final CountDownLatch paused = new CountDownLatch(1);
+    private final CountDownLatch resume = new CountDownLatch(1);
+    private Long customerId;
+    private Long vehicleId;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Customer customer = RentalFixtures.customer();
+            entityManager.persist(customer);
+            customerId = customer.getId();
+        });
+        vehicleId = persistVehicle("ABC1D23");
+    }
+
+    private Long persistVehicle(String plate) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Vehicle vehicle = RentalFixtures.vehicle(plate);
+            entityManager.persist(vehicle);
+            return vehicle.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        resume.countDown();
+        executor.shutdownNow();
+        bookingExecutor.shutdownNow();
+        RentalFixtures.deleteAll(jdbcTemplate);
+        // Removidos por fora da sessão: a placa não pode continuar no cache de chaves naturais
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void book_WhenRentalCommittedAfterFirstRead_ShouldSeeItAfterLocking() throws Exception {
+        pauseBookingAt(1);
+        CompletableFuture<?> booking = CompletableFuture.runAsync(this::book, bookingExecutor);
+        assertTrue(paused.await(10, TimeUnit.SECONDS));
+
+        rentalService.create(rental());
+        resume.countDown();
+
+        assertFailsWithVehicleNotAvailable(booking);
+        assertEquals(1, rentalCount());
+    }
+
+    @Test
+    void create_WhenGroupBookingHoldsVehicle_ShouldWaitAndSeeItsRental() throws Exception {
+        pauseBookingAt(2);
+        CompletableFuture<?> booking = CompletableFuture.runAsync(this::book, bookingExecutor);
+        assertTrue(paused.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<?> create = CompletableFuture.runAsync(() -> rentalService.create(rental()), executor);
+        // Bloqueada no veículo enquanto a reserva em grupo não termina
+        assertThrows(TimeoutException.class, () -> create.get(500, TimeUnit.MILLISECONDS));
+        resume.countDown();
+
+        booking.get(10, TimeUnit.SECONDS);
+        assertFailsWithVehicleNotAvailable(create);
+        assertEquals(1, rentalCount());
+    }
+
+    @Test
+    void update_MovingToVehicleHeldByGroupBooking_ShouldWaitAndSeeItsRental() throws Exception {
+        Long otherVehicleId = persistVehicle("XYZ9K87");
+        RentalDTO pending = rentalService.create(rental("XYZ9K87"));
+
+        pauseBookingAt(2);
+        CompletableFuture<?> booking = CompletableFuture.runAsync(this::book, bookingExecutor);
+        assertTrue(paused.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<?> update = CompletableFuture.runAsync(
+                () -> rentalService.update(pending.getId(), rental()), executor);
+        assertThrows(TimeoutException.class, () -> update.get(500, TimeUnit.MILLISECONDS));
+        resume.countDown();
+
+        booking.get(10, TimeUnit.SECONDS);
+        assertFailsWithVehicleNotAvailable(update);
+        assertEquals(1, rentalCount());
+        assertEquals(otherVehicleId, jdbcTemplate.queryForObject("SELECT vehicle_id FROM rentals WHERE id = ?",
+                Long.class, pending.getId()));
+    }
+
+    /**
+     * Pausa a reserva em grupo na n-ésima consulta às reservas provisórias: a
+     * primeira é a leitura inicial, a segunda já é feita com o veículo bloqueado
+     */
+    private void pauseBookingAt(int call) {
+        AtomicInteger calls = new AtomicInteger();
+        when(vehicleHoldRegistry.findHeldByOthers(any(), any(), any(), any())).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals(BOOKING_THREAD) && calls.incrementAndGet() == call) {
+                paused.countDown();
+                resume.await(10, TimeUnit.SECONDS);
+            }
+            return Set.of();
+        });
+    }
+
+    private void book() {
+        groupBookingService.book(GroupBookingRequest.builder()
+                .customerId(customerId)
+                .vehicleIds(List.of(vehicleId))
+                .startDate(START)
+                .endDate(END)
+                .allowSubstitutes(false)
+                .build());
+    }
+
+    private RentalDTO rental() {
+        return rental("ABC1D23");
+    }
+
+    private RentalDTO rental(String plate) {
+        return RentalDTO.builder()
+                .vehiclePlate(plate)
+                .customerId(customerId)
+                .startDate(START.plusDays(1))
+                .endDate(END.plusDays(1))
+                .build();
+    }
+
+    private static void assertFailsWithVehicleNotAvailable(CompletableFuture<?> future) {
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> future.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(VehicleNotAvailableException.class, failure.getCause());
+    }
+
+    private int rentalCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rentals WHERE vehicle_id = ?", Integer.class,
+                vehicleId);
+    }
+}
@@ -0,0 +1,211 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.GroupBookingRequest;
+import com.carrent.application.dto.GroupBookingResponse;
+import com.carrent.application.mapper.RentalMapper;
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.VehicleStatus;
+import com.carrent.domain.exception.VehicleNotAvailableException;
+import com.carrent.domain.repository.CustomerRepository;
+import com.carrent.domain.repository.RentalRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.hold.VehicleHoldRegistry;
+import com.carrent.infrastructure.security.AuthenticationFacade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupBookingServiceTest {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private RentalMapper rentalMapper;
+
+    @Mock
+    private VehicleHoldRegistry vehicleHoldRegistry;
+
+    @Mock
+    private AuthenticationFacade authenticationFacade;
+
+    @InjectMocks
+    private GroupBookingService groupBookingService;
+
+    private Map<Long, Vehicle> fleet;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @BeforeEach
+    void setUp() {
+        fleet = Map.of(
+                1L, vehicle(1L, "SUV0001", VehicleCategory.SUV, "300.00"),
+                2L, vehicle(2L, "SUV0002", VehicleCategory.SUV, "300.00"),
+                3L, vehicle(3L, "SUV0003", VehicleCategory.SUV, "450.00"),
+                4L, vehicle(4L, "SUV0004", VehicleCategory.SUV, "320.00"),
+                5L, vehicle(5L, "ECO0005", VehicleCategory.ECONOMY, "100.00"));
+        start = LocalDateTime.now().plusDays(3).withNano(0);
+        end = start.plusDays(2);
+
+        lenient().when(customerRepository.findById(1L))
+                .thenReturn(Optional.of(Customer.builder().id(1L).name("Eventos Ltda").build()));
+        lenient().when(vehicleRepository.findAllById(anyList())).thenAnswer(invocation ->
+                fleetOf(invocation.getArgument(0)));
+        lenient().when(vehicleRepository.findByCategoryInAndAvailableTrue(anyCollection())).thenAnswer(invocation -> {
+            Collection<VehicleCategory> categories = invocation.getArgument(0);
+            return fleet.values().stream().filter(vehicle -> categories.contains(vehicle.getCategory())).toList();
+        });
+        lenient().when(vehicleRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation ->
+                fleetOf(invocation.getArgument(0)));
+        lenient().when(rentalRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(authenticationFacade.findCurrentUserId()).thenReturn(Optional.of(7L));
+    }
+
+    @Test
+    void book_WithFreeVehicles_ShouldCreateAllRentalsAndLockInIdOrder() {
+        when(rentalRepository.findConflictingVehicleIds(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of());
+
+        GroupBookingResponse response = groupBookingService.book(request(List.of(2L, 1L)));
+
+        assertTrue(response.getSubstitutions().isEmpty());
+        verify(vehicleRepository).findAllByIdForUpdate(List.of(1L, 2L));
+        assertEquals(List.of(2L, 1L), savedVehicleIds());
+        assertEquals(VehicleStatus.RESERVED, fleet.get(1L).getStatus());
+        verify(vehicleHoldRegistry).releaseConverted(2L, 7L, start, end);
+    }
+
+    @Test
+    void book_WithTakenVehicle_ShouldSubstituteClosestRateOfSameCategory() {
+        when(rentalRepository.findConflictingVehicleIds(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+
+        GroupBookingResponse response = groupBookingService.book(request(List.of(1L, 2L)));
+
+        assertEquals(1, response.getSubstitutions().size());
+        assertEquals(1L, response.getSubstitutions().get(0).getRequestedVehicleId());
+        assertEquals(4L, response.getSubstitutions().get(0).getAssignedVehicleId());
+        assertEquals(List.of(4L, 2L), savedVehicleIds());
+        verify(vehicleRepository).findAllByIdForUpdate(List.of(2L, 4L));
+    }
+
+    @Test
+    void book_WithHeldVehicle_ShouldTreatItAsTaken() {
+        when(rentalRepository.findConflictingVehicleIds(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of());
+        when(vehicleHoldRegistry.findHeldByOthers(anyCollection(), eq(start), eq(end), eq(7L)))
+                .thenReturn(Set.of(2L))
+                .thenReturn(Set.of());
+
+        GroupBookingResponse response = groupBookingService.book(request(List.of(2L)));
+
+        assertEquals(1, response.getSubstitutions().size());
+        assertNotEquals(2L, response.getSubstitutions().get(0).getAssignedVehicleId());
+    }
+
+    @Test
+    void book_WithoutSubstituteAvailable_ShouldCreateNothing() {
+        when(rentalRepository.findConflictingVehicleIds(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of(5L));
+
+        assertThrows(VehicleNotAvailableException.class,
+                () -> groupBookingService.book(request(List.of(1L, 5L))));
+        verify(vehicleRepository, never()).findAllByIdForUpdate(anyCollection());
+        verify(rentalRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void book_WithSubstitutesDisabled_ShouldRejectTakenVehicle() {
+        when(rentalRepository.findConflictingVehicleIds(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of(1L));
+        GroupBookingRequest request = request(List.of(1L, 2L));
+        request.setAllowSubstitutes(false);
+
+        assertThrows(VehicleNotAvailableException.class, () -> groupBookingService.book(request));
+        verify(vehicleRepository, never()).findByCategoryInAndAvailableTrue(anyCollection());
+        verify(rentalRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void book_WithConflictAppearingBeforeLock_ShouldCreateNothing() {
+        when(rentalRepository.findConflictingVehicleIds(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(2L));
+
+        assertThrows(VehicleNotAvailableException.class,
+                () -> groupBookingService.book(request(List.of(1L, 2L))));
+        verify(rentalRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void book_WithRepeatedVehicle_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> groupBookingService.book(request(List.of(1L, 1L))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> savedVehicleIds() {
+        ArgumentCaptor<List<Rental>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rentalRepository).saveAll(captor.capture());
+        return captor.getValue().stream().map(rental -> rental.getVehicle().getId()).toList();
+    }
+
+    private List<Vehicle> fleetOf(Collection<Long> ids) {
+        Set<Long> wanted = Set.copyOf(ids);
+        return fleet.values().stream()
+                .filter(vehicle -> wanted.contains(vehicle.getId()))
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .collect(Collectors.toList());
+    }
+
+    private GroupBookingRequest request(List<Long> vehicleIds) {
+        return GroupBookingRequest.builder()
+                .customerId(1L)
+                .vehicleIds(vehicleIds)
+                .startDate(start)
+                .endDate(end)
+                .allowSubstitutes(true)
+                .build();
+    }
+
+    private static Vehicle vehicle(Long id, String plate, VehicleCategory category, String dailyRate) {
+        return Vehicle.builder()
+                .id(id)
+                .plate(plate)
+                .category(category)
+                .dailyRate(new BigDecimal(dailyRate))
+                .available(true)
+                .status(VehicleStatus.AVAILABLE)
+                .build();
+    }
+}
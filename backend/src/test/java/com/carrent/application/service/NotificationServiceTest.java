@@ -0,0 +1,232 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.CursorPageResponse;
+import com.carrent.application.dto.NotificationDTO;
+import com.carrent.application.dto.PageResponse;
+import com.carrent.domain.entity.BroadcastNotification;
+import com.carrent.domain.entity.BroadcastRoleCounter;
+import com.carrent.domain.entity.Notification;
+import com.carrent.domain.entity.NotificationCounter;
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.repository.BroadcastNotificationRepository;
+import com.carrent.domain.repository.BroadcastReadRepository;
+import com.carrent.domain.repository.BroadcastRoleCounterRepository;
+import com.carrent.domain.repository.NotificationCounterRepository;
+import com.carrent.domain.repository.NotificationRepository;
+import com.carrent.infrastructure.notification.NotificationStreamRegistry;
+import com.carrent.infrastructure.security.AuthenticationFacade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationCounterRepository notificationCounterRepository;
+
+    @Mock
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+
+    @Mock
+    private BroadcastReadRepository broadcastReadRepository;
+
+    @Mock
+    private BroadcastRoleCounterRepository broadcastRoleCounterRepository;
+
+    @Mock
+    private AuthenticationFacade authenticationFacade;
+
+    @Mock
+    private NotificationStreamRegistry streamRegistry;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).name("Maria").email("maria@carrent.com").role(Role.USER).build();
+        lenient().when(authenticationFacade.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void createNotification_ShouldUpsertCounter() {
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        notificationService.createNotification(user, "Aluguel confirmado", "Conteúdo");
+
+        verify(notificationCounterRepository).incrementUnread(1L);
+        verify(notificationCounterRepository, never()).findForUpdate(any());
+    }
+
+    @Test
+    void getUnreadNotificationsCount_ShouldSubtractBaseAndReadsFromBroadcastsSentToRole() {
+        NotificationCounter counter = NotificationCounter.create(1L);
+        counter.increment();
+        counter.increment();
+        counter.markBroadcastsRead(roleCounter(5, 0, 10));
+        counter.broadcastRead();
+        BroadcastRoleCounter sent = roleCounter(8, 0, 13);
+        when(notificationCounterRepository.findById(1L)).thenReturn(Optional.of(counter));
+        when(broadcastRoleCounterRepository.findById(Role.USER)).thenReturn(Optional.of(sent));
+
+        assertEquals(4, notificationService.getUnreadNotificationsCount());
+        verifyNoInteractions(broadcastNotificationRepository, broadcastReadRepository);
+        verify(notificationRepository, never()).countByUserIdAndIsRead(any(), anyBoolean());
+    }
+
+    @Test
+    void getUnreadNotificationsCount_WithPurgedBroadcastsAboveBase_ShouldNotCountThem() {
+        NotificationCounter counter = NotificationCounter.create(1L);
+        BroadcastRoleCounter sent = roleCounter(8, 6, 13);
+        when(notificationCounterRepository.findById(1L)).thenReturn(Optional.of(counter));
+        when(broadcastRoleCounterRepository.findById(Role.USER)).thenReturn(Optional.of(sent));
+
+        assertEquals(2, notificationService.getUnreadNotificationsCount());
+    }
+
+    @Test
+    void getUnreadNotificationsCount_WithoutCounter_ShouldCountDirectNotificationsOnly() {
+        when(notificationCounterRepository.findById(1L)).thenReturn(Optional.empty());
+        when(notificationRepository.countByUserIdAndIsRead(1L, false)).thenReturn(3L);
+
+        assertEquals(3, notificationService.getUnreadNotificationsCount());
+        verifyNoInteractions(broadcastRoleCounterRepository, broadcastNotificationRepository);
+    }
+
+    @Test
+    void createBroadcast_ShouldRecordItOnRecipientRoleCounters() {
+        BroadcastRoleCounter userCounter = roleCounter(4, 0, 8);
+        when(broadcastRoleCounterRepository.findForUpdateVisibleTo(Role.USER)).thenReturn(List.of(userCounter));
+        when(broadcastNotificationRepository.save(any(BroadcastNotification.class)))
+                .thenReturn(broadcast(9L, NOW));
+
+        notificationService.createBroadcast("Aviso", "Conteúdo", Role.USER);
+
+        verify(userCounter).recordSent(9L);
+    }
+
+    @Test
+    void markAllNotificationsAsRead_ShouldAdvanceWatermarkAndDropReadMarkers() {
+        NotificationCounter counter = NotificationCounter.create(1L);
+        counter.increment();
+        counter.increment();
+        BroadcastRoleCounter sent = roleCounter(4, 0, 7);
+        when(notificationRepository.markAllAsRead(1L)).thenReturn(2);
+        when(notificationCounterRepository.findForUpdate(1L)).thenReturn(Optional.of(counter));
+        when(broadcastRoleCounterRepository.findById(Role.USER)).thenReturn(Optional.of(sent));
+        when(broadcastReadRepository.countAbove(1L, 7L)).thenReturn(0L);
+
+        notificationService.markAllNotificationsAsRead();
+
+        assertEquals(0, counter.getUnreadCount());
+        assertEquals(7, counter.getBroadcastWatermark());
+        assertEquals(0, counter.unreadBroadcasts(sent));
+        verify(notificationCounterRepository).createIfAbsent(1L);
+        verify(notificationCounterRepository, never()).save(any());
+        verify(broadcastReadRepository).deleteUpTo(1L, 7L);
+    }
+
+    @Test
+    void changeRole_ShouldTreatBroadcastsAlreadySentToNewRoleAsRead() {
+        NotificationCounter counter = NotificationCounter.create(1L);
+        counter.markBroadcastsRead(roleCounter(3, 0, 9));
+        BroadcastRoleCounter admins = roleCounter(6, 0, 8);
+        when(notificationCounterRepository.findForUpdate(1L)).thenReturn(Optional.of(counter));
+        when(broadcastRoleCounterRepository.findById(Role.ADMIN)).thenReturn(Optional.of(admins));
+
+        notificationService.changeRole(1L, Role.ADMIN);
+
+        assertEquals(9, counter.getBroadcastWatermark());
+        assertEquals(0, counter.unreadBroadcasts(admins));
+        verify(broadcastReadRepository, never()).deleteUpTo(any(), anyLong());
+    }
+
+    @Test
+    void getUserNotificationsAfter_ShouldMergeSourcesAndContinueEachFromItsOwnPosition() {
+        when(notificationRepository.findInboxFirstPage(eq(1L), any())).thenReturn(List.of(
+                notification(20L, NOW), notification(19L, NOW.minusHours(2))));
+        when(broadcastNotificationRepository.findVisibleTo(eq(Role.USER), any())).thenReturn(List.of(
+                broadcast(5L, NOW.minusHours(1)), broadcast(4L, NOW.minusHours(3))));
+        when(broadcastReadRepository.findReadAmong(eq(1L), anyCollection())).thenReturn(List.of(5L));
+
+        CursorPageResponse<NotificationDTO> first = notificationService.getUserNotificationsAfter(null, 2);
+
+        assertEquals(List.of(20L, 5L), first.getContent().stream().map(NotificationDTO::getId).toList());
+        assertEquals(List.of(false, true), first.getContent().stream().map(NotificationDTO::getBroadcast).toList());
+        assertTrue(first.getContent().get(1).getIsRead());
+        assertTrue(first.isHasMore());
+
+        when(notificationRepository.findInboxPageAfter(eq(1L), eq(NOW), eq(20L), any())).thenReturn(List.of(
+                notification(19L, NOW.minusHours(2))));
+        when(broadcastNotificationRepository.findVisibleToAfter(eq(Role.USER), eq(NOW.minusHours(1)), eq(5L), any()))
+                .thenReturn(List.of(broadcast(4L, NOW.minusHours(3))));
+        when(broadcastReadRepository.findReadAmong(eq(1L), anyCollection())).thenReturn(List.of());
+
+        CursorPageResponse<NotificationDTO> second = notificationService.getUserNotificationsAfter(
+                first.getNextCursor(), 2);
+
+        assertEquals(List.of(19L, 4L), second.getContent().stream().map(NotificationDTO::getId).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getUserNotifications_ShouldReturnOnePageWithoutCounting() {
+        when(notificationRepository.findInboxFirstPage(eq(1L), any())).thenReturn(List.of(
+                notification(20L, NOW), notification(19L, NOW.minusHours(2)), notification(18L, NOW.minusHours(4))));
+        when(broadcastNotificationRepository.findVisibleTo(eq(Role.USER), any())).thenReturn(List.of(
+                broadcast(5L, NOW.minusHours(1)), broadcast(4L, NOW.minusHours(3))));
+        when(broadcastReadRepository.findReadAmong(eq(1L), anyCollection())).thenReturn(List.of());
+
+        PageResponse<NotificationDTO> second = notificationService.getUserNotifications(1, 2);
+
+        assertEquals(List.of(19L, 4L), second.getContent().stream().map(NotificationDTO::getId).toList());
+        assertFalse(second.isLast());
+        assertEquals(3, second.getTotalPages());
+        verify(notificationRepository).findInboxFirstPage(1L, PageRequest.of(0, 5));
+        verify(notificationRepository, never()).countByUserIdAndIsRead(anyLong(), anyBoolean());
+    }
+
+    private BroadcastRoleCounter roleCounter(long sent, long purged, long lastBroadcastId) {
+        BroadcastRoleCounter counter = mock(BroadcastRoleCounter.class);
+        lenient().when(counter.getSent()).thenReturn(sent);
+        lenient().when(counter.getPurged()).thenReturn(purged);
+        lenient().when(counter.getLastBroadcastId()).thenReturn(lastBroadcastId);
+        return counter;
+    }
+
+    private Notification notification(Long id, LocalDateTime createdAt) {
+        return Notification.builder().id(id).title("Direta").content("Conteúdo").user(user).createdAt(createdAt)
+                .build();
+    }
+
+    private BroadcastNotification broadcast(Long id, LocalDateTime createdAt) {
+        return BroadcastNotification.builder().id(id).title("Aviso").content("Conteúdo").createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.carrent.application.service;
+
+import com.carrent.domain.entity.RentalSnapshot;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.RentalView;
+import com.carrent.domain.repository.ArchivedRentalRepository;
+import com.carrent.domain.repository.RentalViewRepository;
+import com.carrent.infrastructure.archive.ArchiveProperties;
+import com.carrent.infrastructure.segment.SegmentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RentalHistoryServiceTest {
+
+    @Mock
+    private RentalViewRepository rentalViewRepository;
+
+    @Mock
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Mock
+    private SegmentStore segmentStore;
+
+    private RentalHistoryService rentalHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        rentalHistoryService = new RentalHistoryService(rentalViewRepository, archivedRentalRepository, segmentStore,
+                new ArchiveProperties());
+    }
+
+    @Test
+    void findByCustomerId_WithoutStart_ShouldReadOnlyLiveRentals() {
+        RentalView live = view(7L);
+        when(rentalViewRepository.findOverlappingByCustomerId(eq(1L), any(), any())).thenReturn(List.of(live));
+
+        List<RentalSnapshot> rentals = rentalHistoryService.findByCustomerId(1L, null, null);
+
+        assertEquals(List.of(7L), rentals.stream().map(RentalSnapshot::getId).toList());
+        verifyNoInteractions(archivedRentalRepository, segmentStore);
+    }
+
+    @Test
+    void findAll_WithStartAfterHorizon_ShouldNotReadArchive() {
+        LocalDateTime start = LocalDateTime.now().minusMonths(2);
+        RentalView live = view(7L);
+        when(rentalViewRepository.findOverlapping(eq(start), any())).thenReturn(List.of(live));
+
+        assertEquals(1, rentalHistoryService.findAll(start, null).size());
+        verifyNoInteractions(archivedRentalRepository, segmentStore);
+    }
+
+    @Test
+    void findByVehicleId_WithStartBeforeHorizon_ShouldMergeArchiveAndSegments() {
+        LocalDateTime start = LocalDateTime.now().minusYears(3);
+        LocalDateTime end = start.plusMonths(1);
+        when(rentalViewRepository.findOverlappingByVehicleId(2L, start, end)).thenReturn(List.of());
+        when(archivedRentalRepository.findOverlappingByVehicleId(2L, start, end)).thenReturn(List.of());
+        when(segmentStore.scan(any())).thenReturn(List.of());
+
+        rentalHistoryService.findByVehicleId(2L, start, end);
+
+        verify(archivedRentalRepository).findOverlappingByVehicleId(2L, start, end);
+        verify(segmentStore).scan(any());
+    }
+
+    @Test
+    void findByStatus_ClosedWithoutStart_ShouldReadOnlyLiveRentals() {
+        when(rentalViewRepository.findOverlappingByStatus(eq(RentalStatus.COMPLETED), any(), any()))
+                .thenReturn(List.of());
+
+        rentalHistoryService.findByStatus(RentalStatus.COMPLETED, null, null);
+
+        verifyNoInteractions(archivedRentalRepository, segmentStore);
+    }
+
+    @Test
+    void findByStatus_ClosedWithStartBeforeHorizon_ShouldMergeArchiveAndSegments() {
+        LocalDateTime start = LocalDateTime.now().minusYears(3);
+        LocalDateTime end = start.plusMonths(1);
+        RentalView live = view(7L);
+        when(rentalViewRepository.findOverlappingByStatus(RentalStatus.COMPLETED, start, end))
+                .thenReturn(List.of(live));
+        when(archivedRentalRepository.findOverlappingByStatus(RentalStatus.COMPLETED, start, end))
+                .thenReturn(List.of());
+        when(segmentStore.scan(any())).thenReturn(List.of());
+
+        assertEquals(1, rentalHistoryService.findByStatus(RentalStatus.COMPLETED, start, end).size());
+        verify(segmentStore).scan(any());
+    }
+
+    private RentalView view(Long id) {
+        RentalView view = mock(RentalView.class);
+        lenient().when(view.getId()).thenReturn(id);
+        return view;
+    }
+}
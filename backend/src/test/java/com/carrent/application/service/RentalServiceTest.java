@@ -13,7 +13,8 @@ import com.carrent.domain.exception.VehicleNotAvailableException;
 import com.carrent.domain.repository.CustomerRepository;
 import com.carrent.domain.repository.RentalRepository;
 import com.carrent.domain.repository.VehicleRepository;
-import com.carrent.infrastructure.metrics.CustomMetricsService;
+import com.carrent.infrastructure.hold.VehicleHoldRegistry;
+import com.carrent.infrastructure.security.AuthenticationFacade;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -46,7 +47,10 @@ class RentalServiceTest {
     private RentalMapper rentalMapper;
 
     @Mock
-    private CustomMetricsService metricsService;
+    private VehicleHoldRegistry vehicleHoldRegistry;
+
+    @Mock
+    private AuthenticationFacade authenticationFacade;
 
     @InjectMocks
     private RentalService rentalService;
@@ -237,7 +241,6 @@ class RentalServiceTest {
                 any(BigDecimal.class),
                 eq(1L));
         verify(vehicleRepository).updateStatus(any(VehicleStatus.class), eq(true), eq(1L));
-        verify(metricsService).decrementActiveRentals();
     }
 
     @Test
@@ -0,0 +1,129 @@
+package com.carrent.application.service;
+
+import com.carrent.application.dto.ChangeFeedResponse;
+import com.carrent.application.dto.VehicleDTO;
+import com.carrent.application.mapper.CustomerMapper;
+import com.carrent.application.mapper.RentalMapper;
+import com.carrent.application.mapper.VehicleMapper;
+import com.carrent.domain.entity.SyncEntityType;
+import com.carrent.domain.entity.SyncTombstone;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.repository.CustomerRepository;
+import com.carrent.domain.repository.RentalRepository;
+import com.carrent.domain.repository.SyncTombstoneRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.sync.SyncProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private RentalMapper rentalMapper;
+
+    @Mock
+    private VehicleMapper vehicleMapper;
+
+    @Mock
+    private CustomerMapper customerMapper;
+
+    private SyncProperties properties;
+    private SyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SyncProperties();
+        properties.setMaxPageSize(2);
+        syncService = new SyncService(rentalRepository, vehicleRepository, customerRepository,
+                syncTombstoneRepository, rentalMapper, vehicleMapper, customerMapper, properties);
+    }
+
+    @Test
+    void vehicleChanges_WithoutToken_ShouldStartFromOriginAndSkipOldTombstones() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(syncTombstoneRepository.findLastRecordedBefore(any())).thenReturn(7L);
+        when(vehicleRepository.findChangedSince(eq(ORIGIN), eq(0L), any(), any(Pageable.class)))
+                .thenReturn(List.of(vehicle(3L, updatedAt)));
+        when(vehicleMapper.toDTO(any(Vehicle.class))).thenReturn(new VehicleDTO());
+
+        ChangeFeedResponse<VehicleDTO> response = syncService.vehicleChanges(null, null);
+
+        assertTrue(response.isReset());
+        assertFalse(response.isHasMore());
+        assertEquals(1, response.getChanged().size());
+        assertTrue(response.getDeleted().isEmpty());
+        verify(syncTombstoneRepository, never()).findRecordedSince(any(), anyLong(), any(), any());
+
+        // A próxima chamada continua depois da última linha e do último tombstone
+        when(vehicleRepository.findChangedSince(eq(updatedAt), eq(3L), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        SyncTombstone tombstone = tombstone(8L, 5L);
+        when(syncTombstoneRepository.findRecordedSince(eq(SyncEntityType.VEHICLE), eq(7L), any(), any()))
+                .thenReturn(List.of(tombstone));
+
+        ChangeFeedResponse<VehicleDTO> next = syncService.vehicleChanges(response.getToken(), null);
+
+        assertFalse(next.isReset());
+        assertEquals(List.of(5L), next.getDeleted());
+        assertNotEquals(response.getToken(), next.getToken());
+    }
+
+    @Test
+    void vehicleChanges_WithFullPage_ShouldClampLimitAndReportMore() {
+        when(vehicleRepository.findChangedSince(any(), any(), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(vehicle(1L, LocalDateTime.now().minusHours(1)),
+                        vehicle(2L, LocalDateTime.now().minusHours(1))));
+
+        ChangeFeedResponse<VehicleDTO> response = syncService.vehicleChanges(null, 1000);
+
+        assertTrue(response.isHasMore());
+    }
+
+    @Test
+    void vehicleChanges_WithInvalidTokenOrLimit_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> syncService.vehicleChanges("não é um token", null));
+        assertThrows(IllegalArgumentException.class, () -> syncService.vehicleChanges(null, 0));
+    }
+
+    private Vehicle vehicle(Long id, LocalDateTime updatedAt) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setUpdatedAt(updatedAt);
+        return vehicle;
+    }
+
+    private SyncTombstone tombstone(Long id, Long entityId) {
+        SyncTombstone tombstone = mock(SyncTombstone.class);
+        when(tombstone.getId()).thenReturn(id);
+        when(tombstone.getEntityId()).thenReturn(entityId);
+        return tombstone;
+    }
+}
@@ -0,0 +1,64 @@
+package com.carrent.application.service.admin;
+
+import com.carrent.application.dto.admin.NotificationRequest;
+import com.carrent.application.dto.admin.NotificationRequest.NotificationType;
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.infrastructure.notification.SystemNotificationService;
+import com.carrent.infrastructure.notification.delivery.NotificationDispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminUserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SystemNotificationService systemNotificationService;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @InjectMocks
+    private AdminUserService adminUserService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).name("Maria").email("maria@carrent.com").role(Role.USER).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void notifyUser_System_ShouldWriteInAppNotificationWithoutTheDispatcher() {
+        adminUserService.notifyUser(1L, request(NotificationType.SYSTEM));
+
+        verify(systemNotificationService).sendSystemNotification(user, "Aviso", "Conteúdo");
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    @Test
+    void notifyUser_Email_ShouldQueueOnTheChannel() {
+        adminUserService.notifyUser(1L, request(NotificationType.EMAIL));
+
+        verify(notificationDispatcher).dispatch("email", user, "Aviso", "Conteúdo");
+        verify(systemNotificationService, never()).sendSystemNotification(any(), any(), any());
+    }
+
+    private NotificationRequest request(NotificationType type) {
+        return NotificationRequest.builder().title("Aviso").content("Conteúdo").type(type).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.NotificationCounter;
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.entity.User;
+import com.carrent.infrastructure.config.JpaConfig;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Os upserts usam ON DUPLICATE KEY UPDATE: o H2 roda em modo MySQL
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:counters;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationCounterRepositoryTest {
+
+    @Autowired
+    private NotificationCounterRepository notificationCounterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        notificationCounterRepository.deleteAll();
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void incrementUnread_ShouldEvictOnlyTheUsersCacheEntry() {
+        Long maria = user("maria@carrent.com");
+        Long joao = user("joao@carrent.com");
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            notificationCounterRepository.createIfAbsent(maria);
+            notificationCounterRepository.createIfAbsent(joao);
+        });
+        notificationCounterRepository.findById(maria);
+        notificationCounterRepository.findById(joao);
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(NotificationCounter.class, maria));
+        assertTrue(cache.contains(NotificationCounter.class, joao));
+
+        tx.executeWithoutResult(status -> notificationCounterRepository.incrementUnread(maria));
+
+        assertFalse(cache.contains(NotificationCounter.class, maria));
+        assertTrue(cache.contains(NotificationCounter.class, joao));
+        assertEquals(1, notificationCounterRepository.findById(maria).orElseThrow().getUnreadCount());
+        assertEquals(0, notificationCounterRepository.findById(joao).orElseThrow().getUnreadCount());
+    }
+
+    @Test
+    void incrementUnread_WithoutCounter_ShouldCreateIt() {
+        Long maria = user("maria@carrent.com");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationCounterRepository.incrementUnread(maria);
+            notificationCounterRepository.incrementUnread(maria);
+        });
+
+        // A linha criada conta as não lidas da tabela (nenhuma); o segundo incremento soma uma
+        assertEquals(1, notificationCounterRepository.findById(maria).orElseThrow().getUnreadCount());
+    }
+
+    private Long user(String email) {
+        return userRepository.save(User.builder().name("Usuário").email(email).password("x").role(Role.USER)
+                .build()).getId();
+    }
+}
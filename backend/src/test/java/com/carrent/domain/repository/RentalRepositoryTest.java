@@ -0,0 +1,98 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.infrastructure.config.JpaConfig;
+import com.carrent.mocks.RentalFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+class RentalRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 10, 0);
+    private static final LocalDateTime END = START.plusDays(3);
+    private static final List<RentalStatus> ACTIVE = List.of(RentalStatus.PENDING, RentalStatus.IN_PROGRESS);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    private Customer customer;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        customer = entityManager.persist(RentalFixtures.customer());
+        vehicle = entityManager.persist(RentalFixtures.vehicle());
+    }
+
+    @Test
+    void hasOverlappingRentals_WithNullExcludeId_ShouldDetectConflict() {
+        persistRental(START, END, RentalStatus.PENDING);
+
+        assertTrue(rentalRepository.hasOverlappingRentals(vehicle.getId(), START.plusDays(1), END.plusDays(1),
+                null, ACTIVE));
+    }
+
+    @Test
+    void hasOverlappingRentals_WithBackToBackRentals_ShouldNotConflict() {
+        persistRental(START, END, RentalStatus.IN_PROGRESS);
+
+        assertFalse(rentalRepository.hasOverlappingRentals(vehicle.getId(), END, END.plusDays(2), null, ACTIVE));
+        assertFalse(rentalRepository.hasOverlappingRentals(vehicle.getId(), START.minusDays(2), START, null,
+                ACTIVE));
+    }
+
+    @Test
+    void hasOverlappingRentals_WithTrueOverlap_ShouldConflict() {
+        persistRental(START, END, RentalStatus.IN_PROGRESS);
+
+        assertTrue(rentalRepository.hasOverlappingRentals(vehicle.getId(), END.minusHours(1), END.plusDays(2),
+                null, ACTIVE));
+        assertTrue(rentalRepository.hasOverlappingRentals(vehicle.getId(), START.minusDays(1), END.plusDays(1),
+                null, ACTIVE));
+        assertTrue(rentalRepository.hasOverlappingRentals(vehicle.getId(), START.plusHours(1), END.minusHours(1),
+                null, ACTIVE));
+    }
+
+    @Test
+    void hasOverlappingRentals_WithInactiveRental_ShouldNotConflict() {
+        persistRental(START, END, RentalStatus.CANCELLED);
+
+        assertFalse(rentalRepository.hasOverlappingRentals(vehicle.getId(), START, END, null, ACTIVE));
+    }
+
+    @Test
+    void hasOverlappingRentals_OnExtend_ShouldExcludeOwnRental() {
+        Rental own = persistRental(START, END, RentalStatus.IN_PROGRESS);
+
+        assertFalse(rentalRepository.hasOverlappingRentals(vehicle.getId(), START, END.plusDays(2), own.getId(),
+                ACTIVE));
+
+        persistRental(END.plusDays(1), END.plusDays(4), RentalStatus.PENDING);
+
+        assertTrue(rentalRepository.hasOverlappingRentals(vehicle.getId(), START, END.plusDays(2), own.getId(),
+                ACTIVE));
+    }
+
+    private Rental persistRental(LocalDateTime start, LocalDateTime end, RentalStatus status) {
+        return entityManager.persistFlushFind(RentalFixtures.rental(customer, vehicle, status, start, end));
+    }
+}
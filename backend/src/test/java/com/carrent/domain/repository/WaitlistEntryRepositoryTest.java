@@ -0,0 +1,64 @@
+package com.carrent.domain.repository;
+
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.WaitlistEntry;
+import com.carrent.domain.entity.WaitlistStatus;
+import com.carrent.infrastructure.config.JpaConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+class WaitlistEntryRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 10, 0);
+    private static final LocalDateTime END = START.plusDays(5);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Test
+    void findWaitingWithin_ShouldReturnWaitingEntriesInsideWindowByPriorityThenArrival() {
+        Long low = persist(VehicleCategory.SUV, START, START.plusDays(2), 0, WaitlistStatus.WAITING);
+        Long high = persist(VehicleCategory.SUV, START.plusDays(1), START.plusDays(3), 5, WaitlistStatus.WAITING);
+        Long tie = persist(VehicleCategory.SUV, START.plusDays(3), END, 0, WaitlistStatus.WAITING);
+        persist(VehicleCategory.SUV, START.minusDays(1), START.plusDays(1), 9, WaitlistStatus.WAITING);
+        persist(VehicleCategory.SUV, START.plusDays(4), END.plusDays(1), 9, WaitlistStatus.WAITING);
+        persist(VehicleCategory.LUXURY, START, START.plusDays(2), 9, WaitlistStatus.WAITING);
+        persist(VehicleCategory.SUV, START, START.plusDays(2), 9, WaitlistStatus.FULFILLED);
+
+        assertEquals(List.of(high, low, tie), waitlistEntryRepository
+                .findWaitingWithin(VehicleCategory.SUV, START, END, PageRequest.of(0, 10)).stream()
+                .map(WaitlistEntry::getId).toList());
+        assertEquals(List.of(high, low), waitlistEntryRepository
+                .findWaitingWithin(VehicleCategory.SUV, START, END, PageRequest.of(0, 2)).stream()
+                .map(WaitlistEntry::getId).toList());
+    }
+
+    private Long persist(VehicleCategory category, LocalDateTime startDate, LocalDateTime endDate, int priority,
+            WaitlistStatus status) {
+        return entityManager.persist(WaitlistEntry.builder()
+                .customerId(1L)
+                .userId(1L)
+                .category(category)
+                .startDate(startDate)
+                .endDate(endDate)
+                .priority(priority)
+                .status(status)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,108 @@
+package com.carrent.infrastructure.archive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalArchiverTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ArchiveProperties properties;
+    private RentalArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE customers (id BIGINT PRIMARY KEY, name VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE vehicles (id BIGINT PRIMARY KEY, brand VARCHAR(50), model VARCHAR(50), "
+                + "plate VARCHAR(20), category VARCHAR(20), daily_rate DECIMAL(38,2))");
+        jdbcTemplate.execute("CREATE TABLE rentals (id BIGINT PRIMARY KEY, customer_id BIGINT, vehicle_id BIGINT, "
+                + "start_date TIMESTAMP, end_date TIMESTAMP, actual_return_date TIMESTAMP, status VARCHAR(20), "
+                + "total_amount DECIMAL(38,2), original_total_amount DECIMAL(38,2), "
+                + "early_termination_fee DECIMAL(38,2), ended_early BOOLEAN, notes VARCHAR(1000), "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE rental_view (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE sync_tombstones (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "entity_type VARCHAR(20), entity_id BIGINT, deleted_at TIMESTAMP(6))");
+        jdbcTemplate.execute("CREATE TABLE rentals_archive (id BIGINT PRIMARY KEY, customer_id BIGINT, "
+                + "customer_name VARCHAR(100), vehicle_id BIGINT, vehicle_brand VARCHAR(50), "
+                + "vehicle_model VARCHAR(50), vehicle_plate VARCHAR(20), vehicle_category VARCHAR(20), "
+                + "vehicle_daily_rate DECIMAL(38,2), start_date TIMESTAMP, end_date TIMESTAMP, "
+                + "actual_return_date TIMESTAMP, status VARCHAR(20), total_amount DECIMAL(38,2), "
+                + "original_total_amount DECIMAL(38,2), early_termination_fee DECIMAL(38,2), ended_early BOOLEAN, "
+                + "notes VARCHAR(1000), created_at TIMESTAMP, updated_at TIMESTAMP, archived_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO customers VALUES (1, 'Maria Silva')");
+        jdbcTemplate.update("INSERT INTO vehicles VALUES (1, 'Toyota', 'Corolla', 'ABC1234', 'STANDARD', 150.00)");
+
+        properties = new ArchiveProperties();
+        properties.setRetentionMonths(12);
+        properties.setBatchSize(2);
+        archiver = new RentalArchiver(jdbcTemplate, new DataSourceTransactionManager(dataSource), properties,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void archive_ShouldMoveOnlyClosedRentalsOlderThanRetentionInBatches() {
+        LocalDateTime old = LocalDateTime.now().minusMonths(18);
+        insertRental(1L, "COMPLETED", old);
+        insertRental(2L, "CANCELLED", old);
+        insertRental(3L, "EARLY_TERMINATED", old);
+        insertRental(4L, "IN_PROGRESS", old);
+        insertRental(5L, "COMPLETED", LocalDateTime.now().minusMonths(2));
+
+        archiver.archive();
+
+        assertEquals(List.of(1L, 2L, 3L), ids("rentals_archive"));
+        assertEquals(List.of(4L, 5L), ids("rentals"));
+        assertEquals(List.of(4L, 5L), ids("rental_view"));
+    }
+
+    @Test
+    void archiveBatch_ShouldRecordTombstonesForSyncFeed() {
+        insertRental(1L, "COMPLETED", LocalDateTime.now().minusMonths(18));
+        insertRental(2L, "COMPLETED", LocalDateTime.now().minusMonths(2));
+
+        archiver.archiveBatch(properties.horizon());
+
+        assertEquals(List.of(1L), jdbcTemplate.queryForList(
+                "SELECT entity_id FROM sync_tombstones WHERE entity_type = 'RENTAL'", Long.class));
+    }
+
+    @Test
+    void archiveBatch_ShouldCopyCustomerAndVehicleData() {
+        insertRental(1L, "COMPLETED", LocalDateTime.now().minusMonths(18));
+
+        assertEquals(1, archiver.archiveBatch(properties.horizon()));
+
+        assertEquals("Maria Silva|ABC1234|STANDARD", jdbcTemplate.queryForObject(
+                "SELECT customer_name || '|' || vehicle_plate || '|' || vehicle_category FROM rentals_archive",
+                String.class));
+        assertEquals(0, archiver.archiveBatch(properties.horizon()));
+    }
+
+    private void insertRental(Long id, String status, LocalDateTime start) {
+        jdbcTemplate.update("INSERT INTO rentals (id, customer_id, vehicle_id, start_date, end_date, status, "
+                + "total_amount) VALUES (?, 1, 1, ?, ?, ?, 450.00)", id, start, start.plusDays(3), status);
+        jdbcTemplate.update("INSERT INTO rental_view VALUES (?)", id);
+    }
+
+    private List<Long> ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.carrent.infrastructure.aspect;
+
+import com.carrent.infrastructure.annotation.SingleFlight;
+import com.carrent.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private SlowService target;
+    private SlowService proxy;
+    private volatile boolean sticky;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = new SlowService();
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(0) {
+            @Override
+            public boolean isSticky() {
+                return sticky;
+            }
+        };
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new SingleFlightAspect(registry, tracker));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void concurrentIdenticalCalls_ShouldShareOneExecution() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> new Thread(runnable, "single-flight-test"));
+        try {
+            Future<String> first = executor.submit(() -> proxy.compute("a"));
+            assertTrue(target.started.await(1, TimeUnit.SECONDS));
+
+            Future<String> second = executor.submit(() -> proxy.compute("a"));
+            Future<String> third = executor.submit(() -> proxy.compute("a"));
+            awaitWaitingThreads(3);
+            target.release.countDown();
+
+            assertEquals("a-1", first.get(1, TimeUnit.SECONDS));
+            assertEquals("a-1", second.get(1, TimeUnit.SECONDS));
+            assertEquals("a-1", third.get(1, TimeUnit.SECONDS));
+            assertEquals(1, target.executions.get());
+            assertEquals(2.0, registry.get("carrent.singleflight.calls").tag("result", "shared").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void callsWithDifferentArguments_ShouldNotBeShared() {
+        target.release.countDown();
+
+        assertEquals("a-1", proxy.compute("a"));
+        assertEquals("b-2", proxy.compute("b"));
+        assertEquals(2, target.executions.get());
+    }
+
+    @Test
+    void callerReadingItsOwnWrites_ShouldNotJoinTheFlightInProgress() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "single-flight-test"));
+        try {
+            Future<String> leader = executor.submit(() -> proxy.compute("a"));
+            assertTrue(target.started.await(1, TimeUnit.SECONDS));
+
+            sticky = true;
+            target.release.countDown();
+            String own = proxy.compute("a");
+
+            assertEquals("a-1", leader.get(1, TimeUnit.SECONDS));
+            assertEquals("a-2", own);
+            assertEquals(1.0, registry.get("carrent.singleflight.calls").tag("result", "sticky").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitWaitingThreads(int expected) throws InterruptedException {
+        // O líder aguarda a liberação e os seguidores aguardam o futuro do líder
+        long deadline = System.currentTimeMillis() + 1000;
+        while (System.currentTimeMillis() < deadline
+                && Thread.getAllStackTraces().keySet().stream()
+                        .filter(t -> "single-flight-test".equals(t.getName())
+                                && t.getState() == Thread.State.TIMED_WAITING)
+                        .count() < expected) {
+            Thread.sleep(10);
+        }
+    }
+
+    public static class SlowService {
+
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @SingleFlight(timeoutMs = 2000)
+        public String compute(String key) {
+            int execution = executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return key + "-" + execution;
+        }
+    }
+}
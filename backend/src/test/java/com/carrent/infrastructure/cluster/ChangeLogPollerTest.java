@@ -0,0 +1,151 @@
+package com.carrent.infrastructure.cluster;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogPollerTest {
+
+    private static final String VEHICLE = "com.carrent.domain.entity.Vehicle";
+
+    private JdbcTemplate jdbcTemplate;
+    private ClusterProperties properties;
+    private RecordingListener listener;
+    private ChangeLogPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:change_log;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE cluster_change_log (id BIGINT PRIMARY KEY, node_id VARCHAR(64), "
+                + "entity_type VARCHAR(150), entity_id BIGINT, created_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3))");
+
+        properties = new ClusterProperties();
+        properties.setNodeId("local");
+        properties.setGapTimeoutMs(60_000);
+        listener = new RecordingListener();
+        poller = new ChangeLogPoller(jdbcTemplate, List.of(listener), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void poll_ShouldStartAfterExistingChanges() {
+        insert(1, "remote", 10);
+        poller.poll();
+        poller.poll();
+
+        assertEquals(1, poller.getLastSequence());
+        assertTrue(listener.changes.isEmpty());
+    }
+
+    @Test
+    void poll_ShouldDeliverRemoteChangesAndSkipOwn() {
+        poller.poll();
+        insert(1, "remote", 10);
+        insert(2, "local", 11);
+        insert(3, "remote", 12);
+
+        poller.poll();
+
+        assertEquals(3, poller.getLastSequence());
+        assertEquals(List.of(10L, 12L), listener.changes.stream().map(EntityChange::entityId).toList());
+        assertEquals(0, listener.resets);
+    }
+
+    @Test
+    void poll_WithGap_ShouldContinueAndDeliverLateChange() {
+        poller.poll();
+        insert(1, "remote", 10);
+        insert(3, "remote", 12);
+
+        poller.poll();
+        assertEquals(3, poller.getLastSequence());
+        assertEquals(List.of(10L, 12L), listener.changes.stream().map(EntityChange::entityId).toList());
+        assertEquals(1, poller.getPendingGaps());
+
+        // A transação da sequência 2 confirma dentro do prazo
+        insert(2, "remote", 11);
+        insert(4, "remote", 13);
+        poller.poll();
+        assertEquals(4, poller.getLastSequence());
+        assertEquals(List.of(10L, 12L, 11L, 13L), listener.changes.stream().map(EntityChange::entityId).toList());
+        assertEquals(0, poller.getPendingGaps());
+        assertEquals(0, listener.resets);
+    }
+
+    @Test
+    void poll_WithRolledBackSequence_ShouldForgetItWithoutReset() {
+        poller.poll();
+        insert(1, "remote", 10);
+        insert(3, "remote", 12);
+        poller.poll();
+
+        properties.setGapTimeoutMs(0);
+        poller.poll();
+
+        assertEquals(0, poller.getPendingGaps());
+        assertEquals(0, listener.resets);
+
+        // Se aparecer depois do prazo, a alteração não é mais procurada
+        insert(2, "remote", 11);
+        poller.poll();
+        assertEquals(List.of(10L, 12L), listener.changes.stream().map(EntityChange::entityId).toList());
+    }
+
+    @Test
+    void poll_AfterRetentionWithoutReading_ShouldReset() {
+        poller.poll();
+        insert(1, "remote", 10);
+
+        properties.setRetentionMinutes(0);
+        poller.poll();
+
+        assertEquals(List.of(10L), listener.changes.stream().map(EntityChange::entityId).toList());
+        assertEquals(1, listener.resets);
+    }
+
+    @Test
+    void poll_WithTooManyPendingGaps_ShouldReset() {
+        properties.setMaxPendingGaps(2);
+        poller.poll();
+        insert(5, "remote", 10);
+
+        poller.poll();
+
+        assertEquals(5, poller.getLastSequence());
+        assertEquals(0, poller.getPendingGaps());
+        assertEquals(1, listener.resets);
+    }
+
+    private void insert(long id, String nodeId, long entityId) {
+        jdbcTemplate.update("INSERT INTO cluster_change_log (id, node_id, entity_type, entity_id) VALUES (?, ?, ?, ?)",
+                id, nodeId, VEHICLE, entityId);
+    }
+
+    private static class RecordingListener implements ClusterChangeListener {
+        private final List<EntityChange> changes = new ArrayList<>();
+        private int resets;
+
+        @Override
+        public void onChanges(List<EntityChange> batch) {
+            changes.addAll(batch);
+        }
+
+        @Override
+        public void onReset() {
+            resets++;
+        }
+    }
+}
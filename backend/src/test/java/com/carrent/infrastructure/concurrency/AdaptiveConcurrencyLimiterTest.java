@@ -0,0 +1,88 @@
+package com.carrent.infrastructure.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquire_ShouldShedLowPriorityBeforeNormal() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 0.2, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.LOW));
+        }
+
+        assertFalse(limiter.tryAcquire(RequestPriority.LOW));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+    }
+
+    @Test
+    void tryAcquire_ShouldAdmitCriticalUpToMaxLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 6, 0.2, 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        }
+
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+    }
+
+    @Test
+    void release_WithRisingLatency_ShouldDecreaseLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 0.5, 0.5);
+
+        saturate(limiter, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        int stableLimit = limiter.getLimit();
+
+        saturate(limiter, 1, TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertTrue(limiter.getLimit() < stableLimit);
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    @Test
+    void release_WhenDropped_ShouldDecreaseLimitMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 0.2, 0.5);
+
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        limiter.release(RequestPriority.NORMAL, TimeUnit.SECONDS.toNanos(30), true);
+
+        assertEquals(45, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_WithSlowLowPriorityRequests_ShouldNotDecreaseLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 0.5, 1.0);
+
+        saturate(limiter, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        int stableLimit = limiter.getLimit();
+
+        saturate(limiter, RequestPriority.LOW, 5, TimeUnit.SECONDS.toNanos(20));
+
+        assertEquals(stableLimit, limiter.getLimit());
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, int samples, long rttNanos) {
+        saturate(limiter, RequestPriority.NORMAL, samples, rttNanos);
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, RequestPriority priority, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            int admitted = 0;
+            while (limiter.tryAcquire(priority)) {
+                admitted++;
+            }
+            for (int j = 0; j < admitted; j++) {
+                limiter.release(priority, rttNanos, false);
+            }
+        }
+    }
+}
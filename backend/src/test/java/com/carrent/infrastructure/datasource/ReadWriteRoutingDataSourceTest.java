@@ -0,0 +1,134 @@
+package com.carrent.infrastructure.datasource;
+
+import com.carrent.infrastructure.workload.Workload;
+import com.carrent.infrastructure.workload.WorkloadContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Usa dois bancos H2 em memória, cada um identificado pelo conteúdo da tabela
+ * "origin", para verificar para onde cada transação é direcionada.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaTarget replicaTarget;
+    private ReplicaHealthMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        primary = embeddedDatabase("primary");
+        replica = embeddedDatabase("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds INT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+
+        replicaTarget = new ReplicaTarget("replica-0", replica, replica, "SELECT seconds FROM replica_lag");
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, primary,
+                List.of(replicaTarget), tracker);
+        routing.afterPropertiesSet();
+        monitor = new ReplicaHealthMonitor(routing, tracker, 5, new SimpleMeterRegistry());
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        WorkloadContext.clear();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransaction_WithHealthyReplica_ShouldUseReplica() {
+        monitor.checkReplicas();
+
+        assertEquals("replica", readOrigin(readOnlyTx));
+        assertEquals("primary", readOrigin(writeTx));
+    }
+
+    @Test
+    void readOnlyTransaction_BeforeFirstHealthCheck_ShouldUsePrimary() {
+        assertFalse(replicaTarget.isHealthy());
+        assertEquals("primary", readOrigin(readOnlyTx));
+    }
+
+    @Test
+    void readOnlyTransaction_WithLaggingReplica_ShouldFallBackToPrimary() {
+        monitor.checkReplicas();
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        monitor.checkReplicas();
+
+        assertFalse(replicaTarget.isHealthy());
+        assertEquals(30.0, replicaTarget.getLagSeconds());
+        assertEquals("primary", readOrigin(readOnlyTx));
+    }
+
+    @Test
+    void readOnlyTransaction_AfterOwnWrite_ShouldStickToPrimary() {
+        monitor.checkReplicas();
+        authenticate("writer@carrent.com");
+
+        writeTx.executeWithoutResult(status -> jdbcTemplate.update("UPDATE origin SET name = name"));
+
+        assertEquals("primary", readOrigin(readOnlyTx));
+
+        authenticate("other@carrent.com");
+        assertEquals("replica", readOrigin(readOnlyTx));
+    }
+
+    @Test
+    void analyticsTask_ShouldFollowReplicaHealth() {
+        WorkloadContext.set(Workload.ANALYTICS);
+        assertEquals("primary", readOrigin(readOnlyTx));
+
+        monitor.checkReplicas();
+        assertEquals("replica", readOrigin(readOnlyTx));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        monitor.checkReplicas();
+        assertEquals("primary", readOrigin(readOnlyTx));
+    }
+
+    private String readOrigin(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM origin", String.class));
+    }
+
+    private void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, AuthorityUtils.createAuthorityList("USER")));
+    }
+
+    private DriverManagerDataSource embeddedDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE origin (name VARCHAR(20))");
+        template.update("INSERT INTO origin VALUES (?)", name);
+        return dataSource;
+    }
+}
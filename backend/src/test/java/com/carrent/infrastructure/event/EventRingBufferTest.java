@@ -0,0 +1,89 @@
+package com.carrent.infrastructure.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRingBufferTest {
+
+    @Test
+    void publish_WithConcurrentProducers_ShouldDeliverEveryEventInBatches() throws Exception {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(64, TimeUnit.SECONDS.toNanos(5));
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        EventRingBuffer<Integer>.Subscriber subscriber = buffer.subscribe("test", BackpressurePolicy.WAIT, 16,
+                batch -> {
+                    batchSizes.add(batch.size());
+                    received.addAll(batch);
+                });
+        buffer.start();
+
+        int producers = 4;
+        int perProducer = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    assertTrue(buffer.publish(base + i));
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        buffer.stop();
+
+        assertEquals(producers * perProducer, received.size());
+        assertEquals(producers * perProducer, received.stream().distinct().count());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 16));
+        assertEquals(0, subscriber.getLag());
+    }
+
+    @Test
+    void publish_WhenWaitingConsumerIsFull_ShouldReject() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(4, 0);
+        List<Integer> received = new ArrayList<>();
+        EventRingBuffer<Integer>.Subscriber subscriber = buffer.subscribe("slow", BackpressurePolicy.WAIT, 2,
+                received::addAll);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.publish(i));
+        }
+        assertFalse(buffer.publish(4));
+        assertEquals(4, subscriber.getLag());
+
+        assertTrue(subscriber.drainBatch());
+        assertTrue(buffer.publish(4));
+        while (subscriber.drainBatch()) {
+            // consome o restante
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), received);
+    }
+
+    @Test
+    void publish_WhenSkippingConsumerIsLapped_ShouldSkipToOldestAvailable() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(4, 0);
+        List<Integer> received = new ArrayList<>();
+        EventRingBuffer<Integer>.Subscriber subscriber = buffer.subscribe("lossy", BackpressurePolicy.SKIP, 8,
+                received::addAll);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(buffer.publish(i));
+        }
+        subscriber.drainBatch();
+
+        assertEquals(List.of(6, 7, 8, 9), received);
+        assertEquals(6, subscriber.getSkipped());
+        assertEquals(0, subscriber.getLag());
+    }
+}
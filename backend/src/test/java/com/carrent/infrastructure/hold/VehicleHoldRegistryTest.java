@@ -0,0 +1,259 @@
+package com.carrent.infrastructure.hold;
+
+import com.carrent.domain.exception.ResourceNotFoundException;
+import com.carrent.domain.exception.VehicleNotAvailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Duas instâncias do registro sobre o mesmo banco fazem o papel de dois nós,
+ * com o relógio compartilhado avançado manualmente
+ */
+class VehicleHoldRegistryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 10, 0);
+    private static final LocalDateTime END = START.plusDays(3);
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private HoldProperties properties;
+    private MutableClock clock;
+    private VehicleHoldRegistry registry;
+    private VehicleHoldRegistry otherNode;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:holds;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE vehicles (id BIGINT PRIMARY KEY, plate VARCHAR(10))");
+        jdbcTemplate.execute("CREATE TABLE vehicle_holds (id CHAR(36) PRIMARY KEY, vehicle_id BIGINT NOT NULL, "
+                + "holder_id BIGINT NOT NULL, start_date TIMESTAMP(6) NOT NULL, end_date TIMESTAMP(6) NOT NULL, "
+                + "expires_at TIMESTAMP(6) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+        for (long user : new long[] { 10, 20, 30 }) {
+            jdbcTemplate.update("INSERT INTO users (id) VALUES (?)", user);
+        }
+        for (long vehicle = 1; vehicle <= 8; vehicle++) {
+            jdbcTemplate.update("INSERT INTO vehicles (id, plate) VALUES (?, ?)", vehicle, "ABC000" + vehicle);
+        }
+
+        properties = new HoldProperties();
+        properties.setMaxHoldsPerUser(2);
+        clock = new MutableClock(Instant.parse("2030-01-01T12:00:00Z"));
+        registry = newNode();
+        otherNode = newNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void place_WithOverlappingHoldOfOtherUser_ShouldThrowException() {
+        registry.place(1L, "ABC0001", 10L, START, END, 10);
+
+        assertThrows(VehicleNotAvailableException.class,
+                () -> registry.place(1L, "ABC0001", 20L, START.plusDays(1), END.plusDays(1), 10));
+        assertTrue(registry.isHeldByOthers(1L, START, END, 20L));
+        assertTrue(registry.isHeldByOthers(1L, START, END, null));
+        assertFalse(registry.isHeldByOthers(1L, START, END, 10L));
+    }
+
+    @Test
+    void findHeldByOthers_ShouldReturnOnlyVehiclesHeldByOtherUsers() {
+        registry.place(1L, "ABC0001", 10L, START, END, 10);
+        registry.place(2L, "ABC0002", 20L, START, END, 10);
+
+        assertEquals(Set.of(1L), registry.findHeldByOthers(List.of(1L, 2L, 3L), START, END, 20L));
+        assertEquals(Set.of(1L, 2L), registry.findHeldByOthers(List.of(1L, 2L, 3L), START, END, null));
+        assertEquals(Set.of(), registry.findHeldByOthers(List.of(1L, 2L), END, END.plusDays(1), 30L));
+        assertEquals(Set.of(), registry.findHeldByOthers(List.of(), START, END, 30L));
+    }
+
+    @Test
+    void hold_ShouldBeVisibleToOtherNodes() {
+        registry.place(1L, "ABC0001", 10L, START, END, 10);
+
+        assertTrue(otherNode.isHeldByOthers(1L, START, END, 20L));
+        assertThrows(VehicleNotAvailableException.class,
+                () -> otherNode.place(1L, "ABC0001", 20L, START, END, 10));
+        assertEquals(1, otherNode.findByHolder(10L).size());
+        assertEquals("ABC0001", otherNode.findByHolder(10L).get(0).getVehiclePlate());
+    }
+
+    @Test
+    void place_WithAdjacentPeriod_ShouldSucceed() {
+        registry.place(1L, "ABC0001", 10L, START, END, 10);
+        registry.place(1L, "ABC0001", 20L, END, END.plusDays(2), 10);
+
+        assertEquals(2, registry.size());
+        assertFalse(registry.isHeldByOthers(1L, END.plusDays(2), END.plusDays(4), 30L));
+    }
+
+    @Test
+    void place_WithOwnOverlappingHold_ShouldReplaceIt() {
+        VehicleHold first = registry.place(1L, "ABC0001", 10L, START, END, 10);
+        VehicleHold second = registry.place(1L, "ABC0001", 10L, START.plusDays(1), END.plusDays(1), 10);
+
+        assertEquals(1, registry.size());
+        assertEquals(second.getId(), registry.findByHolder(10L).get(0).getId());
+        assertThrows(ResourceNotFoundException.class, () -> registry.release(first.getId(), 10L));
+    }
+
+    @Test
+    void place_AboveUserLimit_ShouldThrowException() {
+        registry.place(1L, "ABC0001", 10L, START, END, 10);
+        otherNode.place(2L, "ABC0002", 10L, START, END, 10);
+
+        assertThrows(IllegalStateException.class, () -> registry.place(3L, "ABC0003", 10L, START, END, 10));
+        assertThrows(IllegalArgumentException.class, () -> registry.place(3L, "ABC0003", 20L, START, END, 60));
+    }
+
+    @Test
+    void place_ConcurrentlyForSameUser_ShouldNotExceedLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (long vehicle = 1; vehicle <= 6; vehicle++) {
+            long vehicleId = vehicle;
+            VehicleHoldRegistry node = vehicle % 2 == 0 ? registry : otherNode;
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    node.place(vehicleId, "ABC000" + vehicleId, 10L, START, END, 10);
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        int placed = 0;
+        for (Future<Boolean> result : results) {
+            placed += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(2, placed);
+        assertEquals(2, registry.findByHolder(10L).size());
+    }
+
+    @Test
+    void expiry_ShouldFreeVehicleAfterHoldMinutes() {
+        registry.place(1L, "ABC0001", 10L, START, END, 5);
+        registry.place(2L, "ABC0002", 10L, START, END, 20);
+
+        clock.advance(Duration.ofMinutes(5));
+        assertFalse(otherNode.isHeldByOthers(1L, START, END, 20L));
+        assertTrue(otherNode.isHeldByOthers(2L, START, END, 20L));
+        assertEquals(1, otherNode.size());
+        otherNode.place(1L, "ABC0001", 20L, START, END, 10);
+    }
+
+    @Test
+    void sweepExpired_ShouldDeleteRowsLeftByOtherNodes() {
+        registry.place(1L, "ABC0001", 10L, START, END, 5);
+        registry.place(2L, "ABC0002", 10L, START, END, 20);
+
+        clock.advance(Duration.ofMinutes(6));
+        otherNode.sweepExpired();
+
+        assertEquals(1, rows());
+    }
+
+    @Test
+    void activeGauge_ShouldServeValueOfLastSweep() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        VehicleHoldRegistry node = new VehicleHoldRegistry(jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), properties, meters, clock);
+        node.place(1L, "ABC0001", 10L, START, END, 5);
+        node.place(2L, "ABC0002", 20L, START, END, 20);
+        assertEquals(0.0, meters.get("carrent.holds.active").gauge().value());
+
+        node.sweepExpired();
+        assertEquals(2.0, meters.get("carrent.holds.active").gauge().value());
+
+        clock.advance(Duration.ofMinutes(6));
+        node.sweepExpired();
+        assertEquals(1.0, meters.get("carrent.holds.active").gauge().value());
+    }
+
+    @Test
+    void release_ShouldOnlyAcceptHolder() {
+        VehicleHold hold = registry.place(1L, "ABC0001", 10L, START, END, 10);
+
+        assertThrows(ResourceNotFoundException.class, () -> registry.release(hold.getId(), 20L));
+        otherNode.release(hold.getId(), 10L);
+
+        assertEquals(0, registry.size());
+        assertTrue(registry.findByHolder(10L).isEmpty());
+    }
+
+    @Test
+    void releaseConverted_ShouldDropHolderHoldsForPeriod() {
+        registry.place(1L, "ABC0001", 10L, START, END, 10);
+
+        otherNode.releaseConverted(1L, 10L, START, END);
+
+        assertFalse(registry.isHeldByOthers(1L, START, END, 20L));
+    }
+
+    private VehicleHoldRegistry newNode() {
+        return new VehicleHoldRegistry(jdbcTemplate, new DataSourceTransactionManager(dataSource), properties,
+                new SimpleMeterRegistry(), clock);
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle_holds", Integer.class);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
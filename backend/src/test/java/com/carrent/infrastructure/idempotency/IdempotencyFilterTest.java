@@ -0,0 +1,171 @@
+package com.carrent.infrastructure.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency_filter;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE idempotency_keys (key_hash VARCHAR(64) PRIMARY KEY, "
+                + "fingerprint VARCHAR(64) NOT NULL, status_code INT, content_type VARCHAR(255), body BLOB, "
+                + "created_at TIMESTAMP(6) NOT NULL, expires_at TIMESTAMP(6) NOT NULL)");
+
+        IdempotencyProperties properties = new IdempotencyProperties();
+        filter = new IdempotencyFilter(new IdempotencyStore(jdbcTemplate, properties, new SimpleMeterRegistry()),
+                properties, new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+
+        executions = new AtomicInteger();
+        chain = (request, response) -> {
+            // O controller ainda consegue ler o corpo consumido pelo filtro
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setContentType("application/json");
+            http.getWriter().write("{\"id\":" + executions.incrementAndGet() + ",\"echo\":" + body + "}");
+        };
+        authenticate("maria@carrent.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void retryWithSameKey_ShouldReplayStoredResponseWithoutExecuting() throws Exception {
+        MockHttpServletResponse first = send("POST", "/rentals", "abc", "{\"vehicleId\":1}");
+        MockHttpServletResponse retry = send("POST", "/rentals", "abc", "{\"vehicleId\":1}");
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("{\"id\":1,\"echo\":{\"vehicleId\":1}}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void sameKeyWithOtherBody_ShouldBeRejected() throws Exception {
+        send("POST", "/rentals", "abc", "{\"vehicleId\":1}");
+
+        MockHttpServletResponse response = send("POST", "/rentals", "abc", "{\"vehicleId\":2}");
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void sameKeyFromOtherUser_ShouldExecuteSeparately() throws Exception {
+        send("PATCH", "/rentals/5/start", "abc", "");
+        authenticate("joao@carrent.com");
+
+        send("PATCH", "/rentals/5/start", "abc", "");
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void requestsWithoutKeyOrOutsideConfiguredPaths_ShouldPassThrough() throws Exception {
+        send("POST", "/rentals", null, "{}");
+        send("POST", "/rentals", null, "{}");
+        send("POST", "/vehicles", "abc", "{}");
+        send("POST", "/vehicles", "abc", "{}");
+
+        assertEquals(4, executions.get());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+
+    @Test
+    void serverError_ShouldReleaseKey() throws Exception {
+        chain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(500);
+        };
+
+        send("DELETE", "/customers/3", "abc", "");
+        send("DELETE", "/customers/3", "abc", "");
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void cachedBody_ShouldSupportNonBlockingRead() throws Exception {
+        List<String> events = new ArrayList<>();
+        chain = (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("fim");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("erro");
+                }
+            });
+            ((HttpServletResponse) response).setStatus(204);
+        };
+
+        send("POST", "/rentals", "abc", "{\"vehicleId\":1}");
+
+        assertEquals(List.of("{\"vehicleId\":1}", "fim"), events);
+    }
+
+    private MockHttpServletResponse send(String method, String path, String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        request.setServletPath(path);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.setContentType("application/json");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, AuthorityUtils.createAuthorityList("USER")));
+    }
+}
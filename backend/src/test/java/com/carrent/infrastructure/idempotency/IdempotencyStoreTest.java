@@ -0,0 +1,136 @@
+package com.carrent.infrastructure.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Duas instâncias do store sobre o mesmo banco fazem o papel de dois nós
+ */
+class IdempotencyStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+    private IdempotencyStore otherNode;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE idempotency_keys (key_hash VARCHAR(64) PRIMARY KEY, "
+                + "fingerprint VARCHAR(64) NOT NULL, status_code INT, content_type VARCHAR(255), body BLOB, "
+                + "created_at TIMESTAMP(6) NOT NULL, expires_at TIMESTAMP(6) NOT NULL)");
+
+        properties = new IdempotencyProperties();
+        properties.setInFlightWaitMs(2000);
+        store = new IdempotencyStore(jdbcTemplate, properties, new SimpleMeterRegistry());
+        otherNode = new IdempotencyStore(jdbcTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void completedKey_ShouldBeReplayedFromMemoryAndFromDatabase() {
+        IdempotencyStore.Claim claim = store.claim("key", "fp");
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, claim.getOutcome());
+        store.complete(claim, response(201, "{\"id\":7}"));
+
+        IdempotencyStore.Claim local = store.claim("key", "fp");
+        IdempotencyStore.Claim remote = otherNode.claim("key", "fp");
+
+        assertEquals(IdempotencyStore.Outcome.REPLAY, local.getOutcome());
+        assertEquals(IdempotencyStore.Outcome.REPLAY, remote.getOutcome());
+        assertEquals(201, remote.getResponse().status());
+        assertEquals("{\"id\":7}", new String(remote.getResponse().body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sameKeyWithOtherRequest_ShouldBeMismatch() {
+        store.complete(store.claim("key", "fp"), response(200, "{}"));
+
+        assertEquals(IdempotencyStore.Outcome.MISMATCH, store.claim("key", "other").getOutcome());
+        assertEquals(IdempotencyStore.Outcome.MISMATCH, otherNode.claim("key", "other").getOutcome());
+    }
+
+    @Test
+    void concurrentDuplicateOnSameNode_ShouldWaitForTheOriginalResponse() throws Exception {
+        IdempotencyStore.Claim claim = store.claim("key", "fp");
+
+        CompletableFuture<IdempotencyStore.Claim> duplicate = CompletableFuture.supplyAsync(
+                () -> store.claim("key", "fp"));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+        store.complete(claim, response(201, "{}"));
+
+        IdempotencyStore.Claim replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(IdempotencyStore.Outcome.REPLAY, replayed.getOutcome());
+        assertEquals(201, replayed.getResponse().status());
+    }
+
+    @Test
+    void duplicateOnOtherNodeWhileRunning_ShouldBeInProgress() {
+        store.claim("key", "fp");
+
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, otherNode.claim("key", "fp").getOutcome());
+    }
+
+    @Test
+    void releasedKey_ShouldRunAgain() {
+        store.release(store.claim("key", "fp"));
+
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, otherNode.claim("key", "fp").getOutcome());
+    }
+
+    @Test
+    void abandonedKey_ShouldBeTakenOver() {
+        store.claim("key", "fp");
+        jdbcTemplate.update("UPDATE idempotency_keys SET created_at = ?",
+                new Timestamp(System.currentTimeMillis() - properties.getInFlightTimeoutMs() - 1000));
+
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, otherNode.claim("key", "fp").getOutcome());
+    }
+
+    @Test
+    void memoryOverflow_ShouldKeepServingEvictedKeysFromDatabase() {
+        properties.setMemoryMaxEntries(10);
+        for (int i = 0; i < 20; i++) {
+            store.complete(store.claim("key-" + i, "fp"), response(200, "{\"n\":" + i + "}"));
+        }
+
+        assertTrue(store.getMemorySize() <= 10);
+        IdempotencyStore.Claim first = store.claim("key-0", "fp");
+        assertEquals(IdempotencyStore.Outcome.REPLAY, first.getOutcome());
+        assertEquals("{\"n\":0}", new String(first.getResponse().body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void purgeExpired_ShouldRemoveExpiredKeys() {
+        store.complete(store.claim("old", "fp"), response(200, "{}"));
+        store.complete(store.claim("recent", "fp"), response(200, "{}"));
+        jdbcTemplate.update("UPDATE idempotency_keys SET expires_at = ? WHERE key_hash = 'old'",
+                new Timestamp(System.currentTimeMillis() - 1000));
+
+        store.purgeExpired();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+
+    private StoredResponse response(int status, String body) {
+        return new StoredResponse(status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+}
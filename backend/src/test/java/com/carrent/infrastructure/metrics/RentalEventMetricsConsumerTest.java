@@ -0,0 +1,46 @@
+package com.carrent.infrastructure.metrics;
+
+import com.carrent.domain.event.RentalCancelled;
+import com.carrent.domain.event.RentalCompleted;
+import com.carrent.domain.event.RentalStarted;
+import com.carrent.domain.event.RentalTerminatedEarly;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalEventMetricsConsumerTest {
+
+    private SimpleMeterRegistry registry;
+    private CustomMetricsService metricsService;
+    private RentalEventMetricsConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricsService = new CustomMetricsService(registry);
+        metricsService.initializeMetrics();
+        consumer = new RentalEventMetricsConsumer(registry, metricsService);
+    }
+
+    @Test
+    void onEvents_ShouldTrackActiveRentalsAndRevenue() {
+        LocalDateTime now = LocalDateTime.now();
+        consumer.onEvents(List.of(
+                new RentalStarted(1L, 10L, 100L, now),
+                new RentalStarted(2L, 11L, 101L, now),
+                new RentalStarted(3L, 12L, 102L, now),
+                new RentalCompleted(1L, 10L, 100L, now, new BigDecimal("300.00"), now),
+                new RentalTerminatedEarly(2L, 11L, 101L, now, new BigDecimal("10.00"), new BigDecimal("110.00"), now),
+                new RentalCancelled(4L, 13L, 103L, now, now.plusDays(1), now)));
+
+        assertEquals(1.0, registry.get("carrent.rentals.active").gauge().value());
+        assertEquals(410.0, registry.get("carrent.rentals.revenue").counter().count());
+        assertEquals(3.0, registry.get("carrent.rentals.events").tag("type", "RentalStarted").counter().count());
+    }
+}
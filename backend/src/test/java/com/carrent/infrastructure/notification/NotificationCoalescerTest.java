@@ -0,0 +1,195 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.application.service.NotificationService;
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.infrastructure.notification.delivery.DeadLetterStore;
+import com.carrent.infrastructure.notification.delivery.NotificationDelivery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NotificationCoalescerTest {
+
+    private static final String KIND = "rental-terminated-early";
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DeadLetterStore deadLetterStore;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private NotificationCoalescingProperties properties;
+    private NotificationCoalescingProperties.Rule rule;
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:coalescer;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE notification_digest_entries (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "user_id BIGINT NOT NULL, kind VARCHAR(64) NOT NULL, title VARCHAR(255) NOT NULL, "
+                + "content TEXT NOT NULL, attempts INT DEFAULT 0 NOT NULL, created_at TIMESTAMP(6) NOT NULL, "
+                + "due_at TIMESTAMP(6) NOT NULL)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        rule = new NotificationCoalescingProperties.Rule();
+        rule.setDigestTitle("%d locações encerradas antecipadamente");
+        properties = new NotificationCoalescingProperties();
+        properties.setWindowMs(1000);
+        properties.setMaxPerDigest(3);
+        properties.setMaxAttempts(2);
+        properties.getRules().put(KIND, rule);
+        coalescer = new NotificationCoalescer(notificationService, userRepository, jdbcTemplate, transactionManager,
+                deadLetterStore, properties, new SimpleMeterRegistry());
+
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(invocation -> user(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void submit_WithoutRule_ShouldWriteImmediately() {
+        User user = user(1L);
+
+        coalescer.submit(user, "other", "Título", "Conteúdo");
+
+        verify(notificationService).createNotification(user, "Título", "Conteúdo");
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void submit_ShouldPersistWithCallerTransaction() {
+        TransactionTemplate caller = new TransactionTemplate(transactionManager);
+
+        caller.executeWithoutResult(status -> {
+            coalescer.submit(user(1L), KIND, "Locação encerrada", "Locação #10");
+            status.setRollbackOnly();
+        });
+        assertEquals(0, pending());
+
+        caller.executeWithoutResult(status -> coalescer.submit(user(1L), KIND, "Locação encerrada", "Locação #11"));
+        assertEquals(1, pending());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void flush_ShouldMergeSameKindIntoOneDigestPerUser() {
+        coalescer.append(1L, KIND, "Locação encerrada", "Locação #10", T0);
+        coalescer.append(1L, KIND, "Locação encerrada", "Locação #11", T0.plusNanos(100_000_000));
+        coalescer.append(2L, KIND, "Locação encerrada", "Locação #12", T0.plusNanos(200_000_000));
+
+        coalescer.flush(T0.plusNanos(999_000_000));
+        verifyNoInteractions(notificationService);
+
+        coalescer.flush(T0.plusSeconds(1));
+        verify(notificationService).createNotification(user(1L), "2 locações encerradas antecipadamente",
+                "Locação #10\nLocação #11");
+        verifyNoMoreInteractions(notificationService);
+
+        coalescer.flush(T0.plusNanos(1_200_000_000));
+        verify(notificationService).createNotification(user(2L), "Locação encerrada", "Locação #12");
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void flush_ReachingMaxPerDigest_ShouldWriteBeforeWindowEnds() {
+        for (int i = 0; i < 4; i++) {
+            coalescer.append(1L, KIND, "Locação encerrada", "Locação #" + i, T0);
+        }
+
+        coalescer.flush(T0);
+
+        verify(notificationService).createNotification(user(1L), "3 locações encerradas antecipadamente",
+                "Locação #0\nLocação #1\nLocação #2");
+        verifyNoMoreInteractions(notificationService);
+
+        coalescer.flush(T0.plusSeconds(1));
+        verify(notificationService).createNotification(user(1L), "Locação encerrada", "Locação #3");
+    }
+
+    @Test
+    void flush_ShouldLeaveEntriesBeforeTheirDueTime() {
+        coalescer.append(1L, KIND, "Locação encerrada", "Locação #10", T0);
+        coalescer.append(2L, KIND, "Locação encerrada", "Locação #11", T0.plusSeconds(5));
+
+        coalescer.flush(T0.plusSeconds(1));
+
+        assertEquals(List.of(Timestamp.valueOf(T0.plusSeconds(6))), jdbcTemplate.queryForList(
+                "SELECT due_at FROM notification_digest_entries", Timestamp.class));
+        verify(notificationService).createNotification(user(1L), "Locação encerrada", "Locação #10");
+        verifyNoMoreInteractions(notificationService);
+    }
+
+    @Test
+    void ruleWindow_ShouldOverrideDefaultWindow() {
+        rule.setWindowMs(5000L);
+        coalescer.append(1L, KIND, "Locação encerrada", "Locação #1", T0);
+
+        coalescer.flush(T0.plusSeconds(1));
+
+        verify(notificationService, never()).createNotification(any(), anyString(), eq("Locação #1"));
+    }
+
+    @Test
+    void flush_WhenDigestFails_ShouldKeepEntriesAndDeadLetterAfterMaxAttempts() {
+        when(notificationService.createNotification(any(), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("banco indisponível"));
+        coalescer.append(1L, KIND, "Locação encerrada", "Locação #10", T0);
+        coalescer.append(1L, KIND, "Locação encerrada", "Locação #11", T0);
+
+        coalescer.flush(T0.plusSeconds(1));
+        assertEquals(2, pending());
+        verifyNoInteractions(deadLetterStore);
+
+        coalescer.flush(T0.plusSeconds(2));
+        assertEquals(0, pending());
+        ArgumentCaptor<NotificationDelivery> captor = ArgumentCaptor.forClass(NotificationDelivery.class);
+        verify(deadLetterStore, times(2)).store(captor.capture(), eq("banco indisponível"));
+        assertEquals("Locação #10", captor.getAllValues().get(0).content());
+        assertEquals(NotificationCoalescer.DEAD_LETTER_CHANNEL, captor.getAllValues().get(0).channel());
+        assertEquals(2, captor.getAllValues().get(0).attempts());
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_digest_entries", Integer.class);
+    }
+
+    private User user(Long id) {
+        return User.builder().id(id).name("Admin").email("admin" + id + "@carrent.com").role(Role.ADMIN).build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.domain.entity.BroadcastRoleCounter;
+import com.carrent.domain.entity.NotificationCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationPurgerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private Cache cache;
+    private NotificationPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:purge;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE notifications (id BIGINT PRIMARY KEY, user_id BIGINT, "
+                + "is_read BOOLEAN, created_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, role VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE broadcast_notifications (id BIGINT PRIMARY KEY, "
+                + "target_role VARCHAR(20), created_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE broadcast_reads (user_id BIGINT, broadcast_id BIGINT, "
+                + "PRIMARY KEY (user_id, broadcast_id))");
+        jdbcTemplate.execute("CREATE TABLE broadcast_role_counters (role VARCHAR(20) PRIMARY KEY, "
+                + "sent BIGINT NOT NULL, purged BIGINT NOT NULL, last_broadcast_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE notification_counters (user_id BIGINT PRIMARY KEY, "
+                + "unread_count BIGINT NOT NULL, broadcast_watermark BIGINT NOT NULL, "
+                + "broadcast_base BIGINT NOT NULL, broadcast_reads BIGINT NOT NULL)");
+
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        NotificationRetentionProperties properties = new NotificationRetentionProperties();
+        properties.setReadRetentionDays(90);
+        properties.setBroadcastRetentionDays(180);
+        properties.setBatchSize(2);
+        purger = new NotificationPurger(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                entityManagerFactory, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void purge_ShouldRemoveOnlyOldReadNotificationsInBatches() {
+        LocalDateTime old = LocalDateTime.now().minusDays(120);
+        insert(1L, true, old);
+        insert(2L, true, old);
+        insert(3L, true, old);
+        insert(4L, false, old);
+        insert(5L, true, LocalDateTime.now().minusDays(10));
+
+        purger.purge();
+
+        assertEquals(List.of(4L, 5L), jdbcTemplate.queryForList(
+                "SELECT id FROM notifications ORDER BY id", Long.class));
+    }
+
+    @Test
+    void purgeBatch_ShouldRespectBatchSize() {
+        LocalDateTime old = LocalDateTime.now().minusDays(120);
+        insert(1L, true, old);
+        insert(2L, true, old);
+        insert(3L, true, old);
+
+        assertEquals(2, purger.purgeBatch(LocalDateTime.now().minusDays(90)));
+        assertEquals(1, purger.purgeBatch(LocalDateTime.now().minusDays(90)));
+        assertEquals(0, purger.purgeBatch(LocalDateTime.now().minusDays(90)));
+    }
+
+    @Test
+    void purge_ShouldRemoveExpiredBroadcastsAndAdvanceCountersBehindThem() {
+        LocalDateTime old = LocalDateTime.now().minusDays(200);
+        insertBroadcast(1L, null, old);
+        insertBroadcast(2L, "ADMIN", old);
+        insertBroadcast(3L, "USER", old);
+        insertBroadcast(4L, null, LocalDateTime.now().minusDays(10));
+        // Mais antigo que 4, mas o prefixo por id para no primeiro ainda retido
+        insertBroadcast(5L, "USER", old);
+        jdbcTemplate.update("INSERT INTO broadcast_role_counters VALUES ('USER', 4, 0, 5), ('ADMIN', 3, 0, 4)");
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'USER'), (2, 'USER'), (3, 'ADMIN')");
+        // 1: nunca marcou tudo, leu 1 e 4; 2: já marcou tudo; 3: leu 2
+        jdbcTemplate.update("INSERT INTO notification_counters VALUES (1, 0, 0, 0, 2), (2, 0, 5, 4, 0), "
+                + "(3, 0, 0, 0, 1)");
+        jdbcTemplate.update("INSERT INTO broadcast_reads VALUES (1, 1), (1, 4), (3, 2)");
+
+        purger.purge();
+
+        assertEquals(List.of(4L, 5L), jdbcTemplate.queryForList(
+                "SELECT id FROM broadcast_notifications ORDER BY id", Long.class));
+        assertEquals(List.of(4L), jdbcTemplate.queryForList(
+                "SELECT broadcast_id FROM broadcast_reads", Long.class));
+        assertEquals(Map.of("USER", 2L, "ADMIN", 2L), purgedPerRole());
+        assertEquals(List.of(List.of(3L, 2L, 1L), List.of(5L, 4L, 0L), List.of(3L, 2L, 0L)), counters());
+        verify(cache).evict(BroadcastRoleCounter.class);
+        verify(cache).evict(NotificationCounter.class);
+    }
+
+    @Test
+    void purge_WithoutExpiredBroadcasts_ShouldKeepTheCache() {
+        insertBroadcast(1L, null, LocalDateTime.now().minusDays(10));
+
+        purger.purge();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM broadcast_notifications", Integer.class));
+        verifyNoInteractions(cache);
+    }
+
+    private void insertBroadcast(Long id, String targetRole, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO broadcast_notifications VALUES (?, ?, ?)", id, targetRole, createdAt);
+    }
+
+    private Map<String, Long> purgedPerRole() {
+        Map<String, Long> purged = new HashMap<>();
+        jdbcTemplate.query("SELECT role, purged FROM broadcast_role_counters", (RowCallbackHandler) rs ->
+                purged.put(rs.getString("role"), rs.getLong("purged")));
+        return purged;
+    }
+
+    private List<List<Long>> counters() {
+        return jdbcTemplate.query("SELECT broadcast_watermark, broadcast_base, broadcast_reads "
+                + "FROM notification_counters ORDER BY user_id", (rs, rowNum) -> List.of(
+                        rs.getLong("broadcast_watermark"), rs.getLong("broadcast_base"),
+                        rs.getLong("broadcast_reads")));
+    }
+
+    private void insert(Long id, boolean read, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO notifications VALUES (?, 1, ?, ?)", id, read, createdAt);
+    }
+}
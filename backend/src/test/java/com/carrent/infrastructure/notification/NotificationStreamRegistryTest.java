@@ -0,0 +1,173 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.application.dto.NotificationDTO;
+import com.carrent.domain.entity.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationStreamRegistryTest {
+
+    private NotificationStreamProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationStreamProperties();
+        properties.setBufferSize(4);
+        properties.setReplayLimit(10);
+        properties.setMaxConnectionsPerUser(2);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void publish_ShouldReachOnlyTheUsersConnections() {
+        NotificationStreamRegistry registry = registry(Runnable::run);
+        RecordingEmitter first = (RecordingEmitter) registry.connect(1L, Role.USER, null, noReplay());
+        RecordingEmitter second = (RecordingEmitter) registry.connect(1L, Role.USER, null, noReplay());
+        RecordingEmitter other = (RecordingEmitter) registry.connect(2L, Role.USER, null, noReplay());
+
+        registry.publish(1L, notification(7));
+
+        assertEquals(List.of("7"), first.eventIds());
+        assertEquals(List.of("7"), second.eventIds());
+        assertTrue(other.eventIds().isEmpty());
+        assertEquals(3.0, meterRegistry.get("carrent.notifications.streams").gauge().value());
+    }
+
+    @Test
+    void publishBroadcast_ShouldReachOnlyConnectionsOfTheTargetRole() {
+        NotificationStreamRegistry registry = registry(Runnable::run);
+        RecordingEmitter user = (RecordingEmitter) registry.connect(1L, Role.USER, null, noReplay());
+        RecordingEmitter admin = (RecordingEmitter) registry.connect(2L, Role.ADMIN, null, noReplay());
+
+        registry.publishBroadcast(Role.ADMIN, notification(1));
+        registry.publishBroadcast(null, notification(2));
+
+        assertEquals(1, user.events().stream().filter(event -> event.contains("event:broadcast")).count());
+        assertEquals(2, admin.events().stream().filter(event -> event.contains("event:broadcast")).count());
+    }
+
+    @Test
+    void connect_WithLastEventId_ShouldReplayMissedNotificationsAndSkipDuplicates() {
+        NotificationStreamRegistry registry = registry(Runnable::run);
+
+        RecordingEmitter emitter = (RecordingEmitter) registry.connect(1L, Role.USER, 5L, (afterId, limit) ->
+                LongStream.rangeClosed(afterId + 1, 8).mapToObj(this::notification).toList());
+        registry.publish(1L, notification(8));
+        registry.publish(1L, notification(9));
+
+        assertEquals(List.of("6", "7", "8", "9"), emitter.eventIds());
+    }
+
+    @Test
+    void publish_AfterReplay_ShouldDeliverNotificationCommittedOutOfIdOrder() {
+        NotificationStreamRegistry registry = registry(Runnable::run);
+
+        // A 7 ainda não estava confirmada quando o reenvio consultou o banco
+        RecordingEmitter emitter = (RecordingEmitter) registry.connect(1L, Role.USER, 5L, (afterId, limit) ->
+                List.of(notification(6), notification(8)));
+        registry.publish(1L, notification(7));
+
+        assertEquals(List.of("6", "8", "7"), emitter.eventIds());
+    }
+
+    @Test
+    void publish_DuringReplayBeyondBuffer_ShouldAskForResync() {
+        NotificationStreamRegistry registry = registry(Runnable::run);
+
+        RecordingEmitter emitter = (RecordingEmitter) registry.connect(1L, Role.USER, 5L, (afterId, limit) -> {
+            LongStream.rangeClosed(10, 20).forEach(id -> registry.publish(1L, notification(id)));
+            return List.of(notification(6));
+        });
+
+        assertTrue(registry.isConnected(1L));
+        assertTrue(emitter.eventIds().isEmpty());
+        assertTrue(emitter.events().stream().anyMatch(event -> event.contains("event:resync")));
+    }
+
+    @Test
+    void connect_WithTooManyMissedNotifications_ShouldAskForResync() {
+        NotificationStreamRegistry registry = registry(Runnable::run);
+
+        RecordingEmitter emitter = (RecordingEmitter) registry.connect(1L, Role.USER, 0L, (afterId, limit) ->
+                LongStream.rangeClosed(1, limit).mapToObj(this::notification).toList());
+
+        assertTrue(emitter.eventIds().isEmpty());
+        assertTrue(emitter.events().stream().anyMatch(event -> event.contains("event:resync")));
+    }
+
+    @Test
+    void publish_WhenClientCannotKeepUp_ShouldDropTheConnection() {
+        NotificationStreamRegistry registry = registry(pendingWrites::add);
+        registry.connect(1L, Role.USER, null, noReplay());
+
+        LongStream.rangeClosed(1, 5).forEach(id -> registry.publish(1L, notification(id)));
+
+        assertFalse(registry.isConnected(1L));
+        assertEquals(0, registry.getConnectionCount());
+        assertEquals(1.0, meterRegistry.get("carrent.notifications.streams.dropped").counter().count());
+    }
+
+    @Test
+    void connect_AboveUserLimit_ShouldCloseOldestConnection() {
+        NotificationStreamRegistry registry = registry(Runnable::run);
+        RecordingEmitter oldest = (RecordingEmitter) registry.connect(1L, Role.USER, null, noReplay());
+        registry.connect(1L, Role.USER, null, noReplay());
+        registry.connect(1L, Role.USER, null, noReplay());
+
+        registry.publish(1L, notification(3));
+
+        assertEquals(2, registry.getConnectionCount());
+        assertTrue(oldest.eventIds().isEmpty());
+    }
+
+    private NotificationStreamRegistry registry(Executor writer) {
+        return new NotificationStreamRegistry(properties, writer, meterRegistry) {
+            @Override
+            SseEmitter createEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private static NotificationStreamRegistry.ReplaySource noReplay() {
+        return (afterId, limit) -> List.of();
+    }
+
+    private NotificationDTO notification(long id) {
+        return NotificationDTO.builder().id(id).title("Título " + id).content("Conteúdo").isRead(false).build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+        }
+
+        List<String> events() {
+            return events;
+        }
+
+        List<String> eventIds() {
+            return events.stream()
+                    .filter(event -> event.startsWith("id:"))
+                    .map(event -> event.substring(3, event.indexOf('\n')))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.carrent.infrastructure.notification;
+
+import com.carrent.domain.entity.NotificationCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UnreadCounterReconcilerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private Cache cache;
+    private UnreadCounterReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:counters;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, role VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE notifications (id BIGINT PRIMARY KEY, user_id BIGINT, is_read BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE notification_counters (user_id BIGINT PRIMARY KEY, "
+                + "unread_count BIGINT NOT NULL, broadcast_watermark BIGINT NOT NULL DEFAULT 0, "
+                + "broadcast_base BIGINT NOT NULL DEFAULT 0, broadcast_reads BIGINT NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE broadcast_role_counters (role VARCHAR(20) PRIMARY KEY, "
+                + "sent BIGINT NOT NULL, purged BIGINT NOT NULL, last_broadcast_id BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO broadcast_role_counters VALUES ('USER', 4, 0, 9)");
+
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        UnreadCounterProperties properties = new UnreadCounterProperties();
+        properties.setBatchSize(2);
+        reconciler = new UnreadCounterReconciler(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                entityManagerFactory, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void reconcile_ShouldCreateMissingCountersAndFixDrift() {
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'USER'), (2, 'USER'), (3, 'ADMIN')");
+        jdbcTemplate.update("INSERT INTO notifications VALUES (1, 1, FALSE), (2, 1, FALSE), (3, 1, TRUE), "
+                + "(4, 2, FALSE), (5, 3, TRUE)");
+        jdbcTemplate.update("INSERT INTO notification_counters (user_id, unread_count) VALUES (1, 7), (3, 0)");
+
+        reconciler.reconcile();
+
+        assertEquals(Map.of(1L, 2L, 2L, 1L, 3L, 0L), counters());
+        // O contador criado começa com os broadcasts do perfil já lidos
+        assertEquals(Map.of("BROADCAST_WATERMARK", 9L, "BROADCAST_BASE", 4L), jdbcTemplate.queryForMap(
+                "SELECT broadcast_watermark, broadcast_base FROM notification_counters WHERE user_id = 2"));
+        verify(cache).evict(NotificationCounter.class);
+    }
+
+    @Test
+    void reconcile_WithoutDrift_ShouldKeepTheCache() {
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'USER')");
+        jdbcTemplate.update("INSERT INTO notifications VALUES (1, 1, FALSE)");
+        jdbcTemplate.update("INSERT INTO notification_counters (user_id, unread_count) VALUES (1, 1)");
+
+        reconciler.reconcile();
+
+        assertEquals(Map.of(1L, 1L), counters());
+        verifyNoInteractions(cache);
+    }
+
+    private Map<Long, Long> counters() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT user_id, unread_count FROM notification_counters");
+        return rows.stream().collect(Collectors.toMap(
+                row -> ((Number) row.get("USER_ID")).longValue(),
+                row -> ((Number) row.get("UNREAD_COUNT")).longValue()));
+    }
+}
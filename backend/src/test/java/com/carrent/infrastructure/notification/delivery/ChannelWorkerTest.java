@@ -0,0 +1,247 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelWorkerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DeadLetterStore deadLetterStore;
+    private NotificationDeliveryProperties.Worker settings;
+    private ChannelWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:delivery;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE notification_dead_letters (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "channel VARCHAR(32), user_id BIGINT, recipient VARCHAR(255), title VARCHAR(255), "
+                + "content TEXT, attempts INT, last_error VARCHAR(1000), created_at TIMESTAMP, failed_at TIMESTAMP)");
+        deadLetterStore = new DeadLetterStore(jdbcTemplate);
+
+        settings = new NotificationDeliveryProperties.Worker();
+        settings.setQueueCapacity(10);
+        settings.setBatchSize(5);
+        settings.setMaxAttempts(3);
+        settings.setInitialBackoffMs(10);
+        settings.setMaxBackoffMs(40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (worker != null) {
+            worker.shutdown();
+        }
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void submit_ShouldDeliverQueuedNotificationsInBatches() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        worker = start(batch -> {
+            started.countDown();
+            release.await();
+            batchSizes.add(batch.size());
+        });
+
+        assertTrue(worker.submit(delivery("first")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 6; i++) {
+            assertTrue(worker.submit(delivery("n" + i)));
+        }
+        release.countDown();
+
+        // Enquanto o primeiro lote era entregue, as outras seis esperaram na fila
+        awaitUntil(() -> batchSizes.size() == 3);
+        assertEquals(List.of(1, 5, 1), batchSizes);
+    }
+
+    @Test
+    void failedDelivery_ShouldBeRetriedWithBackoff() {
+        AtomicInteger calls = new AtomicInteger();
+        worker = start(batch -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("SMTP indisponível");
+            }
+        });
+
+        worker.submit(delivery("retry"));
+
+        awaitUntil(() -> calls.get() == 3);
+        assertEquals(0, deadLetterCount());
+    }
+
+    @Test
+    void exhaustedAttempts_ShouldGoToDeadLetterWithLastError() {
+        AtomicInteger calls = new AtomicInteger();
+        worker = start(batch -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Recusado pelo servidor");
+        });
+
+        worker.submit(delivery("dead"));
+
+        awaitUntil(() -> deadLetterCount() == 1);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT channel, title, attempts, last_error FROM notification_dead_letters");
+        assertEquals("test", row.get("CHANNEL"));
+        assertEquals("dead", row.get("TITLE"));
+        assertEquals(3, row.get("ATTEMPTS"));
+        assertEquals("Recusado pelo servidor", row.get("LAST_ERROR"));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void partialFailure_ShouldRetryOnlyTheFailedNotifications() throws Exception {
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        worker = start(batch -> {
+            started.countDown();
+            release.await();
+            if (calls.incrementAndGet() == 2) {
+                delivered.add(batch.get(0).title());
+                throw new ChannelDeliveryException("Parcial", batch.subList(1, batch.size()), null);
+            }
+            batch.forEach(delivery -> delivered.add(delivery.title()));
+        });
+
+        worker.submit(delivery("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        worker.submit(delivery("b"));
+        worker.submit(delivery("c"));
+        release.countDown();
+
+        awaitUntil(() -> delivered.size() == 3);
+        assertEquals(List.of("a", "b", "c"), delivered);
+    }
+
+    @Test
+    void fullQueue_ShouldSendToDeadLetterWithoutBlocking() throws Exception {
+        settings.setQueueCapacity(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        worker = start(batch -> {
+            started.countDown();
+            release.await();
+        });
+
+        assertTrue(worker.submit(delivery("in flight")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(worker.submit(delivery("queued")));
+        assertFalse(worker.submit(delivery("overflow")));
+
+        assertEquals(List.of("overflow"), jdbcTemplate.queryForList(
+                "SELECT title FROM notification_dead_letters", String.class));
+        release.countDown();
+    }
+
+    @Test
+    void shutdown_ShouldDeadLetterPendingNotifications() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        worker = start(batch -> {
+            started.countDown();
+            Thread.sleep(Long.MAX_VALUE);
+        });
+
+        worker.submit(delivery("in flight"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        worker.submit(delivery("pending"));
+        worker.shutdown();
+        worker = null;
+
+        // A interrupção faz o lote em andamento falhar; ele também não pode se perder
+        assertEquals(List.of("in flight", "pending"), jdbcTemplate.queryForList(
+                "SELECT title FROM notification_dead_letters ORDER BY title", String.class));
+    }
+
+    @Test
+    void shutdown_WhenDeliveryOutlivesTimeout_ShouldDeadLetterInFlightBatchOnce() throws Exception {
+        settings.setShutdownTimeoutMs(100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        worker = start(batch -> {
+            started.countDown();
+            // Canal que ignora a interrupção, como uma escrita de socket bloqueada
+            boolean released = false;
+            while (!released) {
+                try {
+                    released = release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                    // continua bloqueado
+                }
+            }
+            finished.countDown();
+            throw new IllegalStateException("Servidor caiu no meio do lote");
+        });
+
+        worker.submit(delivery("stuck"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        worker.shutdown();
+        worker = null;
+
+        assertEquals(List.of("stuck"), jdbcTemplate.queryForList(
+                "SELECT title FROM notification_dead_letters", String.class));
+
+        // A thread termina depois; a falha dela não pode gravar o lote de novo
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(1, deadLetterCount());
+    }
+
+    private ChannelWorker start(NotificationChannelStub channel) {
+        ChannelWorker started = new ChannelWorker(channel, settings, deadLetterStore, new SimpleMeterRegistry());
+        started.start();
+        return started;
+    }
+
+    private NotificationDelivery delivery(String title) {
+        return NotificationDelivery.of("test", 1L, "user@carrent.com", title, "Conteúdo");
+    }
+
+    private int deadLetterCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_dead_letters", Integer.class);
+    }
+
+    private void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condição não atingida a tempo");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface NotificationChannelStub extends NotificationChannel {
+
+        @Override
+        default String name() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.carrent.infrastructure.notification.delivery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Envia para um servidor SMTP local mínimo, que aceita as mensagens e recusa
+ * os destinatários configurados
+ */
+class EmailChannelTest {
+
+    private LocalSmtpServer smtp;
+    private EmailChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new LocalSmtpServer(Set.of("unknown@carrent.com"));
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+        channel = new EmailChannel(mailSender, "no-reply@carrent.com");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void deliver_ShouldSendWholeBatchOverOneConnection() {
+        channel.deliver(List.of(
+                delivery("ana@carrent.com", "Reserva confirmada"),
+                delivery("bruno@carrent.com", "Pagamento recebido")));
+
+        assertEquals(1, smtp.getConnections());
+        assertEquals(List.of("ana@carrent.com", "bruno@carrent.com"), smtp.getRecipients());
+        assertTrue(smtp.getMessages().get(0).contains("Subject: Reserva confirmada"));
+        assertTrue(smtp.getMessages().get(0).contains("From: no-reply@carrent.com"));
+    }
+
+    @Test
+    void deliver_WithRejectedRecipient_ShouldReportOnlyThatNotification() {
+        NotificationDelivery rejected = delivery("unknown@carrent.com", "Aviso");
+
+        ChannelDeliveryException exception = assertThrows(ChannelDeliveryException.class,
+                () -> channel.deliver(List.of(
+                        delivery("ana@carrent.com", "Aviso"),
+                        rejected,
+                        delivery("bruno@carrent.com", "Aviso"))));
+
+        assertEquals(List.of(rejected), exception.getFailed());
+        assertEquals(List.of("ana@carrent.com", "bruno@carrent.com"), smtp.getRecipients());
+    }
+
+    @Test
+    void deliver_WithServerDown_ShouldFailWholeBatch() {
+        smtp.refuseConnections();
+        List<NotificationDelivery> batch = List.of(delivery("ana@carrent.com", "Aviso"),
+                delivery("bruno@carrent.com", "Aviso"));
+
+        ChannelDeliveryException exception = assertThrows(ChannelDeliveryException.class,
+                () -> channel.deliver(batch));
+
+        assertEquals(batch, exception.getFailed());
+    }
+
+    private NotificationDelivery delivery(String recipient, String title) {
+        return NotificationDelivery.of(EmailChannel.NAME, 1L, recipient, title, "Conteúdo da notificação");
+    }
+
+    /**
+     * Servidor SMTP de uma conexão por vez, suficiente para o JavaMail
+     */
+    private static class LocalSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final Set<String> rejected;
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile boolean refusing;
+
+        LocalSmtpServer(Set<String> rejected) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.rejected = rejected;
+            Thread thread = new Thread(this::serve, "local-smtp");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        List<String> getRecipients() {
+            return recipients;
+        }
+
+        List<String> getMessages() {
+            return messages;
+        }
+
+        /**
+         * Responde 421 e encerra cada conexão, como um servidor fora do ar.
+         * Fechar o socket não serve: a porta liberada pode ser reaproveitada
+         * por outro processo durante a suíte.
+         */
+        void refuseConnections() {
+            refusing = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void serve() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    session(socket);
+                } catch (SocketException e) {
+                    return;
+                } catch (IOException e) {
+                    // Conexão encerrada pelo cliente; aguarda a próxima
+                }
+            }
+        }
+
+        private void session(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            if (refusing) {
+                reply(out, "421 Service not available");
+                return;
+            }
+            reply(out, "220 localhost SMTP");
+
+            String pendingRecipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO:")) {
+                    String recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    if (rejected.contains(recipient)) {
+                        reply(out, "550 Mailbox unavailable");
+                    } else {
+                        pendingRecipient = recipient;
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder message = new StringBuilder();
+                    while (!(line = in.readLine()).equals(".")) {
+                        message.append(line).append('\n');
+                    }
+                    recipients.add(pendingRecipient);
+                    messages.add(message.toString());
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    // MAIL FROM, RSET, NOOP
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+    }
+}
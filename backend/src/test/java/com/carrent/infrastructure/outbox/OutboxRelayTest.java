@@ -0,0 +1,188 @@
+package com.carrent.infrastructure.outbox;
+
+import com.carrent.domain.event.DomainEvent;
+import com.carrent.domain.event.RentalCancelled;
+import com.carrent.domain.event.RentalStarted;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRelayTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OutboxStore store;
+    private OutboxProperties properties;
+    private RecordingHandler handler;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "aggregate_type VARCHAR(50), aggregate_id BIGINT, event_type VARCHAR(100), payload TEXT, "
+                + "attempts INT DEFAULT 0, available_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3), "
+                + "created_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3), claimed_by VARCHAR(36))");
+        jdbcTemplate.execute("CREATE TABLE outbox_dead_letters (id BIGINT PRIMARY KEY, "
+                + "aggregate_type VARCHAR(50), aggregate_id BIGINT, event_type VARCHAR(100), payload TEXT, "
+                + "attempts INT, last_error VARCHAR(1000), created_at TIMESTAMP(3), failed_at TIMESTAMP(3))");
+
+        store = new OutboxStore(new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        handler = new RecordingHandler();
+        relay = new OutboxRelay(jdbcTemplate, new DataSourceTransactionManager(dataSource), store,
+                List.of(handler), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void relay_ShouldDeliverInOrderAndDeleteAllBatches() throws Exception {
+        append(started(1L), started(2L), started(3L));
+
+        relay.relay();
+
+        assertEquals(List.of(1L, 2L, 3L), handler.received.stream().map(DomainEvent::aggregateId).toList());
+        assertEquals(0, count());
+    }
+
+    @Test
+    void relay_WithFailingHandler_ShouldKeepMessageAndDelayRetry() throws Exception {
+        handler.failOn = 2L;
+        append(started(1L), started(2L));
+
+        relay.relay();
+
+        assertEquals(1, count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT attempts FROM outbox", Integer.class));
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT available_at > CURRENT_TIMESTAMP FROM outbox", Boolean.class));
+
+        // Ainda dentro da espera: não é reservada de novo
+        relay.relay();
+        assertEquals(2, handler.received.size());
+    }
+
+    @Test
+    void relay_ShouldCommitLeaseBeforeRunningHandlers() throws Exception {
+        List<String> seenByOtherConnection = new ArrayList<>();
+        handler.onHandle = message -> {
+            // Outra conexão consegue alterar a linha: o lock da reserva já foi liberado
+            jdbcTemplate.update("UPDATE outbox SET aggregate_type = aggregate_type WHERE id = ?", message.id());
+            seenByOtherConnection.add(jdbcTemplate.queryForObject(
+                    "SELECT claimed_by FROM outbox WHERE id = ?", String.class, message.id()));
+        };
+        append(started(1L));
+
+        relay.relay();
+
+        assertEquals(1, seenByOtherConnection.size());
+        assertNotNull(seenByOtherConnection.get(0));
+        assertEquals(0, count());
+    }
+
+    @Test
+    void relay_WithExpiredLease_ShouldReclaimMessage() throws Exception {
+        append(started(1L));
+        jdbcTemplate.update("UPDATE outbox SET claimed_by = 'instancia-caida', "
+                + "available_at = TIMESTAMPADD(SECOND, -1, CURRENT_TIMESTAMP)");
+
+        relay.relay();
+
+        assertEquals(1, handler.received.size());
+        assertEquals(0, count());
+    }
+
+    @Test
+    void relay_WhenAttemptsAreExhausted_ShouldMoveMessageToDeadLetters() throws Exception {
+        properties.setMaxAttempts(2);
+        handler.failOn = 1L;
+        append(started(1L));
+
+        relay.relay();
+        jdbcTemplate.update("UPDATE outbox SET available_at = CURRENT_TIMESTAMP");
+        relay.relay();
+
+        assertEquals(0, count());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT attempts FROM outbox_dead_letters", Integer.class));
+        assertEquals("falha simulada",
+                jdbcTemplate.queryForObject("SELECT last_error FROM outbox_dead_letters", String.class));
+    }
+
+    @Test
+    void relay_WithUnreadableMessage_ShouldMoveItToDeadLetters() throws Exception {
+        append(started(1L));
+        jdbcTemplate.update("INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload) "
+                + "VALUES ('Rental', 2, 'Desconhecido', '{}')");
+
+        relay.relay();
+
+        assertEquals(1, handler.received.size());
+        assertEquals(0, count());
+        assertEquals("Desconhecido",
+                jdbcTemplate.queryForObject("SELECT event_type FROM outbox_dead_letters", String.class));
+    }
+
+    @Test
+    void relay_ShouldRoundTripEventPayload() throws Exception {
+        RentalCancelled cancelled = new RentalCancelled(7L, 3L, 5L, LocalDateTime.of(2024, 5, 1, 10, 0),
+                LocalDateTime.of(2024, 5, 3, 10, 0), LocalDateTime.of(2024, 4, 20, 9, 30));
+        append(cancelled);
+
+        relay.relay();
+
+        assertEquals(List.of(cancelled), handler.received);
+    }
+
+    private void append(DomainEvent... events) throws Exception {
+        try (var connection = jdbcTemplate.getDataSource().getConnection()) {
+            store.append(connection, List.of(events));
+        }
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class);
+    }
+
+    private static RentalStarted started(Long rentalId) {
+        return new RentalStarted(rentalId, 1L, 1L, LocalDateTime.now());
+    }
+
+    private static class RecordingHandler implements OutboxHandler {
+        private final List<DomainEvent> received = new ArrayList<>();
+        private Long failOn;
+        private Consumer<OutboxMessage> onHandle = message -> {
+        };
+
+        @Override
+        public boolean supports(DomainEvent event) {
+            return true;
+        }
+
+        @Override
+        public void handle(OutboxMessage message) {
+            received.add(message.event());
+            onHandle.accept(message);
+            if (message.event().aggregateId().equals(failOn)) {
+                throw new IllegalStateException("falha simulada");
+            }
+        }
+    }
+}
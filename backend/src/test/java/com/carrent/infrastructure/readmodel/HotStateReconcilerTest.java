@@ -0,0 +1,87 @@
+package com.carrent.infrastructure.readmodel;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Vehicle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotStateReconcilerTest {
+
+    private static final LocalDateTime END = LocalDateTime.of(2030, 1, 10, 10, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private Cache cache;
+    private HotStateReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:hot_state;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE customers (id BIGINT PRIMARY KEY, "
+                + "active_rental_count INT DEFAULT 0, pending_rental_count INT DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE vehicles (id BIGINT PRIMARY KEY, "
+                + "next_free_at TIMESTAMP, current_rental_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE rentals (id BIGINT PRIMARY KEY, customer_id BIGINT, vehicle_id BIGINT, "
+                + "end_date TIMESTAMP, status VARCHAR(20))");
+
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        reconciler = new HotStateReconciler(jdbcTemplate, entityManagerFactory, new SimpleMeterRegistry(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void reconcile_ShouldRepairDriftedRowsAcrossChunks() {
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO customers (id) VALUES (?)", id);
+            jdbcTemplate.update("INSERT INTO vehicles (id) VALUES (?)", id);
+        }
+        jdbcTemplate.update("INSERT INTO rentals VALUES (1, 5, 5, ?, 'IN_PROGRESS')", Timestamp.valueOf(END));
+        jdbcTemplate.update("INSERT INTO rentals VALUES (2, 5, 4, ?, 'PENDING')", Timestamp.valueOf(END));
+        jdbcTemplate.update("UPDATE customers SET active_rental_count = 3 WHERE id = 1");
+
+        reconciler.reconcile();
+
+        assertEquals(0, count("active_rental_count", 1));
+        assertEquals(1, count("active_rental_count", 5));
+        assertEquals(1, count("pending_rental_count", 5));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT current_rental_id FROM vehicles WHERE id = 5", Long.class));
+        assertEquals(END, jdbcTemplate.queryForObject("SELECT next_free_at FROM vehicles WHERE id = 4",
+                LocalDateTime.class));
+        verify(cache).evict(Customer.class);
+        verify(cache).evict(Vehicle.class);
+    }
+
+    @Test
+    void reconcile_WithConsistentState_ShouldNotTouchCache() {
+        jdbcTemplate.update("INSERT INTO customers (id, pending_rental_count) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO vehicles (id, next_free_at) VALUES (1, ?)", Timestamp.valueOf(END));
+        jdbcTemplate.update("INSERT INTO rentals VALUES (1, 1, 1, ?, 'PENDING')", Timestamp.valueOf(END));
+
+        reconciler.reconcile();
+
+        verifyNoInteractions(cache);
+    }
+
+    private int count(String column, long customerId) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM customers WHERE id = ?", Integer.class,
+                customerId);
+    }
+}
@@ -0,0 +1,176 @@
+package com.carrent.infrastructure.readmodel;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.infrastructure.config.JpaConfig;
+import com.carrent.infrastructure.config.ReadModelConfig;
+import com.carrent.mocks.RentalFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Grava locações pelas entidades, com commit real, e confere as colunas de
+ * estado quente direto pelo JDBC
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ JpaConfig.class, ReadModelConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RentalHotStateMaintainerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 10, 0);
+    private static final LocalDateTime END = START.plusDays(3);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Long customerId;
+    private Long vehicleId;
+    private Long otherVehicleId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Customer customer = RentalFixtures.customer();
+            Vehicle vehicle = RentalFixtures.vehicle("ABC1D23");
+            Vehicle other = RentalFixtures.vehicle("DEF4G56");
+            entityManager.persist(customer);
+            entityManager.persist(vehicle);
+            entityManager.persist(other);
+            customerId = customer.getId();
+            vehicleId = vehicle.getId();
+            otherVehicleId = other.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        RentalFixtures.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void insert_ShouldCountPendingAndBlockVehicle() {
+        createRental(RentalStatus.PENDING);
+
+        assertCounts(0, 1);
+        assertEquals(END, nextFreeAt(vehicleId));
+        assertNull(currentRentalId(vehicleId));
+    }
+
+    @Test
+    void statusTransitions_ShouldMoveCountersAndCurrentRental() {
+        Long rentalId = createRental(RentalStatus.PENDING);
+
+        updateRental(rentalId, rental -> rental.setStatus(RentalStatus.IN_PROGRESS));
+        assertCounts(1, 0);
+        assertEquals(rentalId, currentRentalId(vehicleId));
+        assertEquals(END, nextFreeAt(vehicleId));
+
+        updateRental(rentalId, rental -> rental.setEndDate(END.plusDays(2)));
+        assertCounts(1, 0);
+        assertEquals(END.plusDays(2), nextFreeAt(vehicleId));
+
+        updateRental(rentalId, rental -> rental.setStatus(RentalStatus.COMPLETED));
+        assertCounts(0, 0);
+        assertNull(currentRentalId(vehicleId));
+        assertNull(nextFreeAt(vehicleId));
+    }
+
+    @Test
+    void vehicleReassignment_ShouldRecomputeBothVehicles() {
+        Long rentalId = createRental(RentalStatus.IN_PROGRESS);
+
+        updateRental(rentalId, rental -> rental.setVehicle(entityManager.getReference(Vehicle.class, otherVehicleId)));
+
+        assertNull(currentRentalId(vehicleId));
+        assertNull(nextFreeAt(vehicleId));
+        assertEquals(rentalId, currentRentalId(otherVehicleId));
+        assertEquals(END, nextFreeAt(otherVehicleId));
+        assertCounts(1, 0);
+    }
+
+    @Test
+    void delete_ShouldReleaseCountersAndVehicle() {
+        Long rentalId = createRental(RentalStatus.IN_PROGRESS);
+
+        tx.executeWithoutResult(status -> entityManager.remove(entityManager.find(Rental.class, rentalId)));
+
+        assertCounts(0, 0);
+        assertNull(currentRentalId(vehicleId));
+        assertNull(nextFreeAt(vehicleId));
+    }
+
+    @Test
+    void rollback_ShouldLeaveHotStateUnchanged() {
+        Long rentalId = createRental(RentalStatus.PENDING);
+
+        tx.executeWithoutResult(status -> {
+            entityManager.find(Rental.class, rentalId).setStatus(RentalStatus.IN_PROGRESS);
+            entityManager.persist(rental(RentalStatus.PENDING, otherVehicleId));
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+
+        assertCounts(0, 1);
+        assertNull(currentRentalId(vehicleId));
+        assertNull(nextFreeAt(otherVehicleId));
+    }
+
+    private Long createRental(RentalStatus rentalStatus) {
+        return tx.execute(status -> {
+            Rental rental = rental(rentalStatus, vehicleId);
+            entityManager.persist(rental);
+            return rental.getId();
+        });
+    }
+
+    private void updateRental(Long rentalId, Consumer<Rental> change) {
+        tx.executeWithoutResult(status -> change.accept(entityManager.find(Rental.class, rentalId)));
+    }
+
+    private void assertCounts(int active, int pending) {
+        assertEquals(active, jdbcTemplate.queryForObject(
+                "SELECT active_rental_count FROM customers WHERE id = ?", Integer.class, customerId));
+        assertEquals(pending, jdbcTemplate.queryForObject(
+                "SELECT pending_rental_count FROM customers WHERE id = ?", Integer.class, customerId));
+    }
+
+    private LocalDateTime nextFreeAt(Long id) {
+        return jdbcTemplate.queryForObject("SELECT next_free_at FROM vehicles WHERE id = ?", LocalDateTime.class, id);
+    }
+
+    private Long currentRentalId(Long id) {
+        return jdbcTemplate.queryForObject("SELECT current_rental_id FROM vehicles WHERE id = ?", Long.class, id);
+    }
+
+    private Rental rental(RentalStatus status, Long vehicle) {
+        return RentalFixtures.rental(entityManager.getReference(Customer.class, customerId),
+                entityManager.getReference(Vehicle.class, vehicle), status, START, END);
+    }
+}
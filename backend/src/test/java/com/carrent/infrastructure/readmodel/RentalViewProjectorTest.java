@@ -0,0 +1,180 @@
+package com.carrent.infrastructure.readmodel;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.infrastructure.config.JpaConfig;
+import com.carrent.infrastructure.config.ReadModelConfig;
+import com.carrent.mocks.RentalFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Grava pelas entidades, com commit real, e lê a rental_view direto pelo JDBC
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ JpaConfig.class, ReadModelConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RentalViewProjectorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 10, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Long customerId;
+    private Long vehicleId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        customerId = tx.execute(status -> {
+            Customer customer = RentalFixtures.customer();
+            entityManager.persist(customer);
+            return customer.getId();
+        });
+        vehicleId = tx.execute(status -> {
+            Vehicle vehicle = RentalFixtures.vehicle();
+            entityManager.persist(vehicle);
+            return vehicle.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        RentalFixtures.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void insert_ShouldProjectRentalWithCustomerAndVehicle() {
+        Long rentalId = createRental(RentalStatus.PENDING);
+
+        Map<String, Object> row = view(rentalId);
+        assertEquals("Maria Souza", row.get("CUSTOMER_NAME"));
+        assertEquals("ABC1D23", row.get("VEHICLE_PLATE"));
+        assertEquals("SUV", row.get("VEHICLE_CATEGORY"));
+        assertEquals("PENDING", row.get("STATUS"));
+        assertEquals(RentalStatus.PENDING.getListPriority(), ((Number) row.get("STATUS_PRIORITY")).intValue());
+    }
+
+    @Test
+    void update_ShouldRewriteRentalRow() {
+        Long rentalId = createRental(RentalStatus.PENDING);
+
+        tx.executeWithoutResult(status -> {
+            Rental rental = entityManager.find(Rental.class, rentalId);
+            rental.setStatus(RentalStatus.IN_PROGRESS);
+            rental.setNotes("Retirada no balcão");
+        });
+
+        Map<String, Object> row = view(rentalId);
+        assertEquals("IN_PROGRESS", row.get("STATUS"));
+        assertEquals(RentalStatus.IN_PROGRESS.getListPriority(), ((Number) row.get("STATUS_PRIORITY")).intValue());
+        assertEquals("Retirada no balcão", row.get("NOTES"));
+    }
+
+    @Test
+    void delete_ShouldRemoveRentalRow() {
+        Long rentalId = createRental(RentalStatus.CANCELLED);
+
+        tx.executeWithoutResult(status -> entityManager.remove(entityManager.find(Rental.class, rentalId)));
+
+        assertEquals(0, viewCount());
+    }
+
+    @Test
+    void vehicleAndCustomerRename_ShouldPropagateToView() {
+        Long rentalId = createRental(RentalStatus.PENDING);
+
+        tx.executeWithoutResult(status -> {
+            Vehicle vehicle = entityManager.find(Vehicle.class, vehicleId);
+            vehicle.setPlate("XYZ9K87");
+            vehicle.setModel("Compass Limited");
+            entityManager.find(Customer.class, customerId).setName("Maria Souza Lima");
+        });
+
+        Map<String, Object> row = view(rentalId);
+        assertEquals("XYZ9K87", row.get("VEHICLE_PLATE"));
+        assertEquals("Compass Limited", row.get("VEHICLE_MODEL"));
+        assertEquals("Maria Souza Lima", row.get("CUSTOMER_NAME"));
+    }
+
+    @Test
+    void unrelatedVehicleUpdate_ShouldNotTouchView() {
+        Long rentalId = createRental(RentalStatus.PENDING);
+        // Marca a linha: se o projetor regravar as colunas do veículo, a marca some
+        jdbcTemplate.update("UPDATE rental_view SET vehicle_brand = 'MARCADO' WHERE id = ?", rentalId);
+
+        tx.executeWithoutResult(status -> {
+            Vehicle vehicle = entityManager.find(Vehicle.class, vehicleId);
+            vehicle.setDescription("Revisado");
+            vehicle.setAvailable(false);
+        });
+
+        assertEquals("MARCADO", view(rentalId).get("VEHICLE_BRAND"));
+    }
+
+    @Test
+    void rollback_ShouldLeaveViewUnchanged() {
+        Long rentalId = createRental(RentalStatus.PENDING);
+
+        tx.executeWithoutResult(status -> {
+            entityManager.find(Rental.class, rentalId).setStatus(RentalStatus.IN_PROGRESS);
+            entityManager.find(Vehicle.class, vehicleId).setPlate("XYZ9K87");
+            entityManager.persist(rental(RentalStatus.PENDING, START.plusDays(10)));
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, viewCount());
+        Map<String, Object> row = view(rentalId);
+        assertEquals("PENDING", row.get("STATUS"));
+        assertEquals("ABC1D23", row.get("VEHICLE_PLATE"));
+    }
+
+    private Long createRental(RentalStatus rentalStatus) {
+        return tx.execute(status -> {
+            Rental rental = rental(rentalStatus, START);
+            entityManager.persist(rental);
+            return rental.getId();
+        });
+    }
+
+    private Map<String, Object> view(Long rentalId) {
+        return jdbcTemplate.queryForMap("SELECT * FROM rental_view WHERE id = ?", rentalId);
+    }
+
+    private int viewCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rental_view", Integer.class);
+    }
+
+    private Rental rental(RentalStatus status, LocalDateTime start) {
+        return RentalFixtures.rental(entityManager.getReference(Customer.class, customerId),
+                entityManager.getReference(Vehicle.class, vehicleId), status, start, start.plusDays(3));
+    }
+}
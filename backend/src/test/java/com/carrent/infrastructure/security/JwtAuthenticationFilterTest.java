@@ -0,0 +1,86 @@
+package com.carrent.infrastructure.security;
+
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "streamExpiration", 60_000L);
+        user = User.builder().id(1L).name("Maria").email("maria@carrent.com").password("x").role(Role.USER).build();
+        filter = new JwtAuthenticationFilter(jwtService, username -> user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void streamToken_InStreamUrl_ShouldAuthenticate() throws Exception {
+        MockHttpServletRequest request = streamRequest();
+        request.setParameter(JwtAuthenticationFilter.STREAM_TOKEN_PARAM, jwtService.generateStreamToken(user));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void accessToken_InStreamUrl_ShouldNotAuthenticate() throws Exception {
+        MockHttpServletRequest request = streamRequest();
+        request.setParameter(JwtAuthenticationFilter.STREAM_TOKEN_PARAM, jwtService.generateToken(user));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void streamToken_AsBearerHeader_ShouldNotAuthenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rentals");
+        request.setServletPath("/rentals");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateStreamToken(user));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void refreshToken_AsBearerHeader_ShouldNotAuthenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rentals");
+        request.setServletPath("/rentals");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateRefreshToken(user));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletRequest streamRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + JwtAuthenticationFilter.STREAM_PATH);
+        request.setServletPath(JwtAuthenticationFilter.STREAM_PATH);
+        return request;
+    }
+}
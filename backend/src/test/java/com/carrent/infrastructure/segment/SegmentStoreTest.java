@@ -0,0 +1,171 @@
+package com.carrent.infrastructure.segment;
+
+import com.carrent.domain.entity.RentalSnapshot;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.infrastructure.cluster.EntityChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry registry;
+    private SegmentStore store;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        store = newStore();
+    }
+
+    @Test
+    void write_ShouldRoundTripAllColumns() throws Exception {
+        SegmentRental rental = rental(1L, 10L, LocalDateTime.of(2022, 3, 5, 10, 30, 15, 123_456_000),
+                RentalStatus.EARLY_TERMINATED);
+        rental.set(SegmentColumn.NOTES, "Devolvido com atraso");
+        rental.set(SegmentColumn.ORIGINAL_TOTAL_AMOUNT, new BigDecimal("600.00"));
+        rental.set(SegmentColumn.ENDED_EARLY, true);
+        store.write(YearMonth.of(2022, 3), List.of(rental));
+
+        RentalSnapshot read = newStore().scan(SegmentPredicate.all()).get(0);
+
+        assertEquals(1L, read.getId());
+        assertEquals(10L, read.getCustomerId());
+        assertEquals("Cliente 10", read.getCustomerName());
+        assertEquals(VehicleCategory.SUV, read.getVehicleCategory());
+        assertEquals(rental.getStartDate(), read.getStartDate());
+        assertNull(read.getActualReturnDate());
+        assertEquals(RentalStatus.EARLY_TERMINATED, read.getStatus());
+        assertEquals(new BigDecimal("450.00"), read.getTotalAmount());
+        assertEquals(new BigDecimal("600.00"), read.getOriginalTotalAmount());
+        assertNull(read.getEarlyTerminationFee());
+        assertTrue(read.getEndedEarly());
+        assertEquals("Devolvido com atraso", read.getNotes());
+    }
+
+    @Test
+    void scan_ShouldPruneSegmentsOutsideThePeriodAndFilterRows() throws Exception {
+        store.write(YearMonth.of(2022, 1), List.of(
+                rental(1L, 10L, LocalDateTime.of(2022, 1, 3, 9, 0), RentalStatus.COMPLETED),
+                rental(2L, 11L, LocalDateTime.of(2022, 1, 20, 9, 0), RentalStatus.CANCELLED)));
+        store.write(YearMonth.of(2022, 6), List.of(
+                rental(3L, 10L, LocalDateTime.of(2022, 6, 10, 9, 0), RentalStatus.COMPLETED)));
+
+        List<SegmentRental> january = store.scan(SegmentPredicate.overlapping(
+                LocalDateTime.of(2022, 1, 1, 0, 0), LocalDateTime.of(2022, 1, 4, 0, 0)));
+
+        assertEquals(List.of(1L), january.stream().map(RentalSnapshot::getId).toList());
+        assertEquals(1.0, registry.get("carrent.segments.pruned").counter().count());
+        assertEquals(List.of(1L, 3L), store.scan(SegmentPredicate.equalTo(SegmentColumn.CUSTOMER_ID, 10L))
+                .stream().map(RentalSnapshot::getId).toList());
+        assertEquals(List.of(2L), store.scan(SegmentPredicate.withStatus(RentalStatus.CANCELLED))
+                .stream().map(RentalSnapshot::getId).toList());
+    }
+
+    @Test
+    void write_ShouldMergeWithExistingSegmentOfTheMonth() throws Exception {
+        YearMonth month = YearMonth.of(2022, 1);
+        store.write(month, List.of(rental(1L, 10L, LocalDateTime.of(2022, 1, 3, 9, 0), RentalStatus.COMPLETED)));
+        store.write(month, List.of(rental(1L, 10L, LocalDateTime.of(2022, 1, 3, 9, 0), RentalStatus.COMPLETED),
+                rental(2L, 11L, LocalDateTime.of(2022, 1, 5, 9, 0), RentalStatus.COMPLETED)));
+
+        assertEquals(2, store.rowCount(month));
+        assertEquals(2, newStore().scan(SegmentPredicate.all()).size());
+    }
+
+    @Test
+    void reloader_ShouldOpenSegmentWrittenByAnotherInstance() throws Exception {
+        SegmentStore peer = newStore();
+        YearMonth month = YearMonth.of(2022, 1);
+        store.write(month, List.of(rental(1L, 10L, LocalDateTime.of(2022, 1, 3, 9, 0), RentalStatus.COMPLETED)));
+        assertEquals(0, peer.rowCount(month));
+
+        new SegmentReloader(peer).onChanges(List.of(
+                new EntityChange(1L, SegmentFile.class.getName(), SegmentStore.monthId(month)),
+                new EntityChange(2L, "com.carrent.domain.entity.Rental", 202201L)));
+
+        assertEquals(1, peer.rowCount(month));
+        assertEquals(month, SegmentStore.monthOf(SegmentStore.monthId(month)));
+    }
+
+    @Test
+    void reload_ShouldPickUpNewAndDropRemovedSegments() throws Exception {
+        SegmentStore peer = newStore();
+        store.write(YearMonth.of(2022, 1), List.of(
+                rental(1L, 10L, LocalDateTime.of(2022, 1, 3, 9, 0), RentalStatus.COMPLETED)));
+        peer.reload();
+        assertEquals(1, peer.scan(SegmentPredicate.all()).size());
+
+        Files.delete(directory.resolve("rentals-2022-01.seg"));
+        store.write(YearMonth.of(2022, 2), List.of(
+                rental(2L, 10L, LocalDateTime.of(2022, 2, 3, 9, 0), RentalStatus.COMPLETED)));
+        new SegmentReloader(peer).onReset();
+
+        assertEquals(List.of(2L), peer.scan(SegmentPredicate.all()).stream().map(RentalSnapshot::getId).toList());
+    }
+
+    @Test
+    void close_ShouldKeepMappingUntilLastReaderReleasesIt() throws Exception {
+        YearMonth month = YearMonth.of(2022, 1);
+        store.write(month, List.of(rental(1L, 10L, LocalDateTime.of(2022, 1, 3, 9, 0), RentalStatus.COMPLETED)));
+        SegmentFile segment = SegmentFile.open(directory.resolve("rentals-2022-01.seg"));
+
+        assertTrue(segment.retain());
+        segment.close();
+        assertEquals(1, segment.scan(SegmentPredicate.all()).size());
+        segment.release();
+
+        assertFalse(segment.retain());
+    }
+
+    @Test
+    void reopen_ShouldServeReadsFromReplacementSegment() throws Exception {
+        SegmentStore peer = newStore();
+        YearMonth month = YearMonth.of(2022, 1);
+        store.write(month, List.of(rental(1L, 10L, LocalDateTime.of(2022, 1, 3, 9, 0), RentalStatus.COMPLETED)));
+        peer.reopen(month);
+        store.write(month, List.of(rental(2L, 10L, LocalDateTime.of(2022, 1, 5, 9, 0), RentalStatus.COMPLETED)));
+
+        peer.reopen(month);
+
+        assertEquals(List.of(1L, 2L), peer.scan(SegmentPredicate.all()).stream().map(RentalSnapshot::getId).toList());
+    }
+
+    private SegmentStore newStore() {
+        SegmentProperties properties = new SegmentProperties();
+        properties.setDirectory(directory.toString());
+        return new SegmentStore(properties, registry);
+    }
+
+    private SegmentRental rental(Long id, Long customerId, LocalDateTime start, RentalStatus status) {
+        SegmentRental rental = new SegmentRental();
+        rental.set(SegmentColumn.ID, id);
+        rental.set(SegmentColumn.CUSTOMER_ID, customerId);
+        rental.set(SegmentColumn.CUSTOMER_NAME, "Cliente " + customerId);
+        rental.set(SegmentColumn.VEHICLE_ID, 1L);
+        rental.set(SegmentColumn.VEHICLE_BRAND, "Toyota");
+        rental.set(SegmentColumn.VEHICLE_MODEL, "Corolla");
+        rental.set(SegmentColumn.VEHICLE_PLATE, "ABC1234");
+        rental.set(SegmentColumn.VEHICLE_CATEGORY, VehicleCategory.SUV.name());
+        rental.set(SegmentColumn.VEHICLE_DAILY_RATE, new BigDecimal("150.00"));
+        rental.set(SegmentColumn.START_DATE, start);
+        rental.set(SegmentColumn.END_DATE, start.plusDays(3));
+        rental.set(SegmentColumn.STATUS, status.name());
+        rental.set(SegmentColumn.TOTAL_AMOUNT, new BigDecimal("450.00"));
+        return rental;
+    }
+}
@@ -0,0 +1,119 @@
+package com.carrent.infrastructure.waitingroom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitingRoomFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private WaitingRoom room;
+    private WaitingRoomFilter filter;
+    private AtomicInteger executions;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        WaitingRoomProperties properties = new WaitingRoomProperties();
+        properties.setAdmitRatePerSecond(1);
+        properties.setBurst(1);
+        room = new WaitingRoom(properties, new SimpleMeterRegistry());
+        filter = new WaitingRoomFilter(room, properties, objectMapper);
+
+        executions = new AtomicInteger();
+        chain = (request, response) -> executions.incrementAndGet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void surge_ShouldQueueWithTicketAndAdmitOnRetry() throws Exception {
+        assertEquals(200, send("POST", "/rentals", null).getStatus());
+
+        MockHttpServletResponse queued = send("POST", "/rentals", null);
+        assertEquals(429, queued.getStatus());
+        assertEquals("1", queued.getHeader("Retry-After"));
+        WaitingRoomTicket ticket = objectMapper.readValue(queued.getContentAsString(), WaitingRoomTicket.class);
+        assertEquals(ticket.ticket(), queued.getHeader(WaitingRoomFilter.TICKET_HEADER));
+        assertEquals(1, ticket.position());
+        assertEquals(1, executions.get());
+
+        room.admit(System.currentTimeMillis() + 1_000);
+
+        assertEquals(200, send("POST", "/rentals", ticket.ticket()).getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void readsAndOtherPaths_ShouldBypassRoom() throws Exception {
+        send("POST", "/rentals", null);
+
+        assertEquals(200, send("GET", "/rentals", null).getStatus());
+        assertEquals(200, send("POST", "/customers", null).getStatus());
+        assertEquals(0, room.queueSize());
+
+        assertEquals(429, send("PATCH", "/rentals/1/cancel", null).getStatus());
+        assertEquals(1, room.queueSize());
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void ticket_ShouldBelongToAuthenticatedUser() throws Exception {
+        authenticate("ana@carrent.com");
+        send("POST", "/rentals", null);
+        String ticket = send("POST", "/rentals", null).getHeader(WaitingRoomFilter.TICKET_HEADER);
+        room.admit(System.currentTimeMillis() + 1_000);
+
+        authenticate("bruno@carrent.com");
+        MockHttpServletResponse stolen = send("POST", "/rentals", ticket);
+        assertEquals(429, stolen.getStatus());
+        assertNotEquals(ticket, stolen.getHeader(WaitingRoomFilter.TICKET_HEADER));
+
+        authenticate("ana@carrent.com");
+        assertEquals(200, send("POST", "/rentals", ticket).getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void anonymousClient_ShouldBeLimitedToItsQueueSlots() throws Exception {
+        send("POST", "/rentals", null);
+        assertEquals(429, send("POST", "/rentals", null).getStatus());
+        assertEquals(429, send("POST", "/rentals", null).getStatus());
+
+        MockHttpServletResponse throttled = send("POST", "/rentals", null);
+        assertEquals(429, throttled.getStatus());
+        assertNull(throttled.getHeader(WaitingRoomFilter.TICKET_HEADER));
+        assertEquals(2, room.queueSize());
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private MockHttpServletResponse send(String method, String path, String ticket) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        if (ticket != null) {
+            request.addHeader(WaitingRoomFilter.TICKET_HEADER, ticket);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
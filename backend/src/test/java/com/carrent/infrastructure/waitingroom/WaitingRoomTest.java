@@ -0,0 +1,166 @@
+package com.carrent.infrastructure.waitingroom;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O tempo é passado explicitamente, a partir do relógio real: o balde começa
+ * cheio no momento da criação da sala
+ */
+class WaitingRoomTest {
+
+    private static final String CLIENT = "user:ana@carrent.com";
+
+    private WaitingRoomProperties properties;
+    private WaitingRoom room;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WaitingRoomProperties();
+        properties.setAdmitRatePerSecond(2);
+        properties.setBurst(2);
+        properties.setMaxQueueSize(3);
+        properties.setMaxQueuedPerClient(3);
+        properties.setAbandonAfterMs(5_000);
+        properties.setAdmittedTtlMs(10_000);
+        room = new WaitingRoom(properties, new SimpleMeterRegistry());
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void enter_WithinBurst_ShouldAdmitDirectly() {
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(null, CLIENT, now).decision());
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(null, CLIENT, now).decision());
+
+        WaitingRoom.Result third = room.enter(null, CLIENT, now);
+        assertEquals(WaitingRoom.Decision.QUEUED, third.decision());
+        assertEquals(1, third.ticket().position());
+        assertEquals(1, third.ticket().estimatedWaitSeconds());
+    }
+
+    @Test
+    void enter_WithQueueFull_ShouldReject() {
+        drainBurst();
+        room.enter(null, CLIENT, now);
+        room.enter(null, CLIENT, now);
+        room.enter(null, CLIENT, now);
+
+        assertEquals(WaitingRoom.Decision.REJECTED, room.enter(null, CLIENT, now).decision());
+        assertEquals(3, room.queueSize());
+    }
+
+    @Test
+    void admit_ShouldAdmitInOrderAtConfiguredRate() {
+        drainBurst();
+        String first = room.enter(null, CLIENT, now).ticket().ticket();
+        String second = room.enter(null, CLIENT, now).ticket().ticket();
+        String third = room.enter(null, CLIENT, now).ticket().ticket();
+
+        now += 1_000;
+        room.admit(now);
+
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(first, CLIENT, now).decision());
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(second, CLIENT, now).decision());
+        WaitingRoom.Result waiting = room.enter(third, CLIENT, now);
+        assertEquals(WaitingRoom.Decision.QUEUED, waiting.decision());
+        assertEquals(1, waiting.ticket().position());
+    }
+
+    @Test
+    void enter_WithQueueNotEmpty_ShouldNotLetNewcomersSkipAhead() {
+        drainBurst();
+        String queued = room.enter(null, CLIENT, now).ticket().ticket();
+
+        // Fichas acumuladas, mas ainda não distribuídas à fila
+        now += 1_000;
+        WaitingRoom.Result newcomer = room.enter(null, CLIENT, now);
+        assertEquals(WaitingRoom.Decision.QUEUED, newcomer.decision());
+        assertEquals(2, newcomer.ticket().position());
+
+        room.admit(now);
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(queued, CLIENT, now).decision());
+    }
+
+    @Test
+    void admit_ShouldSkipAbandonedTickets() {
+        drainBurst();
+        room.enter(null, CLIENT, now);
+        String active = room.enter(null, CLIENT, now).ticket().ticket();
+
+        now += 4_000;
+        assertEquals(2, room.enter(active, CLIENT, now).ticket().position());
+
+        now += 2_000;
+        room.admit(now);
+
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(active, CLIENT, now).decision());
+        assertEquals(0, room.queueSize());
+    }
+
+    @Test
+    void enter_WithExpiredAdmission_ShouldQueueAgain() {
+        drainBurst();
+        String ticket = room.enter(null, CLIENT, now).ticket().ticket();
+        now += 500;
+        room.admit(now);
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(ticket, CLIENT, now).decision());
+
+        now += 10_000;
+        room.admit(now);
+        drainBurst();
+
+        assertEquals(WaitingRoom.Decision.QUEUED, room.enter(ticket, CLIENT, now).decision());
+    }
+
+    @Test
+    void enter_WithTicketOfAnotherClient_ShouldIgnoreIt() {
+        drainBurst();
+        String ticket = room.enter(null, CLIENT, now).ticket().ticket();
+        now += 500;
+        room.admit(now);
+
+        WaitingRoom.Result stranger = room.enter(ticket, "addr:203.0.113.7", now);
+        assertEquals(WaitingRoom.Decision.QUEUED, stranger.decision());
+        assertNotEquals(ticket, stranger.ticket().ticket());
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(ticket, CLIENT, now).decision());
+    }
+
+    @Test
+    void enter_BeyondClientQueueSlots_ShouldThrottle() {
+        properties.setMaxQueuedPerClient(1);
+        drainBurst();
+        assertEquals(WaitingRoom.Decision.QUEUED, room.enter(null, "addr:203.0.113.7", now).decision());
+
+        assertEquals(WaitingRoom.Decision.THROTTLED, room.enter(null, "addr:203.0.113.7", now).decision());
+        assertEquals(WaitingRoom.Decision.QUEUED, room.enter(null, "addr:203.0.113.8", now).decision());
+        assertEquals(2, room.queueSize());
+
+        // Admitido, o ticket deixa de ocupar a vaga do cliente na fila
+        now += 500;
+        room.admit(now);
+        assertEquals(WaitingRoom.Decision.QUEUED, room.enter(null, "addr:203.0.113.7", now).decision());
+    }
+
+    @Test
+    void enter_WithAdmittedTicketUsedUp_ShouldQueueAgain() {
+        properties.setAdmittedRequests(2);
+        drainBurst();
+        String ticket = room.enter(null, CLIENT, now).ticket().ticket();
+        now += 500;
+        room.admit(now);
+
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(ticket, CLIENT, now).decision());
+        assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(ticket, CLIENT, now).decision());
+        assertEquals(WaitingRoom.Decision.QUEUED, room.enter(ticket, CLIENT, now).decision());
+    }
+
+    private void drainBurst() {
+        for (int i = 0; i < properties.getBurst(); i++) {
+            assertEquals(WaitingRoom.Decision.ADMITTED, room.enter(null, CLIENT, now).decision());
+        }
+    }
+}
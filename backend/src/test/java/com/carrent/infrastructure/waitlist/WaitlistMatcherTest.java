@@ -0,0 +1,221 @@
+package com.carrent.infrastructure.waitlist;
+
+import com.carrent.application.dto.RentalDTO;
+import com.carrent.application.service.RentalService;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.WaitlistEntry;
+import com.carrent.domain.entity.WaitlistStatus;
+import com.carrent.domain.event.DomainEvent;
+import com.carrent.domain.event.RentalCancelled;
+import com.carrent.domain.event.RentalCompleted;
+import com.carrent.domain.event.RentalStarted;
+import com.carrent.domain.exception.VehicleNotAvailableException;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.domain.repository.WaitlistEntryRepository;
+import com.carrent.infrastructure.notification.NotificationCoalescer;
+import com.carrent.infrastructure.outbox.OutboxMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistMatcherTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RentalService rentalService;
+
+    @Mock
+    private NotificationCoalescer notificationCoalescer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meters;
+    private WaitlistMatcher matcher;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        meters = new SimpleMeterRegistry();
+        matcher = new WaitlistMatcher(waitlistEntryRepository, vehicleRepository, userRepository, rentalService,
+                notificationCoalescer, transactionManager, new WaitlistProperties(), meters);
+        start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.HOURS);
+        end = start.plusDays(5);
+        vehicle = Vehicle.builder().id(1L).plate("SUV0001").category(VehicleCategory.SUV).build();
+    }
+
+    @Test
+    void handle_WithCancellation_ShouldAssignHighestPriorityWaiterInOwnTransaction() {
+        waiting(entry(2L, start, start.plusDays(2), 5), entry(1L, start, start.plusDays(2), 0));
+        stubAssignment();
+
+        matcher.handle(message(cancelled()));
+
+        ArgumentCaptor<RentalDTO> captor = ArgumentCaptor.forClass(RentalDTO.class);
+        verify(rentalService).create(captor.capture());
+        assertEquals(102L, captor.getValue().getCustomerId());
+        assertEquals("SUV0001", captor.getValue().getVehiclePlate());
+        verify(waitlistEntryRepository).markFulfilled(eq(2L), eq(500L), any());
+        verify(notificationCoalescer).submit(any(User.class), eq(WaitlistMatcher.KIND), anyString(), anyString());
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                        && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_READ_COMMITTED));
+    }
+
+    @Test
+    void handle_WithLongWindow_ShouldAssignNonOverlappingWaiters() {
+        waiting(entry(2L, start.plusDays(1), start.plusDays(3), 5), entry(3L, start.plusDays(3), end, 1),
+                entry(1L, start, start.plusDays(2), 0));
+        stubAssignment();
+
+        matcher.handle(message(cancelled()));
+
+        verify(rentalService, times(2)).create(any(RentalDTO.class));
+        verify(waitlistEntryRepository).markFulfilled(eq(2L), anyLong(), any());
+        verify(waitlistEntryRepository).markFulfilled(eq(3L), anyLong(), any());
+        verify(waitlistEntryRepository, never()).markFulfilled(eq(1L), anyLong(), any());
+    }
+
+    @Test
+    void handle_WhenRentalFails_ShouldTryNextWaiter() {
+        waiting(entry(1L, start, start.plusDays(2), 5), entry(2L, start, start.plusDays(2), 0));
+        stubTransactions();
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle));
+        when(rentalService.create(any(RentalDTO.class)))
+                .thenThrow(new IllegalStateException("Cliente possui locação em andamento"))
+                .thenReturn(RentalDTO.builder().id(500L).build());
+        when(waitlistEntryRepository.markFulfilled(anyLong(), anyLong(), any())).thenReturn(1);
+
+        matcher.handle(message(cancelled()));
+
+        verify(waitlistEntryRepository).markFulfilled(eq(2L), eq(500L), any());
+        verify(waitlistEntryRepository, never()).markFulfilled(eq(1L), anyLong(), any());
+    }
+
+    @Test
+    void handle_WhenVehicleNoLongerAvailable_ShouldRollBackAndKeepWaiter() {
+        waiting(entry(1L, start, start.plusDays(2), 0));
+        stubTransactions();
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle));
+        when(rentalService.create(any(RentalDTO.class))).thenThrow(new VehicleNotAvailableException("Ocupado"));
+
+        matcher.handle(message(cancelled()));
+
+        verify(waitlistEntryRepository, never()).markFulfilled(anyLong(), anyLong(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void handle_WhenEntryFulfilledElsewhere_ShouldRollBackWithoutNotifying() {
+        waiting(entry(1L, start, start.plusDays(2), 0));
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle));
+        when(rentalService.create(any(RentalDTO.class))).thenReturn(RentalDTO.builder().id(500L).build());
+        when(waitlistEntryRepository.markFulfilled(anyLong(), anyLong(), any())).thenReturn(0);
+
+        matcher.handle(message(cancelled()));
+
+        assertTrue(status.isRollbackOnly());
+        verify(notificationCoalescer, never()).submit(any(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void handle_WithCompletionAfterEndDate_ShouldNotOfferSlot() {
+        LocalDateTime now = LocalDateTime.now();
+
+        matcher.handle(message(new RentalCompleted(9L, 1L, 3L, now.minusHours(1), BigDecimal.TEN, now)));
+
+        verifyNoInteractions(vehicleRepository, rentalService, waitlistEntryRepository);
+    }
+
+    @Test
+    void supports_ShouldAcceptOnlyEventsThatFreeAVehicle() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(matcher.supports(cancelled()));
+        assertTrue(matcher.supports(new RentalCompleted(9L, 1L, 3L, end, BigDecimal.TEN, now)));
+        assertFalse(matcher.supports(new RentalStarted(9L, 1L, 3L, now)));
+    }
+
+    @Test
+    void waitingGauge_ShouldServeLastRefreshedCount() {
+        when(waitlistEntryRepository.countByStatus(WaitlistStatus.WAITING)).thenReturn(7L);
+
+        assertEquals(0.0, meters.get("carrent.waitlist.waiting").gauge().value());
+        verifyNoInteractions(waitlistEntryRepository);
+
+        matcher.refreshWaiting();
+        assertEquals(7.0, meters.get("carrent.waitlist.waiting").gauge().value());
+    }
+
+    private void stubAssignment() {
+        stubTransactions();
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle));
+        when(rentalService.create(any(RentalDTO.class))).thenReturn(RentalDTO.builder().id(500L).build());
+        when(waitlistEntryRepository.markFulfilled(anyLong(), anyLong(), any())).thenReturn(1);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+    }
+
+    private void stubTransactions() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private void waiting(WaitlistEntry... entries) {
+        when(waitlistEntryRepository.findWaitingWithin(VehicleCategory.SUV, start, end, PageRequest.of(0, 100)))
+                .thenReturn(List.of(entries));
+    }
+
+    private static OutboxMessage message(DomainEvent event) {
+        return new OutboxMessage(1L, event, 0, LocalDateTime.now());
+    }
+
+    private RentalCancelled cancelled() {
+        return new RentalCancelled(9L, 1L, 3L, start, end, LocalDateTime.now());
+    }
+
+    private static WaitlistEntry entry(Long id, LocalDateTime startDate, LocalDateTime endDate, int priority) {
+        return WaitlistEntry.builder()
+                .id(id)
+                .customerId(100L + id)
+                .userId(200L + id)
+                .category(VehicleCategory.SUV)
+                .startDate(startDate)
+                .endDate(endDate)
+                .priority(priority)
+                .status(WaitlistStatus.WAITING)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.carrent.infrastructure.workload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsTaskRunnerTest {
+
+    private AnalyticsTaskRunner runner;
+
+    @AfterEach
+    void tearDown() {
+        runner.destroy();
+    }
+
+    @Test
+    void submit_ShouldRunTaskOnAnalyticsPoolWithAnalyticsWorkload() throws Exception {
+        runner = new AnalyticsTaskRunner(new SimpleMeterRegistry(), 2, 5, 1000);
+
+        WebAsyncTask<String> task = runner.submit(() -> Thread.currentThread().getName() + "|" + WorkloadContext.current());
+
+        assertEquals(1000L, task.getTimeout());
+        String result = execute(task).get(5, TimeUnit.SECONDS);
+        assertTrue(result.startsWith("analytics-"));
+        assertTrue(result.endsWith("|" + Workload.ANALYTICS));
+        assertEquals(Workload.TRANSACTIONAL, WorkloadContext.current());
+    }
+
+    @Test
+    void submit_WithPoolAndQueueFull_ShouldRejectTask() throws Exception {
+        runner = new AnalyticsTaskRunner(new SimpleMeterRegistry(), 1, 0, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> running = execute(runner.submit(() -> release.await(5, TimeUnit.SECONDS)));
+
+        try {
+            assertThrows(TaskRejectedException.class, () -> execute(runner.submit(() -> "recusada")));
+        } finally {
+            release.countDown();
+        }
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Future<T> execute(WebAsyncTask<T> task) {
+        AsyncTaskExecutor executor = task.getExecutor();
+        return executor.submit((Callable<T>) task.getCallable());
+    }
+}
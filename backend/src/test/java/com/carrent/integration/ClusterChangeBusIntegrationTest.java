@@ -0,0 +1,108 @@
+package com.carrent.integration;
+
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.cluster.ChangeLogPoller;
+import com.carrent.infrastructure.cluster.ClusterChangeListener;
+import com.carrent.infrastructure.cluster.ClusterProperties;
+import com.carrent.infrastructure.cluster.EntityChange;
+import com.carrent.mocks.RentalFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Barramento de alterações ligado sobre o schema de teste: as alterações
+ * desta instância vão para o cluster_change_log no commit, e as de outra
+ * instância chegam aos listeners pelo poller
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cluster;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "application.cluster.enabled=true",
+        "application.cluster.node-id=node-a"
+})
+class ClusterChangeBusIntegrationTest {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ChangeLogPoller changeLogPoller;
+
+    @Autowired
+    private ClusterProperties clusterProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @AfterEach
+    void tearDown() {
+        vehicleRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM cluster_change_log");
+        listener.changes.clear();
+    }
+
+    @Test
+    void save_ShouldRecordChangeUnderThisNode() {
+        Vehicle vehicle = vehicleRepository.save(RentalFixtures.vehicle());
+
+        List<String> nodes = jdbcTemplate.queryForList(
+                "SELECT node_id FROM cluster_change_log WHERE entity_type = ? AND entity_id = ?", String.class,
+                Vehicle.class.getName(), vehicle.getId());
+        assertEquals(List.of(clusterProperties.getNodeId()), nodes);
+    }
+
+    @Test
+    void poll_ShouldDeliverOnlyChangesFromOtherNodes() {
+        changeLogPoller.poll();
+        jdbcTemplate.update("INSERT INTO cluster_change_log (node_id, entity_type, entity_id) VALUES (?, ?, ?)",
+                "node-b", Vehicle.class.getName(), 42L);
+        vehicleRepository.save(RentalFixtures.vehicle());
+
+        changeLogPoller.poll();
+
+        assertEquals(1, listener.changes.size());
+        EntityChange change = listener.changes.get(0);
+        assertTrue(change.isOf(Vehicle.class));
+        assertEquals(42L, change.entityId());
+    }
+
+    @TestConfiguration
+    static class ListenerConfig {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements ClusterChangeListener {
+
+        private final List<EntityChange> changes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onChanges(List<EntityChange> batch) {
+            changes.addAll(batch);
+        }
+
+        @Override
+        public void onReset() {
+        }
+    }
+}
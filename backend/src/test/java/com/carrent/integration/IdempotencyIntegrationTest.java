@@ -0,0 +1,106 @@
+package com.carrent.integration;
+
+import com.carrent.application.dto.CustomerDTO;
+import com.carrent.infrastructure.idempotency.IdempotencyFilter;
+import com.carrent.mocks.RentalFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Idempotency-Key ligado sobre o schema de teste: a repetição da requisição
+ * recebe a resposta gravada em idempotency_keys sem criar outro cliente
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "application.idempotency.enabled=true"
+})
+@WithMockUser(username = "admin@carrent.com", roles = "ADMIN")
+class IdempotencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+        RentalFixtures.deleteAll(jdbcTemplate);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedRequest_ShouldReplayStoredResponseWithoutCreatingAgain() throws Exception {
+        String first = createCustomer("replay-7f1c2d9e", customer("Maria Souza"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String second = createCustomer("replay-7f1c2d9e", customer("Maria Souza"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, second);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+        assertEquals(201, jdbcTemplate.queryForObject("SELECT status_code FROM idempotency_keys", Integer.class));
+    }
+
+    @Test
+    void sameKeyWithOtherBody_ShouldBeRejected() throws Exception {
+        createCustomer("mismatch-3b8a41c0", customer("Maria Souza")).andExpect(status().isCreated());
+
+        createCustomer("mismatch-3b8a41c0", customer("Maria Souza Lima")).andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+    }
+
+    /**
+     * A memória do IdempotencyStore sobrevive entre os testes, por isso cada
+     * teste usa a sua chave
+     */
+    private ResultActions createCustomer(String key, CustomerDTO customer) throws Exception {
+        return mockMvc.perform(post("/api/customers")
+                .contextPath("/api")
+                .servletPath("/customers")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customer)));
+    }
+
+    private static CustomerDTO customer(String name) {
+        return CustomerDTO.builder()
+                .name(name)
+                .email("maria@carrent.com")
+                .phone("(11) 99999-0000")
+                .document("123.456.789-09")
+                .address("Rua das Flores, 10")
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.carrent.integration;
+
+import com.carrent.domain.entity.Role;
+import com.carrent.domain.entity.User;
+import com.carrent.domain.repository.UserRepository;
+import com.carrent.infrastructure.notification.NotificationCoalescer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Agrupamento ligado sobre o schema de teste: as notificações de um tipo com
+ * regra ficam em notification_digest_entries até a passada do agendador, que
+ * grava um único resumo. A janela do tipo é zero e o agendamento é adiado,
+ * para que só a chamada do teste grave o resumo
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "application.notifications.coalescing.enabled=true",
+        "application.notifications.coalescing.flush-interval-ms=3600000",
+        "application.notifications.coalescing.rules.test-alert.window-ms=0",
+        "application.notifications.coalescing.rules.test-alert.digest-title=%d alertas"
+})
+class NotificationCoalescingIntegrationTest {
+
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM notification_digest_entries");
+        jdbcTemplate.update("DELETE FROM notifications");
+        jdbcTemplate.update("DELETE FROM notification_counters");
+        jdbcTemplate.update("DELETE FROM users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void flushDue_ShouldWriteOneDigestForNotificationsOfSameKind() {
+        User user = userRepository.save(User.builder().name("Maria").email("maria@carrent.com").password("x")
+                .role(Role.USER).build());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationCoalescer.submit(user, "test-alert", "Alerta", "Primeiro");
+            notificationCoalescer.submit(user, "test-alert", "Alerta", "Segundo");
+        });
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_digest_entries",
+                Integer.class));
+
+        notificationCoalescer.flushDue();
+
+        Map<String, Object> digest = jdbcTemplate.queryForMap(
+                "SELECT title, content FROM notifications WHERE user_id = ?", user.getId());
+        assertEquals("2 alertas", digest.get("TITLE"));
+        assertEquals("Primeiro\nSegundo", digest.get("CONTENT"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_digest_entries",
+                Integer.class));
+    }
+
+    @Test
+    void submit_WithKindWithoutRule_ShouldWriteNotificationImmediately() {
+        User user = userRepository.save(User.builder().name("Maria").email("maria@carrent.com").password("x")
+                .role(Role.USER).build());
+
+        notificationCoalescer.submit(user, "other", "Aviso", "Conteúdo");
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications WHERE user_id = ?",
+                Integer.class, user.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_digest_entries",
+                Integer.class));
+    }
+}
@@ -0,0 +1,153 @@
+package com.carrent.integration;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.event.DomainEvent;
+import com.carrent.domain.event.RentalCreated;
+import com.carrent.domain.repository.CustomerRepository;
+import com.carrent.domain.repository.RentalRepository;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.infrastructure.outbox.OutboxHandler;
+import com.carrent.infrastructure.outbox.OutboxMessage;
+import com.carrent.infrastructure.outbox.OutboxRelay;
+import com.carrent.mocks.RentalFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox ligado sobre o schema de teste: a locação gravada deixa o evento na
+ * tabela outbox na mesma transação, e o relay o entrega aos handlers. O
+ * agendamento do relay é adiado para que só as chamadas do teste o acionem
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "application.outbox.enabled=true",
+        "application.outbox.poll-interval-ms=3600000",
+        "application.outbox.max-attempts=1"
+})
+class OutboxIntegrationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 10, 0);
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingHandler handler;
+
+    @AfterEach
+    void tearDown() {
+        RentalFixtures.deleteAll(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM outbox");
+        jdbcTemplate.update("DELETE FROM outbox_dead_letters");
+        entityManagerFactory.getCache().evictAll();
+        handler.received.clear();
+        handler.failing = false;
+    }
+
+    @Test
+    void relay_ShouldDeliverCommittedRentalEventAndRemoveIt() {
+        Rental rental = createRental();
+        assertEquals(1, pending(rental));
+
+        outboxRelay.relay();
+
+        assertEquals(List.of(rental.getId()),
+                handler.received.stream().map(RentalCreated::rentalId).toList());
+        assertEquals(0, pending(rental));
+    }
+
+    @Test
+    void relay_WhenHandlerFailsLastAttempt_ShouldMoveMessageToDeadLetters() {
+        handler.failing = true;
+        Rental rental = createRental();
+
+        outboxRelay.relay();
+
+        assertEquals(0, pending(rental));
+        assertEquals("falha simulada", jdbcTemplate.queryForObject(
+                "SELECT last_error FROM outbox_dead_letters WHERE aggregate_type = 'Rental' AND aggregate_id = ?",
+                String.class, rental.getId()));
+    }
+
+    private Rental createRental() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Customer customer = customerRepository.save(RentalFixtures.customer());
+            Vehicle vehicle = vehicleRepository.save(RentalFixtures.vehicle());
+            return rentalRepository.save(RentalFixtures.rental(customer, vehicle, RentalStatus.PENDING, START,
+                    START.plusDays(3)));
+        });
+    }
+
+    private int pending(Rental rental) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox WHERE aggregate_type = 'Rental' AND aggregate_id = ?", Integer.class,
+                rental.getId());
+    }
+
+    @TestConfiguration
+    static class HandlerConfig {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    static class RecordingHandler implements OutboxHandler {
+
+        private final List<RentalCreated> received = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+
+        @Override
+        public boolean supports(DomainEvent event) {
+            return event instanceof RentalCreated;
+        }
+
+        @Override
+        public void handle(OutboxMessage message) {
+            if (failing) {
+                throw new IllegalStateException("falha simulada");
+            }
+            received.add((RentalCreated) message.event());
+        }
+    }
+}
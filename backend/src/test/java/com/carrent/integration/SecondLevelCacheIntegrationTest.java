@@ -0,0 +1,109 @@
+package com.carrent.integration;
+
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.repository.VehicleRepository;
+import com.carrent.mocks.RentalFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.Cache;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de segundo nível com a configuração de produção: as regiões vêm do
+ * ehcache.xml e as estatísticas do Hibernate mostram que a segunda leitura
+ * de uma entidade não vai ao banco
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:secondlevelcache;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class SecondLevelCacheIntegrationTest {
+
+    private static final String VEHICLE_REGION = Vehicle.class.getName();
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SessionFactoryImplementor sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RentalFixtures.deleteAll(jdbcTemplate);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void vehicleRegion_ShouldUseEhcacheConfiguration() {
+        JCacheRegionFactory regionFactory = (JCacheRegionFactory) sessionFactory.getServiceRegistry()
+                .getService(RegionFactory.class);
+        Cache<Object, Object> cache = regionFactory.getCacheManager().getCache(VEHICLE_REGION);
+        assertNotNull(cache);
+
+        @SuppressWarnings("unchecked")
+        Eh107Configuration<Object, Object> ehcache = cache.getConfiguration(Eh107Configuration.class);
+        @SuppressWarnings("unchecked")
+        CacheRuntimeConfiguration<Object, Object> configuration = ehcache.unwrap(CacheRuntimeConfiguration.class);
+        SizedResourcePool heap = configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP);
+        assertEquals(EntryUnit.ENTRIES, heap.getUnit());
+        assertEquals(5000, heap.getSize());
+        assertEquals(Duration.ofMinutes(10), configuration.getExpiryPolicy().getExpiryForCreation(1L, new Object()));
+    }
+
+    @Test
+    void findById_SecondLookup_ShouldBeServedFromCache() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long id = transaction.execute(status -> vehicleRepository.save(RentalFixtures.vehicle()).getId());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        transaction.executeWithoutResult(status -> assertTrue(vehicleRepository.findById(id).isPresent()));
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(VEHICLE_REGION);
+        assertEquals(0, region.getHitCount());
+        assertEquals(1, region.getMissCount());
+        assertEquals(1, region.getPutCount());
+        long statements = statistics.getPrepareStatementCount();
+
+        transaction.executeWithoutResult(status -> assertTrue(vehicleRepository.findById(id).isPresent()));
+        region = statistics.getDomainDataRegionStatistics(VEHICLE_REGION);
+        assertEquals(1, region.getHitCount());
+        assertEquals(1, region.getMissCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+}
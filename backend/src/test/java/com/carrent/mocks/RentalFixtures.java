@@ -0,0 +1,73 @@
+package com.carrent.mocks;
+
+import com.carrent.domain.entity.Customer;
+import com.carrent.domain.entity.Rental;
+import com.carrent.domain.entity.RentalStatus;
+import com.carrent.domain.entity.Vehicle;
+import com.carrent.domain.entity.VehicleCategory;
+import com.carrent.domain.entity.VehicleStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cliente, veículo e locação usados pelos testes que gravam no banco, e a
+ * limpeza das tabelas depois de testes com commit real
+ */
+public final class RentalFixtures {
+
+    public static final String PLATE = "ABC1D23";
+
+    private RentalFixtures() {
+    }
+
+    public static Customer customer() {
+        Customer customer = new Customer();
+        customer.setName("Maria Souza");
+        customer.setEmail("maria@carrent.com");
+        customer.setPhone("(11) 99999-0000");
+        customer.setDocument("123.456.789-09");
+        customer.setAddress("Rua das Flores, 10");
+        return customer;
+    }
+
+    public static Vehicle vehicle() {
+        return vehicle(PLATE);
+    }
+
+    public static Vehicle vehicle(String plate) {
+        return Vehicle.builder()
+                .brand("Jeep")
+                .model("Compass")
+                .year(2024)
+                .plate(plate)
+                .dailyRate(new BigDecimal("300.00"))
+                .available(true)
+                .status(VehicleStatus.AVAILABLE)
+                .category(VehicleCategory.SUV)
+                .build();
+    }
+
+    public static Rental rental(Customer customer, Vehicle vehicle, RentalStatus status, LocalDateTime start,
+            LocalDateTime end) {
+        Rental rental = new Rental();
+        rental.setCustomer(customer);
+        rental.setVehicle(vehicle);
+        rental.setStartDate(start);
+        rental.setEndDate(end);
+        rental.setStatus(status);
+        rental.setTotalAmount(new BigDecimal("900.00"));
+        return rental;
+    }
+
+    /**
+     * Apaga locações, veículos e clientes gravados fora da transação do teste
+     */
+    public static void deleteAll(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM rental_view");
+        jdbcTemplate.update("DELETE FROM rentals");
+        jdbcTemplate.update("DELETE FROM vehicles");
+        jdbcTemplate.update("DELETE FROM customers");
+    }
+}
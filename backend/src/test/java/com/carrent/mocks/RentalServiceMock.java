@@ -14,7 +14,7 @@ import java.util.List;
 public class RentalServiceMock extends RentalService {
 
     public RentalServiceMock() {
-        super(null, null, null, null, null);
+        super(null, null, null, null, null, null, null);
     }
 
     @Override
@@ -23,7 +23,7 @@ public class RentalServiceMock extends RentalService {
     }
 
     @Override
-    public List<RentalDTO> findAll() {
+    public List<RentalDTO> findAll(LocalDateTime start, LocalDateTime end) {
         return List.of();
     }
 
@@ -1,6 +1,7 @@
 package com.carrent.web.controller;
 
 import com.carrent.application.dto.RentalDTO;
+import com.carrent.application.service.GroupBookingService;
 import com.carrent.application.service.RentalService;
 import com.carrent.domain.entity.RentalStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,6 +35,9 @@ class RentalControllerTest {
     @MockBean
     private RentalService rentalService;
 
+    @MockBean
+    private GroupBookingService groupBookingService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -56,7 +60,7 @@ class RentalControllerTest {
     @Test
     void findAll_ShouldReturnAllRentals() throws Exception {
         List<RentalDTO> rentals = Arrays.asList(rentalDTO);
-        when(rentalService.findAll()).thenReturn(rentals);
+        when(rentalService.findAll(null, null)).thenReturn(rentals);
 
         mockMvc.perform(get("/api/rentals"))
                 .andExpect(status().isOk())
@@ -66,7 +70,7 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$[0].status").value("PENDING"))
                 .andExpect(jsonPath("$[0].totalAmount").value("700.00"));
 
-        verify(rentalService).findAll();
+        verify(rentalService).findAll(null, null);
     }
 
     @Test
@@ -87,7 +91,7 @@ class RentalControllerTest {
     @Test
     void findByCustomerId_ShouldReturnCustomerRentals() throws Exception {
         List<RentalDTO> rentals = Arrays.asList(rentalDTO);
-        when(rentalService.findByCustomerId(1L)).thenReturn(rentals);
+        when(rentalService.findByCustomerId(1L, null, null)).thenReturn(rentals);
 
         mockMvc.perform(get("/api/rentals/customer/1"))
                 .andExpect(status().isOk())
@@ -97,13 +101,13 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$[0].status").value("PENDING"))
                 .andExpect(jsonPath("$[0].totalAmount").value("700.00"));
 
-        verify(rentalService).findByCustomerId(1L);
+        verify(rentalService).findByCustomerId(1L, null, null);
     }
 
     @Test
     void findByVehicleId_ShouldReturnVehicleRentals() throws Exception {
         List<RentalDTO> rentals = Arrays.asList(rentalDTO);
-        when(rentalService.findByVehicleId(1L)).thenReturn(rentals);
+        when(rentalService.findByVehicleId(1L, null, null)).thenReturn(rentals);
 
         mockMvc.perform(get("/api/rentals/vehicle/1"))
                 .andExpect(status().isOk())
@@ -113,13 +117,13 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$[0].status").value("PENDING"))
                 .andExpect(jsonPath("$[0].totalAmount").value("700.00"));
 
-        verify(rentalService).findByVehicleId(1L);
+        verify(rentalService).findByVehicleId(1L, null, null);
     }
 
     @Test
     void findByStatus_ShouldReturnRentalsByStatus() throws Exception {
         List<RentalDTO> rentals = Arrays.asList(rentalDTO);
-        when(rentalService.findByStatus(RentalStatus.PENDING)).thenReturn(rentals);
+        when(rentalService.findByStatus(RentalStatus.PENDING, null, null)).thenReturn(rentals);
 
         mockMvc.perform(get("/api/rentals/status/PENDING"))
                 .andExpect(status().isOk())
@@ -129,7 +133,7 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$[0].status").value("PENDING"))
                 .andExpect(jsonPath("$[0].totalAmount").value("700.00"));
 
-        verify(rentalService).findByStatus(RentalStatus.PENDING);
+        verify(rentalService).findByStatus(RentalStatus.PENDING, null, null);
     }
 
     @Test
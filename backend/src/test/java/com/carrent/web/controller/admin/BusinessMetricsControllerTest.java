@@ -0,0 +1,132 @@
+package com.carrent.web.controller.admin;
+
+import com.carrent.application.dto.metrics.BusinessMetricsDTO;
+import com.carrent.application.service.admin.BusinessMetricsService;
+import com.carrent.infrastructure.workload.AnalyticsTaskRunner;
+import com.carrent.web.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * O MockMvc não dispara o tempo limite das requisições assíncronas: o teste
+ * de timeout avisa os listeners do MockAsyncContext, como faria o Tomcat.
+ * Timeout e recusa terminam com uma exceção, que o MockMvc não guarda no
+ * MvcResult; esses testes despacham a requisição de novo pelo WebAsyncManager.
+ */
+@ExtendWith(MockitoExtension.class)
+class BusinessMetricsControllerTest {
+
+    @Mock
+    private BusinessMetricsService businessMetricsService;
+
+    private AnalyticsTaskRunner analyticsTaskRunner;
+    private MockMvc mockMvc;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        analyticsTaskRunner.destroy();
+    }
+
+    @Test
+    void getRentalMetrics_ShouldStartAsyncAndDispatchResult() throws Exception {
+        setUp(2, 5);
+        when(businessMetricsService.getBusinessMetrics(any(), any(), any(), any(), any())).thenReturn(
+                BusinessMetricsDTO.builder()
+                        .rentalMetrics(BusinessMetricsDTO.RentalMetrics.builder().totalRentals(42).build())
+                        .build());
+
+        MvcResult started = mockMvc.perform(get("/admin/metrics/rentals").param("days", "30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult(5000);
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRentals").value(42));
+    }
+
+    @Test
+    void getBusinessMetrics_WhenTaskTimesOut_ShouldReturnServiceUnavailable() throws Exception {
+        setUp(2, 5);
+        blockService();
+
+        MvcResult started = mockMvc.perform(get("/admin/metrics/business"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockAsyncContext asyncContext = (MockAsyncContext) started.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(dispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    void getBusinessMetrics_WithPoolAndQueueFull_ShouldReturnServiceUnavailable() throws Exception {
+        setUp(1, 0);
+        blockService();
+        mockMvc.perform(get("/admin/metrics/business")).andExpect(request().asyncStarted());
+
+        MvcResult rejected = mockMvc.perform(get("/admin/metrics/vehicles"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(dispatch(rejected))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    private void setUp(int threads, int queueCapacity) {
+        analyticsTaskRunner = new AnalyticsTaskRunner(new SimpleMeterRegistry(), threads, queueCapacity, 30000);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new BusinessMetricsController(businessMetricsService, analyticsTaskRunner))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private static RequestBuilder dispatch(MvcResult started) {
+        assertTrue(WebAsyncUtils.getAsyncManager(started.getRequest()).hasConcurrentResult());
+        return servletContext -> {
+            MockHttpServletRequest request = started.getRequest();
+            request.setDispatcherType(DispatcherType.ASYNC);
+            request.setAsyncStarted(false);
+            return request;
+        };
+    }
+
+    // A tarefa pode ser cancelada pelo timeout antes de chegar ao serviço
+    private void blockService() {
+        lenient().when(businessMetricsService.getBusinessMetrics(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new BusinessMetricsDTO();
+        });
+    }
+}
@@ -41,9 +41,15 @@ const NotificationsMenu: React.FC = () => {
   useEffect(() => {
     fetchUnreadCount();
     
-    // Atualiza a contagem a cada 60 segundos
-    const interval = setInterval(fetchUnreadCount, 60000);
-    return () => clearInterval(interval);
+    // Novas notificações chegam pelo stream; um resync recarrega a contagem
+    const closeStream = notificationService.openStream({
+      onNotification: (notification) => {
+        setUnreadCount(prev => prev + 1);
+        setNotifications(prev => [notification, ...prev.filter(n => n.id !== notification.id)].slice(0, 5));
+      },
+      onResync: fetchUnreadCount
+    });
+    return closeStream;
   }, []);
   
   const handleClick = async (event: React.MouseEvent<HTMLElement>) => {
@@ -21,6 +21,88 @@ export interface PageResponse<T> {
   last: boolean;
 }
 
+export interface StreamToken {
+  token: string;
+  expiresIn: number;
+}
+
+export interface NotificationStreamHandlers {
+  // Notificação direta ou broadcast recebida pelo stream
+  onNotification: (notification: Notification) => void;
+  // O servidor não conseguiu reenviar o que foi perdido: recarregar do zero
+  onResync: () => void;
+}
+
+const STREAM_RETRY_INITIAL_MS = 1000;
+const STREAM_RETRY_MAX_MS = 30000;
+
+// O EventSource não envia o cabeçalho Authorization: cada conexão usa um token
+// curto emitido por POST /stream-token e passado na URL. Depois que a conexão
+// é aberta o token não é mais conferido; quando ela cai e o navegador não
+// consegue reconectar com a mesma URL (token vencido), abrimos outra com um
+// token novo e o id do último evento recebido
+const openNotificationStream = (handlers: NotificationStreamHandlers): (() => void) => {
+  let source: EventSource | null = null;
+  let lastEventId: string | null = null;
+  let retryTimer: ReturnType<typeof setTimeout> | null = null;
+  let retryDelay = STREAM_RETRY_INITIAL_MS;
+  let closed = false;
+
+  const scheduleRetry = () => {
+    if (closed) return;
+    retryTimer = setTimeout(connect, retryDelay);
+    retryDelay = Math.min(retryDelay * 2, STREAM_RETRY_MAX_MS);
+  };
+
+  const onMessage = (event: MessageEvent) => {
+    if (event.lastEventId) {
+      lastEventId = event.lastEventId;
+    }
+    handlers.onNotification(JSON.parse(event.data));
+  };
+
+  async function connect() {
+    try {
+      const { data } = await api.post<StreamToken>(`/api/notifications/stream-token`);
+      if (closed) return;
+
+      const url = new URL(`${api.defaults.baseURL}/api/notifications/stream`, window.location.origin);
+      url.searchParams.set('streamToken', data.token);
+      if (lastEventId) {
+        url.searchParams.set('lastEventId', lastEventId);
+      }
+
+      source = new EventSource(url.toString());
+      source.onopen = () => {
+        retryDelay = STREAM_RETRY_INITIAL_MS;
+      };
+      source.addEventListener('notification', onMessage as EventListener);
+      source.addEventListener('broadcast', onMessage as EventListener);
+      source.addEventListener('resync', () => handlers.onResync());
+      source.onerror = () => {
+        // CONNECTING: o próprio navegador tenta de novo; CLOSED: ele desistiu (ex.: 401)
+        if (source?.readyState === EventSource.CLOSED) {
+          source = null;
+          scheduleRetry();
+        }
+      };
+    } catch (error) {
+      console.error('Erro ao abrir o stream de notificações:', error);
+      scheduleRetry();
+    }
+  }
+
+  connect();
+
+  return () => {
+    closed = true;
+    if (retryTimer) {
+      clearTimeout(retryTimer);
+    }
+    source?.close();
+  };
+};
+
 const notificationService = {
   // Obter todas as notificações do usuário com paginação
   getUserNotifications: async (page = 0, size = 10): Promise<PageResponse<Notification>> => {
@@ -54,6 +136,9 @@ const notificationService = {
     await api.patch(`/api/notifications/read-all`);
   },
 
+  // Receber notificações em tempo real; devolve a função que encerra o stream
+  openStream: openNotificationStream,
+
   // Excluir uma notificação
   deleteNotification: async (notificationId: number): Promise<void> => {
     await api.delete(`/api/notifications/${notificationId}`);